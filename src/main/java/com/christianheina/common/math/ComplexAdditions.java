@@ -16,13 +16,23 @@
 
 package com.christianheina.common.math;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.apache.commons.math3.complex.Complex;
 import org.jtransforms.fft.DoubleFFT_1D;
 
+import com.christianheina.common.math.fft.FftPlanCache;
+import com.christianheina.common.math.fft.JTransformsThreads;
+import com.christianheina.common.math.fft.MultidimensionalFft;
+import com.christianheina.common.math.statistics.ComplexCorrelationMatrix;
+import com.christianheina.common.math.statistics.ComplexPairStatistics;
+import com.christianheina.common.math.statistics.ComplexPairStatisticsAccumulator;
+import com.christianheina.common.math.statistics.ComplexStatisticsAccumulator;
+import com.christianheina.common.math.window.Window;
+
 /**
  * Utility class providing math functionality for complex numbers.
  * 
@@ -47,12 +57,88 @@ public class ComplexAdditions {
      *                if complexList1 and complexList2 is not the same size
      */
     public static Complex pearsonCorrelation(List<Complex> complexList1, List<Complex> complexList2) {
-        Complex coveriance = covariance(complexList1, complexList2);
+        return pairStatistics(complexList1, complexList2).getCorrelation();
+    }
+
+    /**
+     * Calculate pearson correlation between two complex arrays.
+     * 
+     * @param complexArray1
+     *            first array to calculate correlation
+     * @param complexArray2
+     *            second array to calculate correlation
+     * 
+     * @return {@code Complex} correlation value
+     * 
+     * @exception IllegalArgumentException
+     *                if complexArray1 and complexArray2 is not the same size
+     */
+    public static Complex pearsonCorrelation(ComplexArray complexArray1, ComplexArray complexArray2) {
+        return pairStatistics(complexArray1, complexArray2).getCorrelation();
+    }
+
+    /**
+     * Calculate pearson correlation between every pair of complex series. Each series is normalized once and the
+     * correlations are computed in parallel using the common {@code ForkJoinPool}.
+     * 
+     * @param series
+     *            series to correlate, all of equal length
+     * 
+     * @return Hermitian correlation matrix, element (i, j) is the correlation of series i and j
+     * 
+     * @exception IllegalArgumentException
+     *                if series are not of equal length
+     */
+    public static ComplexCorrelationMatrix correlationMatrix(ComplexArray[] series) {
+        return ComplexCorrelationMatrix.of(series);
+    }
 
-        double stdVector1 = standardDeviation(complexList1);
-        double stdVector2 = standardDeviation(complexList2);
+    /**
+     * Calculate means, variances, covariance and pearson correlation of two complex lists in a single pass.
+     * 
+     * @param complexList1
+     *            first list
+     * @param complexList2
+     *            second list
+     * 
+     * @return statistics of both lists
+     * 
+     * @exception IllegalArgumentException
+     *                if complexList1 and complexList2 is not the same size
+     */
+    public static ComplexPairStatistics pairStatistics(List<Complex> complexList1, List<Complex> complexList2) {
+        // Check vectors are same size
+        if (complexList1.size() != complexList2.size()) {
+            throw new IllegalArgumentException("complexList1 and complexList2 needs to be of equal size");
+        }
+        ComplexPairStatisticsAccumulator accumulator = new ComplexPairStatisticsAccumulator();
+        for (int i = 0; i < complexList1.size(); i++) {
+            accumulator.accept(complexList1.get(i), complexList2.get(i));
+        }
+        return accumulator.toStatistics();
+    }
 
-        return coveriance.divide(stdVector1 * stdVector2);
+    /**
+     * Calculate means, variances, covariance and pearson correlation of two complex arrays in a single pass.
+     * 
+     * @param complexArray1
+     *            first array
+     * @param complexArray2
+     *            second array
+     * 
+     * @return statistics of both arrays
+     * 
+     * @exception IllegalArgumentException
+     *                if complexArray1 and complexArray2 is not the same size
+     */
+    public static ComplexPairStatistics pairStatistics(ComplexArray complexArray1, ComplexArray complexArray2) {
+        // Check vectors are same size
+        if (complexArray1.length() != complexArray2.length()) {
+            throw new IllegalArgumentException("complexArray1 and complexArray2 needs to be of equal size");
+        }
+        ComplexPairStatisticsAccumulator accumulator = new ComplexPairStatisticsAccumulator();
+        accumulator.accept(complexArray1, complexArray2);
+        return accumulator.toStatistics();
     }
 
     /**
@@ -74,12 +160,57 @@ public class ComplexAdditions {
             throw new IllegalArgumentException("complexList1 and complexList2 needs to be of equal size");
         }
 
-        Complex sum = Complex.ZERO;
+        double sumReal = 0;
+        double sumImaginary = 0;
         for (int i = 0; i < complexList1.size(); i++) {
-            sum = sum.add(complexList1.get(i).multiply(complexList2.get(i)));
+            Complex sample1 = complexList1.get(i);
+            Complex sample2 = complexList2.get(i);
+            double real1 = sample1.getReal();
+            double imaginary1 = sample1.getImaginary();
+            double real2 = sample2.getReal();
+            double imaginary2 = sample2.getImaginary();
+            sumReal += real1 * real2 - imaginary1 * imaginary2;
+            sumImaginary += real1 * imaginary2 + imaginary1 * real2;
+        }
+
+        return new Complex(sumReal, sumImaginary);
+    }
+
+    /**
+     * Calculate dot product (sum of elementwise product) of two complex arrays.
+     * 
+     * @param complexArray1
+     *            first array to perform dot product
+     * @param complexArray2
+     *            second array to perform dot product
+     * 
+     * @return dot product
+     * 
+     * @exception IllegalArgumentException
+     *                if complexArray1 and complexArray2 is not the same size
+     */
+    public static Complex dotProduct(ComplexArray complexArray1, ComplexArray complexArray2) {
+        // Check vectors are same size
+        if (complexArray1.length() != complexArray2.length()) {
+            throw new IllegalArgumentException("complexArray1 and complexArray2 needs to be of equal size");
+        }
+
+        double[] data1 = complexArray1.getData();
+        double[] data2 = complexArray2.getData();
+        int offset1 = complexArray1.getOffset();
+        int offset2 = complexArray2.getOffset();
+        double sumReal = 0;
+        double sumImaginary = 0;
+        for (int i = 0; i < 2 * complexArray1.length(); i += 2) {
+            double real1 = data1[offset1 + i];
+            double imaginary1 = data1[offset1 + i + 1];
+            double real2 = data2[offset2 + i];
+            double imaginary2 = data2[offset2 + i + 1];
+            sumReal += real1 * real2 - imaginary1 * imaginary2;
+            sumImaginary += real1 * imaginary2 + imaginary1 * real2;
         }
 
-        return sum;
+        return new Complex(sumReal, sumImaginary);
     }
 
     /**
@@ -100,13 +231,28 @@ public class ComplexAdditions {
         if (complexList1.size() != complexList2.size()) {
             throw new IllegalArgumentException("complexList1 and complexList2 needs to be of equal size");
         }
-        Complex u1 = mean(complexList1);
-        Complex u2 = mean(complexList2);
-        Complex sum = Complex.ZERO;
-        for (int i = 0; i < complexList1.size(); i++) {
-            sum = sum.add(complexList1.get(i).subtract(u1).multiply(complexList2.get(i).subtract(u2).conjugate()));
+        return pairStatistics(complexList1, complexList2).getCovariance();
+    }
+
+    /**
+     * Calculate covariance [cov(A,B)] of two complex arrays
+     * 
+     * @param complexArray1
+     *            first complex array in covariance calculation
+     * @param complexArray2
+     *            second complex array in covariance calculation
+     * 
+     * @return covariance [cov(complexArray1, complexArray2)]
+     * 
+     * @exception IllegalArgumentException
+     *                if complexArray1 and complexArray2 is not the same size
+     */
+    public static Complex covariance(ComplexArray complexArray1, ComplexArray complexArray2) {
+        // Check vectors are same size
+        if (complexArray1.length() != complexArray2.length()) {
+            throw new IllegalArgumentException("complexArray1 and complexArray2 needs to be of equal size");
         }
-        return sum.divide(complexList1.size() - 1);
+        return pairStatistics(complexArray1, complexArray2).getCovariance();
     }
 
     /**
@@ -118,15 +264,27 @@ public class ComplexAdditions {
      * @return variance [var(complexList)]
      */
     public static double variance(List<Complex> complexList) {
-        Complex u = mean(complexList); // Calculate mean (u)
-        double sum = 0;
-
+        // Single pass update of mean and sum of |sample - mean|^2
+        ComplexStatisticsAccumulator accumulator = new ComplexStatisticsAccumulator();
         for (Complex sample : complexList) {
-            // Add |sample - mean|^2
-
-            sum += Math.pow(sample.subtract(u).abs(), 2);
+            accumulator.accept(sample);
         }
-        return sum / (complexList.size() - 1);
+        return accumulator.getVariance();
+    }
+
+    /**
+     * Calculate variance [var(A)] of complex array
+     * 
+     * @param complexArray
+     *            complex array to calculate variance
+     * 
+     * @return variance [var(complexArray)]
+     */
+    public static double variance(ComplexArray complexArray) {
+        // Single pass update of mean and sum of |sample - mean|^2
+        ComplexStatisticsAccumulator accumulator = new ComplexStatisticsAccumulator();
+        accumulator.accept(complexArray);
+        return accumulator.getVariance();
     }
 
     /**
@@ -142,6 +300,19 @@ public class ComplexAdditions {
         return Math.sqrt(variance(complexList));
     }
 
+    /**
+     * Calculate standard deviation of complex array
+     * 
+     * @param complexArray
+     *            complex array to calculate standard deviation
+     * 
+     * @return standard deviation
+     */
+    public static double standardDeviation(ComplexArray complexArray) {
+        // square root of variance
+        return Math.sqrt(variance(complexArray));
+    }
+
     /**
      * Calculate sum each element in complex list
      * 
@@ -151,14 +322,35 @@ public class ComplexAdditions {
      * @return sum value
      */
     public static Complex sum(List<Complex> listToSum) {
-        Complex sum = Complex.ZERO;
-
-        // Loop and add each value
+        // Loop and add each value, accumulating parts in primitives to not create a Complex per element
+        double sumReal = 0;
+        double sumImaginary = 0;
         for (Complex sample : listToSum) {
-            sum = sum.add(sample);
+            sumReal += sample.getReal();
+            sumImaginary += sample.getImaginary();
         }
 
-        return sum;
+        return new Complex(sumReal, sumImaginary);
+    }
+
+    /**
+     * Calculate sum each element in complex array
+     * 
+     * @param arrayToSum
+     *            complex array to sum
+     * 
+     * @return sum value
+     */
+    public static Complex sum(ComplexArray arrayToSum) {
+        double[] data = arrayToSum.getData();
+        int offset = arrayToSum.getOffset();
+        double sumReal = 0;
+        double sumImaginary = 0;
+        for (int i = 0; i < 2 * arrayToSum.length(); i += 2) {
+            sumReal += data[offset + i];
+            sumImaginary += data[offset + i + 1];
+        }
+        return new Complex(sumReal, sumImaginary);
     }
 
     /**
@@ -174,6 +366,19 @@ public class ComplexAdditions {
         return sum(listToMean).divide(listToMean.size());
     }
 
+    /**
+     * Calculate mean of complex array
+     * 
+     * @param arrayToMean
+     *            complex array to mean
+     * 
+     * @return mean value
+     */
+    public static Complex mean(ComplexArray arrayToMean) {
+        // Divide sum of all entries by the number of entries
+        return sum(arrayToMean).divide(arrayToMean.length());
+    }
+
     /**
      * Perform fast fourier transformation (FFT) on complex list
      * 
@@ -183,9 +388,14 @@ public class ComplexAdditions {
      * @return result of FFT. Size of resulting FFT list is same as complexList argument
      */
     public static List<Complex> fft(Complex[] complexList) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(complexList.length);
+        DoubleFFT_1D fft = FftPlanCache.doubleFft1d(complexList.length);
         double[] complexPairs = createComplexPairs(complexList);
-        fft.complexForward(complexPairs);
+        long state = JTransformsThreads.beginTransform(complexList.length);
+        try {
+            fft.complexForward(complexPairs);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
         List<Complex> fftList = new ArrayList<>(complexList.length);
         for (int i = 0; i < complexList.length; i++) {
             fftList.add(new Complex(complexPairs[2 * i], complexPairs[2 * i + 1]));
@@ -202,9 +412,14 @@ public class ComplexAdditions {
      * @return result of FFT. Size of resulting FFT list is same as complexList argument
      */
     public static List<Complex> fft(List<Complex> complexList) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(complexList.size());
+        DoubleFFT_1D fft = FftPlanCache.doubleFft1d(complexList.size());
         double[] complexPairs = createComplexPairs(complexList);
-        fft.complexForward(complexPairs);
+        long state = JTransformsThreads.beginTransform(complexList.size());
+        try {
+            fft.complexForward(complexPairs);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
         List<Complex> fftList = new ArrayList<>(complexList.size());
         for (int i = 0; i < complexList.size(); i++) {
             fftList.add(new Complex(complexPairs[2 * i], complexPairs[2 * i + 1]));
@@ -212,6 +427,156 @@ public class ComplexAdditions {
         return fftList;
     }
 
+    /**
+     * Perform fast fourier transformation (FFT) on complex array
+     * 
+     * @param complexArray
+     *            array of complex values to perform FFT on
+     * 
+     * @return new complex array containing result of FFT. Size of result is same as complexArray argument
+     */
+    public static ComplexArray fft(ComplexArray complexArray) {
+        ComplexArray fftArray = complexArray.copy();
+        fftInPlace(fftArray);
+        return fftArray;
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) on complex array, writing result to caller supplied complex array. No
+     * buffers are allocated by this method and, for power of two lengths, neither by the transform itself.
+     * 
+     * @param input
+     *            array of complex values to perform FFT on. Not modified unless it shares storage with output
+     * @param output
+     *            array receiving result of FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if input and output is not the same size
+     */
+    public static void fft(ComplexArray input, ComplexArray output) {
+        copy(input, output);
+        fftInPlace(output);
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) on complex array multiplied by window. The window is applied while
+     * copying input into the transform buffer, so no extra pass over the data is made.
+     * 
+     * @param complexArray
+     *            array of complex values to perform FFT on
+     * @param window
+     *            window to apply
+     * 
+     * @return new complex array containing result of FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if window is not of same length as complexArray
+     */
+    public static ComplexArray fft(ComplexArray complexArray, Window window) {
+        ComplexArray fftArray = new ComplexArray(complexArray.length());
+        fft(complexArray, window, fftArray);
+        return fftArray;
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) on complex array multiplied by window, writing result to caller
+     * supplied complex array. The window is applied while copying input into output.
+     * 
+     * @param input
+     *            array of complex values to perform FFT on. Not modified unless it shares storage with output
+     * @param window
+     *            window to apply
+     * @param output
+     *            array receiving result of FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if input, window and output is not the same size
+     */
+    public static void fft(ComplexArray input, Window window, ComplexArray output) {
+        if (input.length() != output.length() || window.length() != input.length()) {
+            throw new IllegalArgumentException("input, window and output needs to be of equal size");
+        }
+        double[] inputData = input.getData();
+        int inputOffset = input.getOffset();
+        double[] outputData = output.getData();
+        int outputOffset = output.getOffset();
+        for (int i = 0; i < input.length(); i++) {
+            double coefficient = window.get(i);
+            outputData[outputOffset + 2 * i] = inputData[inputOffset + 2 * i] * coefficient;
+            outputData[outputOffset + 2 * i + 1] = inputData[inputOffset + 2 * i + 1] * coefficient;
+        }
+        fftInPlace(output);
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) in place on complex array
+     * 
+     * @param complexArray
+     *            array of complex values to perform FFT on. Overwritten with result of FFT
+     */
+    public static void fftInPlace(ComplexArray complexArray) {
+        int length = complexArray.length();
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).complexForward(complexArray.getData(), complexArray.getOffset());
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) in place on interleaved complex values
+     * 
+     * @param interleavedData
+     *            interleaved real and imaginary parts to perform FFT on. Overwritten with result of FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     */
+    public static void fftInPlace(double[] interleavedData) {
+        fftInPlace(new ComplexArray(interleavedData));
+    }
+
+    /**
+     * Perform 2D FFT in place on interleaved complex values stored in row major order
+     * 
+     * @param interleavedData
+     *            interleaved complex values, row after row. Overwritten with result of 2D FFT
+     * @param rows
+     *            number of rows
+     * @param columns
+     *            number of columns
+     * 
+     * @exception IllegalArgumentException
+     *                if interleavedData does not contain rows * columns complex values
+     * 
+     * @see MultidimensionalFft
+     */
+    public static void fft2InPlace(double[] interleavedData, int rows, int columns) {
+        new MultidimensionalFft(rows, columns).fftInPlace(interleavedData);
+    }
+
+    /**
+     * Perform 3D FFT in place on interleaved complex values stored in row major order
+     * 
+     * @param interleavedData
+     *            interleaved complex values, slice after slice of rows. Overwritten with result of 3D FFT
+     * @param slices
+     *            number of slices
+     * @param rows
+     *            number of rows in each slice
+     * @param columns
+     *            number of columns
+     * 
+     * @exception IllegalArgumentException
+     *                if interleavedData does not contain slices * rows * columns complex values
+     * 
+     * @see MultidimensionalFft
+     */
+    public static void fft3InPlace(double[] interleavedData, int slices, int rows, int columns) {
+        new MultidimensionalFft(slices, rows, columns).fftInPlace(interleavedData);
+    }
+
     /**
      * Perform fast fourier transformation (FFT) on double array
      * 
@@ -221,21 +586,421 @@ public class ComplexAdditions {
      * @return result of FFT. Size of resulting FFT list is same as doubleArray argument
      */
     public static List<Complex> fft(double[] doubleArray) {
-        double[] copiedArray = new double[doubleArray.length];
-        System.arraycopy(doubleArray, 0, copiedArray, 0, doubleArray.length);
-        return performFft(copiedArray);
+        double[] realPairs = createRealPairs(doubleArray);
+        return performFft(realPairs, doubleArray.length);
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) on double array multiplied by window. The window is applied while
+     * packing input into the transform buffer, so no extra pass over the data is made.
+     * 
+     * @param doubleArray
+     *            array of double values to perform FFT on
+     * @param window
+     *            window to apply
+     * 
+     * @return result of FFT. Size of resulting FFT list is same as doubleArray argument
+     * 
+     * @exception IllegalArgumentException
+     *                if window is not of same length as doubleArray
+     */
+    public static List<Complex> fft(double[] doubleArray, Window window) {
+        checkWindowLength(window, doubleArray.length);
+        double[] realPairs = new double[doubleArray.length * 2];
+        window.apply(doubleArray, 0, realPairs, 0);
+        return performFft(realPairs, doubleArray.length);
     }
 
-    private static List<Complex> performFft(double[] doubleArray) {
-        DoubleFFT_1D fft = new DoubleFFT_1D(doubleArray.length);
-        double[] listToInterpolate = createComplexPairs(doubleArray);
-        fft.complexForward(listToInterpolate);
-        List<Complex> fftList = new ArrayList<>(doubleArray.length);
-        for (int i = 0; i < doubleArray.length; i++) {
-            fftList.add(new Complex(listToInterpolate[2 * i], listToInterpolate[2 * i + 1]));
+    /**
+     * Perform fast fourier transformation (FFT) on double array, writing full spectrum to caller supplied array. No
+     * buffers are allocated by this method and, for power of two lengths, neither by the transform itself.
+     * 
+     * @param input
+     *            array of double values to perform FFT on. Not modified unless same array as output
+     * @param output
+     *            array receiving interleaved real and imaginary parts of the FFT. Needs to be at least twice the size
+     *            of input
+     * 
+     * @exception IllegalArgumentException
+     *                if output is less than twice the size of input
+     */
+    public static void fft(double[] input, double[] output) {
+        checkRealPairsLength(input, output);
+        System.arraycopy(input, 0, output, 0, input.length);
+        long state = JTransformsThreads.beginTransform(input.length);
+        try {
+            FftPlanCache.doubleFft1d(input.length).realForwardFull(output);
+        } finally {
+            JTransformsThreads.endTransform(state);
         }
+    }
 
-        return fftList;
+    private static List<Complex> performFft(double[] realPairs, int length) {
+        // Real input transform expanded to full spectrum, avoids transforming zero imaginary parts
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).realForwardFull(realPairs);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+        return createComplexList(realPairs, length);
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) on double array. Only the non-redundant half of the spectrum
+     * is returned since the spectrum of real input is Hermitian symmetric, X[n - k] = conjugate(X[k]).
+     * 
+     * @param doubleArray
+     *            array of double values to perform FFT on
+     * 
+     * @return new complex array containing bins 0 to doubleArray.length / 2 (inclusive) of the FFT
+     * 
+     * @see #hermitianSpectrum(ComplexArray, int)
+     * @see #realIfft(ComplexArray, int)
+     */
+    public static ComplexArray realFft(double[] doubleArray) {
+        ComplexArray halfSpectrum = new ComplexArray(doubleArray.length / 2 + 1);
+        realFft(doubleArray, halfSpectrum);
+        return halfSpectrum;
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) on double array, writing the non-redundant half of the
+     * spectrum to caller supplied complex array. No buffers are allocated by this method and, for power of two lengths,
+     * neither by the transform itself.
+     * 
+     * @param input
+     *            array of double values to perform FFT on
+     * @param halfSpectrum
+     *            array receiving bins 0 to input.length / 2 (inclusive) of the FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain input.length / 2 + 1 values
+     */
+    public static void realFft(double[] input, ComplexArray halfSpectrum) {
+        int length = input.length;
+        checkHalfSpectrumLength(halfSpectrum, length);
+        // Packed transform result occupies the first length values of the half spectrum
+        System.arraycopy(input, 0, halfSpectrum.getData(), halfSpectrum.getOffset(), length);
+        performRealFft(halfSpectrum, length);
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) on double array multiplied by window. Only the non-redundant
+     * half of the spectrum is returned, see {@link #realFft(double[])}.
+     * 
+     * @param doubleArray
+     *            array of double values to perform FFT on
+     * @param window
+     *            window to apply
+     * 
+     * @return new complex array containing bins 0 to doubleArray.length / 2 (inclusive) of the FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if window is not of same length as doubleArray
+     */
+    public static ComplexArray realFft(double[] doubleArray, Window window) {
+        ComplexArray halfSpectrum = new ComplexArray(doubleArray.length / 2 + 1);
+        realFft(doubleArray, window, halfSpectrum);
+        return halfSpectrum;
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) on double array multiplied by window, writing the
+     * non-redundant half of the spectrum to caller supplied complex array. The window is applied while packing input
+     * into the transform buffer, so no extra pass over the data is made and no buffers are allocated.
+     * 
+     * @param input
+     *            array of double values to perform FFT on
+     * @param window
+     *            window to apply
+     * @param halfSpectrum
+     *            array receiving bins 0 to input.length / 2 (inclusive) of the FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if window is not of same length as input or halfSpectrum does not contain input.length / 2 + 1
+     *                values
+     */
+    public static void realFft(double[] input, Window window, ComplexArray halfSpectrum) {
+        checkWindowLength(window, input.length);
+        realFft(input, 0, window, halfSpectrum);
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) on window length values of double array multiplied by
+     * window, writing the non-redundant half of the spectrum to caller supplied complex array. The window is applied
+     * while packing input into the transform buffer, so no extra pass over the data is made and no buffers are
+     * allocated.
+     * 
+     * @param input
+     *            array holding values to perform FFT on
+     * @param offset
+     *            index in input of first value
+     * @param window
+     *            window to apply, its length is the length of the FFT
+     * @param halfSpectrum
+     *            array receiving bins 0 to window.length() / 2 (inclusive) of the FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if input does not hold window length values from offset or halfSpectrum does not contain
+     *                window.length() / 2 + 1 values
+     */
+    public static void realFft(double[] input, int offset, Window window, ComplexArray halfSpectrum) {
+        int length = window.length();
+        checkHalfSpectrumLength(halfSpectrum, length);
+        window.apply(input, offset, halfSpectrum.getData(), halfSpectrum.getOffset());
+        performRealFft(halfSpectrum, length);
+    }
+
+    private static void performRealFft(ComplexArray halfSpectrum, int length) {
+        double[] data = halfSpectrum.getData();
+        int offset = halfSpectrum.getOffset();
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).realForward(data, offset);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+        unpackRealForward(data, offset, length);
+    }
+
+    /**
+     * Performs inverse real output fast fourier transformation (iFFT) on half spectrum as produced by
+     * {@link #realFft(double[])}.
+     * 
+     * @param halfSpectrum
+     *            bins 0 to length / 2 (inclusive) of a Hermitian symmetric spectrum
+     * @param length
+     *            length of real output
+     * 
+     * @return new array containing real result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain length / 2 + 1 values
+     */
+    public static double[] realIfft(ComplexArray halfSpectrum, int length) {
+        double[] realData = new double[length];
+        realIfft(halfSpectrum, realData);
+        return realData;
+    }
+
+    /**
+     * Performs inverse real output fast fourier transformation (iFFT) on half spectrum, writing result to caller
+     * supplied array. No buffers are allocated by this method and, for power of two lengths, neither by the transform
+     * itself.
+     * 
+     * @param halfSpectrum
+     *            bins 0 to output.length / 2 (inclusive) of a Hermitian symmetric spectrum
+     * @param output
+     *            array receiving real result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain output.length / 2 + 1 values
+     */
+    public static void realIfft(ComplexArray halfSpectrum, double[] output) {
+        checkHalfSpectrumLength(halfSpectrum, output.length);
+        packRealInverse(halfSpectrum, output, output.length);
+        long state = JTransformsThreads.beginTransform(output.length);
+        try {
+            FftPlanCache.doubleFft1d(output.length).realInverse(output, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) in single precision, in place on interleaved complex values
+     * 
+     * @param interleavedData
+     *            interleaved real and imaginary parts to perform FFT on. Overwritten with result of FFT
+     * 
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     */
+    public static void fftInPlace(float[] interleavedData) {
+        checkInterleavedLength(interleavedData);
+        long length = interleavedData.length / 2;
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.floatFft1d(length).complexForward(interleavedData);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) in single precision, in place on interleaved complex values
+     * 
+     * @param interleavedData
+     *            interleaved real and imaginary parts to perform iFFT on. Overwritten with result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     */
+    public static void ifftInPlace(float[] interleavedData) {
+        checkInterleavedLength(interleavedData);
+        long length = interleavedData.length / 2;
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.floatFft1d(length).complexInverse(interleavedData, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) in single precision on float array. Only the non-redundant
+     * half of the spectrum is returned, see {@link #realFft(double[])}.
+     * 
+     * @param floatArray
+     *            array of float values to perform FFT on
+     * 
+     * @return new array of interleaved real and imaginary parts of bins 0 to floatArray.length / 2 (inclusive)
+     */
+    public static float[] realFft(float[] floatArray) {
+        float[] halfSpectrum = new float[2 * (floatArray.length / 2 + 1)];
+        realFft(floatArray, halfSpectrum);
+        return halfSpectrum;
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) in single precision on float array, writing the
+     * non-redundant half of the spectrum to caller supplied array.
+     * 
+     * @param input
+     *            array of float values to perform FFT on
+     * @param halfSpectrum
+     *            array receiving interleaved real and imaginary parts of bins 0 to input.length / 2 (inclusive)
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain input.length / 2 + 1 interleaved values
+     */
+    public static void realFft(float[] input, float[] halfSpectrum) {
+        int length = input.length;
+        checkHalfSpectrumLength(halfSpectrum, length);
+        System.arraycopy(input, 0, halfSpectrum, 0, length);
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.floatFft1d(length).realForward(halfSpectrum);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+        // JTransforms stores the real valued last bin (even length) or last imaginary part (odd length) in index 1
+        halfSpectrum[length] = halfSpectrum[1];
+        if (length % 2 == 0) {
+            halfSpectrum[length + 1] = 0;
+        }
+        halfSpectrum[1] = 0;
+    }
+
+    /**
+     * Performs inverse real output fast fourier transformation (iFFT) in single precision on half spectrum as produced
+     * by {@link #realFft(float[])}.
+     * 
+     * @param halfSpectrum
+     *            interleaved real and imaginary parts of bins 0 to length / 2 (inclusive) of a Hermitian symmetric
+     *            spectrum
+     * @param length
+     *            length of real output
+     * 
+     * @return new array containing real result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain length / 2 + 1 interleaved values
+     */
+    public static float[] realIfft(float[] halfSpectrum, int length) {
+        float[] realData = new float[length];
+        realIfft(halfSpectrum, realData);
+        return realData;
+    }
+
+    /**
+     * Performs inverse real output fast fourier transformation (iFFT) in single precision on half spectrum, writing
+     * result to caller supplied array.
+     * 
+     * @param halfSpectrum
+     *            interleaved real and imaginary parts of bins 0 to output.length / 2 (inclusive) of a Hermitian
+     *            symmetric spectrum
+     * @param output
+     *            array receiving real result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain output.length / 2 + 1 interleaved values
+     */
+    public static void realIfft(float[] halfSpectrum, float[] output) {
+        int length = output.length;
+        checkHalfSpectrumLength(halfSpectrum, length);
+        System.arraycopy(halfSpectrum, 0, output, 0, length);
+        if (length > 1) {
+            // Last real (even length) or imaginary (odd length) value is stored in index 1
+            output[1] = halfSpectrum[length];
+        }
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.floatFft1d(length).realInverse(output, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Create list view of full Hermitian symmetric spectrum from half spectrum. Values of the upper half are computed
+     * lazily as conjugates of the lower half when accessed, no values are copied.
+     * 
+     * @param halfSpectrum
+     *            bins 0 to length / 2 (inclusive) of a Hermitian symmetric spectrum
+     * @param length
+     *            length of full spectrum
+     * 
+     * @return unmodifiable list view of full spectrum backed by halfSpectrum
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain length / 2 + 1 values
+     */
+    public static List<Complex> hermitianSpectrum(ComplexArray halfSpectrum, int length) {
+        checkHalfSpectrumLength(halfSpectrum, length);
+        return new AbstractList<Complex>() {
+            @Override
+            public Complex get(int index) {
+                if (index < 0 || index >= length) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of range for length " + length);
+                }
+                if (index <= length / 2) {
+                    return halfSpectrum.get(index);
+                }
+                return new Complex(halfSpectrum.getReal(length - index), -halfSpectrum.getImaginary(length - index));
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    /**
+     * Expand half spectrum to full Hermitian symmetric spectrum.
+     * 
+     * @param halfSpectrum
+     *            bins 0 to length / 2 (inclusive) of a Hermitian symmetric spectrum
+     * @param length
+     *            length of full spectrum
+     * 
+     * @return new complex array containing full spectrum
+     * 
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain length / 2 + 1 values
+     */
+    public static ComplexArray expandHermitianSpectrum(ComplexArray halfSpectrum, int length) {
+        checkHalfSpectrumLength(halfSpectrum, length);
+        ComplexArray fullSpectrum = new ComplexArray(length);
+        double[] fullData = fullSpectrum.getData();
+        System.arraycopy(halfSpectrum.getData(), halfSpectrum.getOffset(), fullData, 0, 2 * halfSpectrum.length());
+        for (int k = length / 2 + 1; k < length; k++) {
+            fullData[2 * k] = fullData[2 * (length - k)];
+            fullData[2 * k + 1] = -fullData[2 * (length - k) + 1];
+        }
+        return fullSpectrum;
     }
 
     /**
@@ -250,6 +1015,54 @@ public class ComplexAdditions {
         return circularlyShift(complexList, complexList.size() >> 1);
     }
 
+    /**
+     * Performs FFT shift on complex array.
+     * 
+     * @param complexArray
+     *            array to shift
+     * 
+     * @return new shifted array
+     */
+    public static ComplexArray fftShift(ComplexArray complexArray) {
+        return circularlyShift(complexArray, complexArray.length() >> 1);
+    }
+
+    /**
+     * Create FFT shifted view of complex list. No values are copied, indices are remapped on access.
+     * 
+     * @param complexList
+     *            list to view shifted
+     * 
+     * @return shifted list view backed by complexList. Changes through set write through to complexList
+     */
+    public static List<Complex> fftShiftView(List<Complex> complexList) {
+        return new ShiftedList(complexList, complexList.size() >> 1);
+    }
+
+    /**
+     * Performs FFT shift on complex array in place, without auxiliary buffers.
+     * 
+     * @param complexArray
+     *            array to shift
+     */
+    public static void fftShiftInPlace(ComplexArray complexArray) {
+        rotateInPlace(complexArray.getData(), complexArray.getOffset(), complexArray.length(),
+                complexArray.length() >> 1);
+    }
+
+    /**
+     * Performs FFT shift in place on interleaved complex values, without auxiliary buffers.
+     * 
+     * @param interleavedData
+     *            interleaved real and imaginary parts to shift
+     * 
+     * @exception IllegalArgumentException
+     *                if interleavedData has odd length
+     */
+    public static void fftShiftInPlace(double[] interleavedData) {
+        fftShiftInPlace(new ComplexArray(interleavedData));
+    }
+
     /**
      * Performs inverse fast fourier transformation (iFFT) on complex list
      * 
@@ -259,9 +1072,14 @@ public class ComplexAdditions {
      * @return result of iFFT. Size of resulting FFT list is same as complexList argument
      */
     public static List<Complex> ifft(Complex[] complexList) {
-        DoubleFFT_1D temp = new DoubleFFT_1D(complexList.length);
+        DoubleFFT_1D temp = FftPlanCache.doubleFft1d(complexList.length);
         double[] complexPairs = createComplexPairs(complexList);
-        temp.complexInverse(complexPairs, true);
+        long state = JTransformsThreads.beginTransform(complexList.length);
+        try {
+            temp.complexInverse(complexPairs, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
         List<Complex> ifftList = new ArrayList<>(complexList.length);
         for (int i = 0; i < complexList.length; i++) {
             ifftList.add(new Complex(complexPairs[2 * i], complexPairs[2 * i + 1]));
@@ -278,9 +1096,14 @@ public class ComplexAdditions {
      * @return result of iFFT. Size of resulting FFT list is same as complexList argument
      */
     public static List<Complex> ifft(List<Complex> complexList) {
-        DoubleFFT_1D temp = new DoubleFFT_1D(complexList.size());
+        DoubleFFT_1D temp = FftPlanCache.doubleFft1d(complexList.size());
         double[] complexPairs = createComplexPairs(complexList);
-        temp.complexInverse(complexPairs, true);
+        long state = JTransformsThreads.beginTransform(complexList.size());
+        try {
+            temp.complexInverse(complexPairs, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
         List<Complex> ifftList = new ArrayList<>(complexList.size());
         for (int i = 0; i < complexList.size(); i++) {
             ifftList.add(new Complex(complexPairs[2 * i], complexPairs[2 * i + 1]));
@@ -288,6 +1111,106 @@ public class ComplexAdditions {
         return ifftList;
     }
 
+    /**
+     * Performs inverse fast fourier transformation (iFFT) on complex array
+     * 
+     * @param complexArray
+     *            array of complex values to perform iFFT on
+     * 
+     * @return new complex array containing result of iFFT. Size of result is same as complexArray argument
+     */
+    public static ComplexArray ifft(ComplexArray complexArray) {
+        ComplexArray ifftArray = complexArray.copy();
+        ifftInPlace(ifftArray);
+        return ifftArray;
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) on complex array, writing result to caller supplied complex
+     * array. No buffers are allocated by this method and, for power of two lengths, neither by the transform itself.
+     * 
+     * @param input
+     *            array of complex values to perform iFFT on. Not modified unless it shares storage with output
+     * @param output
+     *            array receiving result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if input and output is not the same size
+     */
+    public static void ifft(ComplexArray input, ComplexArray output) {
+        copy(input, output);
+        ifftInPlace(output);
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) in place on complex array
+     * 
+     * @param complexArray
+     *            array of complex values to perform iFFT on. Overwritten with result of iFFT
+     */
+    public static void ifftInPlace(ComplexArray complexArray) {
+        int length = complexArray.length();
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).complexInverse(complexArray.getData(), complexArray.getOffset(), true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) in place on interleaved complex values
+     * 
+     * @param interleavedData
+     *            interleaved real and imaginary parts to perform iFFT on. Overwritten with result of iFFT
+     * 
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     */
+    public static void ifftInPlace(double[] interleavedData) {
+        ifftInPlace(new ComplexArray(interleavedData));
+    }
+
+    /**
+     * Performs inverse 2D iFFT in place on interleaved complex values stored in row major order
+     * 
+     * @param interleavedData
+     *            interleaved complex values, row after row. Overwritten with result of 2D iFFT
+     * @param rows
+     *            number of rows
+     * @param columns
+     *            number of columns
+     * 
+     * @exception IllegalArgumentException
+     *                if interleavedData does not contain rows * columns complex values
+     * 
+     * @see MultidimensionalFft
+     */
+    public static void ifft2InPlace(double[] interleavedData, int rows, int columns) {
+        new MultidimensionalFft(rows, columns).ifftInPlace(interleavedData);
+    }
+
+    /**
+     * Performs inverse 3D iFFT in place on interleaved complex values stored in row major order
+     * 
+     * @param interleavedData
+     *            interleaved complex values, slice after slice of rows. Overwritten with result of 3D iFFT
+     * @param slices
+     *            number of slices
+     * @param rows
+     *            number of rows in each slice
+     * @param columns
+     *            number of columns
+     * 
+     * @exception IllegalArgumentException
+     *                if interleavedData does not contain slices * rows * columns complex values
+     * 
+     * @see MultidimensionalFft
+     */
+    public static void ifft3InPlace(double[] interleavedData, int slices, int rows, int columns) {
+        new MultidimensionalFft(slices, rows, columns).ifftInPlace(interleavedData);
+    }
+
     /**
      * Performs inverse fast fourier transformation (iFFT) on double array
      * 
@@ -297,20 +1220,43 @@ public class ComplexAdditions {
      * @return result of iFFT. Size of resulting FFT list is same as doubleArray argument
      */
     public static List<Complex> ifft(double[] doubleArray) {
-        double[] copiedArray = new double[doubleArray.length];
-        System.arraycopy(doubleArray, 0, copiedArray, 0, doubleArray.length);
-        return performIfft(copiedArray);
+        double[] realPairs = createRealPairs(doubleArray);
+        return performIfft(realPairs, doubleArray.length);
     }
 
-    private static List<Complex> performIfft(double[] doubleArray) {
-        DoubleFFT_1D temp = new DoubleFFT_1D(doubleArray.length);
-        double[] listToInterpolate = createComplexPairs(doubleArray);
-        temp.complexInverse(listToInterpolate, true);
-        List<Complex> ifftList = new ArrayList<>(doubleArray.length);
-        for (int i = 0; i < doubleArray.length; i++) {
-            ifftList.add(new Complex(listToInterpolate[2 * i], listToInterpolate[2 * i + 1]));
+    /**
+     * Performs inverse fast fourier transformation (iFFT) on double array, writing result to caller supplied array. No
+     * buffers are allocated by this method and, for power of two lengths, neither by the transform itself.
+     * 
+     * @param input
+     *            array of double values to perform iFFT on. Not modified unless same array as output
+     * @param output
+     *            array receiving interleaved real and imaginary parts of the iFFT. Needs to be at least twice the size
+     *            of input
+     * 
+     * @exception IllegalArgumentException
+     *                if output is less than twice the size of input
+     */
+    public static void ifft(double[] input, double[] output) {
+        checkRealPairsLength(input, output);
+        System.arraycopy(input, 0, output, 0, input.length);
+        long state = JTransformsThreads.beginTransform(input.length);
+        try {
+            FftPlanCache.doubleFft1d(input.length).realInverseFull(output, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
         }
-        return ifftList;
+    }
+
+    private static List<Complex> performIfft(double[] realPairs, int length) {
+        // Real input transform expanded to full spectrum, avoids transforming zero imaginary parts
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).realInverseFull(realPairs, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+        return createComplexList(realPairs, length);
     }
 
     /**
@@ -325,6 +1271,54 @@ public class ComplexAdditions {
         return circularlyShift(complexList, (complexList.size() + 1) >> 1);
     }
 
+    /**
+     * Performs inverse FFT shift on complex array.
+     * 
+     * @param complexArray
+     *            array to shift
+     * 
+     * @return new shifted array
+     */
+    public static ComplexArray ifftShift(ComplexArray complexArray) {
+        return circularlyShift(complexArray, (complexArray.length() + 1) >> 1);
+    }
+
+    /**
+     * Create inverse FFT shifted view of complex list. No values are copied, indices are remapped on access.
+     * 
+     * @param complexList
+     *            list to view shifted
+     * 
+     * @return shifted list view backed by complexList. Changes through set write through to complexList
+     */
+    public static List<Complex> ifftShiftView(List<Complex> complexList) {
+        return new ShiftedList(complexList, (complexList.size() + 1) >> 1);
+    }
+
+    /**
+     * Performs inverse FFT shift on complex array in place, without auxiliary buffers.
+     * 
+     * @param complexArray
+     *            array to shift
+     */
+    public static void ifftShiftInPlace(ComplexArray complexArray) {
+        rotateInPlace(complexArray.getData(), complexArray.getOffset(), complexArray.length(),
+                (complexArray.length() + 1) >> 1);
+    }
+
+    /**
+     * Performs inverse FFT shift in place on interleaved complex values, without auxiliary buffers.
+     * 
+     * @param interleavedData
+     *            interleaved real and imaginary parts to shift
+     * 
+     * @exception IllegalArgumentException
+     *                if interleavedData has odd length
+     */
+    public static void ifftShiftInPlace(double[] interleavedData) {
+        ifftShiftInPlace(new ComplexArray(interleavedData));
+    }
+
     private static double[] createComplexPairs(Complex[] complexList) {
         double[] complexPairs = new double[complexList.length * 2];
         for (int i = 0; i < complexList.length; i++) {
@@ -343,19 +1337,128 @@ public class ComplexAdditions {
         return complexPairs;
     }
 
-    private static double[] createComplexPairs(double[] doubleArray) {
-        double[] complexPairs = new double[doubleArray.length * 2];
-        for (int i = 0; i < doubleArray.length; i++) {
-            complexPairs[2 * i] = doubleArray[i];
-            complexPairs[2 * i + 1] = 0;
+    private static double[] createRealPairs(double[] doubleArray) {
+        // Real values in first half, second half is workspace for the full spectrum
+        double[] realPairs = new double[doubleArray.length * 2];
+        System.arraycopy(doubleArray, 0, realPairs, 0, doubleArray.length);
+        return realPairs;
+    }
+
+    private static List<Complex> createComplexList(double[] complexPairs, int length) {
+        List<Complex> complexList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            complexList.add(new Complex(complexPairs[2 * i], complexPairs[2 * i + 1]));
+        }
+        return complexList;
+    }
+
+    private static void unpackRealForward(double[] halfSpectrum, int offset, int length) {
+        // JTransforms stores the real valued last bin (even length) or last imaginary part (odd length) in index 1
+        halfSpectrum[offset + length] = halfSpectrum[offset + 1];
+        if (length % 2 == 0) {
+            halfSpectrum[offset + length + 1] = 0;
+        }
+        halfSpectrum[offset + 1] = 0;
+    }
+
+    private static void packRealInverse(ComplexArray halfSpectrum, double[] realData, int length) {
+        double[] data = halfSpectrum.getData();
+        int offset = halfSpectrum.getOffset();
+        System.arraycopy(data, offset, realData, 0, length);
+        if (length > 1) {
+            // Last real (even length) or imaginary (odd length) value is stored in index 1
+            realData[1] = data[offset + length];
+        }
+    }
+
+    private static void checkRealPairsLength(double[] input, double[] output) {
+        if (output.length < 2 * input.length) {
+            throw new IllegalArgumentException("output needs to be at least twice the size of input");
+        }
+    }
+
+    private static void copy(ComplexArray input, ComplexArray output) {
+        if (input.length() != output.length()) {
+            throw new IllegalArgumentException("input and output needs to be of equal size");
+        }
+        System.arraycopy(input.getData(), input.getOffset(), output.getData(), output.getOffset(), 2 * input.length());
+    }
+
+    private static void checkWindowLength(Window window, int length) {
+        if (window.length() != length) {
+            throw new IllegalArgumentException("window needs to be of same length as input");
+        }
+    }
+
+    private static void checkHalfSpectrumLength(float[] halfSpectrum, int length) {
+        if (halfSpectrum.length != 2 * (length / 2 + 1)) {
+            throw new IllegalArgumentException("halfSpectrum needs to contain length / 2 + 1 interleaved values");
+        }
+    }
+
+    private static void checkInterleavedLength(float[] interleavedData) {
+        if (interleavedData.length % 2 != 0) {
+            throw new IllegalArgumentException("interleavedData needs to be of even length");
+        }
+    }
+
+    private static void checkHalfSpectrumLength(ComplexArray halfSpectrum, int length) {
+        if (halfSpectrum.length() != length / 2 + 1) {
+            throw new IllegalArgumentException("halfSpectrum needs to contain length / 2 + 1 values");
         }
-        return complexPairs;
     }
 
     private static List<Complex> circularlyShift(List<Complex> complexList, int shiftSteps) {
-        List<Complex> circularlyShiftedList = new ArrayList<>(complexList);
-        Collections.rotate(circularlyShiftedList, shiftSteps);
-        return circularlyShiftedList;
+        return new ArrayList<>(new ShiftedList(complexList, shiftSteps));
+    }
+
+    private static void rotateInPlace(double[] data, int offset, int length, int shiftSteps) {
+        if (length == 0 || shiftSteps % length == 0) {
+            return;
+        }
+        // Cycle leader rotation, element i moves to (i + shiftSteps) % length. There are gcd(length, shiftSteps)
+        // independent cycles, each started from one of the first gcd elements
+        int cycleCount = greatestCommonDivisor(length, shiftSteps);
+        for (int leader = 0; leader < cycleCount; leader++) {
+            double real = data[offset + 2 * leader];
+            double imaginary = data[offset + 2 * leader + 1];
+            int target = leader;
+            int source = Math.floorMod(leader - shiftSteps, length);
+            while (source != leader) {
+                data[offset + 2 * target] = data[offset + 2 * source];
+                data[offset + 2 * target + 1] = data[offset + 2 * source + 1];
+                target = source;
+                source = Math.floorMod(source - shiftSteps, length);
+            }
+            data[offset + 2 * target] = real;
+            data[offset + 2 * target + 1] = imaginary;
+        }
+    }
+
+    private static int greatestCommonDivisor(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    private static ComplexArray circularlyShift(ComplexArray complexArray, int shiftSteps) {
+        int length = complexArray.length();
+        ComplexArray circularlyShiftedArray = new ComplexArray(length);
+        if (length == 0) {
+            return circularlyShiftedArray;
+        }
+        int firstPartLength = length - shiftSteps % length;
+        double[] data = complexArray.getData();
+        double[] shiftedData = circularlyShiftedArray.getData();
+        // Element i moves to (i + shiftSteps) % length
+        System.arraycopy(data, complexArray.getOffset(), shiftedData, 2 * (length - firstPartLength),
+                2 * firstPartLength);
+        System.arraycopy(data, complexArray.getOffset() + 2 * firstPartLength, shiftedData, 0,
+                2 * (length - firstPartLength));
+        return circularlyShiftedArray;
     }
 
     /**
@@ -374,6 +1477,23 @@ public class ComplexAdditions {
         return normalizedComplexList;
     }
 
+    /**
+     * Normalize complex array with size of array
+     * 
+     * @param complexArray
+     *            array to normalize
+     * 
+     * @return new array containing normalized data
+     */
+    public static ComplexArray normalizeBySizeOfList(ComplexArray complexArray) {
+        ComplexArray normalizedComplexArray = complexArray.copy();
+        double[] data = normalizedComplexArray.getData();
+        for (int i = 0; i < data.length; i++) {
+            data[i] /= complexArray.length();
+        }
+        return normalizedComplexArray;
+    }
+
     /**
      * Scale complex list by size of list
      * 
@@ -390,4 +1510,57 @@ public class ComplexAdditions {
         return scaledComplexList;
     }
 
+    /**
+     * Scale complex array by size of array
+     * 
+     * @param complexArray
+     *            array to scale
+     * 
+     * @return new array containing scaled data
+     */
+    public static ComplexArray scaleBySizeOfList(ComplexArray complexArray) {
+        ComplexArray scaledComplexArray = complexArray.copy();
+        double[] data = scaledComplexArray.getData();
+        for (int i = 0; i < data.length; i++) {
+            data[i] *= complexArray.length();
+        }
+        return scaledComplexArray;
+    }
+
+    private static final class ShiftedList extends AbstractList<Complex> implements RandomAccess {
+
+        private final List<Complex> complexList;
+        private final int shiftSteps;
+
+        private ShiftedList(List<Complex> complexList, int shiftSteps) {
+            this.complexList = complexList;
+            this.shiftSteps = shiftSteps;
+        }
+
+        @Override
+        public Complex get(int index) {
+            return complexList.get(sourceIndex(index));
+        }
+
+        @Override
+        public Complex set(int index, Complex element) {
+            return complexList.set(sourceIndex(index), element);
+        }
+
+        @Override
+        public int size() {
+            return complexList.size();
+        }
+
+        private int sourceIndex(int index) {
+            int size = complexList.size();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of range for length " + size);
+            }
+            // Element i of backing list is shown at (i + shiftSteps) % size
+            int sourceIndex = index - shiftSteps % size;
+            return sourceIndex < 0 ? sourceIndex + size : sourceIndex;
+        }
+    }
+
 }
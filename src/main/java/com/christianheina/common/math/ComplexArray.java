@@ -0,0 +1,317 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+
+/**
+ * Array of complex values stored as interleaved real and imaginary parts in a primitive {@code double[]}.<br>
+ * Element {@code i} is stored with its real part at {@code offset + 2 * i} and its imaginary part at
+ * {@code offset + 2 * i + 1} of the backing array, which is the same layout used by JTransforms.
+ * <p>
+ * The backing array is shared, not copied, so a {@code ComplexArray} can be used as a view of a larger buffer.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexArray {
+
+    private final double[] data;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Constructor creating a zero filled complex array
+     *
+     * @param length
+     *            number of complex values
+     *
+     * @exception IllegalArgumentException
+     *                if length is negative or larger than Integer.MAX_VALUE / 2, since two values are stored per
+     *                complex value
+     */
+    public ComplexArray(int length) {
+        this(new double[checkLength(length) * 2], 0, length);
+    }
+
+    /**
+     * Constructor wrapping an interleaved array
+     *
+     * @param interleavedData
+     *            interleaved real and imaginary parts. Length needs to be even
+     *
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     */
+    public ComplexArray(double[] interleavedData) {
+        this(interleavedData, 0, checkEven(interleavedData.length) / 2);
+    }
+
+    /**
+     * Constructor wrapping part of an interleaved array
+     *
+     * @param interleavedData
+     *            interleaved real and imaginary parts
+     * @param offset
+     *            index in interleavedData of the real part of the first complex value
+     * @param length
+     *            number of complex values
+     *
+     * @exception IllegalArgumentException
+     *                if offset and length do not describe a range within interleavedData
+     */
+    public ComplexArray(double[] interleavedData, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > interleavedData.length - 2L * length) {
+            throw new IllegalArgumentException("offset " + offset + " and length " + length
+                    + " is out of range for array of size " + interleavedData.length);
+        }
+        this.data = interleavedData;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Create complex array from complex values
+     *
+     * @param complexList
+     *            list of complex values
+     *
+     * @return new complex array containing the values of complexList
+     */
+    public static ComplexArray valueOf(List<Complex> complexList) {
+        ComplexArray complexArray = new ComplexArray(complexList.size());
+        for (int i = 0; i < complexList.size(); i++) {
+            complexArray.set(i, complexList.get(i));
+        }
+        return complexArray;
+    }
+
+    /**
+     * Create complex array from complex values
+     *
+     * @param complexList
+     *            array of complex values
+     *
+     * @return new complex array containing the values of complexList
+     */
+    public static ComplexArray valueOf(Complex[] complexList) {
+        ComplexArray complexArray = new ComplexArray(complexList.length);
+        for (int i = 0; i < complexList.length; i++) {
+            complexArray.set(i, complexList[i]);
+        }
+        return complexArray;
+    }
+
+    /**
+     * Create complex array from real values. Imaginary parts are set to zero.
+     *
+     * @param doubleArray
+     *            real values
+     *
+     * @return new complex array containing the values of doubleArray
+     */
+    public static ComplexArray valueOf(double[] doubleArray) {
+        ComplexArray complexArray = new ComplexArray(doubleArray.length);
+        for (int i = 0; i < doubleArray.length; i++) {
+            complexArray.data[2 * i] = doubleArray[i];
+        }
+        return complexArray;
+    }
+
+    /**
+     * Get number of complex values
+     *
+     * @return number of complex values
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Get backing interleaved array. Changes to the returned array are visible in this complex array.
+     *
+     * @return backing array
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /**
+     * Get index in backing array of the real part of the first complex value
+     *
+     * @return offset into backing array
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get real part of complex value
+     *
+     * @param index
+     *            index of complex value
+     *
+     * @return real part
+     */
+    public double getReal(int index) {
+        return data[offset + 2 * checkIndex(index)];
+    }
+
+    /**
+     * Get imaginary part of complex value
+     *
+     * @param index
+     *            index of complex value
+     *
+     * @return imaginary part
+     */
+    public double getImaginary(int index) {
+        return data[offset + 2 * checkIndex(index) + 1];
+    }
+
+    /**
+     * Get complex value
+     *
+     * @param index
+     *            index of complex value
+     *
+     * @return new {@code Complex} holding the value at index
+     */
+    public Complex get(int index) {
+        int i = offset + 2 * checkIndex(index);
+        return new Complex(data[i], data[i + 1]);
+    }
+
+    /**
+     * Set complex value
+     *
+     * @param index
+     *            index of complex value
+     * @param real
+     *            real part
+     * @param imaginary
+     *            imaginary part
+     */
+    public void set(int index, double real, double imaginary) {
+        int i = offset + 2 * checkIndex(index);
+        data[i] = real;
+        data[i + 1] = imaginary;
+    }
+
+    /**
+     * Set complex value
+     *
+     * @param index
+     *            index of complex value
+     * @param value
+     *            complex value
+     */
+    public void set(int index, Complex value) {
+        set(index, value.getReal(), value.getImaginary());
+    }
+
+    /**
+     * Create view of part of this complex array. The view shares backing array with this complex array.
+     *
+     * @param fromIndex
+     *            index of first complex value in view
+     * @param viewLength
+     *            number of complex values in view
+     *
+     * @return view of complex values [fromIndex, fromIndex + viewLength)
+     *
+     * @exception IllegalArgumentException
+     *                if view is not within this complex array
+     */
+    public ComplexArray subArray(int fromIndex, int viewLength) {
+        if (fromIndex < 0 || viewLength < 0 || fromIndex > length - viewLength) {
+            throw new IllegalArgumentException(
+                    "fromIndex " + fromIndex + " and length " + viewLength + " is out of range for length " + length);
+        }
+        return new ComplexArray(data, offset + 2 * fromIndex, viewLength);
+    }
+
+    /**
+     * Create compact copy of this complex array
+     *
+     * @return new complex array with its own backing array starting at offset 0
+     */
+    public ComplexArray copy() {
+        return new ComplexArray(toInterleavedArray(), 0, length);
+    }
+
+    /**
+     * Create compact copy of interleaved values
+     *
+     * @return new array of size 2 * length with interleaved real and imaginary parts
+     */
+    public double[] toInterleavedArray() {
+        double[] interleavedData = new double[2 * length];
+        System.arraycopy(data, offset, interleavedData, 0, interleavedData.length);
+        return interleavedData;
+    }
+
+    /**
+     * Convert to list of complex values
+     *
+     * @return new list of complex values
+     */
+    public List<Complex> toList() {
+        List<Complex> complexList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            complexList.add(new Complex(data[offset + 2 * i], data[offset + 2 * i + 1]));
+        }
+        return complexList;
+    }
+
+    /**
+     * Convert to array of complex values
+     *
+     * @return new array of complex values
+     */
+    public Complex[] toArray() {
+        Complex[] complexList = new Complex[length];
+        for (int i = 0; i < length; i++) {
+            complexList[i] = new Complex(data[offset + 2 * i], data[offset + 2 * i + 1]);
+        }
+        return complexList;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range for length " + length);
+        }
+        return index;
+    }
+
+    private static int checkLength(int length) {
+        if (length < 0 || length > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("length needs to be non-negative and at most Integer.MAX_VALUE / 2");
+        }
+        return length;
+    }
+
+    private static int checkEven(int length) {
+        if (length % 2 != 0) {
+            throw new IllegalArgumentException("interleavedData needs to be of even length");
+        }
+        return length;
+    }
+
+}
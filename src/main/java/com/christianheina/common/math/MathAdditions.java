@@ -16,8 +16,15 @@
 
 package com.christianheina.common.math;
 
+import java.nio.DoubleBuffer;
 import java.util.List;
 
+import com.christianheina.common.math.statistics.CorrelationMatrix;
+import com.christianheina.common.math.statistics.PairStatistics;
+import com.christianheina.common.math.statistics.PairStatisticsAccumulator;
+import com.christianheina.common.math.statistics.QuantileSketch;
+import com.christianheina.common.math.statistics.StatisticsAccumulator;
+
 /**
  * Provides math utilities.
  * 
@@ -43,12 +50,191 @@ public class MathAdditions {
      *                if complexList1 and complexList2 is not the same size
      */
     public static double pearsonCorrelation(List<Double> doubleList1, List<Double> doubleList2) {
-        double coveriance = covariance(doubleList1, doubleList2);
+        return pairStatistics(doubleList1, doubleList2).getCorrelation();
+    }
+
+    /**
+     * Calculate pearson correlation of two arrays.
+     * 
+     * @param array1
+     *            first array to calculate correlation
+     * @param array2
+     *            second array to calculate correlation
+     * 
+     * @return Correlation. Value is between -1 and 1 with -1 being negatively correlated, 0 being uncorrelated and 1
+     *         correlated.
+     * 
+     * @exception IllegalArgumentException
+     *                if array1 and array2 is not the same length
+     */
+    public static double pearsonCorrelation(double[] array1, double[] array2) {
+        if (array1.length != array2.length) {
+            throw new IllegalArgumentException("array1 and array2 needs to be of equal length");
+        }
+        return pearsonCorrelation(array1, 0, array2, 0, array1.length);
+    }
+
+    /**
+     * Calculate pearson correlation of two array ranges.
+     * 
+     * @param array1
+     *            first array to calculate correlation
+     * @param offset1
+     *            index of first value in array1
+     * @param array2
+     *            second array to calculate correlation
+     * @param offset2
+     *            index of first value in array2
+     * @param length
+     *            number of values in each range
+     * 
+     * @return Correlation. Value is between -1 and 1 with -1 being negatively correlated, 0 being uncorrelated and 1
+     *         correlated.
+     * 
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public static double pearsonCorrelation(double[] array1, int offset1, double[] array2, int offset2, int length) {
+        checkRange(array1, offset1, length);
+        checkRange(array2, offset2, length);
+        return pairStatisticsKernel(array1, offset1, array2, offset2, length).getCorrelation();
+    }
 
-        double stdVector1 = standardDeviation(doubleList1);
-        double stdVector2 = standardDeviation(doubleList2);
+    /**
+     * Calculate pearson correlation of the remaining values of two buffers. Buffer positions are not changed.
+     * 
+     * @param buffer1
+     *            first buffer to calculate correlation
+     * @param buffer2
+     *            second buffer to calculate correlation
+     * 
+     * @return Correlation. Value is between -1 and 1 with -1 being negatively correlated, 0 being uncorrelated and 1
+     *         correlated.
+     * 
+     * @exception IllegalArgumentException
+     *                if buffer1 and buffer2 does not have the same number of remaining values
+     */
+    public static double pearsonCorrelation(DoubleBuffer buffer1, DoubleBuffer buffer2) {
+        if (buffer1.remaining() != buffer2.remaining()) {
+            throw new IllegalArgumentException("buffer1 and buffer2 needs to have equal remaining length");
+        }
+        if (buffer1.hasArray() && buffer2.hasArray()) {
+            return pearsonCorrelation(buffer1.array(), buffer1.arrayOffset() + buffer1.position(), buffer2.array(),
+                    buffer2.arrayOffset() + buffer2.position(), buffer1.remaining());
+        }
+        return pairStatisticsKernel(buffer1, buffer2).getCorrelation();
+    }
 
-        return coveriance / (stdVector1 * stdVector2);
+    /**
+     * Calculate pearson correlation between every pair of series. Each series is normalized once and the correlations
+     * are computed in parallel using the common {@code ForkJoinPool}.
+     * 
+     * @param series
+     *            series to correlate, all of equal length
+     * 
+     * @return symmetric correlation matrix, element (i, j) is the correlation of series i and j
+     * 
+     * @exception IllegalArgumentException
+     *                if series are not of equal length
+     */
+    public static CorrelationMatrix correlationMatrix(double[][] series) {
+        return CorrelationMatrix.of(series);
+    }
+
+    /**
+     * Calculate means, variances, covariance and pearson correlation of two lists in a single pass.
+     * 
+     * @param doubleList1
+     *            first list
+     * @param doubleList2
+     *            second list
+     * 
+     * @return statistics of both lists
+     * 
+     * @exception IllegalArgumentException
+     *                if doubleList1 and doubleList2 is not the same size
+     */
+    public static PairStatistics pairStatistics(List<Double> doubleList1, List<Double> doubleList2) {
+        // Check vectors are same size
+        if (doubleList1.size() != doubleList2.size()) {
+            throw new IllegalArgumentException("doubleList1 and doubleList2 needs to be of equal size");
+        }
+        PairStatisticsAccumulator accumulator = new PairStatisticsAccumulator();
+        for (int i = 0; i < doubleList1.size(); i++) {
+            accumulator.accept(doubleList1.get(i), doubleList2.get(i));
+        }
+        return accumulator.toStatistics();
+    }
+
+    /**
+     * Calculate means, variances, covariance and pearson correlation of two arrays.
+     * 
+     * @param array1
+     *            first array
+     * @param array2
+     *            second array
+     * 
+     * @return statistics of both series
+     * 
+     * @exception IllegalArgumentException
+     *                if array1 and array2 is not the same length
+     */
+    public static PairStatistics pairStatistics(double[] array1, double[] array2) {
+        if (array1.length != array2.length) {
+            throw new IllegalArgumentException("array1 and array2 needs to be of equal length");
+        }
+        return pairStatistics(array1, 0, array2, 0, array1.length);
+    }
+
+    /**
+     * Calculate means, variances, covariance and pearson correlation of two array ranges.
+     * 
+     * @param array1
+     *            first array
+     * @param offset1
+     *            index of first value in array1
+     * @param array2
+     *            second array
+     * @param offset2
+     *            index of first value in array2
+     * @param length
+     *            number of values in each range
+     * 
+     * @return statistics of both series
+     * 
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public static PairStatistics pairStatistics(double[] array1, int offset1, double[] array2, int offset2,
+            int length) {
+        checkRange(array1, offset1, length);
+        checkRange(array2, offset2, length);
+        return pairStatisticsKernel(array1, offset1, array2, offset2, length);
+    }
+
+    /**
+     * Calculate means, variances, covariance and pearson correlation of the remaining values of two buffers. Buffer
+     * positions are not changed.
+     * 
+     * @param buffer1
+     *            first buffer
+     * @param buffer2
+     *            second buffer
+     * 
+     * @return statistics of both series
+     * 
+     * @exception IllegalArgumentException
+     *                if buffer1 and buffer2 does not have the same number of remaining values
+     */
+    public static PairStatistics pairStatistics(DoubleBuffer buffer1, DoubleBuffer buffer2) {
+        if (buffer1.remaining() != buffer2.remaining()) {
+            throw new IllegalArgumentException("buffer1 and buffer2 needs to have equal remaining length");
+        }
+        if (buffer1.hasArray() && buffer2.hasArray()) {
+            return pairStatistics(buffer1.array(), buffer1.arrayOffset() + buffer1.position(), buffer2.array(),
+                    buffer2.arrayOffset() + buffer2.position(), buffer1.remaining());
+        }
+        return pairStatisticsKernel(buffer1, buffer2);
     }
 
     /**
@@ -78,6 +264,76 @@ public class MathAdditions {
         return sum;
     }
 
+    /**
+     * Calculate dot product (sum of elementwise product) of two arrays.
+     * 
+     * @param array1
+     *            first array to perform dot product
+     * @param array2
+     *            second array to perform dot product
+     * 
+     * @return dot product
+     * 
+     * @exception IllegalArgumentException
+     *                if array1 and array2 is not the same length
+     */
+    public static double dotProduct(double[] array1, double[] array2) {
+        if (array1.length != array2.length) {
+            throw new IllegalArgumentException("array1 and array2 needs to be of equal length");
+        }
+        return dotProduct(array1, 0, array2, 0, array1.length);
+    }
+
+    /**
+     * Calculate dot product (sum of elementwise product) of two array ranges.
+     * 
+     * @param array1
+     *            first array to perform dot product
+     * @param offset1
+     *            index of first value in array1
+     * @param array2
+     *            second array to perform dot product
+     * @param offset2
+     *            index of first value in array2
+     * @param length
+     *            number of values in each range
+     * 
+     * @return dot product
+     * 
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public static double dotProduct(double[] array1, int offset1, double[] array2, int offset2, int length) {
+        checkRange(array1, offset1, length);
+        checkRange(array2, offset2, length);
+        return dotProductKernel(array1, offset1, array2, offset2, length);
+    }
+
+    /**
+     * Calculate dot product (sum of elementwise product) of the remaining values of two buffers. Buffer positions are
+     * not changed.
+     * 
+     * @param buffer1
+     *            first buffer to perform dot product
+     * @param buffer2
+     *            second buffer to perform dot product
+     * 
+     * @return dot product
+     * 
+     * @exception IllegalArgumentException
+     *                if buffer1 and buffer2 does not have the same number of remaining values
+     */
+    public static double dotProduct(DoubleBuffer buffer1, DoubleBuffer buffer2) {
+        if (buffer1.remaining() != buffer2.remaining()) {
+            throw new IllegalArgumentException("buffer1 and buffer2 needs to have equal remaining length");
+        }
+        if (buffer1.hasArray() && buffer2.hasArray()) {
+            return dotProduct(buffer1.array(), buffer1.arrayOffset() + buffer1.position(), buffer2.array(),
+                    buffer2.arrayOffset() + buffer2.position(), buffer1.remaining());
+        }
+        return dotProductKernel(buffer1, buffer2);
+    }
+
     /**
      * Calculate covariance [cov(A,B)] of two lists
      * 
@@ -96,13 +352,76 @@ public class MathAdditions {
         if (doubleList1.size() != doubleList2.size()) {
             throw new IllegalArgumentException("doubleList1 and douybleList2 needs to be of equal size");
         }
-        double u1 = mean(doubleList1);
-        double u2 = mean(doubleList2);
-        double sum = 0;
-        for (int i = 0; i < doubleList1.size(); i++) {
-            sum += (doubleList1.get(i) - u1) * (doubleList2.get(i) - u2);
+        return pairStatistics(doubleList1, doubleList2).getCovariance();
+    }
+
+    /**
+     * Calculate covariance [cov(A,B)] of two arrays.
+     * 
+     * @param array1
+     *            first array in covariance calculation
+     * @param array2
+     *            second array in covariance calculation
+     * 
+     * @return covariance
+     * 
+     * @exception IllegalArgumentException
+     *                if array1 and array2 is not the same length
+     */
+    public static double covariance(double[] array1, double[] array2) {
+        if (array1.length != array2.length) {
+            throw new IllegalArgumentException("array1 and array2 needs to be of equal length");
         }
-        return sum / (doubleList1.size() - 1);
+        return covariance(array1, 0, array2, 0, array1.length);
+    }
+
+    /**
+     * Calculate covariance [cov(A,B)] of two array ranges.
+     * 
+     * @param array1
+     *            first array in covariance calculation
+     * @param offset1
+     *            index of first value in array1
+     * @param array2
+     *            second array in covariance calculation
+     * @param offset2
+     *            index of first value in array2
+     * @param length
+     *            number of values in each range
+     * 
+     * @return covariance
+     * 
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public static double covariance(double[] array1, int offset1, double[] array2, int offset2, int length) {
+        checkRange(array1, offset1, length);
+        checkRange(array2, offset2, length);
+        return pairStatisticsKernel(array1, offset1, array2, offset2, length).getCovariance();
+    }
+
+    /**
+     * Calculate covariance [cov(A,B)] of the remaining values of two buffers. Buffer positions are not changed.
+     * 
+     * @param buffer1
+     *            first buffer in covariance calculation
+     * @param buffer2
+     *            second buffer in covariance calculation
+     * 
+     * @return covariance
+     * 
+     * @exception IllegalArgumentException
+     *                if buffer1 and buffer2 does not have the same number of remaining values
+     */
+    public static double covariance(DoubleBuffer buffer1, DoubleBuffer buffer2) {
+        if (buffer1.remaining() != buffer2.remaining()) {
+            throw new IllegalArgumentException("buffer1 and buffer2 needs to have equal remaining length");
+        }
+        if (buffer1.hasArray() && buffer2.hasArray()) {
+            return covariance(buffer1.array(), buffer1.arrayOffset() + buffer1.position(), buffer2.array(),
+                    buffer2.arrayOffset() + buffer2.position(), buffer1.remaining());
+        }
+        return pairStatisticsKernel(buffer1, buffer2).getCovariance();
     }
 
     /**
@@ -114,14 +433,59 @@ public class MathAdditions {
      * @return variance [var(complexList)]
      */
     public static double variance(List<Double> doubleList) {
-        double u = mean(doubleList); // Calculate mean (u)
-        double sum = 0;
-
+        // Single pass over list, lists can not be read twice as cheaply as arrays
+        StatisticsAccumulator accumulator = new StatisticsAccumulator();
         for (double sample : doubleList) {
-            // Add |sample - mean|^2
-            sum += Math.pow(Math.abs(sample - u), 2);
+            accumulator.accept(sample);
         }
-        return sum / (doubleList.size() - 1);
+        return accumulator.getVariance();
+    }
+
+    /**
+     * Calculate variance [var(A)] of array.
+     * 
+     * @param array
+     *            array to calculate variance
+     * 
+     * @return variance
+     */
+    public static double variance(double[] array) {
+        return variance(array, 0, array.length);
+    }
+
+    /**
+     * Calculate variance [var(A)] of array range.
+     * 
+     * @param array
+     *            array to calculate variance
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     * 
+     * @return variance
+     * 
+     * @exception IllegalArgumentException
+     *                if range is not within array
+     */
+    public static double variance(double[] array, int offset, int length) {
+        checkRange(array, offset, length);
+        return squaredDeviationKernel(array, offset, length) / (length - 1);
+    }
+
+    /**
+     * Calculate variance [var(A)] of the remaining values of buffer. Buffer position is not changed.
+     * 
+     * @param buffer
+     *            buffer to calculate variance
+     * 
+     * @return variance
+     */
+    public static double variance(DoubleBuffer buffer) {
+        if (buffer.hasArray()) {
+            return variance(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return squaredDeviationKernel(buffer) / (buffer.remaining() - 1);
     }
 
     /**
@@ -137,6 +501,52 @@ public class MathAdditions {
         return Math.sqrt(variance(doubleList));
     }
 
+    /**
+     * Calculate standard deviation of array.
+     * 
+     * @param array
+     *            array to calculate standard deviation
+     * 
+     * @return standard deviation
+     */
+    public static double standardDeviation(double[] array) {
+        return standardDeviation(array, 0, array.length);
+    }
+
+    /**
+     * Calculate standard deviation of array range.
+     * 
+     * @param array
+     *            array to calculate standard deviation
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     * 
+     * @return standard deviation
+     * 
+     * @exception IllegalArgumentException
+     *                if range is not within array
+     */
+    public static double standardDeviation(double[] array, int offset, int length) {
+        return Math.sqrt(variance(array, offset, length));
+    }
+
+    /**
+     * Calculate standard deviation of the remaining values of buffer. Buffer position is not changed.
+     * 
+     * @param buffer
+     *            buffer to calculate standard deviation
+     * 
+     * @return standard deviation
+     */
+    public static double standardDeviation(DoubleBuffer buffer) {
+        if (buffer.hasArray()) {
+            return standardDeviation(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return Math.sqrt(variance(buffer));
+    }
+
     /**
      * Calculate sum each element in list
      * 
@@ -153,6 +563,53 @@ public class MathAdditions {
         return sum;
     }
 
+    /**
+     * Calculate sum of each element of array.
+     * 
+     * @param array
+     *            array to sum
+     * 
+     * @return sum value
+     */
+    public static double sum(double[] array) {
+        return sum(array, 0, array.length);
+    }
+
+    /**
+     * Calculate sum of each element of array range.
+     * 
+     * @param array
+     *            array to sum
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     * 
+     * @return sum value
+     * 
+     * @exception IllegalArgumentException
+     *                if range is not within array
+     */
+    public static double sum(double[] array, int offset, int length) {
+        checkRange(array, offset, length);
+        return sumKernel(array, offset, length);
+    }
+
+    /**
+     * Calculate sum of each element of the remaining values of buffer. Buffer position is not changed.
+     * 
+     * @param buffer
+     *            buffer to sum
+     * 
+     * @return sum value
+     */
+    public static double sum(DoubleBuffer buffer) {
+        if (buffer.hasArray()) {
+            return sum(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return sumKernel(buffer);
+    }
+
     /**
      * Calculate mean of list
      * 
@@ -166,4 +623,397 @@ public class MathAdditions {
         return sum(listToMean) / listToMean.size();
     }
 
+    /**
+     * Calculate mean of array.
+     * 
+     * @param array
+     *            array to mean
+     * 
+     * @return mean value
+     */
+    public static double mean(double[] array) {
+        return mean(array, 0, array.length);
+    }
+
+    /**
+     * Calculate mean of array range.
+     * 
+     * @param array
+     *            array to mean
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     * 
+     * @return mean value
+     * 
+     * @exception IllegalArgumentException
+     *                if range is not within array
+     */
+    public static double mean(double[] array, int offset, int length) {
+        checkRange(array, offset, length);
+        return sumKernel(array, offset, length) / length;
+    }
+
+    /**
+     * Calculate mean of the remaining values of buffer. Buffer position is not changed.
+     * 
+     * @param buffer
+     *            buffer to mean
+     * 
+     * @return mean value
+     */
+    public static double mean(DoubleBuffer buffer) {
+        if (buffer.hasArray()) {
+            return mean(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return sumKernel(buffer) / buffer.remaining();
+    }
+
+    /**
+     * Create quantile sketch of list with {@link QuantileSketch#DEFAULT_K}
+     * 
+     * @param doubleList
+     *            list to sketch
+     * 
+     * @return quantile sketch estimating median, percentiles and ranks of doubleList
+     * 
+     * @exception IllegalArgumentException
+     *                if a value is NaN
+     */
+    public static QuantileSketch quantileSketch(List<Double> doubleList) {
+        QuantileSketch sketch = new QuantileSketch();
+        for (double sample : doubleList) {
+            sketch.accept(sample);
+        }
+        return sketch;
+    }
+
+    /**
+     * Create quantile sketch of array with {@link QuantileSketch#DEFAULT_K}
+     * 
+     * @param array
+     *            array to sketch
+     * 
+     * @return quantile sketch estimating median, percentiles and ranks of array
+     * 
+     * @exception IllegalArgumentException
+     *                if a value is NaN
+     */
+    public static QuantileSketch quantileSketch(double[] array) {
+        return quantileSketch(array, 0, array.length);
+    }
+
+    /**
+     * Create quantile sketch of array range with {@link QuantileSketch#DEFAULT_K}
+     * 
+     * @param array
+     *            array to sketch
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     * 
+     * @return quantile sketch estimating median, percentiles and ranks of range
+     * 
+     * @exception IllegalArgumentException
+     *                if range is not within array or a value is NaN
+     */
+    public static QuantileSketch quantileSketch(double[] array, int offset, int length) {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.accept(array, offset, length);
+        return sketch;
+    }
+
+    /**
+     * Create quantile sketch of the remaining values of buffer with {@link QuantileSketch#DEFAULT_K}. Buffer position
+     * is not changed.
+     * 
+     * @param buffer
+     *            buffer to sketch
+     * 
+     * @return quantile sketch estimating median, percentiles and ranks of buffer
+     * 
+     * @exception IllegalArgumentException
+     *                if a value is NaN
+     */
+    public static QuantileSketch quantileSketch(DoubleBuffer buffer) {
+        if (buffer.hasArray()) {
+            return quantileSketch(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            sketch.accept(buffer.get(i));
+        }
+        return sketch;
+    }
+
+    private static void checkRange(double[] array, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > array.length) {
+            throw new IllegalArgumentException("offset and length needs to be within array");
+        }
+    }
+
+    // Kernels use independent accumulators so the JIT can vectorize and pipeline the additions
+
+    private static double sumKernel(double[] array, int offset, int length) {
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int end = offset + length;
+        int unrolledEnd = offset + (length & ~3);
+        int i = offset;
+        for (; i < unrolledEnd; i += 4) {
+            sum0 += array[i];
+            sum1 += array[i + 1];
+            sum2 += array[i + 2];
+            sum3 += array[i + 3];
+        }
+        for (; i < end; i++) {
+            sum0 += array[i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double sumKernel(DoubleBuffer buffer) {
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int end = buffer.limit();
+        int unrolledEnd = buffer.position() + (buffer.remaining() & ~3);
+        int i = buffer.position();
+        for (; i < unrolledEnd; i += 4) {
+            sum0 += buffer.get(i);
+            sum1 += buffer.get(i + 1);
+            sum2 += buffer.get(i + 2);
+            sum3 += buffer.get(i + 3);
+        }
+        for (; i < end; i++) {
+            sum0 += buffer.get(i);
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double dotProductKernel(double[] array1, int offset1, double[] array2, int offset2, int length) {
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int unrolledLength = length & ~3;
+        int i = 0;
+        for (; i < unrolledLength; i += 4) {
+            sum0 += array1[offset1 + i] * array2[offset2 + i];
+            sum1 += array1[offset1 + i + 1] * array2[offset2 + i + 1];
+            sum2 += array1[offset1 + i + 2] * array2[offset2 + i + 2];
+            sum3 += array1[offset1 + i + 3] * array2[offset2 + i + 3];
+        }
+        for (; i < length; i++) {
+            sum0 += array1[offset1 + i] * array2[offset2 + i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double dotProductKernel(DoubleBuffer buffer1, DoubleBuffer buffer2) {
+        int offset1 = buffer1.position();
+        int offset2 = buffer2.position();
+        int length = buffer1.remaining();
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int unrolledLength = length & ~3;
+        int i = 0;
+        for (; i < unrolledLength; i += 4) {
+            sum0 += buffer1.get(offset1 + i) * buffer2.get(offset2 + i);
+            sum1 += buffer1.get(offset1 + i + 1) * buffer2.get(offset2 + i + 1);
+            sum2 += buffer1.get(offset1 + i + 2) * buffer2.get(offset2 + i + 2);
+            sum3 += buffer1.get(offset1 + i + 3) * buffer2.get(offset2 + i + 3);
+        }
+        for (; i < length; i++) {
+            sum0 += buffer1.get(offset1 + i) * buffer2.get(offset2 + i);
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double squaredDeviationKernel(double[] array, int offset, int length) {
+        // Two pass: deviations from the exact mean avoid the cancellation of a sum of squares formulation
+        double u = sumKernel(array, offset, length) / length;
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        double deviationSum0 = 0;
+        double deviationSum1 = 0;
+        double deviationSum2 = 0;
+        double deviationSum3 = 0;
+        int end = offset + length;
+        int unrolledEnd = offset + (length & ~3);
+        int i = offset;
+        for (; i < unrolledEnd; i += 4) {
+            double delta0 = array[i] - u;
+            double delta1 = array[i + 1] - u;
+            double delta2 = array[i + 2] - u;
+            double delta3 = array[i + 3] - u;
+            sum0 += delta0 * delta0;
+            sum1 += delta1 * delta1;
+            sum2 += delta2 * delta2;
+            sum3 += delta3 * delta3;
+            deviationSum0 += delta0;
+            deviationSum1 += delta1;
+            deviationSum2 += delta2;
+            deviationSum3 += delta3;
+        }
+        for (; i < end; i++) {
+            double delta = array[i] - u;
+            sum0 += delta * delta;
+            deviationSum0 += delta;
+        }
+        return correctedSquaredDeviation((sum0 + sum1) + (sum2 + sum3),
+                (deviationSum0 + deviationSum1) + (deviationSum2 + deviationSum3), length);
+    }
+
+    private static double squaredDeviationKernel(DoubleBuffer buffer) {
+        double u = sumKernel(buffer) / buffer.remaining();
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        double deviationSum0 = 0;
+        double deviationSum1 = 0;
+        double deviationSum2 = 0;
+        double deviationSum3 = 0;
+        int end = buffer.limit();
+        int unrolledEnd = buffer.position() + (buffer.remaining() & ~3);
+        int i = buffer.position();
+        for (; i < unrolledEnd; i += 4) {
+            double delta0 = buffer.get(i) - u;
+            double delta1 = buffer.get(i + 1) - u;
+            double delta2 = buffer.get(i + 2) - u;
+            double delta3 = buffer.get(i + 3) - u;
+            sum0 += delta0 * delta0;
+            sum1 += delta1 * delta1;
+            sum2 += delta2 * delta2;
+            sum3 += delta3 * delta3;
+            deviationSum0 += delta0;
+            deviationSum1 += delta1;
+            deviationSum2 += delta2;
+            deviationSum3 += delta3;
+        }
+        for (; i < end; i++) {
+            double delta = buffer.get(i) - u;
+            sum0 += delta * delta;
+            deviationSum0 += delta;
+        }
+        return correctedSquaredDeviation((sum0 + sum1) + (sum2 + sum3),
+                (deviationSum0 + deviationSum1) + (deviationSum2 + deviationSum3), buffer.remaining());
+    }
+
+    private static PairStatistics pairStatisticsKernel(double[] array1, int offset1, double[] array2, int offset2,
+            int length) {
+        // Two fused passes, first both sums and then all second order moments
+        double u1 = sumKernel(array1, offset1, length) / length;
+        double u2 = sumKernel(array2, offset2, length) / length;
+        double m1Even = 0;
+        double m1Odd = 0;
+        double m2Even = 0;
+        double m2Odd = 0;
+        double cEven = 0;
+        double cOdd = 0;
+        double d1Even = 0;
+        double d1Odd = 0;
+        double d2Even = 0;
+        double d2Odd = 0;
+        int unrolledLength = length & ~1;
+        int i = 0;
+        for (; i < unrolledLength; i += 2) {
+            double delta1Even = array1[offset1 + i] - u1;
+            double delta1Odd = array1[offset1 + i + 1] - u1;
+            double delta2Even = array2[offset2 + i] - u2;
+            double delta2Odd = array2[offset2 + i + 1] - u2;
+            m1Even += delta1Even * delta1Even;
+            m1Odd += delta1Odd * delta1Odd;
+            m2Even += delta2Even * delta2Even;
+            m2Odd += delta2Odd * delta2Odd;
+            cEven += delta1Even * delta2Even;
+            cOdd += delta1Odd * delta2Odd;
+            d1Even += delta1Even;
+            d1Odd += delta1Odd;
+            d2Even += delta2Even;
+            d2Odd += delta2Odd;
+        }
+        if (i < length) {
+            double delta1 = array1[offset1 + i] - u1;
+            double delta2 = array2[offset2 + i] - u2;
+            m1Even += delta1 * delta1;
+            m2Even += delta2 * delta2;
+            cEven += delta1 * delta2;
+            d1Even += delta1;
+            d2Even += delta2;
+        }
+        return correctedPairStatistics(length, u1, u2, m1Even + m1Odd, m2Even + m2Odd, cEven + cOdd, d1Even + d1Odd,
+                d2Even + d2Odd);
+    }
+
+    private static PairStatistics pairStatisticsKernel(DoubleBuffer buffer1, DoubleBuffer buffer2) {
+        int offset1 = buffer1.position();
+        int offset2 = buffer2.position();
+        int length = buffer1.remaining();
+        double u1 = sumKernel(buffer1) / length;
+        double u2 = sumKernel(buffer2) / length;
+        double m1Even = 0;
+        double m1Odd = 0;
+        double m2Even = 0;
+        double m2Odd = 0;
+        double cEven = 0;
+        double cOdd = 0;
+        double d1Even = 0;
+        double d1Odd = 0;
+        double d2Even = 0;
+        double d2Odd = 0;
+        int unrolledLength = length & ~1;
+        int i = 0;
+        for (; i < unrolledLength; i += 2) {
+            double delta1Even = buffer1.get(offset1 + i) - u1;
+            double delta1Odd = buffer1.get(offset1 + i + 1) - u1;
+            double delta2Even = buffer2.get(offset2 + i) - u2;
+            double delta2Odd = buffer2.get(offset2 + i + 1) - u2;
+            m1Even += delta1Even * delta1Even;
+            m1Odd += delta1Odd * delta1Odd;
+            m2Even += delta2Even * delta2Even;
+            m2Odd += delta2Odd * delta2Odd;
+            cEven += delta1Even * delta2Even;
+            cOdd += delta1Odd * delta2Odd;
+            d1Even += delta1Even;
+            d1Odd += delta1Odd;
+            d2Even += delta2Even;
+            d2Odd += delta2Odd;
+        }
+        if (i < length) {
+            double delta1 = buffer1.get(offset1 + i) - u1;
+            double delta2 = buffer2.get(offset2 + i) - u2;
+            m1Even += delta1 * delta1;
+            m2Even += delta2 * delta2;
+            cEven += delta1 * delta2;
+            d1Even += delta1;
+            d2Even += delta2;
+        }
+        return correctedPairStatistics(length, u1, u2, m1Even + m1Odd, m2Even + m2Odd, cEven + cOdd, d1Even + d1Odd,
+                d2Even + d2Odd);
+    }
+
+    private static double correctedSquaredDeviation(double squaredDeviationSum, double deviationSum, int length) {
+        // Sum of deviations from the rounded mean is not exactly 0, remove its contribution
+        return squaredDeviationSum - deviationSum * deviationSum / length;
+    }
+
+    private static PairStatistics correctedPairStatistics(int length, double u1, double u2, double squaredDeviationSum1,
+            double squaredDeviationSum2, double crossDeviationSum, double deviationSum1, double deviationSum2) {
+        double m1 = correctedSquaredDeviation(squaredDeviationSum1, deviationSum1, length);
+        double m2 = correctedSquaredDeviation(squaredDeviationSum2, deviationSum2, length);
+        double c = crossDeviationSum - deviationSum1 * deviationSum2 / length;
+        return new PairStatistics(length, u1, u2, m1 / (length - 1), m2 / (length - 1), c / (length - 1));
+    }
+
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache of values that are expensive to create and immutable once created.<br>
+ * Lookups are lock free. Values are created outside of any lock, when two threads miss the same key concurrently both
+ * create a value and the first one stored is returned to both. When the cache grows beyond its maximum size the least
+ * recently used value is evicted.
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, CachedValue<V>> values = new ConcurrentHashMap<>();
+    private final Function<? super K, ? extends V> valueFactory;
+    private final Object evictionLock = new Object();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private volatile int maximumSize;
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize
+     *            maximum number of cached values
+     * @param valueFactory
+     *            function creating the value of a key
+     *
+     * @exception IllegalArgumentException
+     *                if maximumSize is less than 1
+     */
+    public BoundedCache(int maximumSize, Function<? super K, ? extends V> valueFactory) {
+        this.valueFactory = valueFactory;
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Get value of key, creating and caching it if not already cached.
+     *
+     * @param key
+     *            key of value
+     *
+     * @return value of key
+     */
+    public V get(K key) {
+        CachedValue<V> cachedValue = values.get(key);
+        if (cachedValue != null) {
+            hitCount.incrementAndGet();
+            cachedValue.lastAccess = accessClock.incrementAndGet();
+            return cachedValue.value;
+        }
+        missCount.incrementAndGet();
+        // Create value outside of any lock since creation can be expensive
+        CachedValue<V> newValue = new CachedValue<>(valueFactory.apply(key), accessClock.incrementAndGet());
+        CachedValue<V> existingValue = values.putIfAbsent(key, newValue);
+        if (existingValue != null) {
+            return existingValue.value;
+        }
+        evictIfNeeded();
+        return newValue.value;
+    }
+
+    /**
+     * Get number of lookups that found a cached value
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get number of lookups that had to create a value
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get number of values evicted because the cache was full
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Get number of currently cached values
+     *
+     * @return number of cached values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Get maximum number of cached values
+     *
+     * @return maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Set maximum number of cached values. Values are evicted immediately if the cache is larger than the new maximum.
+     *
+     * @param maximumSize
+     *            maximum number of cached values
+     *
+     * @exception IllegalArgumentException
+     *                if maximumSize is less than 1
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize needs to be at least 1");
+        }
+        this.maximumSize = maximumSize;
+        evictIfNeeded();
+    }
+
+    /**
+     * Remove all cached values and reset hit, miss and eviction counters
+     */
+    public void clear() {
+        synchronized (evictionLock) {
+            values.clear();
+            hitCount.set(0);
+            missCount.set(0);
+            evictionCount.set(0);
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (values.size() <= maximumSize) {
+            return;
+        }
+        synchronized (evictionLock) {
+            while (values.size() > maximumSize) {
+                Map.Entry<K, CachedValue<V>> leastRecentlyUsed = null;
+                for (Map.Entry<K, CachedValue<V>> entry : values.entrySet()) {
+                    if (leastRecentlyUsed == null
+                            || entry.getValue().lastAccess < leastRecentlyUsed.getValue().lastAccess) {
+                        leastRecentlyUsed = entry;
+                    }
+                }
+                if (leastRecentlyUsed != null
+                        && values.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static final class CachedValue<V> {
+        private final V value;
+        private volatile long lastAccess;
+
+        private CachedValue(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+/**
+ * Performs FFT on batches of independent, equal length frames.<br>
+ * All frames share one cached plan and are distributed over a {@link ForkJoinPool}, one frame per transform. While a
+ * batch of several frames runs, JTransforms internal threading is disabled so that frame level parallelism is not
+ * multiplied by transform level parallelism.
+ * <p>
+ * Frames are interleaved complex values, either as one array per frame or as frames at a fixed stride in one contiguous
+ * buffer. Transforms are performed in place.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class BatchFft {
+
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final int frameLength;
+    private final ForkJoinPool pool;
+    private final DoubleFFT_1D plan;
+
+    /**
+     * Constructor using the common {@link ForkJoinPool}
+     *
+     * @param frameLength
+     *            number of complex values in each frame
+     *
+     * @exception IllegalArgumentException
+     *                if frameLength is less than 1
+     */
+    public BatchFft(int frameLength) {
+        this(frameLength, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param frameLength
+     *            number of complex values in each frame
+     * @param pool
+     *            pool that frames are distributed over
+     *
+     * @exception IllegalArgumentException
+     *                if frameLength is less than 1
+     */
+    public BatchFft(int frameLength, ForkJoinPool pool) {
+        if (frameLength < 1) {
+            throw new IllegalArgumentException("frameLength needs to be at least 1");
+        }
+        this.frameLength = frameLength;
+        this.pool = pool;
+        this.plan = FftPlanCache.doubleFft1d(frameLength);
+    }
+
+    /**
+     * Get number of complex values in each frame
+     *
+     * @return frame length
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * Perform FFT in place on each frame
+     *
+     * @param frames
+     *            frames of interleaved complex values. Each frame needs to have size 2 * frameLength
+     *
+     * @exception IllegalArgumentException
+     *                if any frame is not of size 2 * frameLength
+     */
+    public void fftInPlace(double[][] frames) {
+        checkFrames(frames);
+        run(frames.length, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                plan.complexForward(frames[i]);
+            }
+        });
+    }
+
+    /**
+     * Perform inverse FFT in place on each frame
+     *
+     * @param frames
+     *            frames of interleaved complex values. Each frame needs to have size 2 * frameLength
+     *
+     * @exception IllegalArgumentException
+     *                if any frame is not of size 2 * frameLength
+     */
+    public void ifftInPlace(double[][] frames) {
+        checkFrames(frames);
+        run(frames.length, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                plan.complexInverse(frames[i], true);
+            }
+        });
+    }
+
+    /**
+     * Perform FFT in place on frames stored at a fixed stride in a contiguous buffer
+     *
+     * @param buffer
+     *            buffer holding frames of interleaved complex values
+     * @param offset
+     *            index in buffer of the first frame
+     * @param frameCount
+     *            number of frames
+     * @param stride
+     *            distance in buffer between the start of two consecutive frames. Needs to be at least 2 * frameLength
+     *
+     * @exception IllegalArgumentException
+     *                if frames are not within buffer or stride is less than 2 * frameLength
+     */
+    public void fftInPlace(double[] buffer, int offset, int frameCount, int stride) {
+        checkFrames(buffer, offset, frameCount, stride);
+        run(frameCount, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                plan.complexForward(buffer, offset + i * stride);
+            }
+        });
+    }
+
+    /**
+     * Perform inverse FFT in place on frames stored at a fixed stride in a contiguous buffer
+     *
+     * @param buffer
+     *            buffer holding frames of interleaved complex values
+     * @param offset
+     *            index in buffer of the first frame
+     * @param frameCount
+     *            number of frames
+     * @param stride
+     *            distance in buffer between the start of two consecutive frames. Needs to be at least 2 * frameLength
+     *
+     * @exception IllegalArgumentException
+     *                if frames are not within buffer or stride is less than 2 * frameLength
+     */
+    public void ifftInPlace(double[] buffer, int offset, int frameCount, int stride) {
+        checkFrames(buffer, offset, frameCount, stride);
+        run(frameCount, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                plan.complexInverse(buffer, offset + i * stride, true);
+            }
+        });
+    }
+
+    private void run(int frameCount, FrameRange frameRange) {
+        if (frameCount == 0) {
+            return;
+        }
+        if (frameCount == 1 || pool.getParallelism() == 1) {
+            // No frame level parallelism, leave threading to JTransforms
+            long state = JTransformsThreads.beginTransform(frameLength);
+            try {
+                frameRange.transform(0, frameCount);
+            } finally {
+                JTransformsThreads.endTransform(state);
+            }
+            return;
+        }
+        int framesPerTask = Math.max(1, frameCount / (pool.getParallelism() * TASKS_PER_THREAD));
+        pool.invoke(new FrameTask(frameRange, 0, frameCount, framesPerTask));
+    }
+
+    private void checkFrames(double[][] frames) {
+        for (double[] frame : frames) {
+            if (frame.length != 2 * frameLength) {
+                throw new IllegalArgumentException("frames needs to be of size 2 * frameLength");
+            }
+        }
+    }
+
+    private void checkFrames(double[] buffer, int offset, int frameCount, int stride) {
+        if (stride < 2 * frameLength) {
+            throw new IllegalArgumentException("stride needs to be at least 2 * frameLength");
+        }
+        if (offset < 0 || frameCount < 0
+                || (frameCount > 0 && offset + (frameCount - 1L) * stride + 2L * frameLength > buffer.length)) {
+            throw new IllegalArgumentException("frames needs to be within buffer");
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrameRange {
+        void transform(int first, int last);
+    }
+
+    private static final class FrameTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient FrameRange frameRange;
+        private final int first;
+        private final int last;
+        private final int framesPerTask;
+
+        private FrameTask(FrameRange frameRange, int first, int last, int framesPerTask) {
+            this.frameRange = frameRange;
+            this.first = first;
+            this.last = last;
+            this.framesPerTask = framesPerTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first <= framesPerTask) {
+                // Frames are already distributed over the pool, each frame is transformed on its worker thread
+                JTransformsThreads.enterSequential();
+                try {
+                    frameRange.transform(first, last);
+                } finally {
+                    JTransformsThreads.exitSequential();
+                }
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new FrameTask(frameRange, first, middle, framesPerTask),
+                    new FrameTask(frameRange, middle, last, framesPerTask));
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Threading configuration of the JTransforms transforms behind every FFT entry point of this library.<br>
+ * A configuration is either made the default with {@link #setDefault(FftConcurrency)} or applied for the duration of a
+ * task with {@link #run(Runnable)} or {@link #call(Supplier)}, which covers all transforms the task performs on its own
+ * thread, e.g. through {@code ComplexAdditions} or {@code Interpolation}.
+ * <p>
+ * Configurations are applied per thread, so tasks with different configurations run concurrently without waiting for
+ * each other. A task started inside another task replaces the outer configuration until it finishes. Transforms on
+ * threads the task starts itself use the default configuration. JTransforms global settings are only changed while a
+ * configuration is in use and are restored afterwards, see {@link JTransformsThreads}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class FftConcurrency {
+
+    private static final FftConcurrency SEQUENTIAL = new FftConcurrency(1);
+
+    private final int numberOfThreads;
+    private final long minimumParallelSize;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor using JTransforms default thread pool and size thresholds
+     *
+     * @param numberOfThreads
+     *            maximum number of threads used by one transform, 1 for sequential transforms
+     *
+     * @exception IllegalArgumentException
+     *                if numberOfThreads is less than 1
+     */
+    public FftConcurrency(int numberOfThreads) {
+        this(numberOfThreads, 0, null);
+    }
+
+    /**
+     * Constructor using JTransforms default thread pool
+     *
+     * @param numberOfThreads
+     *            maximum number of threads used by one transform, 1 for sequential transforms
+     * @param minimumParallelSize
+     *            smallest transform length in values (complex values for complex transforms) that is split over
+     *            threads, 0 for JTransforms default
+     *
+     * @exception IllegalArgumentException
+     *                if numberOfThreads is less than 1 or minimumParallelSize is negative
+     */
+    public FftConcurrency(int numberOfThreads, long minimumParallelSize) {
+        this(numberOfThreads, minimumParallelSize, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param numberOfThreads
+     *            maximum number of threads used by one transform, 1 for sequential transforms
+     * @param minimumParallelSize
+     *            smallest transform length in values (complex values for complex transforms) that is split over
+     *            threads, 0 for JTransforms default
+     * @param executor
+     *            executor running the parts of split transforms, null for JTransforms default thread pool. The executor
+     *            is never shut down by this library. Parts it has not started when the transform needs them are run by
+     *            the calling thread, so it may be the executor running the calling task
+     *
+     * @exception IllegalArgumentException
+     *                if numberOfThreads is less than 1 or minimumParallelSize is negative
+     */
+    public FftConcurrency(int numberOfThreads, long minimumParallelSize, ExecutorService executor) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("numberOfThreads needs to be at least 1");
+        }
+        if (minimumParallelSize < 0) {
+            throw new IllegalArgumentException("minimumParallelSize needs to be non-negative");
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.minimumParallelSize = minimumParallelSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Get configuration in which transforms never use additional threads
+     *
+     * @return sequential configuration
+     */
+    public static FftConcurrency sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Make configuration the default for transforms outside of tasks. Applies to transforms started afterwards on any
+     * thread.
+     *
+     * @param concurrency
+     *            default configuration, null to remove the default and leave threading to JTransforms
+     */
+    public static void setDefault(FftConcurrency concurrency) {
+        JTransformsThreads.setDefault(concurrency);
+    }
+
+    /**
+     * Get maximum number of threads used by one transform
+     *
+     * @return number of threads
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * Get smallest transform length that is split over threads
+     *
+     * @return minimum parallel size, 0 for JTransforms default
+     */
+    public long getMinimumParallelSize() {
+        return minimumParallelSize;
+    }
+
+    /**
+     * Get executor running the parts of split transforms
+     *
+     * @return executor, null for JTransforms default thread pool
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Run task with all its transforms using this configuration
+     *
+     * @param task
+     *            task to run
+     */
+    public void run(Runnable task) {
+        JTransformsThreads.enter(this);
+        try {
+            task.run();
+        } finally {
+            JTransformsThreads.exit();
+        }
+    }
+
+    /**
+     * Run task with all its transforms using this configuration
+     *
+     * @param <T>
+     *            result type
+     * @param task
+     *            task to run
+     *
+     * @return result of task
+     */
+    public <T> T call(Supplier<T> task) {
+        JTransformsThreads.enter(this);
+        try {
+            return task.get();
+        } finally {
+            JTransformsThreads.exit();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof FftConcurrency)) {
+            return false;
+        }
+        FftConcurrency other = (FftConcurrency) obj;
+        return numberOfThreads == other.numberOfThreads && minimumParallelSize == other.minimumParallelSize
+                && executor == other.executor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(numberOfThreads, minimumParallelSize, System.identityHashCode(executor));
+    }
+
+}
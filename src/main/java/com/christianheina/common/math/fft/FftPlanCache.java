@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.function.LongFunction;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+import org.jtransforms.fft.FloatFFT_1D;
+
+import com.christianheina.common.math.cache.BoundedCache;
+
+/**
+ * Bounded, thread-safe cache of FFT plans keyed by transform length.<br>
+ * Creating a JTransforms plan computes twiddle factors (and Bluestein tables for lengths that are not powers of two or
+ * small primes), which is often more expensive than the transform itself. JTransforms 1D plans are immutable once
+ * created, so a cached 1D plan can be shared by any number of threads.
+ * <p>
+ * Lookups are lock free and repeated lookups of the same length do not allocate. When the cache grows beyond its
+ * maximum size the least recently used plan is evicted, see {@link BoundedCache}.
+ *
+ * @param <T>
+ *            plan type
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class FftPlanCache<T> {
+
+    /**
+     * Default maximum number of plans kept by the shared caches
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    private static final FftPlanCache<DoubleFFT_1D> DOUBLE_FFT_1D_CACHE = new FftPlanCache<>(DEFAULT_MAXIMUM_SIZE,
+            DoubleFFT_1D::new);
+    private static final FftPlanCache<FloatFFT_1D> FLOAT_FFT_1D_CACHE = new FftPlanCache<>(DEFAULT_MAXIMUM_SIZE,
+            FloatFFT_1D::new);
+
+    private final BoundedCache<Long, T> plans;
+    // Boxed key of the last lookup, repeated lookups of one length do not allocate
+    private volatile Long lastLength;
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize
+     *            maximum number of cached plans
+     * @param planFactory
+     *            function creating a plan for a transform length
+     *
+     * @exception IllegalArgumentException
+     *                if maximumSize is less than 1
+     */
+    public FftPlanCache(int maximumSize, LongFunction<T> planFactory) {
+        this.plans = new BoundedCache<>(maximumSize, planFactory::apply);
+    }
+
+    /**
+     * Get shared cache of {@link DoubleFFT_1D} plans used by all double precision FFT entry points.
+     *
+     * @return shared double precision plan cache
+     */
+    public static FftPlanCache<DoubleFFT_1D> doubleFft1dCache() {
+        return DOUBLE_FFT_1D_CACHE;
+    }
+
+    /**
+     * Get {@link DoubleFFT_1D} plan from shared cache, creating it if needed.
+     *
+     * @param length
+     *            transform length
+     *
+     * @return plan for transforms of specified length
+     */
+    public static DoubleFFT_1D doubleFft1d(long length) {
+        return DOUBLE_FFT_1D_CACHE.get(length);
+    }
+
+    /**
+     * Get shared cache of {@link FloatFFT_1D} plans used by all single precision FFT entry points.
+     *
+     * @return shared single precision plan cache
+     */
+    public static FftPlanCache<FloatFFT_1D> floatFft1dCache() {
+        return FLOAT_FFT_1D_CACHE;
+    }
+
+    /**
+     * Get {@link FloatFFT_1D} plan from shared cache, creating it if needed.
+     *
+     * @param length
+     *            transform length
+     *
+     * @return plan for transforms of specified length
+     */
+    public static FloatFFT_1D floatFft1d(long length) {
+        return FLOAT_FFT_1D_CACHE.get(length);
+    }
+
+    /**
+     * Get plan for transform length, creating and caching it if not already cached.
+     *
+     * @param length
+     *            transform length
+     *
+     * @return plan for transforms of specified length
+     */
+    public T get(long length) {
+        Long key = lastLength;
+        if (key == null || key.longValue() != length) {
+            key = length;
+            lastLength = key;
+        }
+        return plans.get(key);
+    }
+
+    /**
+     * Get number of lookups that found a cached plan
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return plans.getHitCount();
+    }
+
+    /**
+     * Get number of lookups that had to create a plan
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return plans.getMissCount();
+    }
+
+    /**
+     * Get number of plans evicted because the cache was full
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return plans.getEvictionCount();
+    }
+
+    /**
+     * Get number of currently cached plans
+     *
+     * @return number of cached plans
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * Get maximum number of cached plans
+     *
+     * @return maximum size
+     */
+    public int getMaximumSize() {
+        return plans.getMaximumSize();
+    }
+
+    /**
+     * Set maximum number of cached plans. Plans are evicted immediately if the cache is larger than the new maximum.
+     *
+     * @param maximumSize
+     *            maximum number of cached plans
+     *
+     * @exception IllegalArgumentException
+     *                if maximumSize is less than 1
+     */
+    public void setMaximumSize(int maximumSize) {
+        plans.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Remove all cached plans and reset hit, miss and eviction counters
+     */
+    public void clear() {
+        plans.clear();
+    }
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jtransforms.utils.CommonUtils;
+
+import pl.edu.icm.jlargearrays.ConcurrencyUtils;
+
+/**
+ * Controls JTransforms internal threading per thread.<br>
+ * JTransforms reads its thread count and size thresholds from global state and hands the parts of a split transform to
+ * a global thread pool. Global state is left untouched until a configuration is put in use by
+ * {@link FftConcurrency#run(Runnable)}, {@link FftConcurrency#setDefault(FftConcurrency)} or
+ * {@link #enterSequential()}. While any configuration is in use a routing pool is installed as the global pool, and the
+ * global thread count and thresholds are widened to what the configurations need. When the last configuration is no
+ * longer in use, the previous pool and settings are restored. Changes are made under a lock when configurations are
+ * entered and exited, never per transform.
+ * <p>
+ * Each part is routed by the {@link FftConcurrency} active on the thread that started the transform: sequential
+ * configurations and transforms below the minimum parallel size run all parts on the calling thread, other
+ * configurations run at most their number of threads at a time on their executor. Transforms of threads without a
+ * configuration keep the previous pool, thread count and threshold. A thread waiting for a part that its executor has
+ * not started runs the part itself, so transforms never wait for an executor whose threads are all busy, including when
+ * the calling thread is one of them.
+ * <p>
+ * Used by parallel algorithms of this library that distribute independent transforms over their own threads, and by
+ * every FFT entry point of this library to announce the length of its transform.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class JTransformsThreads {
+
+    private static final long UNTRACKED = Long.MIN_VALUE;
+    private static final Object LOCK = new Object();
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+    private static final ExecutorService ROUTER = new RoutingExecutor();
+
+    // Number of entered sections on all threads, plus one while a default is set. Guarded by LOCK
+    private static int activeCount;
+    private static volatile boolean active;
+    private static volatile FftConcurrency defaultConcurrency;
+
+    // JTransforms settings in effect before the first configuration was put in use
+    private static volatile ExecutorService previousPool;
+    private static volatile int previousNumberOfThreads;
+    private static volatile long previousThreadsBegin2Threads;
+    private static volatile long previousThreadsBegin4Threads;
+
+    private JTransformsThreads() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Enter section in which JTransforms runs single threaded on the current thread, also inside a section entered by
+     * {@link FftConcurrency#run(Runnable)}. Every call needs to be matched by a call to {@link #exitSequential()} on
+     * the same thread.
+     */
+    public static void enterSequential() {
+        enter(FftConcurrency.sequential());
+    }
+
+    /**
+     * Exit section entered by {@link #enterSequential()}, restoring the configuration that was active before it
+     */
+    public static void exitSequential() {
+        exit();
+    }
+
+    /**
+     * Announce that the current thread starts JTransforms transforms of a given length, so that the minimum parallel
+     * size of the active configuration is applied to them. Every call needs to be matched by a call to
+     * {@link #endTransform(long)} on the same thread, passing the returned value. Neither method allocates, and neither
+     * touches thread local state while no configuration is in use.
+     *
+     * @param length
+     *            transform length in values, complex values for complex transforms and real values for real transforms
+     *
+     * @return state to pass to {@link #endTransform(long)}
+     */
+    public static long beginTransform(long length) {
+        if (!active) {
+            return UNTRACKED;
+        }
+        Context context = CONTEXT.get();
+        long previousLength = context.transformLength;
+        context.transformLength = length;
+        return previousLength;
+    }
+
+    /**
+     * End transforms started after {@link #beginTransform(long)}
+     *
+     * @param state
+     *            value returned by the matching call to {@link #beginTransform(long)}
+     */
+    public static void endTransform(long state) {
+        if (state != UNTRACKED) {
+            CONTEXT.get().transformLength = state;
+        }
+    }
+
+    static void enter(FftConcurrency concurrency) {
+        activate(concurrency);
+        CONTEXT.get().sections.push(concurrency);
+    }
+
+    static void exit() {
+        CONTEXT.get().sections.pop();
+        deactivate();
+    }
+
+    static void setDefault(FftConcurrency concurrency) {
+        synchronized (LOCK) {
+            if (concurrency != null) {
+                activate(concurrency);
+            }
+            FftConcurrency previousDefault = defaultConcurrency;
+            defaultConcurrency = concurrency;
+            if (previousDefault != null) {
+                deactivate();
+            }
+        }
+    }
+
+    /**
+     * Put configuration in use. The first configuration saves the JTransforms settings and installs the routing pool,
+     * every configuration widens the thread count and thresholds so JTransforms offers enough parts, at small enough
+     * sizes, for the routing pool to apply it.
+     */
+    private static void activate(FftConcurrency concurrency) {
+        synchronized (LOCK) {
+            if (activeCount++ == 0) {
+                previousPool = ConcurrencyUtils.getThreadPool();
+                previousNumberOfThreads = ConcurrencyUtils.getNumberOfThreads();
+                previousThreadsBegin2Threads = CommonUtils.getThreadsBeginN_1D_FFT_2Threads();
+                previousThreadsBegin4Threads = CommonUtils.getThreadsBeginN_1D_FFT_4Threads();
+                ConcurrencyUtils.setThreadPool(ROUTER);
+                active = true;
+            }
+            if (concurrency.getNumberOfThreads() > ConcurrencyUtils.getNumberOfThreads()) {
+                ConcurrencyUtils.setNumberOfThreads(concurrency.getNumberOfThreads());
+            }
+            long minimumParallelSize = concurrency.getMinimumParallelSize();
+            if (minimumParallelSize > 0 && minimumParallelSize < CommonUtils.getThreadsBeginN_1D_FFT_2Threads()) {
+                CommonUtils.setThreadsBeginN_1D_FFT_2Threads(minimumParallelSize);
+            }
+            if (minimumParallelSize > 0 && minimumParallelSize < CommonUtils.getThreadsBeginN_1D_FFT_4Threads()) {
+                CommonUtils.setThreadsBeginN_1D_FFT_4Threads(minimumParallelSize);
+            }
+        }
+    }
+
+    private static void deactivate() {
+        synchronized (LOCK) {
+            if (--activeCount > 0) {
+                return;
+            }
+            active = false;
+            // Pool replaced by the application meanwhile is left in place
+            if (ConcurrencyUtils.getThreadPool() == ROUTER) {
+                ConcurrencyUtils.setThreadPool(previousPool);
+            }
+            ConcurrencyUtils.setNumberOfThreads(previousNumberOfThreads);
+            CommonUtils.setThreadsBeginN_1D_FFT_2Threads(previousThreadsBegin2Threads);
+            CommonUtils.setThreadsBeginN_1D_FFT_4Threads(previousThreadsBegin4Threads);
+        }
+    }
+
+    private static final class Context {
+
+        private final ArrayDeque<FftConcurrency> sections = new ArrayDeque<>();
+        // Parts of transforms started by this thread currently submitted to other threads
+        private final AtomicInteger running = new AtomicInteger();
+        private long transformLength = -1;
+    }
+
+    private static final class RoutingExecutor extends AbstractExecutorService {
+
+        @Override
+        public void execute(Runnable command) {
+            Context context = CONTEXT.get();
+            FftConcurrency concurrency = context.sections.isEmpty() ? defaultConcurrency : context.sections.peek();
+            long minimumParallelSize = concurrency == null || concurrency.getMinimumParallelSize() == 0
+                    ? previousThreadsBegin2Threads : concurrency.getMinimumParallelSize();
+            if (context.transformLength >= 0 && context.transformLength < minimumParallelSize) {
+                command.run();
+                return;
+            }
+            int numberOfThreads = concurrency == null ? previousNumberOfThreads : concurrency.getNumberOfThreads();
+            // Calling thread counts as one of the threads and runs parts beyond the limit itself
+            AtomicInteger running = context.running;
+            if (running.incrementAndGet() >= numberOfThreads) {
+                running.decrementAndGet();
+                command.run();
+                return;
+            }
+            ExecutorService executor = concurrency == null || concurrency.getExecutor() == null ? previousPool
+                    : concurrency.getExecutor();
+            try {
+                executor.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                command.run();
+            }
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+            return new CallerRunsTask<>(Executors.callable(runnable, value));
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new CallerRunsTask<>(callable);
+        }
+
+        @Override
+        public void shutdown() {
+            // Shared by all JTransforms users, never shut down
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
+    /**
+     * Part of a split transform. A thread waiting for the part runs it if no executor thread has started it yet, a part
+     * runs only once, so the executor thread picking it up later does nothing
+     */
+    private static final class CallerRunsTask<T> extends FutureTask<T> {
+
+        private CallerRunsTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            run();
+            return super.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            run();
+            return super.get(timeout, unit);
+        }
+    }
+
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+import pl.edu.icm.jlargearrays.DoubleLargeArray;
+import pl.edu.icm.jlargearrays.LargeArray;
+import pl.edu.icm.jlargearrays.LargeArrayUtils;
+
+/**
+ * Performs FFT on signals that do not fit in a Java array.<br>
+ * {@link #segmentedFft(DoubleBuffer[], DoubleBuffer[])} and {@link #segmentedIfft(DoubleBuffer[], DoubleBuffer[])}
+ * transform signals held in consecutive {@link DoubleBuffer} segments, such as views of the mapped regions of a capture
+ * file, on any runtime. The signal of length N = R * C is transformed out of core with the four step algorithm: length
+ * R FFTs over the columns of the R by C matrix of the input, a twiddle factor multiplication and length C FFTs over the
+ * rows. Only blocks of columns or rows are held on the heap, so signal length is limited by the segments rather than
+ * the heap or the int index range, as long as N has a divisor splitting it into rows of at most
+ * {@link LargeArray#getMaxSizeOf32bitArray()} / 2 values.
+ * <p>
+ * The remaining methods operate on {@link DoubleLargeArray}, which is indexed by long and stored in native memory
+ * outside of the Java heap when longer than {@link LargeArray#getMaxSizeOf32bitArray()}. JTransforms transforms such
+ * arrays directly, no values pass through heap arrays. Native memory storage of JLargeArrays relies on
+ * {@code sun.misc.Cleaner} and is therefore only available on Java 8 runtimes. On later runtimes these methods fail
+ * fast with an {@link IllegalStateException} when they would need native memory. Buffer segments passed to them are
+ * copied into one large array in order.
+ * <p>
+ * Positions of buffers are never changed.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class LargeFft {
+
+    private static final int COPY_CHUNK_LENGTH = 1 << 16;
+    private static final int BLOCK_LENGTH = 1 << 16;
+    private static final boolean NATIVE_MEMORY_AVAILABLE = isNativeMemoryAvailable();
+
+    private LargeFft() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Perform fast fourier transformation (FFT) in place on interleaved complex values
+     *
+     * @param interleavedData
+     *            interleaved real and imaginary parts to perform FFT on. Overwritten with result of FFT
+     *
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     * @exception IllegalStateException
+     *                if interleavedData is longer than {@link LargeArray#getMaxSizeOf32bitArray()} and the runtime does
+     *                not support native memory large arrays (Java 9 or later)
+     */
+    public static void fftInPlace(DoubleLargeArray interleavedData) {
+        long length = complexLength(interleavedData);
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).complexForward(interleavedData);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) in place on interleaved complex values
+     *
+     * @param interleavedData
+     *            interleaved real and imaginary parts to perform iFFT on. Overwritten with result of iFFT
+     *
+     * @exception IllegalArgumentException
+     *                if length of interleavedData is odd
+     * @exception IllegalStateException
+     *                if interleavedData is longer than {@link LargeArray#getMaxSizeOf32bitArray()} and the runtime does
+     *                not support native memory large arrays (Java 9 or later)
+     */
+    public static void ifftInPlace(DoubleLargeArray interleavedData) {
+        long length = complexLength(interleavedData);
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).complexInverse(interleavedData, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT). Only the non-redundant half of the spectrum is returned
+     * since the spectrum of real input is Hermitian symmetric.
+     *
+     * @param signal
+     *            real values to perform FFT on
+     *
+     * @return new array of interleaved real and imaginary parts of bins 0 to signal.length() / 2 (inclusive)
+     *
+     * @exception IllegalStateException
+     *                if the half spectrum is longer than {@link LargeArray#getMaxSizeOf32bitArray()} and the runtime
+     *                does not support native memory large arrays (Java 9 or later)
+     */
+    public static DoubleLargeArray realFft(DoubleLargeArray signal) {
+        long length = signal.length();
+        checkNativeMemory(2 * (length / 2 + 1));
+        DoubleLargeArray halfSpectrum = new DoubleLargeArray(2 * (length / 2 + 1));
+        LargeArrayUtils.arraycopy(signal, 0, halfSpectrum, 0, length);
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).realForward(halfSpectrum);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+        // JTransforms stores the real valued last bin (even length) or last imaginary part (odd length) in index 1
+        halfSpectrum.setDouble(length, halfSpectrum.getDouble(1));
+        if (length % 2 == 0) {
+            halfSpectrum.setDouble(length + 1, 0);
+        }
+        halfSpectrum.setDouble(1, 0);
+        return halfSpectrum;
+    }
+
+    /**
+     * Performs inverse real output fast fourier transformation (iFFT) on half spectrum as produced by
+     * {@link #realFft(DoubleLargeArray)}.
+     *
+     * @param halfSpectrum
+     *            interleaved real and imaginary parts of bins 0 to length / 2 (inclusive) of a Hermitian symmetric
+     *            spectrum
+     * @param length
+     *            length of real output
+     *
+     * @return new array containing real result of iFFT
+     *
+     * @exception IllegalArgumentException
+     *                if halfSpectrum does not contain length / 2 + 1 interleaved values
+     * @exception IllegalStateException
+     *                if halfSpectrum is longer than {@link LargeArray#getMaxSizeOf32bitArray()} and the runtime does
+     *                not support native memory large arrays (Java 9 or later)
+     */
+    public static DoubleLargeArray realIfft(DoubleLargeArray halfSpectrum, long length) {
+        if (halfSpectrum.length() != 2 * (length / 2 + 1)) {
+            throw new IllegalArgumentException("halfSpectrum needs to contain length / 2 + 1 interleaved values");
+        }
+        checkNativeMemory(halfSpectrum.length());
+        DoubleLargeArray realData = new DoubleLargeArray(length);
+        LargeArrayUtils.arraycopy(halfSpectrum, 0, realData, 0, length);
+        if (length > 1) {
+            // Last real (even length) or imaginary (odd length) value is stored in index 1
+            realData.setDouble(1, halfSpectrum.getDouble(length));
+        }
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            FftPlanCache.doubleFft1d(length).realInverse(realData, true);
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+        return realData;
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) on interleaved complex values read from consecutive buffer segments
+     *
+     * @param interleavedSegments
+     *            buffers whose remaining values, concatenated in order, are the interleaved real and imaginary parts to
+     *            perform FFT on
+     *
+     * @return new array containing interleaved result of FFT
+     *
+     * @exception IllegalArgumentException
+     *                if total number of remaining values is odd
+     * @exception IllegalStateException
+     *                if total number of remaining values is larger than {@link LargeArray#getMaxSizeOf32bitArray()} and
+     *                the runtime does not support native memory large arrays (Java 9 or later)
+     */
+    public static DoubleLargeArray fft(DoubleBuffer... interleavedSegments) {
+        DoubleLargeArray interleavedData = toLargeArray(interleavedSegments);
+        fftInPlace(interleavedData);
+        return interleavedData;
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) on interleaved complex values read from consecutive buffer
+     * segments
+     *
+     * @param interleavedSegments
+     *            buffers whose remaining values, concatenated in order, are the interleaved real and imaginary parts to
+     *            perform iFFT on
+     *
+     * @return new array containing interleaved result of iFFT
+     *
+     * @exception IllegalArgumentException
+     *                if total number of remaining values is odd
+     * @exception IllegalStateException
+     *                if total number of remaining values is larger than {@link LargeArray#getMaxSizeOf32bitArray()} and
+     *                the runtime does not support native memory large arrays (Java 9 or later)
+     */
+    public static DoubleLargeArray ifft(DoubleBuffer... interleavedSegments) {
+        DoubleLargeArray interleavedData = toLargeArray(interleavedSegments);
+        ifftInPlace(interleavedData);
+        return interleavedData;
+    }
+
+    /**
+     * Perform real input fast fourier transformation (FFT) on real values read from consecutive buffer segments
+     *
+     * @param segments
+     *            buffers whose remaining values, concatenated in order, are the signal to perform FFT on
+     *
+     * @return new array of interleaved real and imaginary parts of bins 0 to signal length / 2 (inclusive)
+     *
+     * @exception IllegalStateException
+     *                if total number of remaining values is larger than {@link LargeArray#getMaxSizeOf32bitArray()} and
+     *                the runtime does not support native memory large arrays (Java 9 or later)
+     */
+    public static DoubleLargeArray realFft(DoubleBuffer... segments) {
+        return realFft(toLargeArray(segments));
+    }
+
+    /**
+     * Perform fast fourier transformation (FFT) out of core on interleaved complex values read from consecutive buffer
+     * segments, writing the result to consecutive buffer segments. Input and output need to be separate memory, the
+     * input is not changed.
+     *
+     * @param interleavedInput
+     *            buffers whose remaining values, concatenated in order, are the interleaved real and imaginary parts to
+     *            perform FFT on
+     * @param interleavedOutput
+     *            buffers receiving the interleaved result of the FFT from their position onwards, in order
+     *
+     * @exception IllegalArgumentException
+     *                if total number of remaining input values is odd, differs from the total number of remaining
+     *                output values, or the signal length has no divisor that splits it into rows of at most
+     *                {@link LargeArray#getMaxSizeOf32bitArray()} / 2 values
+     */
+    public static void segmentedFft(DoubleBuffer[] interleavedInput, DoubleBuffer[] interleavedOutput) {
+        segmentedTransform(interleavedInput, interleavedOutput, false, BLOCK_LENGTH);
+    }
+
+    /**
+     * Performs inverse fast fourier transformation (iFFT) out of core on interleaved complex values read from
+     * consecutive buffer segments, writing the result to consecutive buffer segments. Input and output need to be
+     * separate memory, the input is not changed.
+     *
+     * @param interleavedInput
+     *            buffers whose remaining values, concatenated in order, are the interleaved real and imaginary parts to
+     *            perform iFFT on
+     * @param interleavedOutput
+     *            buffers receiving the interleaved result of the iFFT from their position onwards, in order
+     *
+     * @exception IllegalArgumentException
+     *                if total number of remaining input values is odd, differs from the total number of remaining
+     *                output values, or the signal length has no divisor that splits it into rows of at most
+     *                {@link LargeArray#getMaxSizeOf32bitArray()} / 2 values
+     */
+    public static void segmentedIfft(DoubleBuffer[] interleavedInput, DoubleBuffer[] interleavedOutput) {
+        segmentedTransform(interleavedInput, interleavedOutput, true, BLOCK_LENGTH);
+    }
+
+    /**
+     * Copy remaining values of consecutive buffer segments into one large array
+     *
+     * @param segments
+     *            buffers to copy, in order. Positions are not changed
+     *
+     * @return new array containing all remaining values of segments
+     *
+     * @exception IllegalStateException
+     *                if total number of remaining values is larger than {@link LargeArray#getMaxSizeOf32bitArray()} and
+     *                the runtime does not support native memory large arrays (Java 9 or later)
+     */
+    public static DoubleLargeArray toLargeArray(DoubleBuffer... segments) {
+        long length = 0;
+        for (DoubleBuffer segment : segments) {
+            length += segment.remaining();
+        }
+        checkNativeMemory(length);
+        DoubleLargeArray largeArray = new DoubleLargeArray(length, false);
+        double[] chunk = new double[(int) Math.min(length, COPY_CHUNK_LENGTH)];
+        long position = 0;
+        for (DoubleBuffer segment : segments) {
+            DoubleBuffer source = segment.duplicate();
+            while (source.hasRemaining()) {
+                int chunkLength = Math.min(source.remaining(), chunk.length);
+                source.get(chunk, 0, chunkLength);
+                LargeArrayUtils.arraycopy(chunk, 0, largeArray, position, chunkLength);
+                position += chunkLength;
+            }
+        }
+        return largeArray;
+    }
+
+    /**
+     * Copy large array into consecutive buffer segments, e.g. to write a result back to a memory mapped file
+     *
+     * @param source
+     *            array to copy
+     * @param segments
+     *            buffers receiving values from their position onwards, in order. Positions are not changed
+     *
+     * @exception IllegalArgumentException
+     *                if total number of remaining values of segments differs from length of source
+     */
+    public static void copyTo(DoubleLargeArray source, DoubleBuffer... segments) {
+        long length = 0;
+        for (DoubleBuffer segment : segments) {
+            length += segment.remaining();
+        }
+        if (length != source.length()) {
+            throw new IllegalArgumentException("segments need to have room for exactly source.length() values");
+        }
+        double[] chunk = new double[(int) Math.min(length, COPY_CHUNK_LENGTH)];
+        long position = 0;
+        for (DoubleBuffer segment : segments) {
+            DoubleBuffer destination = segment.duplicate();
+            while (destination.hasRemaining()) {
+                int chunkLength = Math.min(destination.remaining(), chunk.length);
+                source.getDoubleData(chunk, position, position + chunkLength, 1);
+                destination.put(chunk, 0, chunkLength);
+                position += chunkLength;
+            }
+        }
+    }
+
+    static void segmentedTransform(DoubleBuffer[] interleavedInput, DoubleBuffer[] interleavedOutput, boolean inverse,
+            int blockLength) {
+        Segments input = new Segments(interleavedInput);
+        Segments output = new Segments(interleavedOutput);
+        if (input.length % 2 != 0) {
+            throw new IllegalArgumentException("interleavedInput needs to contain an even number of values");
+        }
+        if (output.length != input.length) {
+            throw new IllegalArgumentException("interleavedOutput needs to have room for exactly as many values as "
+                    + "interleavedInput contains");
+        }
+        long length = input.length / 2;
+        if (length == 0) {
+            return;
+        }
+        int rows = rowCount(length);
+        if (length / rows > LargeArray.getMaxSizeOf32bitArray() / 2) {
+            throw new IllegalArgumentException("length needs a divisor that splits it into rows of at most "
+                    + LargeArray.getMaxSizeOf32bitArray() / 2 + " values");
+        }
+        int columns = (int) (length / rows);
+        columnPass(input, output, rows, columns, inverse, blockLength);
+        rowPass(output, rows, columns, inverse, blockLength);
+    }
+
+    private static int rowCount(long length) {
+        // Largest divisor not above the square root keeps both transform lengths as short as possible
+        long rows = (long) Math.sqrt(length);
+        while (rows * rows > length) {
+            rows--;
+        }
+        while (length % rows != 0) {
+            rows--;
+        }
+        return (int) rows;
+    }
+
+    private static void columnPass(Segments input, Segments output, int rows, int columns, boolean inverse,
+            int blockLength) {
+        // Input value n1 * columns + n2 is row n1 and column n2. The columns of a block are read as one contiguous run
+        // per row and, once transformed and multiplied by the twiddle factors, value k1 of column n2 is written to
+        // k1 + rows * n2, the position the row pass reads it from and writes its result to
+        int blockColumns = Math.max(1, Math.min(columns, blockLength / rows));
+        double[] block = new double[2 * rows * blockColumns];
+        double[] transformed = new double[2 * rows * blockColumns];
+        double[] column = new double[2 * rows];
+        long length = (long) rows * columns;
+        for (int firstColumn = 0; firstColumn < columns; firstColumn += blockColumns) {
+            int blockWidth = Math.min(blockColumns, columns - firstColumn);
+            for (int row = 0; row < rows; row++) {
+                input.get(2 * ((long) row * columns + firstColumn), block, 2 * row * blockWidth, 2 * blockWidth);
+            }
+            for (int b = 0; b < blockWidth; b++) {
+                for (int row = 0; row < rows; row++) {
+                    column[2 * row] = block[2 * (row * blockWidth + b)];
+                    column[2 * row + 1] = block[2 * (row * blockWidth + b) + 1];
+                }
+                transform(column, rows, inverse);
+                long n2 = firstColumn + b;
+                for (int k1 = 0; k1 < rows; k1++) {
+                    // Twiddle factor W_N^(n2 * k1), exponent is below N so no reduction is needed
+                    double angle = (inverse ? 2 : -2) * Math.PI * (n2 * k1) / length;
+                    double cos = Math.cos(angle);
+                    double sin = Math.sin(angle);
+                    double real = column[2 * k1];
+                    double imaginary = column[2 * k1 + 1];
+                    transformed[2 * (b * rows + k1)] = real * cos - imaginary * sin;
+                    transformed[2 * (b * rows + k1) + 1] = real * sin + imaginary * cos;
+                }
+            }
+            output.put(2 * (long) rows * firstColumn, transformed, 0, 2 * rows * blockWidth);
+        }
+    }
+
+    private static void rowPass(Segments output, int rows, int columns, boolean inverse, int blockLength) {
+        // Value n2 of row k1 is stored at k1 + rows * n2, the rows of a block are read and written as one contiguous
+        // run per column. Result k2 of row k1 is bin k1 + rows * k2, so each row is transformed in place
+        int blockRows = Math.max(1, Math.min(rows, blockLength / columns));
+        double[] block = new double[2 * columns * blockRows];
+        double[] row = new double[2 * columns];
+        for (int firstRow = 0; firstRow < rows; firstRow += blockRows) {
+            int blockHeight = Math.min(blockRows, rows - firstRow);
+            for (int n2 = 0; n2 < columns; n2++) {
+                output.get(2 * ((long) rows * n2 + firstRow), block, 2 * n2 * blockHeight, 2 * blockHeight);
+            }
+            for (int b = 0; b < blockHeight; b++) {
+                for (int n2 = 0; n2 < columns; n2++) {
+                    row[2 * n2] = block[2 * (n2 * blockHeight + b)];
+                    row[2 * n2 + 1] = block[2 * (n2 * blockHeight + b) + 1];
+                }
+                transform(row, columns, inverse);
+                for (int k2 = 0; k2 < columns; k2++) {
+                    block[2 * (k2 * blockHeight + b)] = row[2 * k2];
+                    block[2 * (k2 * blockHeight + b) + 1] = row[2 * k2 + 1];
+                }
+            }
+            for (int k2 = 0; k2 < columns; k2++) {
+                output.put(2 * ((long) rows * k2 + firstRow), block, 2 * k2 * blockHeight, 2 * blockHeight);
+            }
+        }
+    }
+
+    private static void transform(double[] interleavedData, int length, boolean inverse) {
+        DoubleFFT_1D plan = FftPlanCache.doubleFft1d(length);
+        long state = JTransformsThreads.beginTransform(length);
+        try {
+            // Scaling both passes by their length scales the inverse by 1 / N
+            if (inverse) {
+                plan.complexInverse(interleavedData, true);
+            } else {
+                plan.complexForward(interleavedData);
+            }
+        } finally {
+            JTransformsThreads.endTransform(state);
+        }
+    }
+
+    private static long complexLength(DoubleLargeArray interleavedData) {
+        if (interleavedData.length() % 2 != 0) {
+            throw new IllegalArgumentException("interleavedData needs to be of even length");
+        }
+        // JTransforms allocates native scratch arrays for large inputs
+        checkNativeMemory(interleavedData.length());
+        return interleavedData.length() / 2;
+    }
+
+    private static void checkNativeMemory(long length) {
+        if (length > LargeArray.getMaxSizeOf32bitArray() && !NATIVE_MEMORY_AVAILABLE) {
+            throw new IllegalStateException("Arrays longer than " + LargeArray.getMaxSizeOf32bitArray()
+                    + " values need native memory large arrays, which require sun.misc.Cleaner (Java 8)");
+        }
+    }
+
+    private static boolean isNativeMemoryAvailable() {
+        try {
+            Class.forName("sun.misc.Cleaner");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Consecutive buffer segments addressed by long position. Each segment is accessed through a duplicate, so
+     * positions of the buffers are not changed
+     */
+    private static final class Segments {
+
+        private final DoubleBuffer[] views;
+        private final int[] positions;
+        private final long[] starts;
+        private final long length;
+
+        private Segments(DoubleBuffer[] segments) {
+            views = new DoubleBuffer[segments.length];
+            positions = new int[segments.length];
+            starts = new long[segments.length];
+            long position = 0;
+            for (int i = 0; i < segments.length; i++) {
+                views[i] = segments[i].duplicate();
+                positions[i] = segments[i].position();
+                starts[i] = position;
+                position += segments[i].remaining();
+            }
+            length = position;
+        }
+
+        private void get(long position, double[] destination, int offset, int count) {
+            int segment = segment(position);
+            while (count > 0) {
+                int runLength = seek(segment, position, count);
+                views[segment].get(destination, offset, runLength);
+                position += runLength;
+                offset += runLength;
+                count -= runLength;
+                segment++;
+            }
+        }
+
+        private void put(long position, double[] source, int offset, int count) {
+            int segment = segment(position);
+            while (count > 0) {
+                int runLength = seek(segment, position, count);
+                views[segment].put(source, offset, runLength);
+                position += runLength;
+                offset += runLength;
+                count -= runLength;
+                segment++;
+            }
+        }
+
+        private int segment(long position) {
+            int segment = Arrays.binarySearch(starts, position);
+            segment = segment < 0 ? -segment - 2 : segment;
+            // Skip empty segments starting at the same position
+            while (position >= starts[segment] + views[segment].limit() - positions[segment]) {
+                segment++;
+            }
+            return segment;
+        }
+
+        private int seek(int segment, long position, int count) {
+            int index = (int) (position - starts[segment]);
+            // Buffer cast keeps the Java 8 signature of position(int)
+            ((Buffer) views[segment]).position(positions[segment] + index);
+            return Math.min(count, views[segment].limit() - positions[segment] - index);
+        }
+    }
+
+}
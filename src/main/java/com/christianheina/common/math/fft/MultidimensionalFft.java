@@ -0,0 +1,261 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+/**
+ * Performs multidimensional FFT on interleaved complex values stored contiguously in row major order.<br>
+ * The transform is computed as one pass of 1D transforms along each axis. Lines along the last axis are contiguous and
+ * transformed in place. Lines along other axes are strided, so they are gathered in blocks of adjacent lines into a
+ * contiguous scratch buffer, transformed and scattered back, reading and writing whole cache lines at a time instead of
+ * one value per line.
+ * <p>
+ * The 1D plans come from the shared plan cache and, unlike JTransforms multidimensional plans, may be used by several
+ * threads at once. Instances are thread safe. When created with a {@link ForkJoinPool} the lines of each pass are
+ * distributed over the pool while JTransforms internal threading is disabled.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class MultidimensionalFft {
+
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int BLOCK_LINES = 16;
+
+    private final int[] dimensions;
+    private final DoubleFFT_1D[] plans;
+    private final int size;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for transforms running on the calling thread
+     *
+     * @param dimensions
+     *            number of values along each axis, outermost first. E.g. rows, columns for 2D data
+     *
+     * @exception IllegalArgumentException
+     *                if dimensions is empty or any dimension is less than 1
+     */
+    public MultidimensionalFft(int... dimensions) {
+        this(null, dimensions);
+    }
+
+    /**
+     * Constructor for transforms distributing lines over a {@link ForkJoinPool}
+     *
+     * @param pool
+     *            pool that lines are distributed over
+     * @param dimensions
+     *            number of values along each axis, outermost first. E.g. rows, columns for 2D data
+     *
+     * @exception IllegalArgumentException
+     *                if dimensions is empty or any dimension is less than 1
+     */
+    public MultidimensionalFft(ForkJoinPool pool, int... dimensions) {
+        if (dimensions.length == 0) {
+            throw new IllegalArgumentException("dimensions needs to contain at least 1 dimension");
+        }
+        long totalSize = 1;
+        for (int dimension : dimensions) {
+            if (dimension < 1) {
+                throw new IllegalArgumentException("dimensions needs to be at least 1");
+            }
+            totalSize *= dimension;
+        }
+        if (2 * totalSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("dimensions needs to fit in an array of interleaved values");
+        }
+        this.dimensions = dimensions.clone();
+        this.plans = new DoubleFFT_1D[dimensions.length];
+        for (int axis = 0; axis < dimensions.length; axis++) {
+            plans[axis] = FftPlanCache.doubleFft1d(dimensions[axis]);
+        }
+        this.size = (int) totalSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Get number of values along each axis
+     *
+     * @return copy of dimensions, outermost first
+     */
+    public int[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /**
+     * Perform multidimensional FFT in place
+     *
+     * @param interleavedData
+     *            interleaved complex values in row major order. Overwritten with result of FFT
+     *
+     * @exception IllegalArgumentException
+     *                if interleavedData does not contain exactly the number of values given by dimensions
+     */
+    public void fftInPlace(double[] interleavedData) {
+        transform(interleavedData, false);
+    }
+
+    /**
+     * Perform multidimensional inverse FFT in place
+     *
+     * @param interleavedData
+     *            interleaved complex values in row major order. Overwritten with result of iFFT
+     *
+     * @exception IllegalArgumentException
+     *                if interleavedData does not contain exactly the number of values given by dimensions
+     */
+    public void ifftInPlace(double[] interleavedData) {
+        transform(interleavedData, true);
+    }
+
+    private void transform(double[] interleavedData, boolean inverse) {
+        if (interleavedData.length != 2 * size) {
+            throw new IllegalArgumentException("interleavedData needs to contain the number of values of dimensions");
+        }
+        boolean parallel = pool != null && pool.getParallelism() > 1;
+        int stride = 1;
+        for (int axis = dimensions.length - 1; axis >= 0; axis--) {
+            Pass pass = new Pass(interleavedData, plans[axis], dimensions[axis], stride, inverse);
+            if (parallel && pass.unitCount > 1) {
+                int unitsPerTask = Math.max(1, pass.unitCount / (pool.getParallelism() * TASKS_PER_THREAD));
+                pool.invoke(new PassTask(pass, 0, pass.unitCount, unitsPerTask));
+            } else {
+                long state = JTransformsThreads.beginTransform(dimensions[axis]);
+                try {
+                    pass.run(0, pass.unitCount);
+                } finally {
+                    JTransformsThreads.endTransform(state);
+                }
+            }
+            stride *= dimensions[axis];
+        }
+    }
+
+    /**
+     * Transforms along one axis. Lines are identified by an outer index (position in axes before this axis) and an
+     * inner index (position in axes after this axis). A unit of work is one line for the contiguous last axis, or a
+     * block of up to BLOCK_LINES lines with adjacent inner indices otherwise.
+     */
+    private static final class Pass {
+
+        private final double[] data;
+        private final DoubleFFT_1D plan;
+        private final int length;
+        private final int stride;
+        private final boolean inverse;
+        private final int blocksPerOuter;
+        private final int unitCount;
+
+        private Pass(double[] data, DoubleFFT_1D plan, int length, int stride, boolean inverse) {
+            this.data = data;
+            this.plan = plan;
+            this.length = length;
+            this.stride = stride;
+            this.inverse = inverse;
+            this.blocksPerOuter = (stride + BLOCK_LINES - 1) / BLOCK_LINES;
+            this.unitCount = data.length / (2 * length * stride) * blocksPerOuter;
+        }
+
+        private void run(int firstUnit, int lastUnit) {
+            if (stride == 1) {
+                for (int line = firstUnit; line < lastUnit; line++) {
+                    transformLine(data, 2 * line * length);
+                }
+                return;
+            }
+            int blockLines = Math.min(BLOCK_LINES, stride);
+            double[] scratch = new double[2 * blockLines * length];
+            for (int unit = firstUnit; unit < lastUnit; unit++) {
+                int outer = unit / blocksPerOuter;
+                int firstInner = unit % blocksPerOuter * BLOCK_LINES;
+                int lineCount = Math.min(BLOCK_LINES, stride - firstInner);
+                int base = 2 * (outer * length * stride + firstInner);
+                gather(scratch, base, lineCount);
+                for (int line = 0; line < lineCount; line++) {
+                    transformLine(scratch, 2 * line * length);
+                }
+                scatter(scratch, base, lineCount);
+            }
+        }
+
+        private void gather(double[] scratch, int base, int lineCount) {
+            for (int k = 0; k < length; k++) {
+                int position = base + 2 * k * stride;
+                for (int line = 0; line < lineCount; line++) {
+                    scratch[2 * (line * length + k)] = data[position + 2 * line];
+                    scratch[2 * (line * length + k) + 1] = data[position + 2 * line + 1];
+                }
+            }
+        }
+
+        private void scatter(double[] scratch, int base, int lineCount) {
+            for (int k = 0; k < length; k++) {
+                int position = base + 2 * k * stride;
+                for (int line = 0; line < lineCount; line++) {
+                    data[position + 2 * line] = scratch[2 * (line * length + k)];
+                    data[position + 2 * line + 1] = scratch[2 * (line * length + k) + 1];
+                }
+            }
+        }
+
+        private void transformLine(double[] lineData, int offset) {
+            if (inverse) {
+                plan.complexInverse(lineData, offset, true);
+            } else {
+                plan.complexForward(lineData, offset);
+            }
+        }
+    }
+
+    private static final class PassTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Pass pass;
+        private final int first;
+        private final int last;
+        private final int unitsPerTask;
+
+        private PassTask(Pass pass, int first, int last, int unitsPerTask) {
+            this.pass = pass;
+            this.first = first;
+            this.last = last;
+            this.unitsPerTask = unitsPerTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first <= unitsPerTask) {
+                // Lines are already distributed over the pool, each line is transformed on its worker thread
+                JTransformsThreads.enterSequential();
+                try {
+                    pass.run(first, last);
+                } finally {
+                    JTransformsThreads.exitSequential();
+                }
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new PassTask(pass, first, middle, unitsPerTask), new PassTask(pass, middle, last, unitsPerTask));
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Circular convolution of one block with a precomputed filter spectrum.<br>
+ * Real blocks are transformed with the real input half spectrum FFT, complex blocks are interleaved and transformed in
+ * place. All work buffers are allocated once, so repeated blocks produce no garbage.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class CircularConvolution {
+
+    private final boolean complex;
+    private final ComplexArray filterSpectrum;
+    private final double[] block;
+    private final ComplexArray workSpectrum;
+
+    /**
+     * Constructor
+     *
+     * @param fftSize
+     *            block size
+     * @param filterSpectrum
+     *            spectrum of filter as created by {@link #createFilterSpectrum(double[], int, int, boolean)}
+     * @param complex
+     *            true if block holds interleaved complex values, false if it holds real values
+     */
+    CircularConvolution(int fftSize, ComplexArray filterSpectrum, boolean complex) {
+        this.complex = complex;
+        this.filterSpectrum = filterSpectrum;
+        if (complex) {
+            this.block = new double[2 * fftSize];
+            this.workSpectrum = new ComplexArray(block);
+        } else {
+            this.block = new double[fftSize];
+            this.workSpectrum = new ComplexArray(fftSize / 2 + 1);
+        }
+    }
+
+    /**
+     * Get block that is convolved in place by {@link #run()}
+     *
+     * @return block of fftSize real values or fftSize interleaved complex values
+     */
+    double[] getBlock() {
+        return block;
+    }
+
+    /**
+     * Replace block with circular convolution of block and filter
+     */
+    void run() {
+        if (complex) {
+            ComplexAdditions.fftInPlace(workSpectrum);
+            multiply(workSpectrum, filterSpectrum);
+            ComplexAdditions.ifftInPlace(workSpectrum);
+        } else {
+            ComplexAdditions.realFft(block, workSpectrum);
+            multiply(workSpectrum, filterSpectrum);
+            ComplexAdditions.realIfft(workSpectrum, block);
+        }
+    }
+
+    /**
+     * Create spectrum of zero padded filter
+     *
+     * @param filter
+     *            real values or interleaved complex values of filter
+     * @param filterLength
+     *            number of filter values
+     * @param fftSize
+     *            size of zero padded filter
+     * @param complex
+     *            true if filter holds interleaved complex values
+     *
+     * @return half spectrum for real filter, full spectrum for complex filter
+     */
+    static ComplexArray createFilterSpectrum(double[] filter, int filterLength, int fftSize, boolean complex) {
+        if (complex) {
+            ComplexArray spectrum = new ComplexArray(fftSize);
+            System.arraycopy(filter, 0, spectrum.getData(), 0, 2 * filterLength);
+            ComplexAdditions.fftInPlace(spectrum);
+            return spectrum;
+        }
+        double[] paddedFilter = new double[fftSize];
+        System.arraycopy(filter, 0, paddedFilter, 0, filterLength);
+        return ComplexAdditions.realFft(paddedFilter);
+    }
+
+    private static void multiply(ComplexArray spectrum, ComplexArray filterSpectrum) {
+        double[] data = spectrum.getData();
+        double[] filterData = filterSpectrum.getData();
+        for (int i = 0; i < 2 * spectrum.length(); i += 2) {
+            double real = data[i];
+            double imaginary = data[i + 1];
+            data[i] = real * filterData[i] - imaginary * filterData[i + 1];
+            data[i + 1] = real * filterData[i + 1] + imaginary * filterData[i];
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import java.util.Arrays;
+
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.cache.BoundedCache;
+
+/**
+ * Provides linear convolution functionality.<br>
+ * FFT based convolutions reuse the {@link Convolver}, and with it the cached filter spectra, of the
+ * {@link #MAXIMUM_CACHE_SIZE} most recently used filters. Filters are looked up by their coefficients, so a filter
+ * array that is modified between calls is never convolved with a stale spectrum. Each call copies and compares the
+ * filter coefficients for the lookup, hold a {@link Convolver} to avoid that for a filter used with many signals.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class Convolution {
+
+    /**
+     * Maximum number of filters whose spectra are kept between calls
+     */
+    public static final int MAXIMUM_CACHE_SIZE = 16;
+
+    private static final BoundedCache<FilterKey, Convolver> CONVOLVERS = new BoundedCache<>(MAXIMUM_CACHE_SIZE,
+            key -> key.complex ? new Convolver(new ComplexArray(key.coefficients)) : new Convolver(key.coefficients));
+
+    private Convolution() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Convolve real signal with real filter, choosing between direct and FFT based convolution from their sizes
+     *
+     * @param signal
+     *            signal to convolve
+     * @param filter
+     *            filter coefficients
+     *
+     * @return full linear convolution of size signal.length + filter.length - 1, or empty if signal is empty
+     *
+     * @exception IllegalArgumentException
+     *                if filter is empty
+     */
+    public static double[] convolve(double[] signal, double[] filter) {
+        return convolve(signal, filter, ConvolutionMode.AUTO);
+    }
+
+    /**
+     * Convolve real signal with real filter
+     *
+     * @param signal
+     *            signal to convolve
+     * @param filter
+     *            filter coefficients
+     * @param mode
+     *            convolution method
+     *
+     * @return full linear convolution of size signal.length + filter.length - 1, or empty if signal is empty
+     *
+     * @exception IllegalArgumentException
+     *                if filter is empty
+     */
+    public static double[] convolve(double[] signal, double[] filter, ConvolutionMode mode) {
+        return getConvolver(filter, mode).convolve(signal, mode);
+    }
+
+    /**
+     * Convolve complex signal with complex filter, choosing between direct and FFT based convolution from their sizes
+     *
+     * @param signal
+     *            signal to convolve
+     * @param filter
+     *            filter coefficients
+     *
+     * @return full linear convolution of size signal.length() + filter.length() - 1, or empty if signal is empty
+     *
+     * @exception IllegalArgumentException
+     *                if filter is empty
+     */
+    public static ComplexArray convolve(ComplexArray signal, ComplexArray filter) {
+        return convolve(signal, filter, ConvolutionMode.AUTO);
+    }
+
+    /**
+     * Convolve complex signal with complex filter
+     *
+     * @param signal
+     *            signal to convolve
+     * @param filter
+     *            filter coefficients
+     * @param mode
+     *            convolution method
+     *
+     * @return full linear convolution of size signal.length() + filter.length() - 1, or empty if signal is empty
+     *
+     * @exception IllegalArgumentException
+     *                if filter is empty
+     */
+    public static ComplexArray convolve(ComplexArray signal, ComplexArray filter, ConvolutionMode mode) {
+        return getConvolver(filter, mode).convolve(signal, mode);
+    }
+
+    static Convolver getConvolver(double[] filter, ConvolutionMode mode) {
+        // Direct convolution uses no filter spectra
+        if (mode == ConvolutionMode.DIRECT || filter.length == 0) {
+            return new Convolver(filter);
+        }
+        return CONVOLVERS.get(new FilterKey(filter.clone(), false));
+    }
+
+    static Convolver getConvolver(ComplexArray filter, ConvolutionMode mode) {
+        if (mode == ConvolutionMode.DIRECT || filter.length() == 0) {
+            return new Convolver(filter);
+        }
+        return CONVOLVERS.get(new FilterKey(filter.toInterleavedArray(), true));
+    }
+
+    private static final class FilterKey {
+
+        private final double[] coefficients;
+        private final boolean complex;
+        private final int hashCode;
+
+        private FilterKey(double[] coefficients, boolean complex) {
+            this.coefficients = coefficients;
+            this.complex = complex;
+            this.hashCode = 31 * Arrays.hashCode(coefficients) + Boolean.hashCode(complex);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FilterKey)) {
+                return false;
+            }
+            FilterKey other = (FilterKey) obj;
+            return complex == other.complex && Arrays.equals(coefficients, other.coefficients);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+}
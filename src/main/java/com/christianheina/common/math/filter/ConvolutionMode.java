@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+/**
+ * Method used to compute a linear convolution.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public enum ConvolutionMode {
+
+    /**
+     * Choose between direct and FFT based convolution from estimated cost for the signal and filter sizes
+     */
+    AUTO,
+
+    /**
+     * Direct summation, O(N * M)
+     */
+    DIRECT,
+
+    /**
+     * FFT based block convolution adding the overlapping tails of consecutive blocks
+     */
+    OVERLAP_ADD,
+
+    /**
+     * FFT based block convolution keeping the valid part of overlapping input blocks
+     */
+    OVERLAP_SAVE
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import java.util.Arrays;
+
+/**
+ * Streaming convolution of an unbounded real signal with a fixed real filter using overlap-save.<br>
+ * Input is buffered until a block of {@link #getBlockLength()} samples is complete, then the block is filtered and its
+ * output emitted. Memory use is bounded by the block size regardless of stream length and no garbage is produced per
+ * block. The concatenation of all output from {@link #process(double[], int, int, double[], int)} followed by
+ * {@link #flush(double[], int)} is the full linear convolution of everything processed.
+ * <p>
+ * Instances are not thread safe. Create streams with {@link Convolver#createStream()}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ConvolutionStream {
+
+    private final int filterLength;
+    private final int blockLength;
+    private final CircularConvolution convolution;
+    private final double[] inputBuffer;
+    private int pendingSamples;
+
+    ConvolutionStream(Convolver convolver, int fftSize) {
+        this.filterLength = convolver.getFilterLength();
+        this.blockLength = fftSize - filterLength + 1;
+        this.convolution = new CircularConvolution(fftSize, convolver.getFilterSpectrum(fftSize, false), false);
+        this.inputBuffer = new double[fftSize];
+    }
+
+    /**
+     * Get number of samples filtered at a time
+     *
+     * @return block length
+     */
+    public int getBlockLength() {
+        return blockLength;
+    }
+
+    /**
+     * Get number of output samples that will be written when a number of additional samples is processed
+     *
+     * @param sampleCount
+     *            number of additional samples
+     *
+     * @return number of output samples
+     */
+    public int getPendingOutputCount(int sampleCount) {
+        return (pendingSamples + sampleCount) / blockLength * blockLength;
+    }
+
+    /**
+     * Get number of output samples that will be written by {@link #flush(double[], int)}
+     *
+     * @return number of buffered samples plus filterLength - 1
+     */
+    public int getFlushCount() {
+        return pendingSamples + filterLength - 1;
+    }
+
+    /**
+     * Process chunk of samples, writing output of each completed block
+     *
+     * @param input
+     *            array holding samples
+     * @param offset
+     *            index in input of first sample to process
+     * @param length
+     *            number of samples to process
+     * @param output
+     *            array receiving filtered samples
+     * @param outputOffset
+     *            index in output of first value to write
+     *
+     * @return number of output samples written, see {@link #getPendingOutputCount(int)}
+     *
+     * @exception IllegalArgumentException
+     *                if output can not hold all filtered samples
+     */
+    public int process(double[] input, int offset, int length, double[] output, int outputOffset) {
+        checkOutputSize(output, outputOffset, getPendingOutputCount(length));
+        int outputPosition = outputOffset;
+        int position = offset;
+        int end = offset + length;
+        while (position < end) {
+            int blockSamples = Math.min(end - position, blockLength - pendingSamples);
+            System.arraycopy(input, position, inputBuffer, filterLength - 1 + pendingSamples, blockSamples);
+            position += blockSamples;
+            pendingSamples += blockSamples;
+            if (pendingSamples == blockLength) {
+                outputPosition += filterBlock(output, outputPosition, blockLength);
+            }
+        }
+        return outputPosition - outputOffset;
+    }
+
+    /**
+     * Write output for all buffered samples followed by the filterLength - 1 samples of filter tail, as if input ended
+     * with zeros. The stream is reset afterwards.
+     *
+     * @param output
+     *            array receiving filtered samples
+     * @param outputOffset
+     *            index in output of first value to write
+     *
+     * @return number of output samples written, see {@link #getFlushCount()}
+     *
+     * @exception IllegalArgumentException
+     *                if output can not hold all filtered samples
+     */
+    public int flush(double[] output, int outputOffset) {
+        int flushCount = getFlushCount();
+        checkOutputSize(output, outputOffset, flushCount);
+        int outputPosition = outputOffset;
+        int remaining = flushCount;
+        while (remaining > 0) {
+            Arrays.fill(inputBuffer, filterLength - 1 + pendingSamples, inputBuffer.length, 0);
+            int written = filterBlock(output, outputPosition, Math.min(blockLength, remaining));
+            outputPosition += written;
+            remaining -= written;
+        }
+        reset();
+        return flushCount;
+    }
+
+    /**
+     * Discard all buffered samples and filter history
+     */
+    public void reset() {
+        Arrays.fill(inputBuffer, 0);
+        pendingSamples = 0;
+    }
+
+    private int filterBlock(double[] output, int outputOffset, int outputLength) {
+        double[] block = convolution.getBlock();
+        System.arraycopy(inputBuffer, 0, block, 0, inputBuffer.length);
+        convolution.run();
+        // First filterLength - 1 values are corrupted by circular wrap around
+        System.arraycopy(block, filterLength - 1, output, outputOffset, outputLength);
+        // Keep last filterLength - 1 samples as history for next block
+        System.arraycopy(inputBuffer, blockLength, inputBuffer, 0, filterLength - 1);
+        pendingSamples = 0;
+        return outputLength;
+    }
+
+    private static void checkOutputSize(double[] output, int outputOffset, int outputLength) {
+        if (outputOffset < 0 || outputOffset + (long) outputLength > output.length) {
+            throw new IllegalArgumentException("output can not hold all filtered samples");
+        }
+    }
+
+}
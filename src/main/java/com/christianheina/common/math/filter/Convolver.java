@@ -0,0 +1,319 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Linear convolution with a fixed filter.<br>
+ * The spectrum of the zero padded filter is computed the first time a block size is used and cached, so repeated
+ * convolutions with the same filter only transform the signal. Instances are thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class Convolver {
+
+    private static final int MIN_BLOCK_FFT_SIZE = 64;
+    private static final int FILTER_LENGTHS_PER_BLOCK = 4;
+    private static final double FFT_COST_FACTOR = 2.5;
+
+    private final double[] filter;
+    private final double[] complexFilter;
+    private final int filterLength;
+    private final boolean complex;
+    private final Map<Integer, ComplexArray> realFilterSpectra = new ConcurrentHashMap<>();
+    private final Map<Integer, ComplexArray> complexFilterSpectra = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for real filter
+     *
+     * @param filter
+     *            filter coefficients. The coefficients are copied
+     *
+     * @exception IllegalArgumentException
+     *                if filter is empty
+     */
+    public Convolver(double[] filter) {
+        this(filter.clone(), createComplexFilter(filter), filter.length, false);
+    }
+
+    /**
+     * Constructor for complex filter
+     *
+     * @param filter
+     *            filter coefficients. The coefficients are copied
+     *
+     * @exception IllegalArgumentException
+     *                if filter is empty
+     */
+    public Convolver(ComplexArray filter) {
+        this(null, filter.toInterleavedArray(), filter.length(), true);
+    }
+
+    private Convolver(double[] filter, double[] complexFilter, int filterLength, boolean complex) {
+        if (filterLength < 1) {
+            throw new IllegalArgumentException("filter needs to contain at least 1 coefficient");
+        }
+        this.filter = filter;
+        this.complexFilter = complexFilter;
+        this.filterLength = filterLength;
+        this.complex = complex;
+    }
+
+    /**
+     * Get number of filter coefficients
+     *
+     * @return filter length
+     */
+    public int getFilterLength() {
+        return filterLength;
+    }
+
+    /**
+     * Check if filter is complex
+     *
+     * @return true if filter has complex coefficients
+     */
+    public boolean isComplex() {
+        return complex;
+    }
+
+    /**
+     * Convolve real signal with real filter, choosing method from signal and filter sizes
+     *
+     * @param signal
+     *            signal to convolve
+     *
+     * @return full linear convolution of size signal.length + filterLength - 1, or empty if signal is empty
+     *
+     * @exception IllegalStateException
+     *                if filter is complex
+     */
+    public double[] convolve(double[] signal) {
+        return convolve(signal, ConvolutionMode.AUTO);
+    }
+
+    /**
+     * Convolve real signal with real filter
+     *
+     * @param signal
+     *            signal to convolve
+     * @param mode
+     *            convolution method
+     *
+     * @return full linear convolution of size signal.length + filterLength - 1, or empty if signal is empty
+     *
+     * @exception IllegalStateException
+     *                if filter is complex
+     */
+    public double[] convolve(double[] signal, ConvolutionMode mode) {
+        if (complex) {
+            throw new IllegalStateException("real signal can only be convolved with real filter");
+        }
+        return convolve(signal, 0, signal.length, false, mode);
+    }
+
+    /**
+     * Convolve complex signal with filter, choosing method from signal and filter sizes
+     *
+     * @param signal
+     *            signal to convolve
+     *
+     * @return full linear convolution of size signal.length() + filterLength - 1, or empty if signal is empty
+     */
+    public ComplexArray convolve(ComplexArray signal) {
+        return convolve(signal, ConvolutionMode.AUTO);
+    }
+
+    /**
+     * Convolve complex signal with filter
+     *
+     * @param signal
+     *            signal to convolve
+     * @param mode
+     *            convolution method
+     *
+     * @return full linear convolution of size signal.length() + filterLength - 1, or empty if signal is empty
+     */
+    public ComplexArray convolve(ComplexArray signal, ConvolutionMode mode) {
+        return new ComplexArray(convolve(signal.getData(), signal.getOffset(), signal.length(), true, mode));
+    }
+
+    /**
+     * Create stream filtering an unbounded real signal with this filter using overlap-save block convolution
+     *
+     * @return new stream
+     *
+     * @exception IllegalStateException
+     *                if filter is complex
+     */
+    public ConvolutionStream createStream() {
+        if (complex) {
+            throw new IllegalStateException("streaming is only supported for real filter");
+        }
+        return new ConvolutionStream(this, blockFftSize(filterLength));
+    }
+
+    /**
+     * Get cached spectrum of zero padded filter
+     *
+     * @param fftSize
+     *            size of zero padded filter
+     * @param complexSignal
+     *            true if spectrum is used for complex signals
+     *
+     * @return half spectrum for real signals, full spectrum for complex signals
+     */
+    ComplexArray getFilterSpectrum(int fftSize, boolean complexSignal) {
+        if (complexSignal) {
+            return complexFilterSpectra.computeIfAbsent(fftSize,
+                    size -> CircularConvolution.createFilterSpectrum(complexFilter, filterLength, size, true));
+        }
+        return realFilterSpectra.computeIfAbsent(fftSize,
+                size -> CircularConvolution.createFilterSpectrum(filter, filterLength, size, false));
+    }
+
+    private double[] convolve(double[] signal, int offset, int signalLength, boolean complexSignal,
+            ConvolutionMode mode) {
+        if (signalLength == 0) {
+            return new double[0];
+        }
+        if (mode == ConvolutionMode.AUTO) {
+            mode = chooseMode(signalLength, complexSignal);
+        }
+        switch (mode) {
+        case DIRECT:
+            return complexSignal ? directComplex(signal, offset, signalLength) : directReal(signal, signalLength);
+        case OVERLAP_SAVE:
+            return overlapSave(signal, offset, signalLength, complexSignal);
+        default:
+            return overlapAdd(signal, offset, signalLength, complexSignal);
+        }
+    }
+
+    private ConvolutionMode chooseMode(int signalLength, boolean complexSignal) {
+        int fftSize = batchFftSize(signalLength);
+        int blockLength = fftSize - filterLength + 1;
+        long blockCount = (signalLength + blockLength - 1L) / blockLength;
+        double log2FftSize = 31 - Integer.numberOfLeadingZeros(fftSize);
+        // Forward and inverse transform plus spectrum product per block, complex costs about twice a real transform
+        double fftCost = blockCount * fftSize * (FFT_COST_FACTOR * log2FftSize + 1) * (complexSignal ? 2 : 1);
+        double directCost = (double) signalLength * filterLength * (complexSignal ? 4 : 1);
+        return directCost <= fftCost ? ConvolutionMode.DIRECT : ConvolutionMode.OVERLAP_ADD;
+    }
+
+    private double[] directReal(double[] signal, int signalLength) {
+        double[] output = new double[signalLength + filterLength - 1];
+        for (int i = 0; i < signalLength; i++) {
+            double sample = signal[i];
+            for (int j = 0; j < filterLength; j++) {
+                output[i + j] += sample * filter[j];
+            }
+        }
+        return output;
+    }
+
+    private double[] directComplex(double[] signal, int offset, int signalLength) {
+        double[] output = new double[2 * (signalLength + filterLength - 1)];
+        for (int i = 0; i < signalLength; i++) {
+            double real = signal[offset + 2 * i];
+            double imaginary = signal[offset + 2 * i + 1];
+            for (int j = 0; j < filterLength; j++) {
+                double filterReal = complexFilter[2 * j];
+                double filterImaginary = complexFilter[2 * j + 1];
+                output[2 * (i + j)] += real * filterReal - imaginary * filterImaginary;
+                output[2 * (i + j) + 1] += real * filterImaginary + imaginary * filterReal;
+            }
+        }
+        return output;
+    }
+
+    private double[] overlapAdd(double[] signal, int offset, int signalLength, boolean complexSignal) {
+        int width = complexSignal ? 2 : 1;
+        int fftSize = batchFftSize(signalLength);
+        int blockLength = fftSize - filterLength + 1;
+        CircularConvolution convolution = new CircularConvolution(fftSize, getFilterSpectrum(fftSize, complexSignal),
+                complexSignal);
+        double[] block = convolution.getBlock();
+        double[] output = new double[width * (signalLength + filterLength - 1)];
+        for (int start = 0; start < signalLength; start += blockLength) {
+            int length = Math.min(blockLength, signalLength - start);
+            Arrays.fill(block, 0);
+            System.arraycopy(signal, offset + width * start, block, 0, width * length);
+            convolution.run();
+            // Convolution of the block extends filterLength - 1 values into the next block
+            int resultEnd = width * (length + filterLength - 1);
+            int outputStart = width * start;
+            for (int i = 0; i < resultEnd; i++) {
+                output[outputStart + i] += block[i];
+            }
+        }
+        return output;
+    }
+
+    private double[] overlapSave(double[] signal, int offset, int signalLength, boolean complexSignal) {
+        int width = complexSignal ? 2 : 1;
+        int fftSize = batchFftSize(signalLength);
+        int blockLength = fftSize - filterLength + 1;
+        CircularConvolution convolution = new CircularConvolution(fftSize, getFilterSpectrum(fftSize, complexSignal),
+                complexSignal);
+        double[] block = convolution.getBlock();
+        int outputLength = signalLength + filterLength - 1;
+        double[] output = new double[width * outputLength];
+        for (int start = 0; start < outputLength; start += blockLength) {
+            // Block holds input [start - filterLength + 1, start + blockLength), zero outside of signal
+            int inputStart = start - filterLength + 1;
+            int copyStart = Math.max(0, inputStart);
+            int copyEnd = Math.min(signalLength, start + blockLength);
+            Arrays.fill(block, 0);
+            if (copyEnd > copyStart) {
+                System.arraycopy(signal, offset + width * copyStart, block, width * (copyStart - inputStart),
+                        width * (copyEnd - copyStart));
+            }
+            convolution.run();
+            // First filterLength - 1 values are corrupted by circular wrap around
+            int length = Math.min(blockLength, outputLength - start);
+            System.arraycopy(block, width * (filterLength - 1), output, width * start, width * length);
+        }
+        return output;
+    }
+
+    private int batchFftSize(int signalLength) {
+        return Math.min(nextPowerOfTwo(signalLength + filterLength - 1), blockFftSize(filterLength));
+    }
+
+    private static int blockFftSize(int filterLength) {
+        return nextPowerOfTwo(Math.max(FILTER_LENGTHS_PER_BLOCK * filterLength, MIN_BLOCK_FFT_SIZE));
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static double[] createComplexFilter(double[] filter) {
+        double[] complexFilter = new double[2 * filter.length];
+        for (int i = 0; i < filter.length; i++) {
+            complexFilter[2 * i] = filter[i];
+        }
+        return complexFilter;
+    }
+
+}
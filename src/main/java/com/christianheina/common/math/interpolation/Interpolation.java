@@ -72,6 +72,41 @@ public class Interpolation {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Interpolate using FFT method in single precision<br>
+     * Based on interpft function from MATLAB. Data is transformed with a real input single precision FFT, no values are
+     * widened to double or boxed.
+     * 
+     * @param dataToInterpolate
+     *            data to interpolate
+     * @param lengthOfInterpolatedDataArray
+     *            length of interpolated data
+     * 
+     * @return new array containing interpolated data
+     * 
+     * @exception IllegalArgumentException
+     *                if dataToInterpolate is empty or lengthOfInterpolatedDataArray is less than its length
+     */
+    public static float[] interpftFloat(float[] dataToInterpolate, int lengthOfInterpolatedDataArray) {
+        int originalLength = dataToInterpolate.length;
+        if (originalLength == 0 || lengthOfInterpolatedDataArray < originalLength) {
+            throw new IllegalArgumentException(
+                    "dataToInterpolate needs to be non-empty and no longer than lengthOfInterpolatedDataArray");
+        }
+        float[] fftedData = ComplexAdditions.realFft(dataToInterpolate);
+        // Zero padding in the middle of the full spectrum is zero padding at the end of the half spectrum
+        float[] interpolatedSpectrum = new float[2 * (lengthOfInterpolatedDataArray / 2 + 1)];
+        float multiplier = (float) lengthOfInterpolatedDataArray / originalLength;
+        for (int i = 0; i < fftedData.length; i++) {
+            interpolatedSpectrum[i] = fftedData[i] * multiplier;
+        }
+        if (originalLength % 2 == 0) {
+            // Nyquist bin is split between the positive and negative frequency it now maps to
+            interpolatedSpectrum[originalLength] /= 2;
+        }
+        return ComplexAdditions.realIfft(interpolatedSpectrum, lengthOfInterpolatedDataArray);
+    }
+
     /**
      * Interpolate using FFT method<br>
      * Based on interpft function from MATLAB.
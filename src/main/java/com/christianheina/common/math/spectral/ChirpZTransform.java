@@ -0,0 +1,271 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Chirp-Z transform, evaluating the z-transform of a finite signal at points along a spiral contour.<br>
+ * Output k is X(z_k) = sum of x[n] * z_k^-n with z_k = a * w^-k. As a zoom FFT it evaluates outputLength frequencies in
+ * an arbitrary band with resolution independent of the signal length. The transform is computed with Bluestein's
+ * algorithm as a convolution using FFTs of the next power of two of inputLength + outputLength - 1, instead of zero
+ * padding the signal to the resolution of the band.
+ * <p>
+ * The chirps w^(n^2 / 2) have phases growing with n^2. When the zoom band is that of a DFT of integer length, i.e.
+ * sampleRate * outputLength / (endFrequency - startFrequency) is an integer, n^2 is reduced modulo twice that length
+ * before it is multiplied by the angle of w, so the chirps keep full precision for long transforms. Phases of general
+ * spiral contours are not reduced and lose precision as (n^2 / 2) * angle grows.
+ * <p>
+ * The chirp sequences and the spectrum of the convolution kernel are computed once by the constructor, so one instance
+ * should be reused for repeated transforms with the same parameters. Instances are thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ChirpZTransform {
+
+    private final int inputLength;
+    private final int outputLength;
+    private final int fftSize;
+    private final double[] inputChirp;
+    private final double[] outputChirp;
+    private final ComplexArray kernelSpectrum;
+
+    /**
+     * Constructor for zoom FFT evaluating equally spaced frequencies from startFrequency (inclusive) to endFrequency
+     * (exclusive), the same points as a DFT zero padded to sampleRate * outputLength / (endFrequency - startFrequency)
+     *
+     * @param inputLength
+     *            number of samples of transformed signals
+     * @param outputLength
+     *            number of frequencies to evaluate
+     * @param startFrequency
+     *            first evaluated frequency
+     * @param endFrequency
+     *            end of evaluated band
+     * @param sampleRate
+     *            sample rate of transformed signals
+     *
+     * @exception IllegalArgumentException
+     *                if inputLength or outputLength is less than 1
+     */
+    public ChirpZTransform(int inputLength, int outputLength, double startFrequency, double endFrequency,
+            double sampleRate) {
+        this(inputLength, outputLength, 0, -2 * Math.PI * (endFrequency - startFrequency) / (outputLength * sampleRate),
+                period(sampleRate * outputLength / (endFrequency - startFrequency)), 0,
+                Math.IEEEremainder(2 * Math.PI * startFrequency / sampleRate, 2 * Math.PI));
+    }
+
+    /**
+     * Constructor for general spiral contour z_k = a * w^-k
+     *
+     * @param inputLength
+     *            number of samples of transformed signals
+     * @param outputLength
+     *            number of points to evaluate
+     * @param w
+     *            ratio between consecutive points. Magnitudes other than 1 grow or decay as w^(k^2 / 2) and can only be
+     *            used for short transforms
+     * @param a
+     *            starting point
+     *
+     * @exception IllegalArgumentException
+     *                if inputLength or outputLength is less than 1
+     */
+    public ChirpZTransform(int inputLength, int outputLength, Complex w, Complex a) {
+        this(inputLength, outputLength, Math.log(w.abs()), w.getArgument(), 0, Math.log(a.abs()), a.getArgument());
+    }
+
+    private ChirpZTransform(int inputLength, int outputLength, double logMagnitudeW, double angleW, long period,
+            double logMagnitudeA, double angleA) {
+        if (inputLength < 1 || outputLength < 1) {
+            throw new IllegalArgumentException("inputLength and outputLength needs to be at least 1");
+        }
+        this.inputLength = inputLength;
+        this.outputLength = outputLength;
+        this.fftSize = nextPowerOfTwo(inputLength + outputLength - 1);
+
+        // x[n] is multiplied by a^-n * w^(n^2 / 2)
+        this.inputChirp = new double[2 * inputLength];
+        for (int n = 0; n < inputLength; n++) {
+            double halfSquare = halfSquare(n, period);
+            setPolar(inputChirp, n, halfSquare * logMagnitudeW - n * logMagnitudeA, halfSquare * angleW - n * angleA);
+        }
+        // Result k is multiplied by w^(k^2 / 2)
+        this.outputChirp = new double[2 * outputLength];
+        for (int k = 0; k < outputLength; k++) {
+            double halfSquare = halfSquare(k, period);
+            setPolar(outputChirp, k, halfSquare * logMagnitudeW, halfSquare * angleW);
+        }
+        // Convolution kernel w^(-m^2 / 2) for m in (-inputLength, outputLength), negative m wrapped around
+        this.kernelSpectrum = new ComplexArray(fftSize);
+        double[] kernel = kernelSpectrum.getData();
+        for (int m = 0; m < outputLength; m++) {
+            double halfSquare = halfSquare(m, period);
+            setPolar(kernel, m, -halfSquare * logMagnitudeW, -halfSquare * angleW);
+        }
+        for (int m = 1; m < inputLength; m++) {
+            double halfSquare = halfSquare(m, period);
+            setPolar(kernel, fftSize - m, -halfSquare * logMagnitudeW, -halfSquare * angleW);
+        }
+        ComplexAdditions.fftInPlace(kernelSpectrum);
+    }
+
+    /**
+     * Get number of samples of transformed signals
+     *
+     * @return input length
+     */
+    public int getInputLength() {
+        return inputLength;
+    }
+
+    /**
+     * Get number of evaluated points
+     *
+     * @return output length
+     */
+    public int getOutputLength() {
+        return outputLength;
+    }
+
+    /**
+     * Get size of FFTs used by each transform
+     *
+     * @return FFT size
+     */
+    public int getFftSize() {
+        return fftSize;
+    }
+
+    /**
+     * Transform real signal
+     *
+     * @param signal
+     *            real values to transform
+     *
+     * @return new complex array containing transform at each evaluated point
+     *
+     * @exception IllegalArgumentException
+     *                if signal is not of inputLength
+     */
+    public ComplexArray transform(double[] signal) {
+        if (signal.length != inputLength) {
+            throw new IllegalArgumentException("signal needs to be of inputLength");
+        }
+        ComplexArray output = new ComplexArray(outputLength);
+        ComplexArray buffer = new ComplexArray(fftSize);
+        double[] data = buffer.getData();
+        for (int n = 0; n < inputLength; n++) {
+            data[2 * n] = signal[n] * inputChirp[2 * n];
+            data[2 * n + 1] = signal[n] * inputChirp[2 * n + 1];
+        }
+        convolve(buffer, output);
+        return output;
+    }
+
+    /**
+     * Transform complex signal
+     *
+     * @param signal
+     *            complex values to transform
+     *
+     * @return new complex array containing transform at each evaluated point
+     *
+     * @exception IllegalArgumentException
+     *                if signal is not of inputLength
+     */
+    public ComplexArray transform(ComplexArray signal) {
+        ComplexArray output = new ComplexArray(outputLength);
+        transform(signal, output);
+        return output;
+    }
+
+    /**
+     * Transform complex signal into caller supplied array
+     *
+     * @param signal
+     *            complex values to transform
+     * @param output
+     *            array receiving transform at each evaluated point
+     *
+     * @exception IllegalArgumentException
+     *                if signal is not of inputLength or output is not of outputLength
+     */
+    public void transform(ComplexArray signal, ComplexArray output) {
+        if (signal.length() != inputLength) {
+            throw new IllegalArgumentException("signal needs to be of inputLength");
+        }
+        ComplexArray buffer = new ComplexArray(fftSize);
+        double[] data = buffer.getData();
+        double[] signalData = signal.getData();
+        int offset = signal.getOffset();
+        for (int n = 0; n < inputLength; n++) {
+            multiply(signalData[offset + 2 * n], signalData[offset + 2 * n + 1], inputChirp, n, data, 2 * n);
+        }
+        convolve(buffer, output);
+    }
+
+    private void convolve(ComplexArray buffer, ComplexArray output) {
+        if (output.length() != outputLength) {
+            throw new IllegalArgumentException("output needs to be of outputLength");
+        }
+        double[] data = buffer.getData();
+        double[] kernel = kernelSpectrum.getData();
+        ComplexAdditions.fftInPlace(buffer);
+        for (int i = 0; i < fftSize; i++) {
+            multiply(data[2 * i], data[2 * i + 1], kernel, i, data, 2 * i);
+        }
+        ComplexAdditions.ifftInPlace(buffer);
+        double[] outputData = output.getData();
+        for (int k = 0; k < outputLength; k++) {
+            multiply(data[2 * k], data[2 * k + 1], outputChirp, k, outputData, output.getOffset() + 2 * k);
+        }
+    }
+
+    private static void multiply(double real, double imaginary, double[] factors, int factorIndex, double[] result,
+            int resultPosition) {
+        double factorReal = factors[2 * factorIndex];
+        double factorImaginary = factors[2 * factorIndex + 1];
+        result[resultPosition] = real * factorReal - imaginary * factorImaginary;
+        result[resultPosition + 1] = real * factorImaginary + imaginary * factorReal;
+    }
+
+    private static void setPolar(double[] data, int index, double logMagnitude, double angle) {
+        double magnitude = Math.exp(logMagnitude);
+        data[2 * index] = magnitude * Math.cos(angle);
+        data[2 * index + 1] = magnitude * Math.sin(angle);
+    }
+
+    private static double halfSquare(long n, long period) {
+        // w^(n^2 / 2) repeats when n^2 grows by twice the period, reduce exactly before multiplying by the angle
+        return period > 0 ? (n * n % (2 * period)) / 2.0 : n * n / 2.0;
+    }
+
+    private static long period(double length) {
+        // Zoom bands of a DFT of integer length have chirps periodic in n^2, 0 if the length is not an integer
+        double period = Math.abs(length);
+        return period >= 1 && period <= 1L << 53 && Math.rint(period) == period ? (long) period : 0;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+}
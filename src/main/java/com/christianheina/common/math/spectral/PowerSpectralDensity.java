@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.fft.JTransformsThreads;
+import com.christianheina.common.math.window.Window;
+
+/**
+ * Provides power spectral density (PSD) estimation of real valued signals.<br>
+ * Estimates are one-sided, contain segmentLength / 2 + 1 bins and are scaled as density, i.e. power per unit of sample
+ * rate. Each segment is windowed directly into the buffer its FFT is performed in and squared magnitudes of the segment
+ * spectrum are accumulated directly into a primitive array, no complex objects are created. Segments are not detrended.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class PowerSpectralDensity {
+
+    private static final int TASKS_PER_THREAD = 4;
+
+    private PowerSpectralDensity() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Estimate PSD using Welch's method of averaging windowed, overlapping segments
+     *
+     * @param signal
+     *            signal to estimate PSD of
+     * @param window
+     *            window applied to each segment. Segment length is the length of window
+     * @param overlap
+     *            number of samples shared by consecutive segments
+     * @param sampleRate
+     *            sample rate of signal
+     *
+     * @return one-sided PSD, bins 0 to window.length() / 2 (inclusive)
+     *
+     * @exception IllegalArgumentException
+     *                if window is longer than signal, or overlap is not in [0, window.length())
+     */
+    public static double[] welch(double[] signal, Window window, int overlap, double sampleRate) {
+        Segments segments = new Segments(signal, window, overlap);
+        return scale(segments.accumulate(0, segments.count), window, segments.count, sampleRate);
+    }
+
+    /**
+     * Estimate PSD using Welch's method of averaging windowed, overlapping segments, with segments distributed over a
+     * {@link ForkJoinPool}
+     *
+     * @param signal
+     *            signal to estimate PSD of
+     * @param window
+     *            window applied to each segment. Segment length is the length of window
+     * @param overlap
+     *            number of samples shared by consecutive segments
+     * @param sampleRate
+     *            sample rate of signal
+     * @param pool
+     *            pool that segments are distributed over
+     *
+     * @return one-sided PSD, bins 0 to window.length() / 2 (inclusive)
+     *
+     * @exception IllegalArgumentException
+     *                if window is longer than signal, or overlap is not in [0, window.length())
+     */
+    public static double[] welch(double[] signal, Window window, int overlap, double sampleRate, ForkJoinPool pool) {
+        Segments segments = new Segments(signal, window, overlap);
+        if (segments.count == 1 || pool.getParallelism() == 1) {
+            return scale(segments.accumulate(0, segments.count), window, segments.count, sampleRate);
+        }
+        int segmentsPerTask = Math.max(1, segments.count / (pool.getParallelism() * TASKS_PER_THREAD));
+        double[] powerSum = pool.invoke(new SegmentTask(segments, 0, segments.count, segmentsPerTask));
+        return scale(powerSum, window, segments.count, sampleRate);
+    }
+
+    /**
+     * Estimate PSD using Bartlett's method of averaging non-overlapping segments without windowing
+     *
+     * @param signal
+     *            signal to estimate PSD of
+     * @param segmentLength
+     *            number of samples in each segment
+     * @param sampleRate
+     *            sample rate of signal
+     *
+     * @return one-sided PSD, bins 0 to segmentLength / 2 (inclusive)
+     *
+     * @exception IllegalArgumentException
+     *                if segmentLength is less than 1 or longer than signal
+     */
+    public static double[] bartlett(double[] signal, int segmentLength, double sampleRate) {
+        if (segmentLength < 1) {
+            throw new IllegalArgumentException("segmentLength needs to be at least 1");
+        }
+        return welch(signal, Window.rectangular(segmentLength), 0, sampleRate);
+    }
+
+    private static double[] scale(double[] powerSum, Window window, int segmentCount, double sampleRate) {
+        double scale = 1.0 / (sampleRate * window.getPowerSum() * segmentCount);
+        // Fold negative frequencies onto positive ones, DC and Nyquist (even length) bins have no mirror
+        int lastMirroredBin = (window.length() - 1) / 2;
+        for (int k = 0; k < powerSum.length; k++) {
+            powerSum[k] *= (k >= 1 && k <= lastMirroredBin) ? 2 * scale : scale;
+        }
+        return powerSum;
+    }
+
+    private static final class Segments {
+
+        private final double[] signal;
+        private final Window window;
+        private final int hop;
+        private final int count;
+
+        private Segments(double[] signal, Window window, int overlap) {
+            if (window.length() > signal.length) {
+                throw new IllegalArgumentException("window needs to be no longer than signal");
+            }
+            if (overlap < 0 || overlap >= window.length()) {
+                throw new IllegalArgumentException("overlap needs to be in [0, window.length())");
+            }
+            this.signal = signal;
+            this.window = window;
+            this.hop = window.length() - overlap;
+            this.count = (signal.length - window.length()) / hop + 1;
+        }
+
+        private double[] accumulate(int firstSegment, int lastSegment) {
+            ComplexArray halfSpectrum = new ComplexArray(window.length() / 2 + 1);
+            double[] spectrum = halfSpectrum.getData();
+            double[] powerSum = new double[halfSpectrum.length()];
+            for (int segment = firstSegment; segment < lastSegment; segment++) {
+                ComplexAdditions.realFft(signal, segment * hop, window, halfSpectrum);
+                for (int k = 0; k < powerSum.length; k++) {
+                    powerSum[k] += spectrum[2 * k] * spectrum[2 * k] + spectrum[2 * k + 1] * spectrum[2 * k + 1];
+                }
+            }
+            return powerSum;
+        }
+    }
+
+    private static final class SegmentTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Segments segments;
+        private final int first;
+        private final int last;
+        private final int segmentsPerTask;
+
+        private SegmentTask(Segments segments, int first, int last, int segmentsPerTask) {
+            this.segments = segments;
+            this.first = first;
+            this.last = last;
+            this.segmentsPerTask = segmentsPerTask;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (last - first <= segmentsPerTask) {
+                // Segments are already distributed over the pool, each segment is transformed on its worker thread
+                JTransformsThreads.enterSequential();
+                try {
+                    return segments.accumulate(first, last);
+                } finally {
+                    JTransformsThreads.exitSequential();
+                }
+            }
+            int middle = (first + last) >>> 1;
+            SegmentTask upper = new SegmentTask(segments, middle, last, segmentsPerTask);
+            upper.fork();
+            double[] powerSum = new SegmentTask(segments, first, middle, segmentsPerTask).compute();
+            double[] upperPowerSum = upper.join();
+            for (int k = 0; k < powerSum.length; k++) {
+                powerSum[k] += upperPowerSum[k];
+            }
+            return powerSum;
+        }
+    }
+
+}
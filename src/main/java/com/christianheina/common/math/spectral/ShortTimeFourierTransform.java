@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.Arrays;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.window.Window;
+
+/**
+ * Streaming short-time Fourier transform (STFT) of a real valued signal.<br>
+ * Samples can be supplied in chunks of any size. The most recent frame of samples is kept in a mirrored ring buffer,
+ * every sample is stored both at its ring position and one frame length later, so the current frame is always
+ * contiguous and memory use is bounded by twice the frame length regardless of stream length. Every hop size samples
+ * the frame is windowed directly into the buffer the FFT transforms in place and emitted as its non-redundant half
+ * spectrum (bins 0 to frameLength / 2 inclusive).
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ShortTimeFourierTransform {
+
+    private final Window window;
+    private final int hopSize;
+    private final int frameLength;
+    private final double[] ringBuffer;
+    private final ComplexArray halfSpectrum;
+    private int writePosition;
+    private int samplesUntilNextFrame;
+    private long frameIndex;
+
+    /**
+     * Constructor using rectangular window
+     *
+     * @param frameLength
+     *            number of samples in each frame
+     * @param hopSize
+     *            number of samples between the start of two consecutive frames
+     *
+     * @exception IllegalArgumentException
+     *                if frameLength or hopSize is less than 1
+     */
+    public ShortTimeFourierTransform(int frameLength, int hopSize) {
+        this(Window.rectangular(frameLength), hopSize);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param window
+     *            window applied to each frame. Frame length is the length of window
+     * @param hopSize
+     *            number of samples between the start of two consecutive frames
+     *
+     * @exception IllegalArgumentException
+     *                if hopSize is less than 1
+     */
+    public ShortTimeFourierTransform(Window window, int hopSize) {
+        if (hopSize < 1) {
+            throw new IllegalArgumentException("hopSize needs to be at least 1");
+        }
+        this.window = window;
+        this.hopSize = hopSize;
+        this.frameLength = window.length();
+        this.ringBuffer = new double[2 * frameLength];
+        this.halfSpectrum = new ComplexArray(frameLength / 2 + 1);
+        reset();
+    }
+
+    /**
+     * Get number of samples in each frame
+     *
+     * @return frame length
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    /**
+     * Get number of samples between the start of two consecutive frames
+     *
+     * @return hop size
+     */
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    /**
+     * Get number of complex values in each emitted half spectrum
+     *
+     * @return frameLength / 2 + 1
+     */
+    public int getSpectrumLength() {
+        return halfSpectrum.length();
+    }
+
+    /**
+     * Get number of frames that will be emitted when a number of additional samples is processed
+     *
+     * @param sampleCount
+     *            number of additional samples
+     *
+     * @return number of frames
+     */
+    public int getPendingFrameCount(int sampleCount) {
+        if (sampleCount < samplesUntilNextFrame) {
+            return 0;
+        }
+        return 1 + (sampleCount - samplesUntilNextFrame) / hopSize;
+    }
+
+    /**
+     * Process chunk of samples, passing each completed frame to consumer
+     *
+     * @param samples
+     *            array holding samples
+     * @param offset
+     *            index in samples of first sample to process
+     * @param length
+     *            number of samples to process
+     * @param consumer
+     *            consumer receiving the half spectrum of each completed frame
+     *
+     * @return number of frames emitted
+     */
+    public int process(double[] samples, int offset, int length, FrameConsumer consumer) {
+        return process(samples, offset, length, consumer, null, 0);
+    }
+
+    /**
+     * Process chunk of samples, writing the half spectrum of each completed frame to output. Frames are written
+     * consecutively as interleaved complex values, 2 * {@link #getSpectrumLength()} values per frame.
+     *
+     * @param samples
+     *            array holding samples
+     * @param offset
+     *            index in samples of first sample to process
+     * @param length
+     *            number of samples to process
+     * @param output
+     *            array receiving completed frames
+     * @param outputOffset
+     *            index in output of first value to write
+     *
+     * @return number of frames written
+     *
+     * @exception IllegalArgumentException
+     *                if outputOffset is negative or output can not hold all frames completed by the samples
+     */
+    public int process(double[] samples, int offset, int length, double[] output, int outputOffset) {
+        if (outputOffset < 0) {
+            throw new IllegalArgumentException("outputOffset needs to be non-negative");
+        }
+        int spectrumSize = 2 * halfSpectrum.length();
+        if (outputOffset + (long) getPendingFrameCount(length) * spectrumSize > output.length) {
+            throw new IllegalArgumentException("output can not hold all completed frames");
+        }
+        return process(samples, offset, length, null, output, outputOffset);
+    }
+
+    /**
+     * Discard all buffered samples and restart frame numbering
+     */
+    public void reset() {
+        Arrays.fill(ringBuffer, 0);
+        writePosition = 0;
+        samplesUntilNextFrame = frameLength;
+        frameIndex = 0;
+    }
+
+    private int process(double[] samples, int offset, int length, FrameConsumer consumer, double[] output,
+            int outputOffset) {
+        int frameCount = 0;
+        int position = offset;
+        int end = offset + length;
+        while (position < end) {
+            // Copy largest block that neither wraps the ring nor passes the next frame boundary, mirrored so the
+            // frame starting at the oldest sample is contiguous
+            int blockLength = Math.min(end - position, Math.min(samplesUntilNextFrame, frameLength - writePosition));
+            System.arraycopy(samples, position, ringBuffer, writePosition, blockLength);
+            System.arraycopy(samples, position, ringBuffer, writePosition + frameLength, blockLength);
+            position += blockLength;
+            writePosition = (writePosition + blockLength) % frameLength;
+            samplesUntilNextFrame -= blockLength;
+            if (samplesUntilNextFrame == 0) {
+                // Oldest sample is at writePosition
+                ComplexAdditions.realFft(ringBuffer, writePosition, window, halfSpectrum);
+                if (consumer != null) {
+                    consumer.accept(frameIndex, halfSpectrum);
+                } else {
+                    int spectrumSize = 2 * halfSpectrum.length();
+                    System.arraycopy(halfSpectrum.getData(), 0, output, outputOffset + frameCount * spectrumSize,
+                            spectrumSize);
+                }
+                frameIndex++;
+                frameCount++;
+                samplesUntilNextFrame = hopSize;
+            }
+        }
+        return frameCount;
+    }
+
+    /**
+     * Consumer of STFT frames
+     */
+    @FunctionalInterface
+    public interface FrameConsumer {
+
+        /**
+         * Accept completed frame. The half spectrum is reused for the next frame and is only valid during this call.
+         *
+         * @param frameIndex
+         *            index of frame since construction or last reset
+         * @param halfSpectrum
+         *            bins 0 to frameLength / 2 (inclusive) of the windowed frame
+         */
+        void accept(long frameIndex, ComplexArray halfSpectrum);
+    }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Sliding discrete fourier transform (DFT) of the most recent samples of a stream.<br>
+ * Every new sample updates each tracked bin in O(1) operations with X[k] = (X[k] - x[n - N] + x[n]) * exp(j * 2 * pi *
+ * k / N), instead of the O(N * log(N)) of a new FFT. Rounding errors of the recurrence accumulate, so every recompute
+ * interval samples the tracked bins are recomputed exactly from the buffered window, with an FFT when all bins are
+ * tracked and through {@link SparseDft} otherwise. Bins follow the same convention as
+ * {@link ComplexAdditions#fft(double[])}, with the oldest buffered sample at index 0. Before windowLength samples have
+ * been supplied the missing samples are zero.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class SlidingDft {
+
+    private final int[] bins;
+    private final boolean allBins;
+    private final int recomputeInterval;
+    private final double[] twiddles;
+    private final double[] ringBuffer;
+    private final ComplexArray spectrum;
+    private final ComplexArray window;
+    private int writePosition;
+    private int samplesUntilRecompute;
+
+    /**
+     * Constructor tracking all bins, recomputing once per window length samples
+     *
+     * @param windowLength
+     *            number of most recent samples transformed
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength is less than 1
+     */
+    public SlidingDft(int windowLength) {
+        this(windowLength, null, windowLength);
+    }
+
+    /**
+     * Constructor tracking selected bins, recomputing once per window length samples
+     *
+     * @param windowLength
+     *            number of most recent samples transformed
+     * @param bins
+     *            indices of tracked bins, each in [0, windowLength)
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength is less than 1 or any bin is out of range
+     */
+    public SlidingDft(int windowLength, int[] bins) {
+        this(windowLength, bins, windowLength);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param windowLength
+     *            number of most recent samples transformed
+     * @param bins
+     *            indices of tracked bins, each in [0, windowLength), null for all bins
+     * @param recomputeInterval
+     *            number of samples between exact recomputations of the tracked bins
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength or recomputeInterval is less than 1 or any bin is out of range
+     */
+    public SlidingDft(int windowLength, int[] bins, int recomputeInterval) {
+        if (windowLength < 1) {
+            throw new IllegalArgumentException("windowLength needs to be at least 1");
+        }
+        if (recomputeInterval < 1) {
+            throw new IllegalArgumentException("recomputeInterval needs to be at least 1");
+        }
+        this.allBins = bins == null;
+        this.bins = allBins ? createAllBins(windowLength) : bins.clone();
+        for (int bin : this.bins) {
+            if (bin < 0 || bin >= windowLength) {
+                throw new IllegalArgumentException("bins needs to be in [0, windowLength)");
+            }
+        }
+        this.recomputeInterval = recomputeInterval;
+        this.twiddles = new double[2 * this.bins.length];
+        for (int i = 0; i < this.bins.length; i++) {
+            double omega = 2 * Math.PI * this.bins[i] / windowLength;
+            twiddles[2 * i] = Math.cos(omega);
+            twiddles[2 * i + 1] = Math.sin(omega);
+        }
+        this.ringBuffer = new double[2 * windowLength];
+        this.spectrum = new ComplexArray(this.bins.length);
+        this.window = new ComplexArray(windowLength);
+        this.samplesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Get number of most recent samples transformed
+     *
+     * @return window length
+     */
+    public int getWindowLength() {
+        return ringBuffer.length / 2;
+    }
+
+    /**
+     * Get indices of tracked bins
+     *
+     * @return copy of tracked bins
+     */
+    public int[] getBins() {
+        return bins.clone();
+    }
+
+    /**
+     * Add real sample, dropping the oldest sample of the window
+     *
+     * @param sample
+     *            new sample
+     */
+    public void update(double sample) {
+        update(sample, 0);
+    }
+
+    /**
+     * Add complex sample, dropping the oldest sample of the window
+     *
+     * @param real
+     *            real part of new sample
+     * @param imaginary
+     *            imaginary part of new sample
+     */
+    public void update(double real, double imaginary) {
+        double deltaReal = real - ringBuffer[writePosition];
+        double deltaImaginary = imaginary - ringBuffer[writePosition + 1];
+        ringBuffer[writePosition] = real;
+        ringBuffer[writePosition + 1] = imaginary;
+        writePosition += 2;
+        if (writePosition == ringBuffer.length) {
+            writePosition = 0;
+        }
+        if (--samplesUntilRecompute == 0) {
+            recompute();
+            return;
+        }
+        double[] data = spectrum.getData();
+        for (int i = 0; i < data.length; i += 2) {
+            double sumReal = data[i] + deltaReal;
+            double sumImaginary = data[i + 1] + deltaImaginary;
+            data[i] = sumReal * twiddles[i] - sumImaginary * twiddles[i + 1];
+            data[i + 1] = sumReal * twiddles[i + 1] + sumImaginary * twiddles[i];
+        }
+    }
+
+    /**
+     * Add real samples in order
+     *
+     * @param samples
+     *            array holding new samples
+     * @param offset
+     *            index of first new sample
+     * @param length
+     *            number of new samples
+     *
+     * @exception IllegalArgumentException
+     *                if samples does not hold length values from offset
+     */
+    public void update(double[] samples, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > samples.length) {
+            throw new IllegalArgumentException("samples needs to hold length values from offset");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            update(samples[i], 0);
+        }
+    }
+
+    /**
+     * Add complex samples in order
+     *
+     * @param samples
+     *            new samples
+     */
+    public void update(ComplexArray samples) {
+        double[] data = samples.getData();
+        int offset = samples.getOffset();
+        for (int i = 0; i < samples.length(); i++) {
+            update(data[offset + 2 * i], data[offset + 2 * i + 1]);
+        }
+    }
+
+    /**
+     * Get current value of tracked bin
+     *
+     * @param index
+     *            index in tracked bins
+     *
+     * @return bin value
+     */
+    public Complex get(int index) {
+        return spectrum.get(index);
+    }
+
+    /**
+     * Get real part of current value of tracked bin
+     *
+     * @param index
+     *            index in tracked bins
+     *
+     * @return real part of bin value
+     */
+    public double getReal(int index) {
+        return spectrum.getReal(index);
+    }
+
+    /**
+     * Get imaginary part of current value of tracked bin
+     *
+     * @param index
+     *            index in tracked bins
+     *
+     * @return imaginary part of bin value
+     */
+    public double getImaginary(int index) {
+        return spectrum.getImaginary(index);
+    }
+
+    /**
+     * Get current values of all tracked bins
+     *
+     * @return new complex array containing bin values in order of tracked bins
+     */
+    public ComplexArray getSpectrum() {
+        return spectrum.copy();
+    }
+
+    /**
+     * Copy current values of all tracked bins into caller supplied array
+     *
+     * @param output
+     *            array receiving bin values in order of tracked bins
+     *
+     * @exception IllegalArgumentException
+     *                if output is not of same length as tracked bins
+     */
+    public void getSpectrum(ComplexArray output) {
+        if (output.length() != spectrum.length()) {
+            throw new IllegalArgumentException("output needs to be of same length as bins");
+        }
+        System.arraycopy(spectrum.getData(), 0, output.getData(), output.getOffset(), 2 * spectrum.length());
+    }
+
+    /**
+     * Recompute tracked bins exactly from buffered window, discarding accumulated rounding errors
+     */
+    public void recompute() {
+        // Oldest sample is at writePosition, unroll ring buffer
+        double[] windowData = window.getData();
+        int firstPartLength = ringBuffer.length - writePosition;
+        System.arraycopy(ringBuffer, writePosition, windowData, 0, firstPartLength);
+        System.arraycopy(ringBuffer, 0, windowData, firstPartLength, writePosition);
+        if (allBins) {
+            ComplexAdditions.fftInPlace(window);
+            System.arraycopy(windowData, 0, spectrum.getData(), 0, windowData.length);
+        } else {
+            SparseDft.dft(window, bins, spectrum);
+        }
+        samplesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Discard all buffered samples
+     */
+    public void reset() {
+        Arrays.fill(ringBuffer, 0);
+        Arrays.fill(spectrum.getData(), 0);
+        writePosition = 0;
+        samplesUntilRecompute = recomputeInterval;
+    }
+
+    private static int[] createAllBins(int windowLength) {
+        int[] bins = new int[windowLength];
+        for (int i = 0; i < windowLength; i++) {
+            bins[i] = i;
+        }
+        return bins;
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Evaluates selected bins of the discrete fourier transform (DFT).<br>
+ * Each bin is computed with the Goertzel algorithm in O(N) operations and no allocation, so K bins cost O(N * K)
+ * instead of the O(N * log(N)) of a full FFT. When enough bins are requested for a full FFT to be cheaper the FFT is
+ * used and the requested bins are picked from its result. Bins follow the same convention as
+ * {@link ComplexAdditions#fft(double[])}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class SparseDft {
+
+    private static final double FFT_COST_FACTOR = 2.5;
+
+    private SparseDft() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Compute selected DFT bins of real signal, choosing between Goertzel and full FFT from number of bins
+     *
+     * @param signal
+     *            real values to transform
+     * @param bins
+     *            indices of bins to compute, each in [0, signal.length)
+     *
+     * @return new complex array containing bin values in order of bins
+     *
+     * @exception IllegalArgumentException
+     *                if any bin is out of range
+     */
+    public static ComplexArray dft(double[] signal, int[] bins) {
+        ComplexArray output = new ComplexArray(bins.length);
+        dft(signal, bins, output);
+        return output;
+    }
+
+    /**
+     * Compute selected DFT bins of real signal into caller supplied array, choosing between Goertzel and full FFT from
+     * number of bins. Nothing is allocated when Goertzel is chosen.
+     *
+     * @param signal
+     *            real values to transform
+     * @param bins
+     *            indices of bins to compute, each in [0, signal.length)
+     * @param output
+     *            array receiving bin values in order of bins
+     *
+     * @exception IllegalArgumentException
+     *                if any bin is out of range or output is not of same length as bins
+     */
+    public static void dft(double[] signal, int[] bins, ComplexArray output) {
+        if (!useGoertzel(signal.length, bins.length)) {
+            checkBins(signal.length, bins, output);
+            ComplexArray halfSpectrum = ComplexAdditions.realFft(signal);
+            for (int i = 0; i < bins.length; i++) {
+                // Upper half of a real signal spectrum is the conjugate of the lower half
+                int bin = bins[i] <= signal.length / 2 ? bins[i] : signal.length - bins[i];
+                double imaginarySign = bin == bins[i] ? 1 : -1;
+                output.set(i, halfSpectrum.getReal(bin), imaginarySign * halfSpectrum.getImaginary(bin));
+            }
+            return;
+        }
+        goertzel(signal, bins, output);
+    }
+
+    /**
+     * Compute selected DFT bins of complex signal, choosing between Goertzel and full FFT from number of bins
+     *
+     * @param signal
+     *            complex values to transform
+     * @param bins
+     *            indices of bins to compute, each in [0, signal.length())
+     *
+     * @return new complex array containing bin values in order of bins
+     *
+     * @exception IllegalArgumentException
+     *                if any bin is out of range
+     */
+    public static ComplexArray dft(ComplexArray signal, int[] bins) {
+        ComplexArray output = new ComplexArray(bins.length);
+        dft(signal, bins, output);
+        return output;
+    }
+
+    /**
+     * Compute selected DFT bins of complex signal into caller supplied array, choosing between Goertzel and full FFT
+     * from number of bins. Nothing is allocated when Goertzel is chosen.
+     *
+     * @param signal
+     *            complex values to transform
+     * @param bins
+     *            indices of bins to compute, each in [0, signal.length())
+     * @param output
+     *            array receiving bin values in order of bins
+     *
+     * @exception IllegalArgumentException
+     *                if any bin is out of range or output is not of same length as bins
+     */
+    public static void dft(ComplexArray signal, int[] bins, ComplexArray output) {
+        if (!useGoertzel(signal.length(), bins.length)) {
+            checkBins(signal.length(), bins, output);
+            ComplexArray spectrum = ComplexAdditions.fft(signal);
+            for (int i = 0; i < bins.length; i++) {
+                output.set(i, spectrum.getReal(bins[i]), spectrum.getImaginary(bins[i]));
+            }
+            return;
+        }
+        goertzel(signal, bins, output);
+    }
+
+    /**
+     * Compute selected DFT bins of real signal with the Goertzel algorithm. Nothing is allocated.
+     *
+     * @param signal
+     *            real values to transform
+     * @param bins
+     *            indices of bins to compute, each in [0, signal.length)
+     * @param output
+     *            array receiving bin values in order of bins
+     *
+     * @exception IllegalArgumentException
+     *                if any bin is out of range or output is not of same length as bins
+     */
+    public static void goertzel(double[] signal, int[] bins, ComplexArray output) {
+        int length = signal.length;
+        checkBins(length, bins, output);
+        for (int i = 0; i < bins.length; i++) {
+            double omega = 2 * Math.PI * bins[i] / length;
+            double coefficient = 2 * Math.cos(omega);
+            double previous = 0;
+            double beforePrevious = 0;
+            for (int n = 0; n < length; n++) {
+                double current = signal[n] + coefficient * previous - beforePrevious;
+                beforePrevious = previous;
+                previous = current;
+            }
+            // X[k] = exp(j * omega) * s[N - 1] - s[N - 2]
+            output.set(i, Math.cos(omega) * previous - beforePrevious, Math.sin(omega) * previous);
+        }
+    }
+
+    /**
+     * Compute selected DFT bins of complex signal with the Goertzel algorithm. Nothing is allocated.
+     *
+     * @param signal
+     *            complex values to transform
+     * @param bins
+     *            indices of bins to compute, each in [0, signal.length())
+     * @param output
+     *            array receiving bin values in order of bins
+     *
+     * @exception IllegalArgumentException
+     *                if any bin is out of range or output is not of same length as bins
+     */
+    public static void goertzel(ComplexArray signal, int[] bins, ComplexArray output) {
+        int length = signal.length();
+        checkBins(length, bins, output);
+        double[] data = signal.getData();
+        int offset = signal.getOffset();
+        for (int i = 0; i < bins.length; i++) {
+            double omega = 2 * Math.PI * bins[i] / length;
+            double coefficient = 2 * Math.cos(omega);
+            // Recurrence is real and linear, so real and imaginary parts are filtered separately
+            double previousReal = 0;
+            double beforePreviousReal = 0;
+            double previousImaginary = 0;
+            double beforePreviousImaginary = 0;
+            for (int n = 0; n < length; n++) {
+                double currentReal = data[offset + 2 * n] + coefficient * previousReal - beforePreviousReal;
+                double currentImaginary = data[offset + 2 * n + 1] + coefficient * previousImaginary
+                        - beforePreviousImaginary;
+                beforePreviousReal = previousReal;
+                previousReal = currentReal;
+                beforePreviousImaginary = previousImaginary;
+                previousImaginary = currentImaginary;
+            }
+            double cos = Math.cos(omega);
+            double sin = Math.sin(omega);
+            output.set(i, cos * previousReal - beforePreviousReal - sin * previousImaginary,
+                    cos * previousImaginary - beforePreviousImaginary + sin * previousReal);
+        }
+    }
+
+    private static boolean useGoertzel(int length, int binCount) {
+        if (length <= 1) {
+            return true;
+        }
+        // Goertzel costs about one multiply-add per sample and bin
+        double log2Length = Math.log(length) / Math.log(2);
+        return binCount <= FFT_COST_FACTOR * log2Length / 2;
+    }
+
+    private static void checkBins(int length, int[] bins, ComplexArray output) {
+        if (output.length() != bins.length) {
+            throw new IllegalArgumentException("output needs to be of same length as bins");
+        }
+        for (int bin : bins) {
+            if (bin < 0 || bin >= length) {
+                throw new IllegalArgumentException("bins needs to be in [0, signal length)");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Pearson correlation matrix of equally long series of complex values.<br>
+ * Every series is normalized once to zero mean and unit norm, after which each correlation is the inner product of one
+ * normalized series with the conjugate of the other. Inner products are computed in cache sized tiles distributed over
+ * a {@link ForkJoinPool}. The matrix is Hermitian, element (j, i) is the conjugate of element (i, j), so only the lower
+ * triangle is stored. Values match
+ * {@link com.christianheina.common.math.ComplexAdditions#pearsonCorrelation(ComplexArray, ComplexArray)}.
+ * <p>
+ * Normalizing holds a copy of all series in memory while the matrix is computed.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexCorrelationMatrix {
+
+    private final int size;
+    private final double[] packed;
+
+    private ComplexCorrelationMatrix(int size, double[] packed) {
+        this.size = size;
+        this.packed = packed;
+    }
+
+    /**
+     * Compute correlation matrix using the common {@link ForkJoinPool}
+     *
+     * @param series
+     *            series to correlate, all of equal length
+     *
+     * @return correlation matrix, element (i, j) is the correlation of series i and j
+     *
+     * @exception IllegalArgumentException
+     *                if series are not of equal length
+     */
+    public static ComplexCorrelationMatrix of(ComplexArray[] series) {
+        return of(series, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute correlation matrix
+     *
+     * @param series
+     *            series to correlate, all of equal length
+     * @param pool
+     *            pool that normalization and tiles are distributed over
+     *
+     * @return correlation matrix, element (i, j) is the correlation of series i and j
+     *
+     * @exception IllegalArgumentException
+     *                if series are not of equal length
+     */
+    public static ComplexCorrelationMatrix of(ComplexArray[] series, ForkJoinPool pool) {
+        int size = series.length;
+        int length = size == 0 ? 0 : series[0].length();
+        for (ComplexArray values : series) {
+            if (values.length() != length) {
+                throw new IllegalArgumentException("series needs to be of equal length");
+            }
+        }
+        if (2 * (long) size * length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("series needs to fit in one array");
+        }
+        double[] packed = new double[2 * TriangularTiles.packedLength(size)];
+        double[] normalized = new double[2 * size * length];
+        TriangularTiles.forEachSeries(size, pool, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                normalize(series[i], normalized, 2 * i * length);
+            }
+        });
+        TriangularTiles.forEachTile(size, pool, (rowStart, rowEnd, columnStart, columnEnd) -> computeTile(normalized,
+                length, packed, rowStart, rowEnd, columnStart, columnEnd));
+        return new ComplexCorrelationMatrix(size, packed);
+    }
+
+    /**
+     * Get number of series
+     *
+     * @return number of rows and columns
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get correlation of two series
+     *
+     * @param row
+     *            index of first series
+     * @param column
+     *            index of second series
+     *
+     * @return {@code Complex} correlation value
+     */
+    public Complex get(int row, int column) {
+        return new Complex(getReal(row, column), getImaginary(row, column));
+    }
+
+    /**
+     * Get real part of correlation of two series
+     *
+     * @param row
+     *            index of first series
+     * @param column
+     *            index of second series
+     *
+     * @return real part of correlation
+     */
+    public double getReal(int row, int column) {
+        checkIndex(row, column);
+        int index = row >= column ? TriangularTiles.index(row, column) : TriangularTiles.index(column, row);
+        return packed[2 * index];
+    }
+
+    /**
+     * Get imaginary part of correlation of two series
+     *
+     * @param row
+     *            index of first series
+     * @param column
+     *            index of second series
+     *
+     * @return imaginary part of correlation
+     */
+    public double getImaginary(int row, int column) {
+        checkIndex(row, column);
+        // Upper triangle is the conjugate of the stored lower triangle
+        return row >= column ? packed[2 * TriangularTiles.index(row, column) + 1]
+                : -packed[2 * TriangularTiles.index(column, row) + 1];
+    }
+
+    /**
+     * Get full matrix
+     *
+     * @return new array of size rows holding size columns each
+     */
+    public Complex[][] toArray() {
+        Complex[][] matrix = new Complex[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                matrix[row][column] = get(row, column);
+            }
+        }
+        return matrix;
+    }
+
+    private void checkIndex(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= size) {
+            throw new IndexOutOfBoundsException("row and column needs to be in [0, size)");
+        }
+    }
+
+    private static void normalize(ComplexArray values, double[] normalized, int offset) {
+        double[] data = values.getData();
+        int dataOffset = values.getOffset();
+        int length = values.length();
+        double sumReal = 0;
+        double sumImaginary = 0;
+        for (int k = 0; k < 2 * length; k += 2) {
+            sumReal += data[dataOffset + k];
+            sumImaginary += data[dataOffset + k + 1];
+        }
+        double uReal = sumReal / length;
+        double uImaginary = sumImaginary / length;
+        double squaredDeviationSum = 0;
+        for (int k = 0; k < 2 * length; k += 2) {
+            double deviationReal = data[dataOffset + k] - uReal;
+            double deviationImaginary = data[dataOffset + k + 1] - uImaginary;
+            squaredDeviationSum += deviationReal * deviationReal + deviationImaginary * deviationImaginary;
+        }
+        double scale = 1 / Math.sqrt(squaredDeviationSum);
+        for (int k = 0; k < 2 * length; k += 2) {
+            normalized[offset + k] = (data[dataOffset + k] - uReal) * scale;
+            normalized[offset + k + 1] = (data[dataOffset + k + 1] - uImaginary) * scale;
+        }
+    }
+
+    private static void computeTile(double[] normalized, int length, double[] packed, int rowStart, int rowEnd,
+            int columnStart, int columnEnd) {
+        for (int blockStart = 0; blockStart < length; blockStart += TriangularTiles.SAMPLE_BLOCK) {
+            int blockLength = Math.min(TriangularTiles.SAMPLE_BLOCK, length - blockStart);
+            for (int row = rowStart; row < rowEnd; row++) {
+                int rowOffset = 2 * (row * length + blockStart);
+                int lastColumn = Math.min(columnEnd, row + 1);
+                for (int column = columnStart; column < lastColumn; column++) {
+                    int columnOffset = 2 * (column * length + blockStart);
+                    int index = 2 * TriangularTiles.index(row, column);
+                    // row * conjugate(column)
+                    double sumReal0 = 0;
+                    double sumReal1 = 0;
+                    double sumImaginary0 = 0;
+                    double sumImaginary1 = 0;
+                    int k = 0;
+                    for (; k < 2 * (blockLength & ~1); k += 4) {
+                        double real1 = normalized[rowOffset + k];
+                        double imaginary1 = normalized[rowOffset + k + 1];
+                        double real2 = normalized[columnOffset + k];
+                        double imaginary2 = normalized[columnOffset + k + 1];
+                        double real3 = normalized[rowOffset + k + 2];
+                        double imaginary3 = normalized[rowOffset + k + 3];
+                        double real4 = normalized[columnOffset + k + 2];
+                        double imaginary4 = normalized[columnOffset + k + 3];
+                        sumReal0 += real1 * real2 + imaginary1 * imaginary2;
+                        sumImaginary0 += imaginary1 * real2 - real1 * imaginary2;
+                        sumReal1 += real3 * real4 + imaginary3 * imaginary4;
+                        sumImaginary1 += imaginary3 * real4 - real3 * imaginary4;
+                    }
+                    if (k < 2 * blockLength) {
+                        double real1 = normalized[rowOffset + k];
+                        double imaginary1 = normalized[rowOffset + k + 1];
+                        double real2 = normalized[columnOffset + k];
+                        double imaginary2 = normalized[columnOffset + k + 1];
+                        sumReal0 += real1 * real2 + imaginary1 * imaginary2;
+                        sumImaginary0 += imaginary1 * real2 - real1 * imaginary2;
+                    }
+                    packed[index] += sumReal0 + sumReal1;
+                    packed[index + 1] += sumImaginary0 + sumImaginary1;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import org.apache.commons.math3.complex.Complex;
+
+/**
+ * Means, sample variances, sample covariance and pearson correlation of two equally sized series of complex values,
+ * computed together in one pass by {@link com.christianheina.common.math.ComplexAdditions#pairStatistics}. Variances
+ * are the mean squared magnitude of the deviation from the mean and the covariance is sum((a - u1) * conjugate(b - u2))
+ * / (count - 1), as in {@link com.christianheina.common.math.ComplexAdditions}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexPairStatistics {
+
+    private final long count;
+    private final Complex mean1;
+    private final Complex mean2;
+    private final double variance1;
+    private final double variance2;
+    private final Complex covariance;
+
+    /**
+     * Constructor
+     *
+     * @param count
+     *            number of value pairs
+     * @param mean1
+     *            mean of first series
+     * @param mean2
+     *            mean of second series
+     * @param variance1
+     *            sample variance of first series
+     * @param variance2
+     *            sample variance of second series
+     * @param covariance
+     *            sample covariance of the series
+     */
+    public ComplexPairStatistics(long count, Complex mean1, Complex mean2, double variance1, double variance2,
+            Complex covariance) {
+        this.count = count;
+        this.mean1 = mean1;
+        this.mean2 = mean2;
+        this.variance1 = variance1;
+        this.variance2 = variance2;
+        this.covariance = covariance;
+    }
+
+    /**
+     * Get number of value pairs
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get mean of first series
+     *
+     * @return mean
+     */
+    public Complex getMean1() {
+        return mean1;
+    }
+
+    /**
+     * Get mean of second series
+     *
+     * @return mean
+     */
+    public Complex getMean2() {
+        return mean2;
+    }
+
+    /**
+     * Get sample variance of first series
+     *
+     * @return variance
+     */
+    public double getVariance1() {
+        return variance1;
+    }
+
+    /**
+     * Get sample variance of second series
+     *
+     * @return variance
+     */
+    public double getVariance2() {
+        return variance2;
+    }
+
+    /**
+     * Get sample standard deviation of first series
+     *
+     * @return standard deviation
+     */
+    public double getStandardDeviation1() {
+        return Math.sqrt(variance1);
+    }
+
+    /**
+     * Get sample standard deviation of second series
+     *
+     * @return standard deviation
+     */
+    public double getStandardDeviation2() {
+        return Math.sqrt(variance2);
+    }
+
+    /**
+     * Get sample covariance [cov(A,B)] of the series
+     *
+     * @return covariance
+     */
+    public Complex getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Get pearson correlation of the series
+     *
+     * @return {@code Complex} correlation value
+     */
+    public Complex getCorrelation() {
+        return covariance.divide(getStandardDeviation1() * getStandardDeviation2());
+    }
+
+    @Override
+    public String toString() {
+        return "ComplexPairStatistics [count=" + count + ", mean1=" + mean1 + ", mean2=" + mean2 + ", variance1="
+                + variance1 + ", variance2=" + variance2 + ", covariance=" + covariance + "]";
+    }
+
+}
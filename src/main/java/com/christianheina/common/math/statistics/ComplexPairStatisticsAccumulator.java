@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Online accumulator of {@link ComplexPairStatistics} of two series of complex values.<br>
+ * Value pairs are added one at a time with the numerically stable Welford update or in arrays, and accumulators of
+ * separate parts of a data set are merged with {@link #combine(ComplexPairStatisticsAccumulator)}, so statistics of
+ * unbounded or parallel streams are computed without buffering values.
+ * <p>
+ * Instances are not thread safe, parallel streams use one accumulator per thread and combine them.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexPairStatisticsAccumulator {
+
+    private long count;
+    private double meanReal1;
+    private double meanImaginary1;
+    private double meanReal2;
+    private double meanImaginary2;
+    private double squaredDeviationSum1;
+    private double squaredDeviationSum2;
+    private double coMomentReal;
+    private double coMomentImaginary;
+
+    /**
+     * Create collector accumulating a stream of elements each holding one value of both series
+     *
+     * @param <T>
+     *            element type
+     * @param value1
+     *            function extracting value of first series from element
+     * @param value2
+     *            function extracting value of second series from element
+     *
+     * @return collector
+     */
+    public static <T> Collector<T, ?, ComplexPairStatistics> collector(Function<? super T, Complex> value1,
+            Function<? super T, Complex> value2) {
+        return Collector.of(ComplexPairStatisticsAccumulator::new,
+                (accumulator, element) -> accumulator.accept(value1.apply(element), value2.apply(element)),
+                ComplexPairStatisticsAccumulator::combine, ComplexPairStatisticsAccumulator::toStatistics);
+    }
+
+    /**
+     * Add value pair
+     *
+     * @param value1
+     *            value of first series
+     * @param value2
+     *            value of second series
+     */
+    public void accept(Complex value1, Complex value2) {
+        accept(value1.getReal(), value1.getImaginary(), value2.getReal(), value2.getImaginary());
+    }
+
+    /**
+     * Add value pair
+     *
+     * @param real1
+     *            real part of value of first series
+     * @param imaginary1
+     *            imaginary part of value of first series
+     * @param real2
+     *            real part of value of second series
+     * @param imaginary2
+     *            imaginary part of value of second series
+     */
+    public void accept(double real1, double imaginary1, double real2, double imaginary2) {
+        // Single pair is an accumulator with count 1 and no deviation, one update form for pairs and merges
+        combine(1, real1, imaginary1, real2, imaginary2, 0, 0, 0, 0);
+    }
+
+    /**
+     * Add value pairs of two arrays
+     *
+     * @param values1
+     *            values of first series
+     * @param values2
+     *            values of second series
+     *
+     * @exception IllegalArgumentException
+     *                if values1 and values2 is not the same size
+     */
+    public void accept(ComplexArray values1, ComplexArray values2) {
+        if (values1.length() != values2.length()) {
+            throw new IllegalArgumentException("values1 and values2 needs to be of equal size");
+        }
+        double[] data1 = values1.getData();
+        double[] data2 = values2.getData();
+        int offset1 = values1.getOffset();
+        int offset2 = values2.getOffset();
+        for (int i = 0; i < values1.length(); i++) {
+            accept(data1[offset1 + 2 * i], data1[offset1 + 2 * i + 1], data2[offset2 + 2 * i],
+                    data2[offset2 + 2 * i + 1]);
+        }
+    }
+
+    /**
+     * Merge value pairs added to other accumulator into this accumulator
+     *
+     * @param other
+     *            accumulator to merge, not changed
+     *
+     * @return this accumulator
+     */
+    public ComplexPairStatisticsAccumulator combine(ComplexPairStatisticsAccumulator other) {
+        combine(other.count, other.meanReal1, other.meanImaginary1, other.meanReal2, other.meanImaginary2,
+                other.squaredDeviationSum1, other.squaredDeviationSum2, other.coMomentReal, other.coMomentImaginary);
+        return this;
+    }
+
+    /**
+     * Get number of added value pairs
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get statistics of added value pairs
+     *
+     * @return statistics
+     */
+    public ComplexPairStatistics toStatistics() {
+        Complex u1 = count == 0 ? Complex.NaN : new Complex(meanReal1, meanImaginary1);
+        Complex u2 = count == 0 ? Complex.NaN : new Complex(meanReal2, meanImaginary2);
+        return new ComplexPairStatistics(count, u1, u2, squaredDeviationSum1 / (count - 1),
+                squaredDeviationSum2 / (count - 1), new Complex(coMomentReal, coMomentImaginary).divide(count - 1));
+    }
+
+    private void combine(long otherCount, double otherMeanReal1, double otherMeanImaginary1, double otherMeanReal2,
+            double otherMeanImaginary2, double otherSquaredDeviationSum1, double otherSquaredDeviationSum2,
+            double otherCoMomentReal, double otherCoMomentImaginary) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = otherCount;
+            meanReal1 = otherMeanReal1;
+            meanImaginary1 = otherMeanImaginary1;
+            meanReal2 = otherMeanReal2;
+            meanImaginary2 = otherMeanImaginary2;
+            squaredDeviationSum1 = otherSquaredDeviationSum1;
+            squaredDeviationSum2 = otherSquaredDeviationSum2;
+            coMomentReal = otherCoMomentReal;
+            coMomentImaginary = otherCoMomentImaginary;
+            return;
+        }
+        // Chan et al. pairwise update
+        long totalCount = count + otherCount;
+        double deltaReal1 = otherMeanReal1 - meanReal1;
+        double deltaImaginary1 = otherMeanImaginary1 - meanImaginary1;
+        double deltaReal2 = otherMeanReal2 - meanReal2;
+        double deltaImaginary2 = otherMeanImaginary2 - meanImaginary2;
+        double weight = (double) count * otherCount / totalCount;
+        meanReal1 += deltaReal1 * otherCount / totalCount;
+        meanImaginary1 += deltaImaginary1 * otherCount / totalCount;
+        meanReal2 += deltaReal2 * otherCount / totalCount;
+        meanImaginary2 += deltaImaginary2 * otherCount / totalCount;
+        squaredDeviationSum1 += otherSquaredDeviationSum1
+                + weight * (deltaReal1 * deltaReal1 + deltaImaginary1 * deltaImaginary1);
+        squaredDeviationSum2 += otherSquaredDeviationSum2
+                + weight * (deltaReal2 * deltaReal2 + deltaImaginary2 * deltaImaginary2);
+        // delta1 * conjugate(delta2)
+        coMomentReal += otherCoMomentReal + weight * (deltaReal1 * deltaReal2 + deltaImaginary1 * deltaImaginary2);
+        coMomentImaginary += otherCoMomentImaginary
+                + weight * (deltaImaginary1 * deltaReal2 - deltaReal1 * deltaImaginary2);
+        count = totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ComplexPairStatisticsAccumulator " + toStatistics();
+    }
+
+}
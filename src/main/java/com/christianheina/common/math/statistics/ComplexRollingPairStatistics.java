@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * {@link ComplexPairStatistics} of the most recent value pairs of two streams of complex values.<br>
+ * Every new pair replaces the oldest pair of the window in O(1) operations, removing the oldest pair with the inverse
+ * of the Welford update before adding the new one. Rounding errors of removals accumulate, so every recompute interval
+ * pairs the statistics are recomputed exactly from the buffered window. Until windowLength pairs have been added the
+ * statistics cover all added pairs.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexRollingPairStatistics {
+
+    private final double[] window1;
+    private final double[] window2;
+    private final int windowLength;
+    private final int recomputeInterval;
+    private int writePosition;
+    private int count;
+    private int updatesUntilRecompute;
+    private double meanReal1;
+    private double meanImaginary1;
+    private double meanReal2;
+    private double meanImaginary2;
+    private double squaredDeviationSum1;
+    private double squaredDeviationSum2;
+    private double coMomentReal;
+    private double coMomentImaginary;
+
+    /**
+     * Constructor recomputing once per window length pairs
+     *
+     * @param windowLength
+     *            number of most recent pairs covered
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength is less than 1
+     */
+    public ComplexRollingPairStatistics(int windowLength) {
+        this(windowLength, windowLength);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param windowLength
+     *            number of most recent pairs covered
+     * @param recomputeInterval
+     *            number of pairs between exact recomputations
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength or recomputeInterval is less than 1
+     */
+    public ComplexRollingPairStatistics(int windowLength, int recomputeInterval) {
+        if (windowLength < 1) {
+            throw new IllegalArgumentException("windowLength needs to be at least 1");
+        }
+        if (recomputeInterval < 1) {
+            throw new IllegalArgumentException("recomputeInterval needs to be at least 1");
+        }
+        // Interleaved real and imaginary parts
+        this.window1 = new double[2 * windowLength];
+        this.window2 = new double[2 * windowLength];
+        this.windowLength = windowLength;
+        this.recomputeInterval = recomputeInterval;
+        this.updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Get number of most recent pairs covered
+     *
+     * @return window length
+     */
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Get number of pairs currently in window
+     *
+     * @return count, at most window length
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Add value pair, dropping the oldest pair once the window is full
+     *
+     * @param value1
+     *            value of first series
+     * @param value2
+     *            value of second series
+     */
+    public void add(Complex value1, Complex value2) {
+        add(value1.getReal(), value1.getImaginary(), value2.getReal(), value2.getImaginary());
+    }
+
+    /**
+     * Add value pair, dropping the oldest pair once the window is full
+     *
+     * @param real1
+     *            real part of value of first series
+     * @param imaginary1
+     *            imaginary part of value of first series
+     * @param real2
+     *            real part of value of second series
+     * @param imaginary2
+     *            imaginary part of value of second series
+     */
+    public void add(double real1, double imaginary1, double real2, double imaginary2) {
+        int index = 2 * writePosition;
+        if (count == windowLength) {
+            remove(window1[index], window1[index + 1], window2[index], window2[index + 1]);
+        }
+        window1[index] = real1;
+        window1[index + 1] = imaginary1;
+        window2[index] = real2;
+        window2[index + 1] = imaginary2;
+        writePosition = writePosition + 1 == windowLength ? 0 : writePosition + 1;
+        count++;
+        double deltaReal1 = real1 - meanReal1;
+        double deltaImaginary1 = imaginary1 - meanImaginary1;
+        double deltaReal2 = real2 - meanReal2;
+        double deltaImaginary2 = imaginary2 - meanImaginary2;
+        meanReal1 += deltaReal1 / count;
+        meanImaginary1 += deltaImaginary1 / count;
+        meanReal2 += deltaReal2 / count;
+        meanImaginary2 += deltaImaginary2 / count;
+        squaredDeviationSum1 += deltaReal1 * (real1 - meanReal1) + deltaImaginary1 * (imaginary1 - meanImaginary1);
+        squaredDeviationSum2 += deltaReal2 * (real2 - meanReal2) + deltaImaginary2 * (imaginary2 - meanImaginary2);
+        // delta1 * conjugate(value2 - mean2)
+        double residualReal2 = real2 - meanReal2;
+        double residualImaginary2 = imaginary2 - meanImaginary2;
+        coMomentReal += deltaReal1 * residualReal2 + deltaImaginary1 * residualImaginary2;
+        coMomentImaginary += deltaImaginary1 * residualReal2 - deltaReal1 * residualImaginary2;
+        if (--updatesUntilRecompute == 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Add value pairs in order
+     *
+     * @param values1
+     *            values of first series
+     * @param values2
+     *            values of second series
+     *
+     * @exception IllegalArgumentException
+     *                if values1 and values2 differ in length
+     */
+    public void add(ComplexArray values1, ComplexArray values2) {
+        if (values1.length() != values2.length()) {
+            throw new IllegalArgumentException("values1 and values2 needs to be of equal length");
+        }
+        double[] data1 = values1.getData();
+        int offset1 = values1.getOffset();
+        double[] data2 = values2.getData();
+        int offset2 = values2.getOffset();
+        for (int i = 0; i < values1.length(); i++) {
+            add(data1[offset1 + 2 * i], data1[offset1 + 2 * i + 1], data2[offset2 + 2 * i], data2[offset2 + 2 * i + 1]);
+        }
+    }
+
+    /**
+     * Get sample covariance [cov(A,B)] of pairs in window
+     *
+     * @return covariance
+     */
+    public Complex getCovariance() {
+        return new Complex(coMomentReal, coMomentImaginary).divide(count - 1);
+    }
+
+    /**
+     * Get pearson correlation of pairs in window
+     *
+     * @return correlation, with magnitude between 0 and 1
+     */
+    public Complex getCorrelation() {
+        return new Complex(coMomentReal, coMomentImaginary)
+                .divide(Math.sqrt(Math.max(0, squaredDeviationSum1) * Math.max(0, squaredDeviationSum2)));
+    }
+
+    /**
+     * Get statistics of pairs in window
+     *
+     * @return statistics
+     */
+    public ComplexPairStatistics toStatistics() {
+        Complex mean1 = count == 0 ? Complex.NaN : new Complex(meanReal1, meanImaginary1);
+        Complex mean2 = count == 0 ? Complex.NaN : new Complex(meanReal2, meanImaginary2);
+        // Removals can leave a tiny negative rounding residue
+        return new ComplexPairStatistics(count, mean1, mean2, Math.max(0, squaredDeviationSum1) / (count - 1),
+                Math.max(0, squaredDeviationSum2) / (count - 1), getCovariance());
+    }
+
+    /**
+     * Recompute statistics exactly from pairs in window, discarding accumulated rounding errors
+     */
+    public void recompute() {
+        // Order within window does not affect the statistics
+        if (count < 2) {
+            meanReal1 = count == 0 ? 0 : window1[0];
+            meanImaginary1 = count == 0 ? 0 : window1[1];
+            meanReal2 = count == 0 ? 0 : window2[0];
+            meanImaginary2 = count == 0 ? 0 : window2[1];
+            squaredDeviationSum1 = 0;
+            squaredDeviationSum2 = 0;
+            coMomentReal = 0;
+            coMomentImaginary = 0;
+        } else {
+            ComplexPairStatistics statistics = ComplexAdditions.pairStatistics(new ComplexArray(window1, 0, count),
+                    new ComplexArray(window2, 0, count));
+            meanReal1 = statistics.getMean1().getReal();
+            meanImaginary1 = statistics.getMean1().getImaginary();
+            meanReal2 = statistics.getMean2().getReal();
+            meanImaginary2 = statistics.getMean2().getImaginary();
+            squaredDeviationSum1 = statistics.getVariance1() * (count - 1);
+            squaredDeviationSum2 = statistics.getVariance2() * (count - 1);
+            coMomentReal = statistics.getCovariance().getReal() * (count - 1);
+            coMomentImaginary = statistics.getCovariance().getImaginary() * (count - 1);
+        }
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Discard all pairs in window
+     */
+    public void reset() {
+        Arrays.fill(window1, 0);
+        Arrays.fill(window2, 0);
+        writePosition = 0;
+        count = 0;
+        meanReal1 = 0;
+        meanImaginary1 = 0;
+        meanReal2 = 0;
+        meanImaginary2 = 0;
+        squaredDeviationSum1 = 0;
+        squaredDeviationSum2 = 0;
+        coMomentReal = 0;
+        coMomentImaginary = 0;
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    private void remove(double real1, double imaginary1, double real2, double imaginary2) {
+        if (count == 1) {
+            count = 0;
+            meanReal1 = 0;
+            meanImaginary1 = 0;
+            meanReal2 = 0;
+            meanImaginary2 = 0;
+            squaredDeviationSum1 = 0;
+            squaredDeviationSum2 = 0;
+            coMomentReal = 0;
+            coMomentImaginary = 0;
+            return;
+        }
+        // Inverse Welford update
+        double previousMeanReal1 = meanReal1;
+        double previousMeanImaginary1 = meanImaginary1;
+        double previousMeanReal2 = meanReal2;
+        double previousMeanImaginary2 = meanImaginary2;
+        count--;
+        meanReal1 -= (real1 - meanReal1) / count;
+        meanImaginary1 -= (imaginary1 - meanImaginary1) / count;
+        meanReal2 -= (real2 - meanReal2) / count;
+        meanImaginary2 -= (imaginary2 - meanImaginary2) / count;
+        squaredDeviationSum1 -= (real1 - meanReal1) * (real1 - previousMeanReal1)
+                + (imaginary1 - meanImaginary1) * (imaginary1 - previousMeanImaginary1);
+        squaredDeviationSum2 -= (real2 - meanReal2) * (real2 - previousMeanReal2)
+                + (imaginary2 - meanImaginary2) * (imaginary2 - previousMeanImaginary2);
+        // (value1 - mean1) * conjugate(value2 - previous mean2)
+        double residualReal1 = real1 - meanReal1;
+        double residualImaginary1 = imaginary1 - meanImaginary1;
+        double residualReal2 = real2 - previousMeanReal2;
+        double residualImaginary2 = imaginary2 - previousMeanImaginary2;
+        coMomentReal -= residualReal1 * residualReal2 + residualImaginary1 * residualImaginary2;
+        coMomentImaginary -= residualImaginary1 * residualReal2 - residualReal1 * residualImaginary2;
+    }
+
+}
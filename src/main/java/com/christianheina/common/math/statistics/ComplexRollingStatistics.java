@@ -0,0 +1,230 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Mean and variance of the most recent values of a stream of complex values.<br>
+ * Every new value replaces the oldest value of the window in O(1) operations, removing the oldest value with the
+ * inverse of the Welford update before adding the new one. Rounding errors of removals accumulate, so every recompute
+ * interval values the statistics are recomputed exactly from the buffered window. Until windowLength values have been
+ * added the statistics cover all added values.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexRollingStatistics {
+
+    private final double[] window;
+    private final int windowLength;
+    private final int recomputeInterval;
+    private int writePosition;
+    private int count;
+    private int updatesUntilRecompute;
+    private double meanReal;
+    private double meanImaginary;
+    private double squaredDeviationSum;
+
+    /**
+     * Constructor recomputing once per window length values
+     *
+     * @param windowLength
+     *            number of most recent values covered
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength is less than 1
+     */
+    public ComplexRollingStatistics(int windowLength) {
+        this(windowLength, windowLength);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param windowLength
+     *            number of most recent values covered
+     * @param recomputeInterval
+     *            number of values between exact recomputations
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength or recomputeInterval is less than 1
+     */
+    public ComplexRollingStatistics(int windowLength, int recomputeInterval) {
+        if (windowLength < 1) {
+            throw new IllegalArgumentException("windowLength needs to be at least 1");
+        }
+        if (recomputeInterval < 1) {
+            throw new IllegalArgumentException("recomputeInterval needs to be at least 1");
+        }
+        // Interleaved real and imaginary parts
+        this.window = new double[2 * windowLength];
+        this.windowLength = windowLength;
+        this.recomputeInterval = recomputeInterval;
+        this.updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Get number of most recent values covered
+     *
+     * @return window length
+     */
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Get number of values currently in window
+     *
+     * @return count, at most window length
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Add value, dropping the oldest value once the window is full
+     *
+     * @param value
+     *            new value
+     */
+    public void add(Complex value) {
+        add(value.getReal(), value.getImaginary());
+    }
+
+    /**
+     * Add value, dropping the oldest value once the window is full
+     *
+     * @param real
+     *            real part of new value
+     * @param imaginary
+     *            imaginary part of new value
+     */
+    public void add(double real, double imaginary) {
+        if (count == windowLength) {
+            remove(window[2 * writePosition], window[2 * writePosition + 1]);
+        }
+        window[2 * writePosition] = real;
+        window[2 * writePosition + 1] = imaginary;
+        writePosition = writePosition + 1 == windowLength ? 0 : writePosition + 1;
+        count++;
+        double deltaReal = real - meanReal;
+        double deltaImaginary = imaginary - meanImaginary;
+        meanReal += deltaReal / count;
+        meanImaginary += deltaImaginary / count;
+        squaredDeviationSum += deltaReal * (real - meanReal) + deltaImaginary * (imaginary - meanImaginary);
+        if (--updatesUntilRecompute == 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Add values in order
+     *
+     * @param values
+     *            new values
+     */
+    public void add(ComplexArray values) {
+        double[] data = values.getData();
+        int offset = values.getOffset();
+        for (int i = 0; i < values.length(); i++) {
+            add(data[offset + 2 * i], data[offset + 2 * i + 1]);
+        }
+    }
+
+    /**
+     * Get mean of values in window
+     *
+     * @return mean, {@link Complex#NaN} if window is empty
+     */
+    public Complex getMean() {
+        return count == 0 ? Complex.NaN : new Complex(meanReal, meanImaginary);
+    }
+
+    /**
+     * Get sample variance, mean of |value - mean|^2 with n - 1 normalization, of values in window
+     *
+     * @return variance, NaN if window holds fewer than 2 values
+     */
+    public double getVariance() {
+        if (count < 2) {
+            return Double.NaN;
+        }
+        // Removals can leave a tiny negative rounding residue
+        return Math.max(0, squaredDeviationSum) / (count - 1);
+    }
+
+    /**
+     * Get sample standard deviation of values in window
+     *
+     * @return standard deviation, NaN if window holds fewer than 2 values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Recompute statistics exactly from values in window, discarding accumulated rounding errors
+     */
+    public void recompute() {
+        // Order within window does not affect the statistics
+        ComplexArray values = new ComplexArray(window, 0, count);
+        Complex mean = count == 0 ? Complex.ZERO : ComplexAdditions.mean(values);
+        meanReal = mean.getReal();
+        meanImaginary = mean.getImaginary();
+        squaredDeviationSum = count < 2 ? 0 : ComplexAdditions.variance(values) * (count - 1);
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Discard all values in window
+     */
+    public void reset() {
+        Arrays.fill(window, 0);
+        writePosition = 0;
+        count = 0;
+        meanReal = 0;
+        meanImaginary = 0;
+        squaredDeviationSum = 0;
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    private void remove(double real, double imaginary) {
+        if (count == 1) {
+            count = 0;
+            meanReal = 0;
+            meanImaginary = 0;
+            squaredDeviationSum = 0;
+            return;
+        }
+        // Inverse Welford update
+        double previousMeanReal = meanReal;
+        double previousMeanImaginary = meanImaginary;
+        count--;
+        meanReal -= (real - meanReal) / count;
+        meanImaginary -= (imaginary - meanImaginary) / count;
+        squaredDeviationSum -= (real - meanReal) * (real - previousMeanReal)
+                + (imaginary - meanImaginary) * (imaginary - previousMeanImaginary);
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Online accumulator of count, mean and variance of complex values.<br>
+ * Values are added one at a time with the numerically stable Welford update or in arrays, and accumulators of separate
+ * parts of a data set are merged with {@link #combine(ComplexStatisticsAccumulator)}, so statistics of unbounded or
+ * parallel streams are computed without buffering values. The variance is the mean squared magnitude of the deviation
+ * from the mean, as in {@link com.christianheina.common.math.ComplexAdditions#variance(ComplexArray)}.
+ * <p>
+ * Instances are not thread safe, parallel streams use one accumulator per thread and combine them.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ComplexStatisticsAccumulator implements Consumer<Complex> {
+
+    private long count;
+    private double meanReal;
+    private double meanImaginary;
+    private double squaredDeviationSum;
+
+    /**
+     * Create collector accumulating a stream of values
+     *
+     * @return collector
+     */
+    public static Collector<Complex, ?, ComplexStatisticsAccumulator> collector() {
+        return Collector.of(ComplexStatisticsAccumulator::new, ComplexStatisticsAccumulator::accept,
+                ComplexStatisticsAccumulator::combine);
+    }
+
+    /**
+     * Add value
+     *
+     * @param value
+     *            value to add
+     */
+    @Override
+    public void accept(Complex value) {
+        accept(value.getReal(), value.getImaginary());
+    }
+
+    /**
+     * Add value
+     *
+     * @param real
+     *            real part of value to add
+     * @param imaginary
+     *            imaginary part of value to add
+     */
+    public void accept(double real, double imaginary) {
+        // Single value is an accumulator with count 1 and no deviation, one update form for values and merges
+        combine(1, real, imaginary, 0);
+    }
+
+    /**
+     * Add all values of array
+     *
+     * @param values
+     *            values to add
+     */
+    public void accept(ComplexArray values) {
+        double[] data = values.getData();
+        int offset = values.getOffset();
+        for (int i = 0; i < values.length(); i++) {
+            accept(data[offset + 2 * i], data[offset + 2 * i + 1]);
+        }
+    }
+
+    /**
+     * Merge values added to other accumulator into this accumulator
+     *
+     * @param other
+     *            accumulator to merge, not changed
+     *
+     * @return this accumulator
+     */
+    public ComplexStatisticsAccumulator combine(ComplexStatisticsAccumulator other) {
+        combine(other.count, other.meanReal, other.meanImaginary, other.squaredDeviationSum);
+        return this;
+    }
+
+    /**
+     * Get number of added values
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get sum of added values
+     *
+     * @return sum
+     */
+    public Complex getSum() {
+        return new Complex(meanReal * count, meanImaginary * count);
+    }
+
+    /**
+     * Get mean of added values
+     *
+     * @return mean, NaN if no values are added
+     */
+    public Complex getMean() {
+        return count == 0 ? Complex.NaN : new Complex(meanReal, meanImaginary);
+    }
+
+    /**
+     * Get sample variance of added values
+     *
+     * @return variance
+     */
+    public double getVariance() {
+        return squaredDeviationSum / (count - 1);
+    }
+
+    /**
+     * Get sample standard deviation of added values
+     *
+     * @return standard deviation
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    private void combine(long otherCount, double otherMeanReal, double otherMeanImaginary,
+            double otherSquaredDeviationSum) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = otherCount;
+            meanReal = otherMeanReal;
+            meanImaginary = otherMeanImaginary;
+            squaredDeviationSum = otherSquaredDeviationSum;
+            return;
+        }
+        // Chan et al. pairwise update
+        long totalCount = count + otherCount;
+        double deltaReal = otherMeanReal - meanReal;
+        double deltaImaginary = otherMeanImaginary - meanImaginary;
+        double weight = (double) count * otherCount / totalCount;
+        meanReal += deltaReal * otherCount / totalCount;
+        meanImaginary += deltaImaginary * otherCount / totalCount;
+        squaredDeviationSum += otherSquaredDeviationSum
+                + weight * (deltaReal * deltaReal + deltaImaginary * deltaImaginary);
+        count = totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ComplexStatisticsAccumulator [count=" + count + ", mean=" + getMean() + ", variance=" + getVariance()
+                + "]";
+    }
+
+}
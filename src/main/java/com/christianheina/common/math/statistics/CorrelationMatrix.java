@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pearson correlation matrix of equally long series of real values.<br>
+ * Every series is normalized once to zero mean and unit norm, after which each correlation is the inner product of two
+ * normalized series. Inner products are computed in cache sized tiles distributed over a {@link ForkJoinPool}. Only the
+ * lower triangle is stored since the matrix is symmetric. Values match
+ * {@link com.christianheina.common.math.MathAdditions#pearsonCorrelation(double[], double[])}.
+ * <p>
+ * Normalizing holds a copy of all series in memory while the matrix is computed.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class CorrelationMatrix {
+
+    private final int size;
+    private final double[] packed;
+
+    private CorrelationMatrix(int size, double[] packed) {
+        this.size = size;
+        this.packed = packed;
+    }
+
+    /**
+     * Compute correlation matrix using the common {@link ForkJoinPool}
+     *
+     * @param series
+     *            series to correlate, all of equal length
+     *
+     * @return correlation matrix, element (i, j) is the correlation of series i and j
+     *
+     * @exception IllegalArgumentException
+     *                if series are not of equal length
+     */
+    public static CorrelationMatrix of(double[][] series) {
+        return of(series, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute correlation matrix
+     *
+     * @param series
+     *            series to correlate, all of equal length
+     * @param pool
+     *            pool that normalization and tiles are distributed over
+     *
+     * @return correlation matrix, element (i, j) is the correlation of series i and j
+     *
+     * @exception IllegalArgumentException
+     *                if series are not of equal length
+     */
+    public static CorrelationMatrix of(double[][] series, ForkJoinPool pool) {
+        int size = series.length;
+        int length = size == 0 ? 0 : series[0].length;
+        for (double[] values : series) {
+            if (values.length != length) {
+                throw new IllegalArgumentException("series needs to be of equal length");
+            }
+        }
+        if ((long) size * length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("series needs to fit in one array");
+        }
+        double[] packed = new double[TriangularTiles.packedLength(size)];
+        double[] normalized = new double[size * length];
+        TriangularTiles.forEachSeries(size, pool, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                normalize(series[i], normalized, i * length);
+            }
+        });
+        TriangularTiles.forEachTile(size, pool, (rowStart, rowEnd, columnStart, columnEnd) -> computeTile(normalized,
+                length, packed, rowStart, rowEnd, columnStart, columnEnd));
+        return new CorrelationMatrix(size, packed);
+    }
+
+    /**
+     * Get number of series
+     *
+     * @return number of rows and columns
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get correlation of two series
+     *
+     * @param row
+     *            index of first series
+     * @param column
+     *            index of second series
+     *
+     * @return Correlation. Value is between -1 and 1 with -1 being negatively correlated, 0 being uncorrelated and 1
+     *         correlated.
+     */
+    public double get(int row, int column) {
+        checkIndex(row, column);
+        return row >= column ? packed[TriangularTiles.index(row, column)] : packed[TriangularTiles.index(column, row)];
+    }
+
+    /**
+     * Get full matrix
+     *
+     * @return new array of size rows holding size columns each
+     */
+    public double[][] toArray() {
+        double[][] matrix = new double[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column <= row; column++) {
+                double value = packed[TriangularTiles.index(row, column)];
+                matrix[row][column] = value;
+                matrix[column][row] = value;
+            }
+        }
+        return matrix;
+    }
+
+    private void checkIndex(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= size) {
+            throw new IndexOutOfBoundsException("row and column needs to be in [0, size)");
+        }
+    }
+
+    private static void normalize(double[] values, double[] normalized, int offset) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        double u = sum / values.length;
+        double squaredDeviationSum = 0;
+        for (double value : values) {
+            double deviation = value - u;
+            squaredDeviationSum += deviation * deviation;
+        }
+        double scale = 1 / Math.sqrt(squaredDeviationSum);
+        for (int k = 0; k < values.length; k++) {
+            normalized[offset + k] = (values[k] - u) * scale;
+        }
+    }
+
+    private static void computeTile(double[] normalized, int length, double[] packed, int rowStart, int rowEnd,
+            int columnStart, int columnEnd) {
+        for (int blockStart = 0; blockStart < length; blockStart += TriangularTiles.SAMPLE_BLOCK) {
+            int blockLength = Math.min(TriangularTiles.SAMPLE_BLOCK, length - blockStart);
+            for (int row = rowStart; row < rowEnd; row++) {
+                int rowOffset = row * length + blockStart;
+                int lastColumn = Math.min(columnEnd, row + 1);
+                for (int column = columnStart; column < lastColumn; column++) {
+                    packed[TriangularTiles.index(row, column)] += dotProduct(normalized, rowOffset,
+                            column * length + blockStart, blockLength);
+                }
+            }
+        }
+    }
+
+    private static double dotProduct(double[] data, int offset1, int offset2, int length) {
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int unrolledLength = length & ~3;
+        int k = 0;
+        for (; k < unrolledLength; k += 4) {
+            sum0 += data[offset1 + k] * data[offset2 + k];
+            sum1 += data[offset1 + k + 1] * data[offset2 + k + 1];
+            sum2 += data[offset1 + k + 2] * data[offset2 + k + 2];
+            sum3 += data[offset1 + k + 3] * data[offset2 + k + 3];
+        }
+        for (; k < length; k++) {
+            sum0 += data[offset1 + k] * data[offset2 + k];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+}
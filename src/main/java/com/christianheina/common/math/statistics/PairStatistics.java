@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+/**
+ * Means, sample variances, sample covariance and pearson correlation of two equally sized series of real values,
+ * computed together by {@link com.christianheina.common.math.MathAdditions#pairStatistics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class PairStatistics {
+
+    private final long count;
+    private final double mean1;
+    private final double mean2;
+    private final double variance1;
+    private final double variance2;
+    private final double covariance;
+
+    /**
+     * Constructor
+     *
+     * @param count
+     *            number of value pairs
+     * @param mean1
+     *            mean of first series
+     * @param mean2
+     *            mean of second series
+     * @param variance1
+     *            sample variance of first series
+     * @param variance2
+     *            sample variance of second series
+     * @param covariance
+     *            sample covariance of the series
+     */
+    public PairStatistics(long count, double mean1, double mean2, double variance1, double variance2,
+            double covariance) {
+        this.count = count;
+        this.mean1 = mean1;
+        this.mean2 = mean2;
+        this.variance1 = variance1;
+        this.variance2 = variance2;
+        this.covariance = covariance;
+    }
+
+    /**
+     * Get number of value pairs
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get mean of first series
+     *
+     * @return mean
+     */
+    public double getMean1() {
+        return mean1;
+    }
+
+    /**
+     * Get mean of second series
+     *
+     * @return mean
+     */
+    public double getMean2() {
+        return mean2;
+    }
+
+    /**
+     * Get sample variance of first series
+     *
+     * @return variance
+     */
+    public double getVariance1() {
+        return variance1;
+    }
+
+    /**
+     * Get sample variance of second series
+     *
+     * @return variance
+     */
+    public double getVariance2() {
+        return variance2;
+    }
+
+    /**
+     * Get sample standard deviation of first series
+     *
+     * @return standard deviation
+     */
+    public double getStandardDeviation1() {
+        return Math.sqrt(variance1);
+    }
+
+    /**
+     * Get sample standard deviation of second series
+     *
+     * @return standard deviation
+     */
+    public double getStandardDeviation2() {
+        return Math.sqrt(variance2);
+    }
+
+    /**
+     * Get sample covariance [cov(A,B)] of the series
+     *
+     * @return covariance
+     */
+    public double getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Get pearson correlation of the series
+     *
+     * @return Correlation. Value is between -1 and 1 with -1 being negatively correlated, 0 being uncorrelated and 1
+     *         correlated.
+     */
+    public double getCorrelation() {
+        return covariance / (getStandardDeviation1() * getStandardDeviation2());
+    }
+
+    @Override
+    public String toString() {
+        return "PairStatistics [count=" + count + ", mean1=" + mean1 + ", mean2=" + mean2 + ", variance1=" + variance1
+                + ", variance2=" + variance2 + ", covariance=" + covariance + "]";
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * Online accumulator of {@link PairStatistics} of two series of real values.<br>
+ * Value pairs are added one at a time with the numerically stable Welford update or in arrays, and accumulators of
+ * separate parts of a data set are merged with {@link #combine(PairStatisticsAccumulator)}, so statistics of unbounded
+ * or parallel streams are computed without buffering values. Results agree with
+ * {@link MathAdditions#pairStatistics(double[], double[])} up to rounding, since values are summed in a different
+ * order.
+ * <p>
+ * Instances are not thread safe, parallel streams use one accumulator per thread and combine them.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class PairStatisticsAccumulator {
+
+    private long count;
+    private double mean1;
+    private double mean2;
+    private double squaredDeviationSum1;
+    private double squaredDeviationSum2;
+    private double coMoment;
+
+    /**
+     * Create collector accumulating a stream of elements each holding one value of both series
+     *
+     * @param <T>
+     *            element type
+     * @param value1
+     *            function extracting value of first series from element
+     * @param value2
+     *            function extracting value of second series from element
+     *
+     * @return collector
+     */
+    public static <T> Collector<T, ?, PairStatistics> collector(ToDoubleFunction<? super T> value1,
+            ToDoubleFunction<? super T> value2) {
+        return Collector.of(PairStatisticsAccumulator::new,
+                (accumulator, element) -> accumulator.accept(value1.applyAsDouble(element),
+                        value2.applyAsDouble(element)),
+                PairStatisticsAccumulator::combine, PairStatisticsAccumulator::toStatistics);
+    }
+
+    /**
+     * Add value pair
+     *
+     * @param value1
+     *            value of first series
+     * @param value2
+     *            value of second series
+     */
+    public void accept(double value1, double value2) {
+        // Single pair is an accumulator with count 1 and no deviation, one update form for pairs and merges
+        combine(1, value1, value2, 0, 0, 0);
+    }
+
+    /**
+     * Add value pairs of two array ranges
+     *
+     * @param values1
+     *            array holding values of first series
+     * @param offset1
+     *            index of first value in values1
+     * @param values2
+     *            array holding values of second series
+     * @param offset2
+     *            index of first value in values2
+     * @param length
+     *            number of value pairs
+     *
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public void accept(double[] values1, int offset1, double[] values2, int offset2, int length) {
+        if (offset1 < 0 || offset2 < 0 || length < 0 || offset1 + length > values1.length
+                || offset2 + length > values2.length) {
+            throw new IllegalArgumentException("offset and length needs to be within arrays");
+        }
+        // Single pass over both ranges
+        for (int i = 0; i < length; i++) {
+            accept(values1[offset1 + i], values2[offset2 + i]);
+        }
+    }
+
+    /**
+     * Merge value pairs added to other accumulator into this accumulator
+     *
+     * @param other
+     *            accumulator to merge, not changed
+     *
+     * @return this accumulator
+     */
+    public PairStatisticsAccumulator combine(PairStatisticsAccumulator other) {
+        combine(other.count, other.mean1, other.mean2, other.squaredDeviationSum1, other.squaredDeviationSum2,
+                other.coMoment);
+        return this;
+    }
+
+    /**
+     * Get number of added value pairs
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get statistics of added value pairs
+     *
+     * @return statistics
+     */
+    public PairStatistics toStatistics() {
+        double u1 = count == 0 ? Double.NaN : mean1;
+        double u2 = count == 0 ? Double.NaN : mean2;
+        return new PairStatistics(count, u1, u2, squaredDeviationSum1 / (count - 1), squaredDeviationSum2 / (count - 1),
+                coMoment / (count - 1));
+    }
+
+    private void combine(long otherCount, double otherMean1, double otherMean2, double otherSquaredDeviationSum1,
+            double otherSquaredDeviationSum2, double otherCoMoment) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = otherCount;
+            mean1 = otherMean1;
+            mean2 = otherMean2;
+            squaredDeviationSum1 = otherSquaredDeviationSum1;
+            squaredDeviationSum2 = otherSquaredDeviationSum2;
+            coMoment = otherCoMoment;
+            return;
+        }
+        // Chan et al. pairwise update
+        long totalCount = count + otherCount;
+        double delta1 = otherMean1 - mean1;
+        double delta2 = otherMean2 - mean2;
+        double weight = (double) count * otherCount / totalCount;
+        mean1 += delta1 * otherCount / totalCount;
+        mean2 += delta2 * otherCount / totalCount;
+        squaredDeviationSum1 += otherSquaredDeviationSum1 + weight * (delta1 * delta1);
+        squaredDeviationSum2 += otherSquaredDeviationSum2 + weight * (delta2 * delta2);
+        coMoment += otherCoMoment + weight * (delta1 * delta2);
+        count = totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PairStatisticsAccumulator " + toStatistics();
+    }
+
+}
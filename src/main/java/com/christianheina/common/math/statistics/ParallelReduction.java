@@ -0,0 +1,478 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.commons.math3.complex.Complex;
+
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Parallel, deterministic sum, mean, variance and dot product of large series.<br>
+ * Series are split into blocks of fixed size that are reduced with Neumaier compensated summation and then merged
+ * pairwise along a tree that only depends on the series length. The order of every floating point operation is
+ * therefore independent of the number of threads, so results are bit identical for any {@link ForkJoinPool}, while
+ * blocks are distributed over all threads of the pool. Variances use a corrected two pass algorithm on the compensated
+ * mean.
+ * <p>
+ * Results can differ in the last bits from {@link com.christianheina.common.math.MathAdditions} and
+ * {@link com.christianheina.common.math.ComplexAdditions}, which sum sequentially without compensation. Complex
+ * variances and dot products follow the conventions of {@link com.christianheina.common.math.ComplexAdditions}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class ParallelReduction {
+
+    private static final int BLOCK_SIZE = 1 << 13;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor using the common {@link ForkJoinPool}
+     */
+    public ParallelReduction() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pool
+     *            pool that blocks are distributed over
+     */
+    public ParallelReduction(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Calculate sum of array
+     *
+     * @param values
+     *            values to sum
+     *
+     * @return sum value
+     */
+    public double sum(double[] values) {
+        return sum(values, 0, values.length);
+    }
+
+    /**
+     * Calculate sum of array range
+     *
+     * @param values
+     *            array holding values to sum
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     *
+     * @return sum value
+     *
+     * @exception IllegalArgumentException
+     *                if range is not within values
+     */
+    public double sum(double[] values, int offset, int length) {
+        checkRange(values.length, offset, length);
+        return value(reduce(length, 1, (first, last, partial) -> sumKernel(values, offset, first, last, partial)), 0);
+    }
+
+    /**
+     * Calculate mean of array
+     *
+     * @param values
+     *            values to mean
+     *
+     * @return mean value
+     */
+    public double mean(double[] values) {
+        return mean(values, 0, values.length);
+    }
+
+    /**
+     * Calculate mean of array range
+     *
+     * @param values
+     *            array holding values to mean
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     *
+     * @return mean value
+     *
+     * @exception IllegalArgumentException
+     *                if range is not within values
+     */
+    public double mean(double[] values, int offset, int length) {
+        return sum(values, offset, length) / length;
+    }
+
+    /**
+     * Calculate variance [var(A)] of array
+     *
+     * @param values
+     *            values to calculate variance
+     *
+     * @return variance, NaN if there are fewer than 2 values
+     */
+    public double variance(double[] values) {
+        return variance(values, 0, values.length);
+    }
+
+    /**
+     * Calculate variance [var(A)] of array range
+     *
+     * @param values
+     *            array holding values to calculate variance
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     *
+     * @return variance, NaN if there are fewer than 2 values
+     *
+     * @exception IllegalArgumentException
+     *                if range is not within values
+     */
+    public double variance(double[] values, int offset, int length) {
+        double u = mean(values, offset, length);
+        double[] partial = reduce(length, 2,
+                (first, last, blockPartial) -> squaredDeviationKernel(values, offset, u, first, last, blockPartial));
+        return correctedVariance(value(partial, 0), value(partial, 1), 0, length);
+    }
+
+    /**
+     * Calculate dot product (sum of elementwise product) of two arrays
+     *
+     * @param values1
+     *            first array to perform dot product
+     * @param values2
+     *            second array to perform dot product
+     *
+     * @return dot product
+     *
+     * @exception IllegalArgumentException
+     *                if values1 and values2 is not the same length
+     */
+    public double dotProduct(double[] values1, double[] values2) {
+        if (values1.length != values2.length) {
+            throw new IllegalArgumentException("values1 and values2 needs to be of equal length");
+        }
+        return dotProduct(values1, 0, values2, 0, values1.length);
+    }
+
+    /**
+     * Calculate dot product (sum of elementwise product) of two array ranges
+     *
+     * @param values1
+     *            first array to perform dot product
+     * @param offset1
+     *            index of first value in values1
+     * @param values2
+     *            second array to perform dot product
+     * @param offset2
+     *            index of first value in values2
+     * @param length
+     *            number of values in each range
+     *
+     * @return dot product
+     *
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public double dotProduct(double[] values1, int offset1, double[] values2, int offset2, int length) {
+        checkRange(values1.length, offset1, length);
+        checkRange(values2.length, offset2, length);
+        return value(reduce(length, 1,
+                (first, last, partial) -> dotProductKernel(values1, offset1, values2, offset2, first, last, partial)),
+                0);
+    }
+
+    /**
+     * Calculate sum of complex array
+     *
+     * @param values
+     *            values to sum
+     *
+     * @return sum value
+     */
+    public Complex sum(ComplexArray values) {
+        double[] partial = reduce(values.length(), 2, (first, last, blockPartial) -> complexSumKernel(values.getData(),
+                values.getOffset(), first, last, blockPartial));
+        return new Complex(value(partial, 0), value(partial, 1));
+    }
+
+    /**
+     * Calculate mean of complex array
+     *
+     * @param values
+     *            values to mean
+     *
+     * @return mean value
+     */
+    public Complex mean(ComplexArray values) {
+        return sum(values).divide(values.length());
+    }
+
+    /**
+     * Calculate variance [var(A)] of complex array, the sample mean of |value - mean|^2
+     *
+     * @param values
+     *            values to calculate variance
+     *
+     * @return variance, NaN if there are fewer than 2 values
+     */
+    public double variance(ComplexArray values) {
+        Complex u = sum(values).divide(values.length());
+        double[] partial = reduce(values.length(), 3,
+                (first, last, blockPartial) -> complexSquaredDeviationKernel(values.getData(), values.getOffset(),
+                        u.getReal(), u.getImaginary(), first, last, blockPartial));
+        return correctedVariance(value(partial, 0), value(partial, 1), value(partial, 2), values.length());
+    }
+
+    /**
+     * Calculate dot product (sum of elementwise product) of two complex arrays
+     *
+     * @param values1
+     *            first array to perform dot product
+     * @param values2
+     *            second array to perform dot product
+     *
+     * @return dot product
+     *
+     * @exception IllegalArgumentException
+     *                if values1 and values2 is not the same size
+     */
+    public Complex dotProduct(ComplexArray values1, ComplexArray values2) {
+        if (values1.length() != values2.length()) {
+            throw new IllegalArgumentException("values1 and values2 needs to be of equal size");
+        }
+        double[] partial = reduce(values1.length(), 2,
+                (first, last, blockPartial) -> complexDotProductKernel(values1.getData(), values1.getOffset(),
+                        values2.getData(), values2.getOffset(), first, last, blockPartial));
+        return new Complex(value(partial, 0), value(partial, 1));
+    }
+
+    private double[] reduce(int length, int components, BlockKernel kernel) {
+        ReductionTask task = new ReductionTask(kernel, components, 0, length);
+        if (length <= BLOCK_SIZE) {
+            // Single block, same result as through the pool
+            return task.compute();
+        }
+        return pool.invoke(task);
+    }
+
+    private static double value(double[] partial, int component) {
+        // Partial holds sum and compensation of each component
+        return partial[2 * component] + partial[2 * component + 1];
+    }
+
+    private static double correctedVariance(double squaredDeviationSum, double deviationSum1, double deviationSum2,
+            int length) {
+        if (length < 2) {
+            // Sample variance is undefined, and the correction would divide by zero
+            return Double.NaN;
+        }
+        // Sum of deviations from the rounded mean is not exactly 0, remove its contribution
+        double correction = (deviationSum1 * deviationSum1 + deviationSum2 * deviationSum2) / length;
+        return (squaredDeviationSum - correction) / (length - 1);
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > arrayLength) {
+            throw new IllegalArgumentException("offset and length needs to be within array");
+        }
+    }
+
+    private static void sumKernel(double[] values, int offset, int first, int last, double[] partial) {
+        double sum = 0;
+        double compensation = 0;
+        for (int i = offset + first; i < offset + last; i++) {
+            double value = values[i];
+            double total = sum + value;
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        partial[0] = sum;
+        partial[1] = compensation;
+    }
+
+    private static void dotProductKernel(double[] values1, int offset1, double[] values2, int offset2, int first,
+            int last, double[] partial) {
+        double sum = 0;
+        double compensation = 0;
+        for (int i = first; i < last; i++) {
+            double value = values1[offset1 + i] * values2[offset2 + i];
+            double total = sum + value;
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        partial[0] = sum;
+        partial[1] = compensation;
+    }
+
+    private static void squaredDeviationKernel(double[] values, int offset, double u, int first, int last,
+            double[] partial) {
+        double squareSum = 0;
+        double squareCompensation = 0;
+        double deviationSum = 0;
+        double deviationCompensation = 0;
+        for (int i = offset + first; i < offset + last; i++) {
+            double deviation = values[i] - u;
+            double square = deviation * deviation;
+            double squareTotal = squareSum + square;
+            squareCompensation += Math.abs(squareSum) >= Math.abs(square) ? (squareSum - squareTotal) + square
+                    : (square - squareTotal) + squareSum;
+            squareSum = squareTotal;
+            double deviationTotal = deviationSum + deviation;
+            deviationCompensation += Math.abs(deviationSum) >= Math.abs(deviation)
+                    ? (deviationSum - deviationTotal) + deviation : (deviation - deviationTotal) + deviationSum;
+            deviationSum = deviationTotal;
+        }
+        partial[0] = squareSum;
+        partial[1] = squareCompensation;
+        partial[2] = deviationSum;
+        partial[3] = deviationCompensation;
+    }
+
+    private static void complexSumKernel(double[] data, int offset, int first, int last, double[] partial) {
+        for (int component = 0; component < 2; component++) {
+            double sum = 0;
+            double compensation = 0;
+            for (int i = offset + 2 * first + component; i < offset + 2 * last; i += 2) {
+                double value = data[i];
+                double total = sum + value;
+                compensation += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+                sum = total;
+            }
+            partial[2 * component] = sum;
+            partial[2 * component + 1] = compensation;
+        }
+    }
+
+    private static void complexDotProductKernel(double[] data1, int offset1, double[] data2, int offset2, int first,
+            int last, double[] partial) {
+        double realSum = 0;
+        double realCompensation = 0;
+        double imaginarySum = 0;
+        double imaginaryCompensation = 0;
+        for (int i = first; i < last; i++) {
+            double real1 = data1[offset1 + 2 * i];
+            double imaginary1 = data1[offset1 + 2 * i + 1];
+            double real2 = data2[offset2 + 2 * i];
+            double imaginary2 = data2[offset2 + 2 * i + 1];
+            double real = real1 * real2 - imaginary1 * imaginary2;
+            double imaginary = real1 * imaginary2 + imaginary1 * real2;
+            double realTotal = realSum + real;
+            realCompensation += Math.abs(realSum) >= Math.abs(real) ? (realSum - realTotal) + real
+                    : (real - realTotal) + realSum;
+            realSum = realTotal;
+            double imaginaryTotal = imaginarySum + imaginary;
+            imaginaryCompensation += Math.abs(imaginarySum) >= Math.abs(imaginary)
+                    ? (imaginarySum - imaginaryTotal) + imaginary : (imaginary - imaginaryTotal) + imaginarySum;
+            imaginarySum = imaginaryTotal;
+        }
+        partial[0] = realSum;
+        partial[1] = realCompensation;
+        partial[2] = imaginarySum;
+        partial[3] = imaginaryCompensation;
+    }
+
+    private static void complexSquaredDeviationKernel(double[] data, int offset, double uReal, double uImaginary,
+            int first, int last, double[] partial) {
+        double squareSum = 0;
+        double squareCompensation = 0;
+        for (int i = first; i < last; i++) {
+            double deviationReal = data[offset + 2 * i] - uReal;
+            double deviationImaginary = data[offset + 2 * i + 1] - uImaginary;
+            double square = deviationReal * deviationReal + deviationImaginary * deviationImaginary;
+            double squareTotal = squareSum + square;
+            squareCompensation += Math.abs(squareSum) >= Math.abs(square) ? (squareSum - squareTotal) + square
+                    : (square - squareTotal) + squareSum;
+            squareSum = squareTotal;
+        }
+        partial[0] = squareSum;
+        partial[1] = squareCompensation;
+        // Deviation sums of both parts for the correction term
+        for (int component = 0; component < 2; component++) {
+            double u = component == 0 ? uReal : uImaginary;
+            double sum = 0;
+            double compensation = 0;
+            for (int i = offset + 2 * first + component; i < offset + 2 * last; i += 2) {
+                double deviation = data[i] - u;
+                double total = sum + deviation;
+                compensation += Math.abs(sum) >= Math.abs(deviation) ? (sum - total) + deviation
+                        : (deviation - total) + sum;
+                sum = total;
+            }
+            partial[2 + 2 * component] = sum;
+            partial[3 + 2 * component] = compensation;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlockKernel {
+        void reduce(int first, int last, double[] partial);
+    }
+
+    private static final class ReductionTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient BlockKernel kernel;
+        private final int components;
+        private final int first;
+        private final int last;
+
+        private ReductionTask(BlockKernel kernel, int components, int first, int last) {
+            this.kernel = kernel;
+            this.components = components;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (last - first <= BLOCK_SIZE) {
+                double[] partial = new double[2 * components];
+                kernel.reduce(first, last, partial);
+                return partial;
+            }
+            // Split on a block boundary determined by the range only, never by the number of threads
+            int blockCount = (last - first + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            int middle = first + (blockCount / 2) * BLOCK_SIZE;
+            ReductionTask right = new ReductionTask(kernel, components, middle, last);
+            right.fork();
+            double[] partial = new ReductionTask(kernel, components, first, middle).compute();
+            double[] rightPartial = right.join();
+            for (int i = 0; i < partial.length; i += 2) {
+                // Neumaier addition of the sums, compensations are added directly
+                double sum = partial[i];
+                double rightSum = rightPartial[i];
+                double total = sum + rightSum;
+                double error = Math.abs(sum) >= Math.abs(rightSum) ? (sum - total) + rightSum
+                        : (rightSum - total) + sum;
+                partial[i] = total;
+                partial[i + 1] += rightPartial[i + 1] + error;
+            }
+            return partial;
+        }
+    }
+
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+/**
+ * Mergeable quantile sketch of real values with bounded memory, following the KLL sketch of Karnin, Lang and Liberty.
+ * <br>
+ * Values are kept in levels where a value at level h represents 2^h added values. A full level is sorted and every
+ * other value is promoted to the next level, so the sketch retains O(k) values regardless of the number of added
+ * values, while the rank of an estimated quantile is typically within a few times 1/k of the requested one. Sketches of
+ * separate parts of a data set are merged with {@link #combine(QuantileSketch)}. Minimum and maximum are exact.
+ * <p>
+ * Compactions alternate between promoting odd and even positions instead of choosing at random, so the same values
+ * added in the same order always give the same sketch.
+ * <p>
+ * Instances are not thread safe, parallel streams use one sketch per thread and combine them.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class QuantileSketch implements DoubleConsumer {
+
+    /**
+     * Default accuracy parameter, giving rank errors around one percent
+     */
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 2;
+    private static final double CAPACITY_DECAY = 2.0 / 3;
+
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    private int[] capacities;
+    private boolean[] promoteOdd;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // Sorted values and cumulative weights, built on first query after an update
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    /**
+     * Constructor with {@link #DEFAULT_K}
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param k
+     *            accuracy parameter, capacity of the top level. Memory grows and rank errors shrink linearly with k
+     *
+     * @exception IllegalArgumentException
+     *                if k is less than 8
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k needs to be at least 8");
+        }
+        this.k = k;
+        this.levels = new double[][] { new double[k] };
+        this.sizes = new int[1];
+        this.promoteOdd = new boolean[1];
+        this.capacities = createCapacities(k, 1);
+    }
+
+    /**
+     * Create collector sketching a stream of values
+     *
+     * @return collector
+     */
+    public static Collector<Double, ?, QuantileSketch> collector() {
+        return Collector.of(QuantileSketch::new, QuantileSketch::accept, QuantileSketch::combine);
+    }
+
+    /**
+     * Sketch all values of stream, sequential or parallel
+     *
+     * @param stream
+     *            values to sketch
+     *
+     * @return sketch of stream
+     */
+    public static QuantileSketch of(DoubleStream stream) {
+        return stream.collect(QuantileSketch::new, QuantileSketch::accept, QuantileSketch::combine);
+    }
+
+    /**
+     * Add value
+     *
+     * @param value
+     *            value to add
+     *
+     * @exception IllegalArgumentException
+     *                if value is NaN
+     */
+    @Override
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("value needs to be a number");
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sortedValues = null;
+        append(0, value);
+        if (sizes[0] >= capacities[0]) {
+            compress();
+        }
+    }
+
+    /**
+     * Add all values of array range
+     *
+     * @param values
+     *            array holding values to add
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     *
+     * @exception IllegalArgumentException
+     *                if range is not within values or a value is NaN
+     */
+    public void accept(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IllegalArgumentException("offset and length needs to be within array");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            accept(values[i]);
+        }
+    }
+
+    /**
+     * Merge values added to other sketch into this sketch
+     *
+     * @param other
+     *            sketch to merge, not changed
+     *
+     * @return this sketch
+     */
+    public QuantileSketch combine(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        // Snapshot levels first, other may be this sketch
+        int[] otherSizes = other.sizes.clone();
+        double[][] otherLevels = new double[otherSizes.length][];
+        for (int h = 0; h < otherSizes.length; h++) {
+            otherLevels[h] = Arrays.copyOf(other.levels[h], otherSizes[h]);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sortedValues = null;
+        for (int h = 0; h < otherLevels.length; h++) {
+            for (double value : otherLevels[h]) {
+                append(h, value);
+            }
+        }
+        compress();
+        return this;
+    }
+
+    /**
+     * Get number of added values
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get number of values retained by sketch
+     *
+     * @return retained values, bounded by about 3 * k
+     */
+    public int getRetained() {
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    /**
+     * Get smallest added value
+     *
+     * @return minimum, NaN if no values are added
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Get largest added value
+     *
+     * @return maximum, NaN if no values are added
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Estimate quantile of added values
+     *
+     * @param fraction
+     *            fraction of values at or below the quantile, 0.5 for median and 0.99 for 99th percentile
+     *
+     * @return estimated quantile, NaN if no values are added
+     *
+     * @exception IllegalArgumentException
+     *                if fraction is not between 0 and 1
+     */
+    public double getQuantile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("fraction needs to be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        buildSortedView();
+        // First retained value whose cumulative weight reaches the requested rank
+        double rank = fraction * count;
+        int low = 0;
+        int high = sortedValues.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] < rank) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return sortedValues[low];
+    }
+
+    /**
+     * Estimate quantiles of added values
+     *
+     * @param fractions
+     *            fractions of values at or below each quantile
+     *
+     * @return estimated quantiles in order of fractions
+     *
+     * @exception IllegalArgumentException
+     *                if a fraction is not between 0 and 1
+     */
+    public double[] getQuantiles(double... fractions) {
+        double[] quantiles = new double[fractions.length];
+        for (int i = 0; i < fractions.length; i++) {
+            quantiles[i] = getQuantile(fractions[i]);
+        }
+        return quantiles;
+    }
+
+    /**
+     * Estimate fraction of added values at or below value
+     *
+     * @param value
+     *            value to rank
+     *
+     * @return estimated fraction between 0 and 1, NaN if no values are added
+     */
+    public double getRank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        buildSortedView();
+        // Number of retained values at or below value
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedValues[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == 0 ? 0 : (double) cumulativeWeights[low - 1] / count;
+    }
+
+    private void append(int level, double value) {
+        while (level >= sizes.length) {
+            addLevel();
+        }
+        double[] values = levels[level];
+        if (sizes[level] == values.length) {
+            levels[level] = values = Arrays.copyOf(values, 2 * values.length);
+        }
+        values[sizes[level]++] = value;
+    }
+
+    private void addLevel() {
+        int numberOfLevels = sizes.length + 1;
+        levels = Arrays.copyOf(levels, numberOfLevels);
+        sizes = Arrays.copyOf(sizes, numberOfLevels);
+        promoteOdd = Arrays.copyOf(promoteOdd, numberOfLevels);
+        capacities = createCapacities(k, numberOfLevels);
+        levels[numberOfLevels - 1] = new double[capacities[numberOfLevels - 1]];
+    }
+
+    private void compress() {
+        // Number of levels may grow while compacting
+        for (int h = 0; h < sizes.length; h++) {
+            if (sizes[h] >= capacities[h]) {
+                compact(h);
+            }
+        }
+    }
+
+    private void compact(int level) {
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+        // Largest value stays when size is odd, every other of the remaining pairs moves up with doubled weight
+        int offset = promoteOdd[level] ? 1 : 0;
+        promoteOdd[level] = !promoteOdd[level];
+        int pairs = size / 2;
+        for (int i = 0; i < pairs; i++) {
+            append(level + 1, values[2 * i + offset]);
+        }
+        if (size % 2 == 1) {
+            values[0] = values[size - 1];
+        }
+        sizes[level] = size % 2;
+    }
+
+    private void buildSortedView() {
+        if (sortedValues != null) {
+            return;
+        }
+        // Merge sorted levels, lowest first
+        double[] mergedValues = new double[0];
+        long[] mergedWeights = new long[0];
+        for (int h = 0; h < sizes.length; h++) {
+            Arrays.sort(levels[h], 0, sizes[h]);
+            double[] values = new double[mergedValues.length + sizes[h]];
+            long[] weights = new long[values.length];
+            int i = 0;
+            int j = 0;
+            for (int n = 0; n < values.length; n++) {
+                if (j == sizes[h] || (i < mergedValues.length && mergedValues[i] <= levels[h][j])) {
+                    values[n] = mergedValues[i];
+                    weights[n] = mergedWeights[i++];
+                } else {
+                    values[n] = levels[h][j++];
+                    weights[n] = 1L << h;
+                }
+            }
+            mergedValues = values;
+            mergedWeights = weights;
+        }
+        for (int n = 1; n < mergedWeights.length; n++) {
+            mergedWeights[n] += mergedWeights[n - 1];
+        }
+        sortedValues = mergedValues;
+        cumulativeWeights = mergedWeights;
+    }
+
+    private static int[] createCapacities(int k, int numberOfLevels) {
+        // Top level holds k values, each lower level two thirds of the level above
+        int[] capacities = new int[numberOfLevels];
+        for (int h = 0; h < numberOfLevels; h++) {
+            capacities[h] = Math.max(MIN_CAPACITY,
+                    (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, numberOfLevels - 1 - h)));
+        }
+        return capacities;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch [k=" + k + ", count=" + count + ", retained=" + getRetained() + ", min=" + getMin()
+                + ", max=" + getMax() + "]";
+    }
+
+}
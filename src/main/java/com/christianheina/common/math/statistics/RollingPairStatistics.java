@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * {@link PairStatistics} of the most recent value pairs of two streams of real values.<br>
+ * Every new pair replaces the oldest pair of the window in O(1) operations, removing the oldest pair with the inverse
+ * of the Welford update before adding the new one. Rounding errors of removals accumulate, so every recompute interval
+ * pairs the statistics are recomputed exactly from the buffered window. Until windowLength pairs have been added the
+ * statistics cover all added pairs.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class RollingPairStatistics {
+
+    private final double[] window1;
+    private final double[] window2;
+    private final int recomputeInterval;
+    private int writePosition;
+    private int count;
+    private int updatesUntilRecompute;
+    private double mean1;
+    private double mean2;
+    private double squaredDeviationSum1;
+    private double squaredDeviationSum2;
+    private double coMoment;
+
+    /**
+     * Constructor recomputing once per window length pairs
+     *
+     * @param windowLength
+     *            number of most recent pairs covered
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength is less than 1
+     */
+    public RollingPairStatistics(int windowLength) {
+        this(windowLength, windowLength);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param windowLength
+     *            number of most recent pairs covered
+     * @param recomputeInterval
+     *            number of pairs between exact recomputations
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength or recomputeInterval is less than 1
+     */
+    public RollingPairStatistics(int windowLength, int recomputeInterval) {
+        if (windowLength < 1) {
+            throw new IllegalArgumentException("windowLength needs to be at least 1");
+        }
+        if (recomputeInterval < 1) {
+            throw new IllegalArgumentException("recomputeInterval needs to be at least 1");
+        }
+        this.window1 = new double[windowLength];
+        this.window2 = new double[windowLength];
+        this.recomputeInterval = recomputeInterval;
+        this.updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Get number of most recent pairs covered
+     *
+     * @return window length
+     */
+    public int getWindowLength() {
+        return window1.length;
+    }
+
+    /**
+     * Get number of pairs currently in window
+     *
+     * @return count, at most window length
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Add value pair, dropping the oldest pair once the window is full
+     *
+     * @param value1
+     *            value of first series
+     * @param value2
+     *            value of second series
+     */
+    public void add(double value1, double value2) {
+        if (count == window1.length) {
+            remove(window1[writePosition], window2[writePosition]);
+        }
+        window1[writePosition] = value1;
+        window2[writePosition] = value2;
+        writePosition = writePosition + 1 == window1.length ? 0 : writePosition + 1;
+        count++;
+        double delta1 = value1 - mean1;
+        double delta2 = value2 - mean2;
+        mean1 += delta1 / count;
+        mean2 += delta2 / count;
+        squaredDeviationSum1 += delta1 * (value1 - mean1);
+        squaredDeviationSum2 += delta2 * (value2 - mean2);
+        coMoment += delta1 * (value2 - mean2);
+        if (--updatesUntilRecompute == 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Add value pairs of two array ranges in order
+     *
+     * @param values1
+     *            array holding values of first series
+     * @param offset1
+     *            index of first value in values1
+     * @param values2
+     *            array holding values of second series
+     * @param offset2
+     *            index of first value in values2
+     * @param length
+     *            number of new pairs
+     *
+     * @exception IllegalArgumentException
+     *                if either range is not within its array
+     */
+    public void add(double[] values1, int offset1, double[] values2, int offset2, int length) {
+        if (offset1 < 0 || offset2 < 0 || length < 0 || offset1 + length > values1.length
+                || offset2 + length > values2.length) {
+            throw new IllegalArgumentException("values1 and values2 needs to hold length values from offset");
+        }
+        for (int i = 0; i < length; i++) {
+            add(values1[offset1 + i], values2[offset2 + i]);
+        }
+    }
+
+    /**
+     * Get sample covariance [cov(A,B)] of pairs in window
+     *
+     * @return covariance
+     */
+    public double getCovariance() {
+        return coMoment / (count - 1);
+    }
+
+    /**
+     * Get pearson correlation of pairs in window
+     *
+     * @return Correlation. Value is between -1 and 1 with -1 being negatively correlated, 0 being uncorrelated and 1
+     *         correlated.
+     */
+    public double getCorrelation() {
+        return coMoment / Math.sqrt(Math.max(0, squaredDeviationSum1) * Math.max(0, squaredDeviationSum2));
+    }
+
+    /**
+     * Get statistics of pairs in window
+     *
+     * @return statistics
+     */
+    public PairStatistics toStatistics() {
+        double u1 = count == 0 ? Double.NaN : mean1;
+        double u2 = count == 0 ? Double.NaN : mean2;
+        // Removals can leave a tiny negative rounding residue
+        return new PairStatistics(count, u1, u2, Math.max(0, squaredDeviationSum1) / (count - 1),
+                Math.max(0, squaredDeviationSum2) / (count - 1), getCovariance());
+    }
+
+    /**
+     * Recompute statistics exactly from pairs in window, discarding accumulated rounding errors
+     */
+    public void recompute() {
+        // Order within window does not affect the statistics
+        if (count < 2) {
+            mean1 = count == 0 ? 0 : window1[0];
+            mean2 = count == 0 ? 0 : window2[0];
+            squaredDeviationSum1 = 0;
+            squaredDeviationSum2 = 0;
+            coMoment = 0;
+        } else {
+            PairStatistics statistics = MathAdditions.pairStatistics(window1, 0, window2, 0, count);
+            mean1 = statistics.getMean1();
+            mean2 = statistics.getMean2();
+            squaredDeviationSum1 = statistics.getVariance1() * (count - 1);
+            squaredDeviationSum2 = statistics.getVariance2() * (count - 1);
+            coMoment = statistics.getCovariance() * (count - 1);
+        }
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Discard all pairs in window
+     */
+    public void reset() {
+        Arrays.fill(window1, 0);
+        Arrays.fill(window2, 0);
+        writePosition = 0;
+        count = 0;
+        mean1 = 0;
+        mean2 = 0;
+        squaredDeviationSum1 = 0;
+        squaredDeviationSum2 = 0;
+        coMoment = 0;
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    private void remove(double value1, double value2) {
+        if (count == 1) {
+            count = 0;
+            mean1 = 0;
+            mean2 = 0;
+            squaredDeviationSum1 = 0;
+            squaredDeviationSum2 = 0;
+            coMoment = 0;
+            return;
+        }
+        // Inverse Welford update
+        double previousMean1 = mean1;
+        double previousMean2 = mean2;
+        count--;
+        mean1 -= (value1 - mean1) / count;
+        mean2 -= (value2 - mean2) / count;
+        squaredDeviationSum1 -= (value1 - mean1) * (value1 - previousMean1);
+        squaredDeviationSum2 -= (value2 - mean2) * (value2 - previousMean2);
+        coMoment -= (value1 - mean1) * (value2 - previousMean2);
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * Mean and variance of the most recent values of a stream of real values.<br>
+ * Every new value replaces the oldest value of the window in O(1) operations, removing the oldest value with the
+ * inverse of the Welford update before adding the new one. Rounding errors of removals accumulate, so every recompute
+ * interval values the statistics are recomputed exactly from the buffered window. Until windowLength values have been
+ * added the statistics cover all added values.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class RollingStatistics {
+
+    private final double[] window;
+    private final int recomputeInterval;
+    private int writePosition;
+    private int count;
+    private int updatesUntilRecompute;
+    private double mean;
+    private double squaredDeviationSum;
+
+    /**
+     * Constructor recomputing once per window length values
+     *
+     * @param windowLength
+     *            number of most recent values covered
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength is less than 1
+     */
+    public RollingStatistics(int windowLength) {
+        this(windowLength, windowLength);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param windowLength
+     *            number of most recent values covered
+     * @param recomputeInterval
+     *            number of values between exact recomputations
+     *
+     * @exception IllegalArgumentException
+     *                if windowLength or recomputeInterval is less than 1
+     */
+    public RollingStatistics(int windowLength, int recomputeInterval) {
+        if (windowLength < 1) {
+            throw new IllegalArgumentException("windowLength needs to be at least 1");
+        }
+        if (recomputeInterval < 1) {
+            throw new IllegalArgumentException("recomputeInterval needs to be at least 1");
+        }
+        this.window = new double[windowLength];
+        this.recomputeInterval = recomputeInterval;
+        this.updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Get number of most recent values covered
+     *
+     * @return window length
+     */
+    public int getWindowLength() {
+        return window.length;
+    }
+
+    /**
+     * Get number of values currently in window
+     *
+     * @return count, at most window length
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Add value, dropping the oldest value once the window is full
+     *
+     * @param value
+     *            new value
+     */
+    public void add(double value) {
+        if (count == window.length) {
+            remove(window[writePosition]);
+        }
+        window[writePosition] = value;
+        writePosition = writePosition + 1 == window.length ? 0 : writePosition + 1;
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviationSum += delta * (value - mean);
+        if (--updatesUntilRecompute == 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Add values in order
+     *
+     * @param values
+     *            array holding new values
+     * @param offset
+     *            index of first new value
+     * @param length
+     *            number of new values
+     *
+     * @exception IllegalArgumentException
+     *                if values does not hold length values from offset
+     */
+    public void add(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IllegalArgumentException("values needs to hold length values from offset");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            add(values[i]);
+        }
+    }
+
+    /**
+     * Get mean of values in window
+     *
+     * @return mean, NaN if window is empty
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Get sample variance of values in window
+     *
+     * @return variance, NaN if window holds fewer than 2 values
+     */
+    public double getVariance() {
+        if (count < 2) {
+            return Double.NaN;
+        }
+        // Removals can leave a tiny negative rounding residue
+        return Math.max(0, squaredDeviationSum) / (count - 1);
+    }
+
+    /**
+     * Get sample standard deviation of values in window
+     *
+     * @return standard deviation, NaN if window holds fewer than 2 values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Recompute statistics exactly from values in window, discarding accumulated rounding errors
+     */
+    public void recompute() {
+        // Order within window does not affect the statistics
+        mean = count == 0 ? 0 : MathAdditions.mean(window, 0, count);
+        squaredDeviationSum = count < 2 ? 0 : MathAdditions.variance(window, 0, count) * (count - 1);
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    /**
+     * Discard all values in window
+     */
+    public void reset() {
+        Arrays.fill(window, 0);
+        writePosition = 0;
+        count = 0;
+        mean = 0;
+        squaredDeviationSum = 0;
+        updatesUntilRecompute = recomputeInterval;
+    }
+
+    private void remove(double value) {
+        if (count == 1) {
+            count = 0;
+            mean = 0;
+            squaredDeviationSum = 0;
+            return;
+        }
+        // Inverse Welford update
+        double previousMean = mean;
+        count--;
+        mean -= (value - mean) / count;
+        squaredDeviationSum -= (value - mean) * (value - previousMean);
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * Online accumulator of count, mean and variance of real values.<br>
+ * Values are added one at a time with the numerically stable Welford update or in arrays, and accumulators of separate
+ * parts of a data set are merged with {@link #combine(StatisticsAccumulator)}, so statistics of unbounded or parallel
+ * streams are computed without buffering values. Results agree with {@link MathAdditions#mean(double[])} and
+ * {@link MathAdditions#variance(double[])} up to rounding, since values are summed in a different order.
+ * <p>
+ * Instances are not thread safe, parallel streams use one accumulator per thread and combine them.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class StatisticsAccumulator implements DoubleConsumer {
+
+    private long count;
+    private double mean;
+    private double squaredDeviationSum;
+
+    /**
+     * Create collector accumulating a stream of values
+     *
+     * @return collector
+     */
+    public static Collector<Double, ?, StatisticsAccumulator> collector() {
+        return Collector.of(StatisticsAccumulator::new, StatisticsAccumulator::accept, StatisticsAccumulator::combine);
+    }
+
+    /**
+     * Accumulate all values of stream, sequential or parallel
+     *
+     * @param stream
+     *            values to accumulate
+     *
+     * @return accumulator holding statistics of stream
+     */
+    public static StatisticsAccumulator of(DoubleStream stream) {
+        return stream.collect(StatisticsAccumulator::new, StatisticsAccumulator::accept,
+                StatisticsAccumulator::combine);
+    }
+
+    /**
+     * Add value
+     *
+     * @param value
+     *            value to add
+     */
+    @Override
+    public void accept(double value) {
+        // Single value is an accumulator with count 1 and no deviation, one update form for values and merges
+        combine(1, value, 0);
+    }
+
+    /**
+     * Add all values of array range
+     *
+     * @param values
+     *            array holding values to add
+     * @param offset
+     *            index of first value
+     * @param length
+     *            number of values
+     *
+     * @exception IllegalArgumentException
+     *                if range is not within values
+     */
+    public void accept(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IllegalArgumentException("offset and length needs to be within array");
+        }
+        // Single pass over range
+        for (int i = offset; i < offset + length; i++) {
+            accept(values[i]);
+        }
+    }
+
+    /**
+     * Merge values added to other accumulator into this accumulator
+     *
+     * @param other
+     *            accumulator to merge, not changed
+     *
+     * @return this accumulator
+     */
+    public StatisticsAccumulator combine(StatisticsAccumulator other) {
+        combine(other.count, other.mean, other.squaredDeviationSum);
+        return this;
+    }
+
+    /**
+     * Get number of added values
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get sum of added values
+     *
+     * @return sum
+     */
+    public double getSum() {
+        return mean * count;
+    }
+
+    /**
+     * Get mean of added values
+     *
+     * @return mean, NaN if no values are added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Get sample variance of added values
+     *
+     * @return variance
+     */
+    public double getVariance() {
+        return squaredDeviationSum / (count - 1);
+    }
+
+    /**
+     * Get sample standard deviation of added values
+     *
+     * @return standard deviation
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    private void combine(long otherCount, double otherMean, double otherSquaredDeviationSum) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = otherCount;
+            mean = otherMean;
+            squaredDeviationSum = otherSquaredDeviationSum;
+            return;
+        }
+        // Chan et al. pairwise update
+        long totalCount = count + otherCount;
+        double delta = otherMean - mean;
+        double weight = (double) count * otherCount / totalCount;
+        mean += delta * otherCount / totalCount;
+        squaredDeviationSum += otherSquaredDeviationSum + weight * (delta * delta);
+        count = totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsAccumulator [count=" + count + ", mean=" + getMean() + ", variance=" + getVariance() + "]";
+    }
+
+}
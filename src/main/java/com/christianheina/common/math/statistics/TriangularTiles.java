@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Schedules work on symmetric matrices of series stored as packed lower triangles.<br>
+ * The triangle is split into square tiles of {@link #SERIES_BLOCK} series, each owned by one task, and inner products
+ * are accumulated over blocks of {@link #SAMPLE_BLOCK} samples so the series segments of a tile stay in cache.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class TriangularTiles {
+
+    static final int SERIES_BLOCK = 16;
+    static final int SAMPLE_BLOCK = 512;
+
+    private static final int TASKS_PER_THREAD = 4;
+
+    private TriangularTiles() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Get index of element (row, column) in packed lower triangle
+     *
+     * @param row
+     *            row index
+     * @param column
+     *            column index, at most row
+     *
+     * @return packed index, within int range for matrices accepted by {@link #packedLength(int)}
+     */
+    static int index(int row, int column) {
+        // row * (row + 1) overflows int from row 46341, long keeps the product exact for all rows
+        return (int) ((long) row * (row + 1) / 2 + column);
+    }
+
+    /**
+     * Get number of elements in packed lower triangle
+     *
+     * @param size
+     *            number of rows and columns
+     *
+     * @return packed length
+     *
+     * @exception IllegalArgumentException
+     *                if packed length does not fit in an array
+     */
+    static int packedLength(int size) {
+        long packedLength = (long) size * (size + 1) / 2;
+        if (packedLength > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("number of series is too large");
+        }
+        return (int) packedLength;
+    }
+
+    /**
+     * Run action for all series, distributed over pool
+     *
+     * @param seriesCount
+     *            number of series
+     * @param pool
+     *            pool that series are distributed over
+     * @param action
+     *            action run for ranges of series
+     */
+    static void forEachSeries(int seriesCount, ForkJoinPool pool, RangeAction action) {
+        run(seriesCount, pool, action);
+    }
+
+    /**
+     * Run action for all tiles of lower triangle, distributed over pool. Tiles on the diagonal are passed with equal
+     * row and column ranges, and actions need to skip elements above the diagonal.
+     *
+     * @param size
+     *            number of rows and columns
+     * @param pool
+     *            pool that tiles are distributed over
+     * @param action
+     *            action run for each tile
+     */
+    static void forEachTile(int size, ForkJoinPool pool, TileAction action) {
+        int blockCount = (size + SERIES_BLOCK - 1) / SERIES_BLOCK;
+        int tileCount = blockCount * (blockCount + 1) / 2;
+        int[] tileRows = new int[tileCount];
+        int[] tileColumns = new int[tileCount];
+        int tile = 0;
+        for (int row = 0; row < blockCount; row++) {
+            for (int column = 0; column <= row; column++) {
+                tileRows[tile] = row;
+                tileColumns[tile] = column;
+                tile++;
+            }
+        }
+        run(tileCount, pool, (first, last) -> {
+            for (int i = first; i < last; i++) {
+                int rowStart = tileRows[i] * SERIES_BLOCK;
+                int columnStart = tileColumns[i] * SERIES_BLOCK;
+                action.compute(rowStart, Math.min(size, rowStart + SERIES_BLOCK), columnStart,
+                        Math.min(size, columnStart + SERIES_BLOCK));
+            }
+        });
+    }
+
+    private static void run(int count, ForkJoinPool pool, RangeAction action) {
+        if (count == 0) {
+            return;
+        }
+        if (count == 1 || pool.getParallelism() == 1) {
+            action.compute(0, count);
+            return;
+        }
+        int perTask = Math.max(1, count / (pool.getParallelism() * TASKS_PER_THREAD));
+        pool.invoke(new RangeTask(action, 0, count, perTask));
+    }
+
+    /**
+     * Action on range of indices
+     */
+    @FunctionalInterface
+    interface RangeAction {
+        void compute(int first, int last);
+    }
+
+    /**
+     * Action on tile of matrix
+     */
+    @FunctionalInterface
+    interface TileAction {
+        void compute(int rowStart, int rowEnd, int columnStart, int columnEnd);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeAction action;
+        private final int first;
+        private final int last;
+        private final int perTask;
+
+        private RangeTask(RangeAction action, int first, int last, int perTask) {
+            this.action = action;
+            this.first = first;
+            this.last = last;
+            this.perTask = perTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first <= perTask) {
+                action.compute(first, last);
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new RangeTask(action, first, middle, perTask), new RangeTask(action, middle, last, perTask));
+        }
+    }
+
+}
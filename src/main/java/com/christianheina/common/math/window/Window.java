@@ -0,0 +1,297 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.window;
+
+import java.util.Objects;
+
+import com.christianheina.common.math.cache.BoundedCache;
+
+/**
+ * Immutable window function coefficients.<br>
+ * Windows are symmetric, as the corresponding MATLAB functions, and cached per type, length and parameter, so repeated
+ * requests for the same window return the same instance without recomputing coefficients. The cache holds at most
+ * {@link #MAXIMUM_CACHE_SIZE} windows, when it grows beyond that the least recently used window is evicted so callers
+ * sweeping parameters such as the Kaiser beta do not retain every window. Windows are applied by the windowed FFT
+ * overloads of {@link com.christianheina.common.math.ComplexAdditions} while packing input into the transform buffer.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class Window {
+
+    /**
+     * Maximum number of windows kept by the cache
+     */
+    public static final int MAXIMUM_CACHE_SIZE = 64;
+
+    private static final BoundedCache<Key, Window> CACHE = new BoundedCache<>(MAXIMUM_CACHE_SIZE,
+            key -> new Window(createCoefficients(key.type, key.length, key.parameter)));
+
+    private final double[] coefficients;
+    private final double sum;
+    private final double powerSum;
+
+    private Window(double[] coefficients) {
+        this.coefficients = coefficients;
+        double coefficientSum = 0;
+        double coefficientPowerSum = 0;
+        for (double coefficient : coefficients) {
+            coefficientSum += coefficient;
+            coefficientPowerSum += coefficient * coefficient;
+        }
+        this.sum = coefficientSum;
+        this.powerSum = coefficientPowerSum;
+    }
+
+    /**
+     * Get rectangular window, all coefficients 1
+     *
+     * @param length
+     *            number of coefficients
+     *
+     * @return cached window
+     *
+     * @exception IllegalArgumentException
+     *                if length is less than 1
+     */
+    public static Window rectangular(int length) {
+        return get(Type.RECTANGULAR, length, 0);
+    }
+
+    /**
+     * Get Hann window, 0.5 - 0.5 * cos(2 * pi * n / (length - 1))
+     *
+     * @param length
+     *            number of coefficients
+     *
+     * @return cached window
+     *
+     * @exception IllegalArgumentException
+     *                if length is less than 1
+     */
+    public static Window hann(int length) {
+        return get(Type.HANN, length, 0);
+    }
+
+    /**
+     * Get Hamming window, 0.54 - 0.46 * cos(2 * pi * n / (length - 1))
+     *
+     * @param length
+     *            number of coefficients
+     *
+     * @return cached window
+     *
+     * @exception IllegalArgumentException
+     *                if length is less than 1
+     */
+    public static Window hamming(int length) {
+        return get(Type.HAMMING, length, 0);
+    }
+
+    /**
+     * Get Blackman window, 0.42 - 0.5 * cos(2 * pi * n / (length - 1)) + 0.08 * cos(4 * pi * n / (length - 1))
+     *
+     * @param length
+     *            number of coefficients
+     *
+     * @return cached window
+     *
+     * @exception IllegalArgumentException
+     *                if length is less than 1
+     */
+    public static Window blackman(int length) {
+        return get(Type.BLACKMAN, length, 0);
+    }
+
+    /**
+     * Get Kaiser window, I0(beta * sqrt(1 - (2 * n / (length - 1) - 1)^2)) / I0(beta) where I0 is the zeroth order
+     * modified Bessel function of the first kind
+     *
+     * @param length
+     *            number of coefficients
+     * @param beta
+     *            shape parameter, larger values give lower side lobes and a wider main lobe
+     *
+     * @return cached window
+     *
+     * @exception IllegalArgumentException
+     *                if length is less than 1 or beta is negative, infinite or NaN
+     */
+    public static Window kaiser(int length, double beta) {
+        if (!(beta >= 0) || Double.isInfinite(beta)) {
+            throw new IllegalArgumentException("beta needs to be finite and non-negative");
+        }
+        return get(Type.KAISER, length, beta);
+    }
+
+    /**
+     * Get number of coefficients
+     *
+     * @return window length
+     */
+    public int length() {
+        return coefficients.length;
+    }
+
+    /**
+     * Get coefficient
+     *
+     * @param index
+     *            index of coefficient
+     *
+     * @return coefficient at index
+     */
+    public double get(int index) {
+        return coefficients[index];
+    }
+
+    /**
+     * Get sum of coefficients, the coherent gain of the window times its length
+     *
+     * @return sum of coefficients
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Get sum of squared coefficients, used to normalize power spectral densities
+     *
+     * @return sum of squared coefficients
+     */
+    public double getPowerSum() {
+        return powerSum;
+    }
+
+    /**
+     * Get copy of coefficients
+     *
+     * @return new array containing coefficients
+     */
+    public double[] toArray() {
+        return coefficients.clone();
+    }
+
+    /**
+     * Multiply values by window
+     *
+     * @param input
+     *            array holding values to window
+     * @param inputOffset
+     *            index in input of first value
+     * @param output
+     *            array receiving windowed values, may be input
+     * @param outputOffset
+     *            index in output of first windowed value
+     *
+     * @exception IllegalArgumentException
+     *                if input or output does not hold length values from its offset
+     */
+    public void apply(double[] input, int inputOffset, double[] output, int outputOffset) {
+        if (inputOffset < 0 || inputOffset + coefficients.length > input.length || outputOffset < 0
+                || outputOffset + coefficients.length > output.length) {
+            throw new IllegalArgumentException("input and output needs to hold window length values from offset");
+        }
+        for (int i = 0; i < coefficients.length; i++) {
+            output[outputOffset + i] = input[inputOffset + i] * coefficients[i];
+        }
+    }
+
+    private static Window get(Type type, int length, double parameter) {
+        if (length < 1) {
+            throw new IllegalArgumentException("length needs to be at least 1");
+        }
+        return CACHE.get(new Key(type, length, parameter));
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    private static double[] createCoefficients(Type type, int length, double parameter) {
+        double[] coefficients = new double[length];
+        if (length == 1) {
+            coefficients[0] = 1;
+            return coefficients;
+        }
+        for (int n = 0; n < length; n++) {
+            double phase = 2 * Math.PI * n / (length - 1);
+            switch (type) {
+            case HANN:
+                coefficients[n] = 0.5 - 0.5 * Math.cos(phase);
+                break;
+            case HAMMING:
+                coefficients[n] = 0.54 - 0.46 * Math.cos(phase);
+                break;
+            case BLACKMAN:
+                coefficients[n] = 0.42 - 0.5 * Math.cos(phase) + 0.08 * Math.cos(2 * phase);
+                break;
+            case KAISER:
+                double position = 2.0 * n / (length - 1) - 1;
+                coefficients[n] = besselI0(parameter * Math.sqrt(Math.max(0, 1 - position * position)))
+                        / besselI0(parameter);
+                break;
+            default:
+                coefficients[n] = 1;
+            }
+        }
+        return coefficients;
+    }
+
+    private static double besselI0(double x) {
+        // Power series sum of ((x / 2)^k / k!)^2, all terms positive so it converges without cancellation
+        double quarterSquare = x * x / 4;
+        double term = 1;
+        double sum = 1;
+        for (int k = 1; term > sum * 1e-17; k++) {
+            term *= quarterSquare / ((double) k * k);
+            sum += term;
+        }
+        return sum;
+    }
+
+    private enum Type {
+        RECTANGULAR, HANN, HAMMING, BLACKMAN, KAISER
+    }
+
+    private static final class Key {
+
+        private final Type type;
+        private final int length;
+        private final double parameter;
+
+        private Key(Type type, int length, double parameter) {
+            this.type = type;
+            this.length = length;
+            this.parameter = parameter;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return type == other.type && length == other.length && Double.compare(parameter, other.parameter) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, length, parameter);
+        }
+    }
+
+}
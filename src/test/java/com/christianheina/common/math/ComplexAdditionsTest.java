@@ -16,14 +16,22 @@
 
 package com.christianheina.common.math;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.math3.complex.Complex;
+import org.jtransforms.fft.DoubleFFT_2D;
+import org.jtransforms.fft.DoubleFFT_3D;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.christianheina.common.math.statistics.ComplexPairStatistics;
+import com.christianheina.common.math.window.Window;
+
 /**
  * Unit test for {@link ComplexAdditions}.
  * 
@@ -32,6 +40,7 @@ import org.testng.annotations.Test;
 public class ComplexAdditionsTest {
 
     private static final double EPS = 1e-9;
+    private static final float FLOAT_EPS = 1e-4f;
 
     private static final Complex NEGATIVE_ONE = new Complex(-1, 0);
     private static final List<Complex> EMPTY_LIST = new ArrayList<>();
@@ -287,4 +296,395 @@ public class ComplexAdditionsTest {
         }
     }
 
+    @Test
+    public void complexArrayStatisticsTest() {
+        ComplexArray complexArray1 = ComplexArray.valueOf(complexList1);
+        ComplexArray complexArray2 = ComplexArray.valueOf(complexList2);
+
+        Assert.assertTrue(Complex.equals(ComplexAdditions.sum(complexArray1), ComplexAdditions.sum(complexList1), EPS));
+        Assert.assertTrue(
+                Complex.equals(ComplexAdditions.mean(complexArray1), ComplexAdditions.mean(complexList1), EPS));
+        Assert.assertTrue(Complex.equals(ComplexAdditions.dotProduct(complexArray1, complexArray2),
+                ComplexAdditions.dotProduct(complexList1, complexList2), EPS));
+        Assert.assertTrue(Complex.equals(ComplexAdditions.covariance(complexArray1, complexArray2),
+                ComplexAdditions.covariance(complexList1, complexList2), EPS));
+        Assert.assertTrue(Complex.equals(ComplexAdditions.covariance(complexArray2, complexArray1),
+                ComplexAdditions.covariance(complexList2, complexList1), EPS));
+        Assert.assertEquals(ComplexAdditions.variance(complexArray1), ComplexAdditions.variance(complexList1), EPS);
+        Assert.assertEquals(ComplexAdditions.standardDeviation(complexArray2),
+                ComplexAdditions.standardDeviation(complexList2), EPS);
+        Assert.assertTrue(Complex.equals(ComplexAdditions.pearsonCorrelation(complexArray1, complexArray2),
+                ComplexAdditions.pearsonCorrelation(complexList1, complexList2), EPS));
+    }
+
+    @Test
+    public void pairStatisticsTest() {
+        ComplexPairStatistics statistics = ComplexAdditions.pairStatistics(complexList1, complexList2);
+        Assert.assertEquals(statistics.getCount(), 4);
+        Assert.assertTrue(Complex.equals(statistics.getMean1(), ComplexAdditions.mean(complexList1), EPS));
+        Assert.assertTrue(Complex.equals(statistics.getMean2(), ComplexAdditions.mean(complexList2), EPS));
+        Assert.assertEquals(statistics.getVariance1(), 1.5833333333333333, EPS);
+        Assert.assertEquals(statistics.getStandardDeviation2(), 1.2583057392117916, EPS);
+        Assert.assertTrue(Complex.equals(statistics.getCovariance(), new Complex(0.25, 0.0), EPS));
+        Assert.assertTrue(Complex.equals(statistics.getCorrelation(), new Complex(0.15789473684210528, 0.0), EPS));
+
+        ComplexPairStatistics arrayStatistics = ComplexAdditions.pairStatistics(ComplexArray.valueOf(complexList1),
+                ComplexArray.valueOf(complexList2));
+        Assert.assertTrue(Complex.equals(arrayStatistics.getCovariance(), statistics.getCovariance(), EPS));
+        Assert.assertEquals(arrayStatistics.getVariance2(), statistics.getVariance2(), EPS);
+    }
+
+    @Test
+    public void pairStatisticsOffsetTest() {
+        // Values far from zero with small spread cancel catastrophically in a sum of squares formulation
+        List<Complex> shifted1 = new ArrayList<>();
+        List<Complex> shifted2 = new ArrayList<>();
+        Complex offset = new Complex(1e9, -1e9);
+        for (int i = 0; i < complexList1.size(); i++) {
+            shifted1.add(complexList1.get(i).add(offset));
+            shifted2.add(complexList2.get(i).add(offset));
+        }
+        ComplexPairStatistics statistics = ComplexAdditions.pairStatistics(shifted1, shifted2);
+        Assert.assertEquals(statistics.getVariance1(), 1.5833333333333333, 1e-6);
+        Assert.assertTrue(Complex.equals(statistics.getCovariance(), new Complex(0.25, 0.0), 1e-6));
+        Assert.assertEquals(ComplexAdditions.variance(ComplexArray.valueOf(shifted2)), 1.5833333333333333, 1e-6);
+    }
+
+    @Test
+    public void statisticsAllocationTest() {
+        List<Complex> list1 = new ArrayList<>();
+        List<Complex> list2 = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            list1.add(new Complex(i, -i));
+            list2.add(new Complex(1, i % 7));
+        }
+        List<Complex> shortList1 = list1.subList(0, 10000);
+        List<Complex> shortList2 = list2.subList(0, 10000);
+        long shortAllocated = allocatedBytes(() -> computeStatistics(shortList1, shortList2));
+        long allocated = allocatedBytes(() -> computeStatistics(list1, list2));
+        // Only results are allocated, a Complex per element would add megabytes for the 90000 additional elements
+        Assert.assertTrue(allocated - shortAllocated < 90000,
+                shortAllocated + " and " + allocated + " bytes allocated");
+    }
+
+    @Test
+    public void inPlaceFftAllocationTest() {
+        ComplexArray complexArray = new ComplexArray(1024);
+        double[] signal = new double[1024];
+        ComplexArray halfSpectrum = new ComplexArray(513);
+        Window window = Window.hann(1024);
+        long allocated = allocatedBytes(() -> {
+            ComplexAdditions.fftInPlace(complexArray);
+            ComplexAdditions.ifftInPlace(complexArray);
+            ComplexAdditions.realFft(signal, halfSpectrum);
+            ComplexAdditions.realFft(signal, 0, window, halfSpectrum);
+            ComplexAdditions.realIfft(halfSpectrum, signal);
+        });
+        // Caller supplied buffers, cached plans and power of two lengths, nothing is allocated per transform
+        Assert.assertEquals(allocated, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void pairStatisticsExceptionTest() {
+        ComplexAdditions.pairStatistics(ComplexArray.valueOf(complexList1), new ComplexArray(3));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void complexArrayDotProductExceptionTest() {
+        ComplexAdditions.dotProduct(ComplexArray.valueOf(complexList1), new ComplexArray(0));
+    }
+
+    @Test
+    public void complexArrayFftTest() {
+        double[] data = new double[2 + 2 * complexList1.size()];
+        ComplexArray complexArray = new ComplexArray(data, 2, complexList1.size());
+        for (int i = 0; i < complexList1.size(); i++) {
+            complexArray.set(i, complexList1.get(i));
+        }
+        ComplexArray fftArray = ComplexAdditions.fft(complexArray);
+        Assert.assertEquals(fftArray.toList(), fftResultList);
+        Assert.assertEquals(complexArray.toList(), complexList1);
+
+        ComplexArray ifftArray = ComplexAdditions.ifft(complexArray);
+        Assert.assertEquals(ifftArray.toList(), ifftResultList);
+    }
+
+    @Test
+    public void complexArrayShiftTest() {
+        complexList1.add(NEGATIVE_ONE);
+        ComplexArray complexArray = ComplexArray.valueOf(complexList1);
+        Assert.assertEquals(ComplexAdditions.fftShift(complexArray).toList(), ComplexAdditions.fftShift(complexList1));
+        Assert.assertEquals(ComplexAdditions.ifftShift(complexArray).toList(),
+                ComplexAdditions.ifftShift(complexList1));
+        Assert.assertEquals(ComplexAdditions.fftShift(new ComplexArray(0)).length(), 0);
+    }
+
+    @Test
+    public void shiftViewTest() {
+        for (int size = 0; size < 10; size++) {
+            List<Complex> complexList = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                complexList.add(new Complex(i, -i));
+            }
+            Assert.assertEquals(ComplexAdditions.fftShiftView(complexList), ComplexAdditions.fftShift(complexList));
+            Assert.assertEquals(ComplexAdditions.ifftShiftView(complexList), ComplexAdditions.ifftShift(complexList));
+            Assert.assertEquals(ComplexAdditions.ifftShiftView(ComplexAdditions.fftShiftView(complexList)),
+                    complexList);
+        }
+
+        List<Complex> view = ComplexAdditions.fftShiftView(complexList1);
+        view.set(0, Complex.I);
+        Assert.assertEquals(complexList1.get(complexList1.size() / 2), Complex.I);
+    }
+
+    @Test
+    public void shiftInPlaceTest() {
+        for (int size = 0; size < 12; size++) {
+            List<Complex> complexList = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                complexList.add(new Complex(i, -i));
+            }
+            ComplexArray complexArray = ComplexArray.valueOf(complexList);
+            ComplexAdditions.fftShiftInPlace(complexArray);
+            Assert.assertEquals(complexArray.toList(), ComplexAdditions.fftShift(complexList));
+            ComplexAdditions.ifftShiftInPlace(complexArray);
+            Assert.assertEquals(complexArray.toList(), complexList);
+
+            double[] interleavedData = ComplexArray.valueOf(complexList).toInterleavedArray();
+            ComplexAdditions.ifftShiftInPlace(interleavedData);
+            Assert.assertEquals(new ComplexArray(interleavedData).toList(), ComplexAdditions.ifftShift(complexList));
+        }
+
+        double[] data = new double[] { 9, 9, 1, 2, 3, 4, 5, 6, 9 };
+        ComplexAdditions.fftShiftInPlace(new ComplexArray(data, 2, 3));
+        Assert.assertEquals(data, new double[] { 9, 9, 5, 6, 1, 2, 3, 4, 9 });
+    }
+
+    @Test
+    public void complexArrayNormalizeAndScaleTest() {
+        ComplexArray complexArray = ComplexArray.valueOf(complexList1);
+        Assert.assertEquals(ComplexAdditions.normalizeBySizeOfList(complexArray).toList(),
+                ComplexAdditions.normalizeBySizeOfList(complexList1));
+        Assert.assertEquals(ComplexAdditions.scaleBySizeOfList(complexArray).toList(),
+                ComplexAdditions.scaleBySizeOfList(complexList1));
+    }
+
+    @Test
+    public void realFftTest() {
+        double[][] signals = new double[][] { doubleArray, { 1, -2, 3, 4 }, { 2.5 }, { 1, 2, 3, 4, 5, 6, 7 } };
+        for (double[] signal : signals) {
+            List<Complex> fullSpectrum = ComplexAdditions.fft(ComplexArray.valueOf(signal)).toList();
+            ComplexArray halfSpectrum = ComplexAdditions.realFft(signal);
+            Assert.assertEquals(halfSpectrum.length(), signal.length / 2 + 1);
+            for (int i = 0; i < halfSpectrum.length(); i++) {
+                Assert.assertTrue(Complex.equals(halfSpectrum.get(i), fullSpectrum.get(i), EPS));
+            }
+
+            List<Complex> hermitianSpectrum = ComplexAdditions.hermitianSpectrum(halfSpectrum, signal.length);
+            List<Complex> expandedSpectrum = ComplexAdditions.expandHermitianSpectrum(halfSpectrum, signal.length)
+                    .toList();
+            Assert.assertEquals(hermitianSpectrum.size(), signal.length);
+            for (int i = 0; i < signal.length; i++) {
+                Assert.assertTrue(Complex.equals(hermitianSpectrum.get(i), fullSpectrum.get(i), EPS));
+                Assert.assertEquals(expandedSpectrum.get(i), hermitianSpectrum.get(i));
+            }
+
+            double[] realResult = ComplexAdditions.realIfft(halfSpectrum, signal.length);
+            Assert.assertEquals(realResult.length, signal.length);
+            for (int i = 0; i < signal.length; i++) {
+                Assert.assertEquals(realResult[i], signal[i], EPS);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void realIfftExceptionTest() {
+        ComplexAdditions.realIfft(new ComplexArray(2), 4);
+    }
+
+    @Test
+    public void outputBufferFftTest() {
+        double[] output = new double[2 * doubleArray.length];
+        ComplexAdditions.fft(doubleArray, output);
+        for (int i = 0; i < doubleArray.length; i++) {
+            Assert.assertTrue(
+                    Complex.equals(new Complex(output[2 * i], output[2 * i + 1]), doubleFftResult.get(i), EPS));
+        }
+        ComplexAdditions.ifft(doubleArray, output);
+        for (int i = 0; i < doubleArray.length; i++) {
+            Assert.assertTrue(
+                    Complex.equals(new Complex(output[2 * i], output[2 * i + 1]), doubleIfftResult.get(i), EPS));
+        }
+
+        ComplexArray input = ComplexArray.valueOf(complexList1);
+        ComplexArray complexOutput = new ComplexArray(new double[2 + 2 * complexList1.size()], 2, complexList1.size());
+        ComplexAdditions.fft(input, complexOutput);
+        Assert.assertEquals(complexOutput.toList(), fftResultList);
+        ComplexAdditions.ifft(input, complexOutput);
+        Assert.assertEquals(complexOutput.toList(), ifftResultList);
+        Assert.assertEquals(input.toList(), complexList1);
+    }
+
+    @Test
+    public void inPlaceFftTest() {
+        double[] interleavedData = ComplexArray.valueOf(complexList1).getData();
+        ComplexAdditions.fftInPlace(interleavedData);
+        Assert.assertEquals(new ComplexArray(interleavedData).toList(), fftResultList);
+        ComplexAdditions.ifftInPlace(interleavedData);
+        for (int i = 0; i < complexList1.size(); i++) {
+            Assert.assertTrue(Complex.equals(new ComplexArray(interleavedData).get(i), complexList1.get(i), EPS));
+        }
+    }
+
+    @Test
+    public void outputBufferRealFftTest() {
+        double[] signal = new double[] { 1, -2, 3, 4, 0.5, 7 };
+        double[] data = new double[] { 9, 9, 9, 9, 9, 9, 9, 9, 9, 9 };
+        ComplexArray halfSpectrum = new ComplexArray(data, 2, signal.length / 2 + 1);
+        ComplexAdditions.realFft(signal, halfSpectrum);
+        Assert.assertEquals(halfSpectrum.toList(), ComplexAdditions.realFft(signal).toList());
+        Assert.assertEquals(data[0], 9.0);
+
+        double[] output = new double[signal.length];
+        ComplexAdditions.realIfft(halfSpectrum, output);
+        for (int i = 0; i < signal.length; i++) {
+            Assert.assertEquals(output[i], signal[i], EPS);
+        }
+    }
+
+    @Test
+    public void windowedFftTest() {
+        Window window = Window.hann(doubleArray.length);
+        double[] windowedArray = new double[doubleArray.length];
+        for (int i = 0; i < doubleArray.length; i++) {
+            windowedArray[i] = doubleArray[i] * window.get(i);
+        }
+        Assert.assertEquals(ComplexAdditions.fft(doubleArray, window), ComplexAdditions.fft(windowedArray));
+        Assert.assertEquals(ComplexAdditions.realFft(doubleArray, window).toList(),
+                ComplexAdditions.realFft(windowedArray).toList());
+
+        ComplexArray complexArray = ComplexArray.valueOf(complexList1);
+        Window hamming = Window.hamming(complexArray.length());
+        ComplexArray windowedComplexArray = new ComplexArray(complexArray.length());
+        for (int i = 0; i < complexArray.length(); i++) {
+            windowedComplexArray.set(i, complexArray.get(i).multiply(hamming.get(i)));
+        }
+        Assert.assertEquals(ComplexAdditions.fft(complexArray, hamming).toList(),
+                ComplexAdditions.fft(windowedComplexArray).toList());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void windowedFftExceptionTest() {
+        ComplexAdditions.realFft(doubleArray, Window.hann(doubleArray.length + 1));
+    }
+
+    @Test
+    public void multidimensionalFftTest() {
+        double[] data = new double[2 * 3 * 4 * 5];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Math.sin(i) + i % 7;
+        }
+        double[] expected = data.clone();
+        new DoubleFFT_2D(3, 20).complexForward(expected);
+        double[] actual = data.clone();
+        ComplexAdditions.fft2InPlace(actual, 3, 20);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(actual[i], expected[i], EPS);
+        }
+        ComplexAdditions.ifft2InPlace(actual, 3, 20);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(actual[i], data[i], EPS);
+        }
+
+        expected = data.clone();
+        new DoubleFFT_3D(3, 4, 5).complexForward(expected);
+        ComplexAdditions.fft3InPlace(actual, 3, 4, 5);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(actual[i], expected[i], EPS);
+        }
+        ComplexAdditions.ifft3InPlace(actual, 3, 4, 5);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(actual[i], data[i], EPS);
+        }
+    }
+
+    @Test
+    public void floatFftTest() {
+        double[][] signals = new double[][] { doubleArray, { 1, -2, 3, 4 }, { 2.5 }, { 1, 2, 3, 4, 5, 6, 7 } };
+        for (double[] signal : signals) {
+            float[] floatSignal = new float[signal.length];
+            for (int i = 0; i < signal.length; i++) {
+                floatSignal[i] = (float) signal[i];
+            }
+            ComplexArray expectedHalfSpectrum = ComplexAdditions.realFft(signal);
+            float[] halfSpectrum = ComplexAdditions.realFft(floatSignal);
+            Assert.assertEquals(halfSpectrum.length, 2 * expectedHalfSpectrum.length());
+            for (int i = 0; i < halfSpectrum.length; i++) {
+                Assert.assertEquals(halfSpectrum[i], expectedHalfSpectrum.getData()[i], FLOAT_EPS);
+            }
+            float[] output = ComplexAdditions.realIfft(halfSpectrum, signal.length);
+            for (int i = 0; i < signal.length; i++) {
+                Assert.assertEquals(output[i], floatSignal[i], FLOAT_EPS);
+            }
+
+            double[] interleavedSignal = ComplexArray.valueOf(signal).toInterleavedArray();
+            float[] interleavedFloatSignal = new float[interleavedSignal.length];
+            for (int i = 0; i < interleavedSignal.length; i++) {
+                interleavedFloatSignal[i] = (float) interleavedSignal[i];
+            }
+            ComplexAdditions.fftInPlace(interleavedSignal);
+            ComplexAdditions.fftInPlace(interleavedFloatSignal);
+            for (int i = 0; i < interleavedSignal.length; i++) {
+                Assert.assertEquals(interleavedFloatSignal[i], interleavedSignal[i], FLOAT_EPS);
+            }
+            ComplexAdditions.ifftInPlace(interleavedFloatSignal);
+            for (int i = 0; i < signal.length; i++) {
+                Assert.assertEquals(interleavedFloatSignal[2 * i], floatSignal[i], FLOAT_EPS);
+                Assert.assertEquals(interleavedFloatSignal[2 * i + 1], 0, FLOAT_EPS);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void floatRealFftExceptionTest() {
+        ComplexAdditions.realFft(new float[4], new float[4]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outputBufferFftExceptionTest() {
+        ComplexAdditions.fft(doubleArray, new double[doubleArray.length]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void inPlaceFftExceptionTest() {
+        ComplexAdditions.fftInPlace(new double[3]);
+    }
+
+    private static long allocatedBytes(Runnable action) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            throw new SkipException("Thread allocation counters not supported");
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        long threadId = Thread.currentThread().getId();
+        // Minimum of repeated runs, so allocations of warm up and class loading do not count
+        long minimumAllocated = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            long allocatedBefore = allocationBean.getThreadAllocatedBytes(threadId);
+            action.run();
+            minimumAllocated = Math.min(minimumAllocated,
+                    allocationBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+        }
+        return minimumAllocated;
+    }
+
+    private static void computeStatistics(List<Complex> list1, List<Complex> list2) {
+        ComplexAdditions.sum(list1);
+        ComplexAdditions.mean(list2);
+        ComplexAdditions.dotProduct(list1, list2);
+        ComplexAdditions.covariance(list1, list2);
+        ComplexAdditions.variance(list1);
+        ComplexAdditions.pearsonCorrelation(list1, list2);
+    }
+
 }
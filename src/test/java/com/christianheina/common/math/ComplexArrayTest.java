@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ComplexArray}.
+ * 
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ComplexArrayTest {
+
+    private static final List<Complex> COMPLEX_LIST = Arrays
+            .asList(new Complex[] { new Complex(1, 2), new Complex(3, 4), new Complex(5, 6) });
+
+    @Test
+    public void valueOfListTest() {
+        ComplexArray complexArray = ComplexArray.valueOf(COMPLEX_LIST);
+        Assert.assertEquals(complexArray.length(), COMPLEX_LIST.size());
+        Assert.assertEquals(complexArray.getOffset(), 0);
+        Assert.assertEquals(complexArray.getData(), new double[] { 1, 2, 3, 4, 5, 6 });
+        Assert.assertEquals(complexArray.toList(), COMPLEX_LIST);
+        Assert.assertEquals(complexArray.toArray(), COMPLEX_LIST.toArray(new Complex[0]));
+    }
+
+    @Test
+    public void valueOfDoubleArrayTest() {
+        ComplexArray complexArray = ComplexArray.valueOf(new double[] { 1, 2 });
+        Assert.assertEquals(complexArray.toInterleavedArray(), new double[] { 1, 0, 2, 0 });
+    }
+
+    @Test
+    public void offsetTest() {
+        double[] data = new double[] { -1, 1, 2, 3, 4, -1 };
+        ComplexArray complexArray = new ComplexArray(data, 1, 2);
+        Assert.assertEquals(complexArray.get(0), new Complex(1, 2));
+        Assert.assertEquals(complexArray.getReal(1), 3.0);
+        Assert.assertEquals(complexArray.getImaginary(1), 4.0);
+        Assert.assertEquals(complexArray.toInterleavedArray(), new double[] { 1, 2, 3, 4 });
+
+        complexArray.set(1, new Complex(7, 8));
+        Assert.assertEquals(data, new double[] { -1, 1, 2, 7, 8, -1 });
+    }
+
+    @Test
+    public void subArrayTest() {
+        ComplexArray complexArray = ComplexArray.valueOf(COMPLEX_LIST);
+        ComplexArray view = complexArray.subArray(1, 2);
+        Assert.assertEquals(view.length(), 2);
+        Assert.assertEquals(view.get(0), COMPLEX_LIST.get(1));
+        view.set(1, 0, 0);
+        Assert.assertEquals(complexArray.get(2), Complex.ZERO);
+    }
+
+    @Test
+    public void copyTest() {
+        ComplexArray complexArray = new ComplexArray(new double[] { 0, 0, 1, 2 }, 2, 1);
+        ComplexArray copy = complexArray.copy();
+        Assert.assertEquals(copy.getOffset(), 0);
+        Assert.assertEquals(copy.getData(), new double[] { 1, 2 });
+        copy.set(0, 0, 0);
+        Assert.assertEquals(complexArray.get(0), new Complex(1, 2));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void oddInterleavedLengthExceptionTest() {
+        new ComplexArray(new double[3]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthOverflowExceptionTest() {
+        new ComplexArray(Integer.MAX_VALUE / 2 + 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outOfRangeExceptionTest() {
+        new ComplexArray(new double[4], 2, 2);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void indexExceptionTest() {
+        new ComplexArray(new double[] { 1, 2, 3, 4 }, 0, 1).get(1);
+    }
+
+}
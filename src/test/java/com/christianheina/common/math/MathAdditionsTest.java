@@ -16,13 +16,19 @@
 
 package com.christianheina.common.math;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.christianheina.common.math.statistics.PairStatistics;
+import com.christianheina.common.math.statistics.QuantileSketch;
+
 /**
  * Unit test for {@link MathAdditions}.
  * 
@@ -114,6 +120,105 @@ public class MathAdditionsTest {
         Assert.assertEquals(Math.sqrt(MathAdditions.variance(DOUBLE_LIST_4)), stdB, 1e-9);
     }
 
+    @Test
+    public void pairStatisticsTest() {
+        PairStatistics statistics = MathAdditions.pairStatistics(DOUBLE_LIST_1, DOUBLE_LIST_2);
+        Assert.assertEquals(statistics.getCount(), 3);
+        Assert.assertEquals(statistics.getMean1(), 10.0, 1e-9);
+        Assert.assertEquals(statistics.getMean2(), 0.0, 1e-9);
+        Assert.assertEquals(statistics.getVariance1(), 25.0, 1e-9);
+        Assert.assertEquals(statistics.getVariance2(), 175.0, 1e-9);
+        Assert.assertEquals(statistics.getStandardDeviation1(), 5.0, 1e-9);
+        Assert.assertEquals(statistics.getCovariance(), -50.0, 1e-9);
+        Assert.assertEquals(statistics.getCorrelation(), -50.0 / (5.0 * Math.sqrt(175.0)), 1e-9);
+        Assert.assertEquals(statistics.getCovariance(), MathAdditions.covariance(DOUBLE_LIST_2, DOUBLE_LIST_1), 1e-9);
+    }
+
+    @Test
+    public void pairStatisticsOffsetTest() {
+        // Values far from zero with small spread cancel catastrophically in a sum of squares formulation
+        List<Double> shifted1 = new ArrayList<>();
+        List<Double> shifted2 = new ArrayList<>();
+        for (int i = 0; i < DOUBLE_LIST_3.size(); i++) {
+            shifted1.add(DOUBLE_LIST_3.get(i) + 1e9);
+            shifted2.add(DOUBLE_LIST_4.get(i) - 1e9);
+        }
+        PairStatistics statistics = MathAdditions.pairStatistics(shifted1, shifted2);
+        Assert.assertEquals(statistics.getVariance1(), 1.3333333333333333, 1e-6);
+        Assert.assertEquals(statistics.getVariance2(), 1.3333333333333333, 1e-6);
+        Assert.assertEquals(statistics.getCorrelation(), 0.0, 1e-6);
+        Assert.assertEquals(MathAdditions.variance(shifted1), 1.3333333333333333, 1e-6);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void pairStatisticsExceptionTest() {
+        MathAdditions.pairStatistics(DOUBLE_LIST_3, EMPTY_LIST);
+    }
+
+    @Test
+    public void arrayStatisticsTest() {
+        // Odd length exercises the remainder of the unrolled loops
+        Random random = new Random(11);
+        int length = 1003;
+        double[] array1 = new double[length + 5];
+        double[] array2 = new double[length + 2];
+        List<Double> list1 = new ArrayList<>();
+        List<Double> list2 = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            array1[i + 5] = 3 + random.nextGaussian();
+            array2[i + 2] = 0.5 * array1[i + 5] + random.nextGaussian();
+            list1.add(array1[i + 5]);
+            list2.add(array2[i + 2]);
+        }
+        double[] exact1 = Arrays.copyOfRange(array1, 5, length + 5);
+        double[] exact2 = Arrays.copyOfRange(array2, 2, length + 2);
+        DoubleBuffer heap1 = DoubleBuffer.wrap(array1, 5, length);
+        DoubleBuffer heap2 = DoubleBuffer.wrap(array2, 2, length).slice();
+        DoubleBuffer direct1 = ByteBuffer.allocateDirect(8 * (length + 1)).asDoubleBuffer();
+        direct1.put(0).put(exact1).flip().position(1);
+        DoubleBuffer direct2 = ByteBuffer.allocateDirect(8 * length).asDoubleBuffer().put(exact2);
+        direct2.flip();
+
+        assertArrayStatistic(MathAdditions.sum(list1), MathAdditions.sum(exact1), MathAdditions.sum(array1, 5, length),
+                MathAdditions.sum(heap1), MathAdditions.sum(direct1));
+        assertArrayStatistic(MathAdditions.mean(list2), MathAdditions.mean(exact2),
+                MathAdditions.mean(array2, 2, length), MathAdditions.mean(heap2), MathAdditions.mean(direct2));
+        assertArrayStatistic(MathAdditions.variance(list1), MathAdditions.variance(exact1),
+                MathAdditions.variance(array1, 5, length), MathAdditions.variance(heap1),
+                MathAdditions.variance(direct1));
+        assertArrayStatistic(MathAdditions.standardDeviation(list2), MathAdditions.standardDeviation(exact2),
+                MathAdditions.standardDeviation(array2, 2, length), MathAdditions.standardDeviation(heap2),
+                MathAdditions.standardDeviation(direct2));
+        assertArrayStatistic(MathAdditions.dotProduct(list1, list2), MathAdditions.dotProduct(exact1, exact2),
+                MathAdditions.dotProduct(array1, 5, array2, 2, length), MathAdditions.dotProduct(heap1, heap2),
+                MathAdditions.dotProduct(direct1, direct2));
+        assertArrayStatistic(MathAdditions.covariance(list1, list2), MathAdditions.covariance(exact1, exact2),
+                MathAdditions.covariance(array1, 5, array2, 2, length), MathAdditions.covariance(heap1, heap2),
+                MathAdditions.covariance(direct1, direct2));
+        assertArrayStatistic(MathAdditions.pearsonCorrelation(list1, list2),
+                MathAdditions.pearsonCorrelation(exact1, exact2),
+                MathAdditions.pearsonCorrelation(array1, 5, array2, 2, length),
+                MathAdditions.pearsonCorrelation(heap1, direct2), MathAdditions.pearsonCorrelation(direct1, heap2));
+        Assert.assertEquals(MathAdditions.pairStatistics(exact1, exact2).getCount(), length);
+        Assert.assertEquals(direct1.position(), 1);
+        Assert.assertEquals(heap1.position(), 5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void arrayRangeExceptionTest() {
+        MathAdditions.sum(new double[4], 2, 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void arrayLengthExceptionTest() {
+        MathAdditions.covariance(new double[4], new double[3]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bufferLengthExceptionTest() {
+        MathAdditions.dotProduct(DoubleBuffer.allocate(4), DoubleBuffer.allocate(3));
+    }
+
     @Test
     public void sumTest() {
         Assert.assertEquals(30.0, MathAdditions.sum(DOUBLE_LIST_1), 1e-9);
@@ -126,4 +231,25 @@ public class MathAdditionsTest {
         Assert.assertEquals(0.0, MathAdditions.mean(DOUBLE_LIST_2), 1e-9);
     }
 
+    @Test
+    public void quantileSketchTest() {
+        // Small inputs are retained exactly
+        Assert.assertEquals(MathAdditions.quantileSketch(DOUBLE_LIST_1).getQuantile(0.5), 10.0);
+        double[] values = { 4, 1, 3, 2, 5 };
+        Assert.assertEquals(MathAdditions.quantileSketch(values).getQuantile(0.5), 3.0);
+        Assert.assertEquals(MathAdditions.quantileSketch(values, 1, 3).getMax(), 3.0);
+        DoubleBuffer buffer = ByteBuffer.allocateDirect(5 * Double.BYTES).asDoubleBuffer().put(values);
+        buffer.position(1);
+        QuantileSketch sketch = MathAdditions.quantileSketch(buffer);
+        Assert.assertEquals(sketch.getCount(), 4);
+        Assert.assertEquals(sketch.getMin(), 1.0);
+        Assert.assertEquals(buffer.position(), 1);
+    }
+
+    private static void assertArrayStatistic(double expected, double... actual) {
+        for (double value : actual) {
+            Assert.assertEquals(value, expected, 1e-9 * Math.max(1, Math.abs(expected)));
+        }
+    }
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math;
+
+import java.util.Random;
+
+/**
+ * Seeded random test data shared by unit tests, so expected values are reproducible between runs.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class TestData {
+
+    private TestData() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Create standard normal distributed values
+     *
+     * @param length
+     *            number of values
+     * @param seed
+     *            seed of random generator
+     *
+     * @return new array of values
+     */
+    public static double[] createRandom(int length, long seed) {
+        return createRandom(length, seed, 0, 1);
+    }
+
+    /**
+     * Create normal distributed values
+     *
+     * @param length
+     *            number of values
+     * @param seed
+     *            seed of random generator
+     * @param mean
+     *            mean of distribution
+     * @param standardDeviation
+     *            standard deviation of distribution
+     *
+     * @return new array of values
+     */
+    public static double[] createRandom(int length, long seed, double mean, double standardDeviation) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = mean + standardDeviation * random.nextGaussian();
+        }
+        return values;
+    }
+
+}
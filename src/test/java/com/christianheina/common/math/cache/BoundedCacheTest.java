@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link BoundedCache}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void hitAndMissTest() {
+        AtomicInteger created = new AtomicInteger();
+        BoundedCache<String, StringBuilder> cache = new BoundedCache<>(4, key -> {
+            created.incrementAndGet();
+            return new StringBuilder(key);
+        });
+        StringBuilder value = cache.get("a");
+        Assert.assertSame(cache.get("a"), value);
+        Assert.assertEquals(created.get(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitCount(), 1);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getMissCount(), 0);
+        Assert.assertNotSame(cache.get("a"), value);
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() {
+        BoundedCache<String, StringBuilder> cache = new BoundedCache<>(2, StringBuilder::new);
+        StringBuilder a = cache.get("a");
+        StringBuilder b = cache.get("b");
+        cache.get("a");
+        cache.get("c");
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertSame(cache.get("a"), a);
+        Assert.assertNotSame(cache.get("b"), b);
+
+        cache.setMaximumSize(1);
+        Assert.assertEquals(cache.getMaximumSize(), 1);
+        Assert.assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void concurrentAccessTest() throws Exception {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3, String::valueOf);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        Assert.assertEquals(cache.get(i % 5), String.valueOf(i % 5));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(cache.size() <= 3);
+        Assert.assertEquals(cache.getHitCount() + cache.getMissCount(), 8000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void maximumSizeExceptionTest() {
+        new BoundedCache<String, String>(0, key -> key);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+
+import pl.edu.icm.jlargearrays.ConcurrencyUtils;
+
+/**
+ * Unit test for {@link BatchFft}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class BatchFftTest {
+
+    private static final double EPS = 1e-9;
+    private static final int FRAME_LENGTH = 12;
+    private static final int FRAME_COUNT = 37;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void framesTest() {
+        double[][] frames = createFrames();
+        double[][] expected = copy(frames);
+        int numberOfThreads = ConcurrencyUtils.getNumberOfThreads();
+
+        new BatchFft(FRAME_LENGTH, pool).fftInPlace(frames);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            ComplexAdditions.fftInPlace(expected[i]);
+            Assert.assertEquals(frames[i], expected[i], EPS);
+        }
+
+        new BatchFft(FRAME_LENGTH, pool).ifftInPlace(frames);
+        double[][] original = createFrames();
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            Assert.assertEquals(frames[i], original[i], EPS);
+        }
+        Assert.assertEquals(ConcurrencyUtils.getNumberOfThreads(), numberOfThreads);
+    }
+
+    @Test
+    public void stridedBufferTest() {
+        int offset = 3;
+        int stride = 2 * FRAME_LENGTH + 5;
+        double[][] frames = createFrames();
+        double[] buffer = new double[offset + FRAME_COUNT * stride];
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            System.arraycopy(frames[i], 0, buffer, offset + i * stride, 2 * FRAME_LENGTH);
+        }
+
+        BatchFft batchFft = new BatchFft(FRAME_LENGTH, pool);
+        batchFft.fftInPlace(buffer, offset, FRAME_COUNT, stride);
+        batchFft.fftInPlace(frames);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            for (int j = 0; j < 2 * FRAME_LENGTH; j++) {
+                Assert.assertEquals(buffer[offset + i * stride + j], frames[i][j], EPS);
+            }
+            Assert.assertEquals(buffer[offset + i * stride + 2 * FRAME_LENGTH], 0.0);
+        }
+
+        batchFft.ifftInPlace(buffer, offset, FRAME_COUNT, stride);
+        double[][] original = createFrames();
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            for (int j = 0; j < 2 * FRAME_LENGTH; j++) {
+                Assert.assertEquals(buffer[offset + i * stride + j], original[i][j], EPS);
+            }
+        }
+    }
+
+    @Test
+    public void singleThreadedPoolTest() {
+        ForkJoinPool singleThreadedPool = new ForkJoinPool(1);
+        try {
+            double[][] frames = createFrames();
+            double[][] expected = copy(frames);
+            new BatchFft(FRAME_LENGTH, singleThreadedPool).fftInPlace(frames);
+            for (int i = 0; i < FRAME_COUNT; i++) {
+                ComplexAdditions.fftInPlace(expected[i]);
+                Assert.assertEquals(frames[i], expected[i], EPS);
+            }
+        } finally {
+            singleThreadedPool.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void frameSizeExceptionTest() {
+        new BatchFft(FRAME_LENGTH).fftInPlace(new double[][] { new double[2 * FRAME_LENGTH], new double[3] });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void strideExceptionTest() {
+        new BatchFft(FRAME_LENGTH).fftInPlace(new double[10 * FRAME_LENGTH], 0, 2, FRAME_LENGTH);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bufferSizeExceptionTest() {
+        new BatchFft(FRAME_LENGTH).fftInPlace(new double[4 * FRAME_LENGTH], 1, 2, 2 * FRAME_LENGTH);
+    }
+
+    private static double[][] createFrames() {
+        Random random = new Random(42);
+        double[][] frames = new double[FRAME_COUNT][2 * FRAME_LENGTH];
+        for (double[] frame : frames) {
+            for (int i = 0; i < frame.length; i++) {
+                frame[i] = random.nextGaussian();
+            }
+        }
+        return frames;
+    }
+
+    private static double[][] copy(double[][] frames) {
+        double[][] copy = new double[frames.length][];
+        for (int i = 0; i < frames.length; i++) {
+            copy[i] = frames[i].clone();
+        }
+        return copy;
+    }
+
+}
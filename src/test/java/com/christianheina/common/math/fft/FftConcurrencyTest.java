@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jtransforms.utils.CommonUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.TestData;
+
+import pl.edu.icm.jlargearrays.ConcurrencyUtils;
+
+/**
+ * Unit test for {@link FftConcurrency}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class FftConcurrencyTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LARGE_LENGTH = 1 << 16;
+
+    @Test
+    public void nestedSequentialTest() {
+        CountingExecutor executor = new CountingExecutor();
+        try {
+            double[] data = TestData.createRandom(2 * LARGE_LENGTH, 7);
+            double[] expected = data.clone();
+            ComplexAdditions.fftInPlace(expected);
+
+            new FftConcurrency(4, 0, executor).run(() -> {
+                JTransformsThreads.enterSequential();
+                try {
+                    ComplexAdditions.fftInPlace(data);
+                } finally {
+                    JTransformsThreads.exitSequential();
+                }
+                Assert.assertEquals(executor.submitted.get(), 0);
+                FftConcurrency.sequential().run(() -> ComplexAdditions.ifftInPlace(data));
+                Assert.assertEquals(executor.submitted.get(), 0);
+                ComplexAdditions.fftInPlace(data);
+            });
+            Assert.assertTrue(executor.submitted.get() > 0);
+            Assert.assertEquals(data, expected, EPS * LARGE_LENGTH);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void executorTest() {
+        CountingExecutor executor = new CountingExecutor();
+        try {
+            double[] data = TestData.createRandom(2 * 8192, 7);
+            double[] expected = data.clone();
+            FftConcurrency.sequential().run(() -> ComplexAdditions.fftInPlace(expected));
+
+            new FftConcurrency(2, 1024, executor).run(() -> ComplexAdditions.fftInPlace(data));
+            Assert.assertTrue(executor.submitted.get() > 0);
+            // Calling thread runs one of two parts itself, and the other if the executor has not started it yet
+            Assert.assertTrue(executor.maximumRunning.get() <= 1);
+            Assert.assertEquals(data, expected, EPS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void minimumParallelSizeTest() {
+        CountingExecutor executor = new CountingExecutor();
+        try {
+            double[] data = TestData.createRandom(2 * LARGE_LENGTH, 7);
+            new FftConcurrency(4, 2 * LARGE_LENGTH, executor).run(() -> ComplexAdditions.fftInPlace(data));
+            Assert.assertEquals(executor.submitted.get(), 0);
+            new FftConcurrency(4, LARGE_LENGTH, executor).run(() -> ComplexAdditions.fftInPlace(data));
+            Assert.assertTrue(executor.submitted.get() > 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void concurrentConfigurationsTest() throws InterruptedException {
+        // Tasks with different configurations overlap instead of waiting for each other
+        CountDownLatch firstEntered = new CountDownLatch(1);
+        CountDownLatch secondEntered = new CountDownLatch(1);
+        Thread first = new Thread(() -> new FftConcurrency(2).run(() -> {
+            firstEntered.countDown();
+            awaitUninterruptibly(secondEntered);
+        }));
+        Thread second = new Thread(() -> FftConcurrency.sequential().run(() -> {
+            secondEntered.countDown();
+            awaitUninterruptibly(firstEntered);
+        }));
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+    }
+
+    @Test(timeOut = 10000)
+    public void waitForOtherThreadTest() throws Exception {
+        // Task waiting for transforms of another thread that distributes frames over its own pool
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            double[][] frames = new double[16][];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = TestData.createRandom(2 * 64, 7);
+            }
+            new FftConcurrency(2).run(() -> {
+                try {
+                    other.submit(() -> new BatchFft(64, pool).fftInPlace(frames)).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            other.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void globalSettingsRestoredTest() {
+        ExecutorService pool = ConcurrencyUtils.getThreadPool();
+        int numberOfThreads = ConcurrencyUtils.getNumberOfThreads();
+        long threadsBegin2Threads = CommonUtils.getThreadsBeginN_1D_FFT_2Threads();
+        long threadsBegin4Threads = CommonUtils.getThreadsBeginN_1D_FFT_4Threads();
+        CountingExecutor executor = new CountingExecutor();
+        try {
+            double[] data = TestData.createRandom(2 * 8192, 7);
+            new FftConcurrency(numberOfThreads + 4, 1024, executor).run(() -> {
+                Assert.assertNotSame(ConcurrencyUtils.getThreadPool(), pool);
+                ComplexAdditions.fftInPlace(data);
+            });
+            FftConcurrency.setDefault(new FftConcurrency(numberOfThreads + 2, 512));
+            ComplexAdditions.fftInPlace(data);
+            FftConcurrency.setDefault(null);
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertSame(ConcurrencyUtils.getThreadPool(), pool);
+        Assert.assertEquals(ConcurrencyUtils.getNumberOfThreads(), numberOfThreads);
+        Assert.assertEquals(CommonUtils.getThreadsBeginN_1D_FFT_2Threads(), threadsBegin2Threads);
+        Assert.assertEquals(CommonUtils.getThreadsBeginN_1D_FFT_4Threads(), threadsBegin4Threads);
+    }
+
+    @Test(timeOut = 10000)
+    public void callerExecutorTest() throws Exception {
+        // Transform running on the only thread of its own executor runs the parts that thread can not start
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            double[] data = TestData.createRandom(2 * LARGE_LENGTH, 7);
+            double[] expected = data.clone();
+            FftConcurrency.sequential().run(() -> ComplexAdditions.fftInPlace(expected));
+            executor.submit(() -> new FftConcurrency(4, 0, executor).run(() -> ComplexAdditions.fftInPlace(data)))
+                    .get();
+            Assert.assertEquals(data, expected, EPS * LARGE_LENGTH);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void equalsTest() {
+        Assert.assertEquals(new FftConcurrency(1), FftConcurrency.sequential());
+        Assert.assertEquals(new FftConcurrency(4, 2048).hashCode(), new FftConcurrency(4, 2048).hashCode());
+        Assert.assertNotEquals(new FftConcurrency(4, 2048), new FftConcurrency(4));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void numberOfThreadsExceptionTest() {
+        new FftConcurrency(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void minimumParallelSizeExceptionTest() {
+        new FftConcurrency(2, -1);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CountingExecutor extends ThreadPoolExecutor {
+
+        private final AtomicInteger submitted = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maximumRunning = new AtomicInteger();
+
+        private CountingExecutor() {
+            super(4, 4, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            submitted.incrementAndGet();
+            super.execute(() -> {
+                maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    command.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+}
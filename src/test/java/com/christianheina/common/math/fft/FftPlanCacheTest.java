@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link FftPlanCache}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class FftPlanCacheTest {
+
+    @Test
+    public void hitAndMissTest() {
+        FftPlanCache<DoubleFFT_1D> cache = new FftPlanCache<>(4, DoubleFFT_1D::new);
+        DoubleFFT_1D plan = cache.get(16);
+        Assert.assertSame(cache.get(16), plan);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.size(), 1);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getHitCount(), 0);
+        Assert.assertNotSame(cache.get(16), plan);
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() {
+        FftPlanCache<DoubleFFT_1D> cache = new FftPlanCache<>(2, DoubleFFT_1D::new);
+        DoubleFFT_1D plan8 = cache.get(8);
+        cache.get(16);
+        cache.get(8);
+        cache.get(32);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertSame(cache.get(8), plan8);
+        Assert.assertEquals(cache.getMissCount(), 3);
+
+        cache.setMaximumSize(1);
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertSame(cache.get(8), plan8);
+    }
+
+    @Test
+    public void concurrentAccessTest() throws Exception {
+        FftPlanCache<DoubleFFT_1D> cache = new FftPlanCache<>(3, DoubleFFT_1D::new);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        Assert.assertNotNull(cache.get(1 + i % 5));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(cache.size() <= 3);
+        Assert.assertEquals(cache.getHitCount() + cache.getMissCount(), 8000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void maximumSizeExceptionTest() {
+        new FftPlanCache<>(0, DoubleFFT_1D::new);
+    }
+
+    @Test
+    public void sharedCacheTest() {
+        Assert.assertSame(FftPlanCache.doubleFft1d(12), FftPlanCache.doubleFft1dCache().get(12));
+        Assert.assertSame(FftPlanCache.floatFft1d(12), FftPlanCache.floatFft1dCache().get(12));
+    }
+
+}
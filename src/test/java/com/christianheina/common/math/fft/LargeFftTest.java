@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+import pl.edu.icm.jlargearrays.DoubleLargeArray;
+import pl.edu.icm.jlargearrays.LargeArray;
+
+/**
+ * Unit test for {@link LargeFft}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class LargeFftTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void complexFftTest() {
+        double[] interleavedData = TestData.createRandom(2 * 24, 3);
+        DoubleLargeArray largeArray = new DoubleLargeArray(interleavedData.clone());
+        LargeFft.fftInPlace(largeArray);
+        ComplexArray expected = ComplexAdditions.fft(new ComplexArray(interleavedData));
+        assertEquals(largeArray, expected.toInterleavedArray());
+
+        LargeFft.ifftInPlace(largeArray);
+        assertEquals(largeArray, interleavedData);
+    }
+
+    @Test
+    public void realFftTest() {
+        for (int length : new int[] { 1, 2, 15, 16 }) {
+            double[] signal = TestData.createRandom(length, 3);
+            DoubleLargeArray halfSpectrum = LargeFft.realFft(new DoubleLargeArray(signal.clone()));
+            assertEquals(halfSpectrum, ComplexAdditions.realFft(signal).toInterleavedArray());
+            assertEquals(LargeFft.realIfft(halfSpectrum, length), signal);
+        }
+    }
+
+    @Test
+    public void nativeMemoryTest() {
+        try {
+            Class.forName("sun.misc.Cleaner");
+        } catch (ClassNotFoundException e) {
+            throw new SkipException("JLargeArrays native memory requires sun.misc.Cleaner (Java 8)");
+        }
+        int maxSizeOf32bitArray = LargeArray.getMaxSizeOf32bitArray();
+        LargeArray.setMaxSizeOf32bitArray(256);
+        try {
+            // Length not used by other tests, so the cached plan is created for native memory arrays
+            double[] interleavedData = TestData.createRandom(2 * 1021, 3);
+            DoubleLargeArray largeArray = LargeFft.toLargeArray(DoubleBuffer.wrap(interleavedData));
+            Assert.assertTrue(largeArray.isLarge());
+            LargeFft.fftInPlace(largeArray);
+            assertEquals(largeArray, ComplexAdditions.fft(new ComplexArray(interleavedData)).toInterleavedArray());
+        } finally {
+            LargeArray.setMaxSizeOf32bitArray(maxSizeOf32bitArray);
+        }
+    }
+
+    @Test
+    public void nativeMemoryUnavailableTest() {
+        try {
+            Class.forName("sun.misc.Cleaner");
+            throw new SkipException("JLargeArrays native memory is available (Java 8)");
+        } catch (ClassNotFoundException e) {
+            // Expected on Java 9 and later
+        }
+        int maxSizeOf32bitArray = LargeArray.getMaxSizeOf32bitArray();
+        LargeArray.setMaxSizeOf32bitArray(256);
+        try {
+            DoubleBuffer segment = DoubleBuffer.wrap(TestData.createRandom(2 * 1021, 3));
+            Assert.assertThrows(IllegalStateException.class, () -> LargeFft.fft(segment));
+            Assert.assertThrows(IllegalStateException.class, () -> LargeFft.toLargeArray(segment));
+            Assert.assertThrows(IllegalStateException.class, () -> LargeFft.realFft(new DoubleLargeArray(256)));
+            // Arrays within the 32 bit limit are still transformed
+            LargeFft.fftInPlace(new DoubleLargeArray(TestData.createRandom(2 * 64, 3)));
+        } finally {
+            LargeArray.setMaxSizeOf32bitArray(maxSizeOf32bitArray);
+        }
+    }
+
+    @Test
+    public void mappedSegmentsTest() throws IOException {
+        double[] interleavedData = TestData.createRandom(2 * 40, 3);
+        ComplexArray expected = ComplexAdditions.fft(new ComplexArray(interleavedData));
+        Path file = Files.createTempFile("large-fft", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long halfSize = 8L * interleavedData.length / 2;
+            DoubleBuffer first = channel.map(FileChannel.MapMode.READ_WRITE, 0, halfSize).asDoubleBuffer();
+            DoubleBuffer second = channel.map(FileChannel.MapMode.READ_WRITE, halfSize, halfSize).asDoubleBuffer();
+            first.put(interleavedData, 0, interleavedData.length / 2).flip();
+            second.put(interleavedData, interleavedData.length / 2, interleavedData.length / 2).flip();
+
+            DoubleLargeArray spectrum = LargeFft.fft(first, second);
+            assertEquals(spectrum, expected.toInterleavedArray());
+            Assert.assertEquals(first.position(), 0);
+
+            LargeFft.copyTo(spectrum, first, second);
+            assertEquals(LargeFft.toLargeArray(first, second), expected.toInterleavedArray());
+            assertEquals(LargeFft.ifft(first, second), interleavedData);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void segmentedFftTest() {
+        for (int length : new int[] { 1, 7, 24, 100, 1000 }) {
+            double[] interleavedData = TestData.createRandom(2 * length, 3);
+            double[] expected = ComplexAdditions.fft(new ComplexArray(interleavedData)).toInterleavedArray();
+            // Uneven segments, splitting complex values, and blocks smaller than a row or column
+            for (int blockLength : new int[] { 1, 5, 1 << 16 }) {
+                DoubleBuffer[] input = split(interleavedData.clone(), 3);
+                DoubleBuffer[] output = split(new double[2 * length], 5);
+                LargeFft.segmentedTransform(input, output, false, blockLength);
+                assertEquals(output, expected);
+                assertEquals(input, interleavedData);
+
+                DoubleBuffer[] restored = split(new double[2 * length], 4);
+                LargeFft.segmentedTransform(output, restored, true, blockLength);
+                assertEquals(restored, interleavedData);
+            }
+        }
+    }
+
+    @Test
+    public void segmentedFftBeyondArrayLimitTest() {
+        double[] interleavedData = TestData.createRandom(2 * 1024, 3);
+        double[] expected = ComplexAdditions.fft(new ComplexArray(interleavedData)).toInterleavedArray();
+        int maxSizeOf32bitArray = LargeArray.getMaxSizeOf32bitArray();
+        LargeArray.setMaxSizeOf32bitArray(256);
+        try {
+            // 1024 values are split into 32 rows of 32, both within the limit, on any runtime
+            DoubleBuffer[] output = split(new double[interleavedData.length], 3);
+            LargeFft.segmentedFft(split(interleavedData, 2), output);
+            assertEquals(output, expected);
+
+            DoubleBuffer[] restored = split(new double[interleavedData.length], 7);
+            LargeFft.segmentedIfft(output, restored);
+            assertEquals(restored, interleavedData);
+
+            // Prime length can not be split into rows
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> LargeFft.segmentedFft(split(new double[2 * 1021], 2), split(new double[2 * 1021], 2)));
+        } finally {
+            LargeArray.setMaxSizeOf32bitArray(maxSizeOf32bitArray);
+        }
+    }
+
+    @Test
+    public void segmentedMappedFftTest() throws IOException {
+        double[] interleavedData = TestData.createRandom(2 * 60, 3);
+        double[] expected = ComplexAdditions.fft(new ComplexArray(interleavedData)).toInterleavedArray();
+        Path file = Files.createTempFile("large-fft", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long halfSize = 8L * interleavedData.length / 2;
+            DoubleBuffer first = channel.map(FileChannel.MapMode.READ_WRITE, 0, halfSize).asDoubleBuffer();
+            DoubleBuffer second = channel.map(FileChannel.MapMode.READ_WRITE, halfSize, halfSize).asDoubleBuffer();
+            first.put(interleavedData, 0, interleavedData.length / 2).flip();
+            second.put(interleavedData, interleavedData.length / 2, interleavedData.length / 2).flip();
+
+            DoubleBuffer[] output = new DoubleBuffer[] { DoubleBuffer.allocate(interleavedData.length) };
+            LargeFft.segmentedFft(new DoubleBuffer[] { first, second }, output);
+            assertEquals(output, expected);
+            Assert.assertEquals(first.position(), 0);
+            Assert.assertEquals(output[0].position(), 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void segmentedOutputLengthExceptionTest() {
+        LargeFft.segmentedFft(new DoubleBuffer[] { DoubleBuffer.allocate(4) },
+                new DoubleBuffer[] { DoubleBuffer.allocate(6) });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void segmentedOddLengthExceptionTest() {
+        LargeFft.segmentedFft(new DoubleBuffer[] { DoubleBuffer.allocate(3) },
+                new DoubleBuffer[] { DoubleBuffer.allocate(3) });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void oddLengthExceptionTest() {
+        LargeFft.fftInPlace(new DoubleLargeArray(3));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void copyToExceptionTest() {
+        LargeFft.copyTo(new DoubleLargeArray(4), DoubleBuffer.allocate(3));
+    }
+
+    private static DoubleBuffer[] split(double[] values, int segmentCount) {
+        // Segments of growing length, each a view with non-zero position of a larger buffer
+        DoubleBuffer[] segments = new DoubleBuffer[segmentCount];
+        int start = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            int end = i == segmentCount - 1 ? values.length : Math.min(values.length, start + 2 * i + 1);
+            DoubleBuffer segment = DoubleBuffer.wrap(values, 0, end);
+            segment.position(start);
+            segments[i] = segment;
+            start = end;
+        }
+        return segments;
+    }
+
+    private static void assertEquals(DoubleBuffer[] actual, double[] expected) {
+        int index = 0;
+        for (DoubleBuffer segment : actual) {
+            for (int i = segment.position(); i < segment.limit(); i++) {
+                Assert.assertEquals(segment.get(i), expected[index++], EPS);
+            }
+        }
+        Assert.assertEquals(index, expected.length);
+    }
+
+    private static void assertEquals(DoubleLargeArray actual, double[] expected) {
+        Assert.assertEquals(actual.length(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(actual.getDouble(i), expected[i], EPS);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.fft;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.jtransforms.fft.DoubleFFT_2D;
+import org.jtransforms.fft.DoubleFFT_3D;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link MultidimensionalFft}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class MultidimensionalFftTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void twoDimensionalTest() {
+        double[] data = TestData.createRandom(2 * 7 * 37, 5);
+        double[] expected = data.clone();
+        new DoubleFFT_2D(7, 37).complexForward(expected);
+
+        double[] actual = data.clone();
+        MultidimensionalFft fft = new MultidimensionalFft(7, 37);
+        fft.fftInPlace(actual);
+        assertEquals(actual, expected);
+
+        fft.ifftInPlace(actual);
+        assertEquals(actual, data);
+    }
+
+    @Test
+    public void threeDimensionalTest() {
+        double[] data = TestData.createRandom(2 * 5 * 6 * 19, 5);
+        double[] expected = data.clone();
+        new DoubleFFT_3D(5, 6, 19).complexForward(expected);
+
+        double[] actual = data.clone();
+        MultidimensionalFft fft = new MultidimensionalFft(5, 6, 19);
+        fft.fftInPlace(actual);
+        assertEquals(actual, expected);
+
+        new DoubleFFT_3D(5, 6, 19).complexInverse(expected, true);
+        fft.ifftInPlace(actual);
+        assertEquals(actual, expected);
+    }
+
+    @Test
+    public void parallelTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int[] dimensions : new int[][] { { 33, 40 }, { 1, 64 }, { 64, 1 }, { 9, 17, 20 } }) {
+                int size = 1;
+                for (int dimension : dimensions) {
+                    size *= dimension;
+                }
+                double[] data = TestData.createRandom(2 * size, 5);
+                double[] expected = data.clone();
+                new MultidimensionalFft(dimensions).fftInPlace(expected);
+                double[] actual = data.clone();
+                MultidimensionalFft fft = new MultidimensionalFft(pool, dimensions);
+                fft.fftInPlace(actual);
+                assertEquals(actual, expected);
+                fft.ifftInPlace(actual);
+                assertEquals(actual, data);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void dimensionsTest() {
+        int[] dimensions = new int[] { 3, 4 };
+        MultidimensionalFft fft = new MultidimensionalFft(dimensions);
+        dimensions[0] = 5;
+        Assert.assertEquals(fft.getDimensions(), new int[] { 3, 4 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void dataSizeExceptionTest() {
+        new MultidimensionalFft(3, 4).fftInPlace(new double[2 * 11]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void dimensionExceptionTest() {
+        new MultidimensionalFft(3, 0);
+    }
+
+    private static void assertEquals(double[] actual, double[] expected) {
+        Assert.assertEquals(actual.length, expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(actual[i], expected[i], EPS);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link ConvolutionStream}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ConvolutionStreamTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void chunkedStreamTest() {
+        verifyStream(TestData.createRandom(30, 1), TestData.createRandom(1500, 2));
+        verifyStream(new double[] { 0.5 }, TestData.createRandom(200, 3));
+    }
+
+    @Test
+    public void resetTest() {
+        ConvolutionStream stream = new Convolver(new double[] { 1, 1 }).createStream();
+        double[] output = new double[stream.getBlockLength()];
+        stream.process(new double[] { 5, 5, 5 }, 0, 3, output, 0);
+        stream.reset();
+        Assert.assertEquals(stream.getFlushCount(), 1);
+        Assert.assertEquals(stream.flush(output, 0), 1);
+        Assert.assertEquals(output[0], 0.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outputSizeExceptionTest() {
+        ConvolutionStream stream = new Convolver(new double[] { 1, 1 }).createStream();
+        int length = stream.getBlockLength();
+        stream.process(new double[length], 0, length, new double[length - 1], 0);
+    }
+
+    private static void verifyStream(double[] filter, double[] signal) {
+        ConvolutionStream stream = new Convolver(filter).createStream();
+        double[] output = new double[signal.length + filter.length - 1];
+        Random random = new Random(4);
+        int position = 0;
+        int outputPosition = 0;
+        while (position < signal.length) {
+            int chunkLength = Math.min(signal.length - position, random.nextInt(stream.getBlockLength() * 2));
+            int expectedCount = stream.getPendingOutputCount(chunkLength);
+            int count = stream.process(signal, position, chunkLength, output, outputPosition);
+            Assert.assertEquals(count, expectedCount);
+            Assert.assertTrue(outputPosition + count <= position + chunkLength);
+            position += chunkLength;
+            outputPosition += count;
+        }
+        Assert.assertEquals(outputPosition + stream.getFlushCount(), output.length);
+        stream.flush(output, outputPosition);
+        Assert.assertEquals(output, ConvolutionTest.directReal(signal, filter), EPS);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link Convolution}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ConvolutionTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void smallRealConvolutionTest() {
+        double[] result = Convolution.convolve(new double[] { 1, 2, 3 }, new double[] { 0, 1, 0.5 });
+        Assert.assertEquals(result, new double[] { 0, 1, 2.5, 4, 1.5 }, EPS);
+    }
+
+    @Test
+    public void realModesTest() {
+        int[][] sizes = new int[][] { { 1000, 3 }, { 1000, 100 }, { 37, 200 }, { 5, 5 }, { 1, 1 }, { 4000, 700 } };
+        for (int[] size : sizes) {
+            double[] signal = TestData.createRandom(size[0], 1);
+            double[] filter = TestData.createRandom(size[1], 2);
+            double[] expected = directReal(signal, filter);
+            for (ConvolutionMode mode : ConvolutionMode.values()) {
+                Assert.assertEquals(Convolution.convolve(signal, filter, mode), expected, EPS,
+                        mode + " " + size[0] + "x" + size[1]);
+            }
+        }
+    }
+
+    @Test
+    public void complexModesTest() {
+        int[][] sizes = new int[][] { { 500, 3 }, { 500, 90 }, { 20, 150 }, { 1, 1 } };
+        for (int[] size : sizes) {
+            ComplexArray signal = new ComplexArray(TestData.createRandom(2 * size[0], 3));
+            ComplexArray filter = new ComplexArray(TestData.createRandom(2 * size[1], 4));
+            double[] expected = directComplex(signal, filter);
+            for (ConvolutionMode mode : ConvolutionMode.values()) {
+                ComplexArray result = Convolution.convolve(signal, filter, mode);
+                Assert.assertEquals(result.length(), size[0] + size[1] - 1);
+                Assert.assertEquals(result.toInterleavedArray(), expected, EPS, mode + " " + size[0] + "x" + size[1]);
+            }
+        }
+    }
+
+    @Test
+    public void complexSignalOffsetTest() {
+        double[] data = TestData.createRandom(2 * 300 + 2, 5);
+        ComplexArray signal = new ComplexArray(data, 2, 300);
+        ComplexArray filter = new ComplexArray(TestData.createRandom(2 * 80, 6));
+        Assert.assertEquals(Convolution.convolve(signal, filter, ConvolutionMode.OVERLAP_ADD).toInterleavedArray(),
+                directComplex(signal.copy(), filter), EPS);
+    }
+
+    @Test
+    public void cachedFilterTest() {
+        double[] filter = TestData.createRandom(100, 7);
+        Convolver convolver = Convolution.getConvolver(filter, ConvolutionMode.AUTO);
+        Assert.assertSame(Convolution.getConvolver(filter.clone(), ConvolutionMode.OVERLAP_ADD), convolver);
+        Assert.assertNotSame(Convolution.getConvolver(filter, ConvolutionMode.DIRECT), convolver);
+        Assert.assertNotSame(Convolution.getConvolver(new ComplexArray(filter), ConvolutionMode.AUTO), convolver);
+
+        // Modified coefficients are never convolved with the cached spectrum
+        double[] signal = TestData.createRandom(5000, 8);
+        Convolution.convolve(signal, filter, ConvolutionMode.OVERLAP_SAVE);
+        filter[0] += 1;
+        Assert.assertEquals(Convolution.convolve(signal, filter, ConvolutionMode.OVERLAP_SAVE),
+                directReal(signal, filter), EPS);
+    }
+
+    @Test
+    public void emptySignalTest() {
+        Assert.assertEquals(Convolution.convolve(new double[0], new double[] { 1, 2 }).length, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void emptyFilterExceptionTest() {
+        Convolution.convolve(new double[] { 1, 2 }, new double[0]);
+    }
+
+    static double[] directReal(double[] signal, double[] filter) {
+        double[] result = new double[signal.length + filter.length - 1];
+        for (int i = 0; i < signal.length; i++) {
+            for (int j = 0; j < filter.length; j++) {
+                result[i + j] += signal[i] * filter[j];
+            }
+        }
+        return result;
+    }
+
+    private static double[] directComplex(ComplexArray signal, ComplexArray filter) {
+        double[] result = new double[2 * (signal.length() + filter.length() - 1)];
+        for (int i = 0; i < signal.length(); i++) {
+            for (int j = 0; j < filter.length(); j++) {
+                result[2 * (i + j)] += signal.getReal(i) * filter.getReal(j)
+                        - signal.getImaginary(i) * filter.getImaginary(j);
+                result[2 * (i + j) + 1] += signal.getReal(i) * filter.getImaginary(j)
+                        + signal.getImaginary(i) * filter.getReal(j);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.filter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link Convolver}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ConvolverTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void repeatedConvolutionTest() {
+        double[] filter = TestData.createRandom(50, 1);
+        Convolver convolver = new Convolver(filter);
+        Assert.assertEquals(convolver.getFilterLength(), 50);
+        Assert.assertFalse(convolver.isComplex());
+        for (int seed = 0; seed < 3; seed++) {
+            double[] signal = TestData.createRandom(2000, seed);
+            Assert.assertEquals(convolver.convolve(signal, ConvolutionMode.OVERLAP_SAVE),
+                    ConvolutionTest.directReal(signal, filter), EPS);
+        }
+        Assert.assertSame(convolver.getFilterSpectrum(256, false), convolver.getFilterSpectrum(256, false));
+    }
+
+    @Test
+    public void realFilterComplexSignalTest() {
+        Convolver convolver = new Convolver(new double[] { 1, -1 });
+        ComplexArray result = convolver.convolve(new ComplexArray(new double[] { 1, 2, 3, 4 }));
+        Assert.assertEquals(result.toInterleavedArray(), new double[] { 1, 2, 2, 2, -3, -4 }, EPS);
+    }
+
+    @Test
+    public void filterIsCopiedTest() {
+        double[] filter = new double[] { 1, 2 };
+        Convolver convolver = new Convolver(filter);
+        filter[0] = 0;
+        Assert.assertEquals(convolver.convolve(new double[] { 1 }), new double[] { 1, 2 }, EPS);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void complexFilterRealSignalExceptionTest() {
+        new Convolver(new ComplexArray(new double[] { 1, 1 })).convolve(new double[] { 1 });
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void complexFilterStreamExceptionTest() {
+        new Convolver(new ComplexArray(new double[] { 1, 1 })).createStream();
+    }
+
+}
@@ -31,6 +31,7 @@ import org.testng.annotations.Test;
 public class InterpolationTest {
 
     private static final double EPS = 1e-9;
+    private static final double FLOAT_EPS = 1e-4;
 
     @Test
     public void interpftTest1() {
@@ -137,6 +138,36 @@ public class InterpolationTest {
         }
     }
 
+    @Test
+    public void interpftFloatArrayTest() {
+        float[] dataToInterpolate = new float[] { 10.0f, 12.0f, 15.0f };
+        float[] interpolatedData = Interpolation.interpftFloat(dataToInterpolate, 10);
+        List<Double> expectedResults = createExpectedResults1();
+        Assert.assertEquals(interpolatedData.length, expectedResults.size());
+        for (int i = 0; i < interpolatedData.length; i++) {
+            Assert.assertEquals(interpolatedData[i], expectedResults.get(i), FLOAT_EPS);
+        }
+
+        float[] evenDataToInterpolate = new float[] { 8.8f, 9.9f, 11f, 12.1f };
+        interpolatedData = Interpolation.interpftFloat(evenDataToInterpolate, 20);
+        expectedResults = createExpectedResults2();
+        Assert.assertEquals(interpolatedData.length, expectedResults.size());
+        for (int i = 0; i < interpolatedData.length; i++) {
+            Assert.assertEquals(interpolatedData[i], expectedResults.get(i), FLOAT_EPS);
+        }
+
+        interpolatedData = Interpolation.interpftFloat(evenDataToInterpolate, 4);
+        List<Double> sameLengthResults = Interpolation.interpft(new double[] { 8.8, 9.9, 11, 12.1 }, 4);
+        for (int i = 0; i < interpolatedData.length; i++) {
+            Assert.assertEquals(interpolatedData[i], sameLengthResults.get(i), FLOAT_EPS);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void interpftFloatArrayExceptionTest() {
+        Interpolation.interpftFloat(new float[] { 1, 2, 3 }, 2);
+    }
+
     private static List<Float> createExpectedFloatResults() {
         List<Float> expectedResults = new ArrayList<>();
         expectedResults.add(10.0f);
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link ChirpZTransform}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ChirpZTransformTest {
+
+    private static final double EPS = 1e-8;
+
+    @Test
+    public void fullBandEqualsFftTest() {
+        ComplexArray signal = new ComplexArray(TestData.createRandom(2 * 37, 13));
+        ChirpZTransform czt = new ChirpZTransform(37, 37, 0, 1, 1);
+        assertEquals(czt.transform(signal), ComplexAdditions.fft(signal).toList());
+    }
+
+    @Test
+    public void zoomTest() {
+        double sampleRate = 1000;
+        double[] signal = TestData.createRandom(200, 13);
+        ChirpZTransform czt = new ChirpZTransform(signal.length, 50, 120, 130, sampleRate);
+        Assert.assertEquals(czt.getFftSize(), 256);
+
+        // Same points as a DFT zero padded to sampleRate * 50 / 10 = 5000 samples, bins 600 to 649
+        double[] padded = new double[5000];
+        System.arraycopy(signal, 0, padded, 0, signal.length);
+        List<Complex> spectrum = ComplexAdditions.fft(padded);
+        assertEquals(czt.transform(signal), spectrum.subList(600, 650));
+    }
+
+    @Test
+    public void longZoomTest() {
+        // Band of a DFT of length 5000, chirp phases of the last samples are far beyond 2 * pi * 5000 unless reduced
+        int length = 1000000;
+        int delay = length - 1;
+        double[] signal = new double[length];
+        signal[delay] = 1;
+        ChirpZTransform czt = new ChirpZTransform(length, 16, 0, 16, 5000);
+        ComplexArray spectrum = czt.transform(signal);
+        for (int k = 0; k < 16; k++) {
+            double angle = -2 * Math.PI * ((long) delay * k % 5000) / 5000;
+            Assert.assertTrue(Complex.equals(spectrum.get(k), new Complex(Math.cos(angle), Math.sin(angle)), EPS),
+                    k + ": " + spectrum.get(k));
+        }
+    }
+
+    @Test
+    public void spiralContourTest() {
+        ComplexArray signal = new ComplexArray(TestData.createRandom(2 * 12, 13));
+        Complex w = new Complex(0, -0.3).exp().multiply(1.01);
+        Complex a = new Complex(0.9, 0.2);
+        ChirpZTransform czt = new ChirpZTransform(12, 20, w, a);
+        ComplexArray output = new ComplexArray(new double[2 * 21], 2, 20);
+        czt.transform(signal, output);
+        for (int k = 0; k < 20; k++) {
+            Complex z = a.multiply(w.pow(-k));
+            Complex expected = Complex.ZERO;
+            for (int n = 0; n < 12; n++) {
+                expected = expected.add(signal.get(n).multiply(z.pow(-n)));
+            }
+            Assert.assertTrue(Complex.equals(output.get(k), expected, EPS), k + ": " + output.get(k));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void signalLengthExceptionTest() {
+        new ChirpZTransform(8, 4, 0, 1, 1).transform(new double[7]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outputLengthExceptionTest() {
+        new ChirpZTransform(8, 0, 0, 1, 1);
+    }
+
+    private static void assertEquals(ComplexArray actual, List<Complex> expected) {
+        Assert.assertEquals(actual.length(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertTrue(Complex.equals(actual.get(i), expected.get(i), EPS),
+                    i + ": " + actual.get(i) + " != " + expected.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.TestData;
+import com.christianheina.common.math.window.Window;
+
+/**
+ * Unit test for {@link PowerSpectralDensity}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class PowerSpectralDensityTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void welchEvenSegmentTest() {
+        Window window = Window.hann(8);
+        double[] signal = TestData.createRandom(101, 7);
+        assertEquals(PowerSpectralDensity.welch(signal, window, 3, 10.0),
+                expectedWelch(signal, window.toArray(), 3, 10.0));
+    }
+
+    @Test
+    public void welchOddSegmentTest() {
+        Window window = Window.kaiser(5, 2.0);
+        double[] signal = TestData.createRandom(64, 7);
+        assertEquals(PowerSpectralDensity.welch(signal, window, 2, 1.0),
+                expectedWelch(signal, window.toArray(), 2, 1.0));
+    }
+
+    @Test
+    public void bartlettTest() {
+        double[] signal = TestData.createRandom(70, 7);
+        double[] window = new double[16];
+        Arrays.fill(window, 1.0);
+        assertEquals(PowerSpectralDensity.bartlett(signal, 16, 2.0), expectedWelch(signal, window, 0, 2.0));
+    }
+
+    @Test
+    public void parallelTest() {
+        Window window = Window.hann(8);
+        double[] signal = TestData.createRandom(4000, 7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(PowerSpectralDensity.welch(signal, window, 4, 1.0, pool),
+                    PowerSpectralDensity.welch(signal, window, 4, 1.0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sinusoidPeakTest() {
+        double sampleRate = 64;
+        double[] signal = new double[1024];
+        for (int i = 0; i < signal.length; i++) {
+            signal[i] = Math.sin(2 * Math.PI * 8 * i / sampleRate);
+        }
+        double[] psd = PowerSpectralDensity.bartlett(signal, 32, sampleRate);
+        int peak = 0;
+        for (int k = 1; k < psd.length; k++) {
+            peak = psd[k] > psd[peak] ? k : peak;
+        }
+        // Bin spacing is sampleRate / segmentLength = 2
+        Assert.assertEquals(peak, 4);
+        // Integrated density equals signal power of 0.5
+        Assert.assertEquals(Arrays.stream(psd).sum() * sampleRate / 32, 0.5, EPS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void windowLongerThanSignalTest() {
+        PowerSpectralDensity.welch(new double[4], Window.rectangular(5), 0, 1.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void overlapTooLargeTest() {
+        PowerSpectralDensity.welch(new double[8], Window.rectangular(4), 4, 1.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void negativeOverlapTest() {
+        PowerSpectralDensity.welch(new double[8], Window.rectangular(4), -1, 1.0);
+    }
+
+    private static double[] expectedWelch(double[] signal, double[] window, int overlap, double sampleRate) {
+        int length = window.length;
+        int hop = length - overlap;
+        int count = (signal.length - length) / hop + 1;
+        double windowPower = 0;
+        for (double coefficient : window) {
+            windowPower += coefficient * coefficient;
+        }
+        double[] psd = new double[length / 2 + 1];
+        for (int segment = 0; segment < count; segment++) {
+            double[] frame = new double[length];
+            for (int i = 0; i < length; i++) {
+                frame[i] = signal[segment * hop + i] * window[i];
+            }
+            List<Complex> spectrum = ComplexAdditions.fft(frame);
+            for (int k = 0; k < psd.length; k++) {
+                double magnitude = spectrum.get(k).abs();
+                boolean mirrored = k > 0 && 2 * k != length;
+                psd[k] += (mirrored ? 2 : 1) * magnitude * magnitude / (sampleRate * windowPower * count);
+            }
+        }
+        return psd;
+    }
+
+    private static void assertEquals(double[] actual, double[] expected) {
+        Assert.assertEquals(actual.length, expected.length);
+        for (int i = 0; i < actual.length; i++) {
+            Assert.assertEquals(actual[i], expected[i], EPS);
+        }
+    }
+
+}
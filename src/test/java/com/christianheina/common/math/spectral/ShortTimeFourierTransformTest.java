@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.TestData;
+import com.christianheina.common.math.window.Window;
+
+/**
+ * Unit test for {@link ShortTimeFourierTransform}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ShortTimeFourierTransformTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void overlappingFramesTest() {
+        verifyFrames(Window.kaiser(6, 3.0), 2, TestData.createRandom(100, 7));
+    }
+
+    @Test
+    public void gappedFramesTest() {
+        verifyFrames(Window.hamming(5), 7, TestData.createRandom(61, 7));
+    }
+
+    @Test
+    public void outputBufferTest() {
+        double[] signal = TestData.createRandom(40, 7);
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(8, 4);
+        int frameCount = stft.getPendingFrameCount(signal.length);
+        Assert.assertEquals(frameCount, 9);
+        double[] output = new double[frameCount * 2 * stft.getSpectrumLength()];
+        Assert.assertEquals(stft.process(signal, 0, signal.length, output, 0), frameCount);
+
+        List<double[]> expectedFrames = expectedFrames(new double[] { 1, 1, 1, 1, 1, 1, 1, 1 }, 4, signal);
+        for (int frame = 0; frame < frameCount; frame++) {
+            for (int i = 0; i < 2 * stft.getSpectrumLength(); i++) {
+                Assert.assertEquals(output[frame * 2 * stft.getSpectrumLength() + i], expectedFrames.get(frame)[i],
+                        EPS);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outputBufferExceptionTest() {
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(8, 4);
+        stft.process(new double[12], 0, 12, new double[2 * stft.getSpectrumLength()], 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outputOffsetExceptionTest() {
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(8, 4);
+        stft.process(new double[4], 0, 4, new double[2 * stft.getSpectrumLength()], -1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void hopSizeExceptionTest() {
+        new ShortTimeFourierTransform(8, 0);
+    }
+
+    @Test
+    public void resetTest() {
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(4, 2);
+        stft.process(TestData.createRandom(3, 7), 0, 3, (index, spectrum) -> Assert.fail());
+        stft.reset();
+        Assert.assertEquals(stft.getPendingFrameCount(3), 0);
+        Assert.assertEquals(stft.getPendingFrameCount(4), 1);
+    }
+
+    private static void verifyFrames(Window window, int hopSize, double[] signal) {
+        ShortTimeFourierTransform stft = new ShortTimeFourierTransform(window, hopSize);
+        List<double[]> frames = new ArrayList<>();
+        List<Long> frameIndices = new ArrayList<>();
+        Random random = new Random(1);
+        int position = 0;
+        while (position < signal.length) {
+            int chunkLength = Math.min(signal.length - position, random.nextInt(9));
+            stft.process(signal, position, chunkLength, (index, spectrum) -> {
+                frameIndices.add(index);
+                frames.add(spectrum.toInterleavedArray());
+            });
+            position += chunkLength;
+        }
+
+        List<double[]> expectedFrames = expectedFrames(window.toArray(), hopSize, signal);
+        Assert.assertEquals(frames.size(), expectedFrames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            Assert.assertEquals(frameIndices.get(i).longValue(), i);
+            Assert.assertEquals(frames.get(i), expectedFrames.get(i), EPS);
+        }
+    }
+
+    private static List<double[]> expectedFrames(double[] window, int hopSize, double[] signal) {
+        List<double[]> expectedFrames = new ArrayList<>();
+        for (int start = 0; start + window.length <= signal.length; start += hopSize) {
+            double[] frame = new double[window.length];
+            for (int i = 0; i < window.length; i++) {
+                frame[i] = signal[start + i] * window[i];
+            }
+            expectedFrames.add(ComplexAdditions.realFft(frame).toInterleavedArray());
+        }
+        return expectedFrames;
+    }
+
+}
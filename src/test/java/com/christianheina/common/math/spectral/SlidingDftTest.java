@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link SlidingDft}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class SlidingDftTest {
+
+    private static final double EPS = 1e-8;
+    private static final int WINDOW_LENGTH = 24;
+
+    @Test
+    public void allBinsTest() {
+        double[] signal = TestData.createRandom(200, 3);
+        SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH);
+        for (int n = 0; n < signal.length; n++) {
+            slidingDft.update(signal[n]);
+            if (n >= WINDOW_LENGTH - 1) {
+                assertEquals(slidingDft.getSpectrum(), fftOfWindow(signal, n + 1));
+            }
+        }
+    }
+
+    @Test
+    public void selectedBinsTest() {
+        double[] signal = TestData.createRandom(150, 3);
+        int[] bins = new int[] { 3, 0, 17 };
+        SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH, bins, 7);
+        Assert.assertEquals(slidingDft.getBins(), bins);
+        slidingDft.update(signal, 0, 100);
+        List<Complex> expected = fftOfWindow(signal, 100);
+        for (int i = 0; i < bins.length; i++) {
+            Assert.assertTrue(Complex.equals(slidingDft.get(i), expected.get(bins[i]), EPS));
+            Assert.assertEquals(slidingDft.getReal(i), expected.get(bins[i]).getReal(), EPS);
+            Assert.assertEquals(slidingDft.getImaginary(i), expected.get(bins[i]).getImaginary(), EPS);
+        }
+    }
+
+    @Test
+    public void partialWindowTest() {
+        double[] signal = TestData.createRandom(5, 3);
+        SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH);
+        slidingDft.update(signal, 0, signal.length);
+        double[] padded = new double[WINDOW_LENGTH];
+        System.arraycopy(signal, 0, padded, WINDOW_LENGTH - signal.length, signal.length);
+        assertEquals(slidingDft.getSpectrum(), ComplexAdditions.fft(padded));
+    }
+
+    @Test
+    public void complexSamplesTest() {
+        double[] data = TestData.createRandom(2 * 60, 3);
+        ComplexArray signal = new ComplexArray(data);
+        SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH, null, 1000);
+        slidingDft.update(signal);
+        ComplexArray output = new ComplexArray(WINDOW_LENGTH);
+        slidingDft.getSpectrum(output);
+        assertEquals(output, ComplexAdditions.fft(signal.subArray(60 - WINDOW_LENGTH, WINDOW_LENGTH)).toList());
+    }
+
+    @Test
+    public void driftCorrectionTest() {
+        // Many updates without recompute accumulate rounding errors, a recompute removes them
+        double[] signal = TestData.createRandom(200000, 3);
+        SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH, new int[] { 5 }, Integer.MAX_VALUE);
+        slidingDft.update(signal, 0, signal.length);
+        Complex expected = fftOfWindow(signal, signal.length).get(5);
+        double driftError = slidingDft.get(0).subtract(expected).abs();
+        slidingDft.recompute();
+        Assert.assertTrue(slidingDft.get(0).subtract(expected).abs() <= driftError);
+        Assert.assertTrue(Complex.equals(slidingDft.get(0), expected, 1e-12));
+    }
+
+    @Test
+    public void resetTest() {
+        SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH);
+        slidingDft.update(TestData.createRandom(30, 3), 0, 30);
+        slidingDft.reset();
+        slidingDft.update(1);
+        for (int i = 0; i < WINDOW_LENGTH; i++) {
+            // Single sample at index windowLength - 1
+            double omega = -2 * Math.PI * i * (WINDOW_LENGTH - 1) / WINDOW_LENGTH;
+            Assert.assertTrue(Complex.equals(slidingDft.get(i), new Complex(Math.cos(omega), Math.sin(omega)), EPS));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void binExceptionTest() {
+        new SlidingDft(WINDOW_LENGTH, new int[] { WINDOW_LENGTH });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void recomputeIntervalExceptionTest() {
+        new SlidingDft(WINDOW_LENGTH, null, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void samplesExceptionTest() {
+        new SlidingDft(WINDOW_LENGTH).update(new double[4], 2, 3);
+    }
+
+    private static List<Complex> fftOfWindow(double[] signal, int end) {
+        double[] window = new double[WINDOW_LENGTH];
+        System.arraycopy(signal, end - WINDOW_LENGTH, window, 0, WINDOW_LENGTH);
+        return ComplexAdditions.fft(window);
+    }
+
+    private static void assertEquals(ComplexArray actual, List<Complex> expected) {
+        Assert.assertEquals(actual.length(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertTrue(Complex.equals(actual.get(i), expected.get(i), EPS),
+                    i + ": " + actual.get(i) + " != " + expected.get(i));
+        }
+    }
+
+}
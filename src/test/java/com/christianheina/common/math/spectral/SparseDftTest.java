@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.spectral;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link SparseDft}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class SparseDftTest {
+
+    private static final double EPS = 1e-8;
+
+    @Test
+    public void goertzelRealTest() {
+        for (int length : new int[] { 1, 2, 7, 64, 1000 }) {
+            double[] signal = TestData.createRandom(length, 11);
+            int[] bins = createBins(length, 5);
+            ComplexArray output = new ComplexArray(bins.length);
+            SparseDft.goertzel(signal, bins, output);
+            assertBins(output, bins, ComplexAdditions.fft(signal));
+        }
+    }
+
+    @Test
+    public void goertzelComplexTest() {
+        for (int length : new int[] { 1, 3, 8, 999 }) {
+            ComplexArray signal = new ComplexArray(TestData.createRandom(2 * length, 11));
+            int[] bins = createBins(length, 5);
+            ComplexArray output = new ComplexArray(bins.length);
+            SparseDft.goertzel(signal, bins, output);
+            assertBins(output, bins, ComplexAdditions.fft(signal).toList());
+        }
+    }
+
+    @Test
+    public void dftRealTest() {
+        double[] signal = TestData.createRandom(256, 11);
+        // Few bins are computed with Goertzel, many with FFT
+        for (int binCount : new int[] { 3, 40 }) {
+            int[] bins = createBins(signal.length, binCount);
+            assertBins(SparseDft.dft(signal, bins), bins, ComplexAdditions.fft(signal));
+        }
+    }
+
+    @Test
+    public void dftComplexTest() {
+        ComplexArray signal = new ComplexArray(TestData.createRandom(2 * 255, 11));
+        for (int binCount : new int[] { 3, 40 }) {
+            int[] bins = createBins(signal.length(), binCount);
+            assertBins(SparseDft.dft(signal, bins), bins, ComplexAdditions.fft(signal).toList());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void binOutOfRangeExceptionTest() {
+        SparseDft.dft(new double[8], new int[] { 8 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void outputLengthExceptionTest() {
+        SparseDft.goertzel(new double[8], new int[] { 1, 2 }, new ComplexArray(1));
+    }
+
+    private static void assertBins(ComplexArray actual, int[] bins, List<Complex> spectrum) {
+        Assert.assertEquals(actual.length(), bins.length);
+        for (int i = 0; i < bins.length; i++) {
+            Assert.assertTrue(Complex.equals(actual.get(i), spectrum.get(bins[i]), EPS),
+                    "bin " + bins[i] + ": " + actual.get(i) + " != " + spectrum.get(bins[i]));
+        }
+    }
+
+    private static int[] createBins(int length, int count) {
+        Random random = new Random(length);
+        int[] bins = new int[count];
+        for (int i = 0; i < count; i++) {
+            bins[i] = random.nextInt(length);
+        }
+        return bins;
+    }
+
+}
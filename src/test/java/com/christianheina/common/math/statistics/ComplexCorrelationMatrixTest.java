@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Unit test for {@link ComplexCorrelationMatrix}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ComplexCorrelationMatrixTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void pairwiseTest() {
+        // Sizes cross tile and sample block boundaries
+        ComplexArray[] series = createSeries(19, 1031);
+        ComplexCorrelationMatrix matrix = ComplexAdditions.correlationMatrix(series);
+        Assert.assertEquals(matrix.size(), 19);
+        Complex[][] array = matrix.toArray();
+        for (int i = 0; i < series.length; i++) {
+            for (int j = 0; j < series.length; j++) {
+                Complex expected = ComplexAdditions.pearsonCorrelation(series[i], series[j]);
+                Assert.assertTrue(Complex.equals(matrix.get(i, j), expected, EPS), i + ", " + j);
+                Assert.assertTrue(Complex.equals(array[i][j], array[j][i].conjugate(), EPS));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthExceptionTest() {
+        ComplexAdditions.correlationMatrix(new ComplexArray[] { new ComplexArray(4), new ComplexArray(5) });
+    }
+
+    private static ComplexArray[] createSeries(int count, int length) {
+        Random random = new Random(37);
+        ComplexArray common = new ComplexArray(length);
+        for (int k = 0; k < length; k++) {
+            common.set(k, random.nextGaussian(), random.nextGaussian());
+        }
+        ComplexArray[] series = new ComplexArray[count];
+        for (int i = 0; i < count; i++) {
+            Complex weight = new Complex(random.nextGaussian(), random.nextGaussian());
+            series[i] = new ComplexArray(length);
+            for (int k = 0; k < length; k++) {
+                Complex value = common.get(k).multiply(weight);
+                series[i].set(k, i + value.getReal() + random.nextGaussian(), value.getImaginary() - i);
+            }
+        }
+        return series;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Unit test for {@link ComplexPairStatisticsAccumulator}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ComplexPairStatisticsAccumulatorTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LENGTH = 1001;
+
+    private final ComplexArray values1 = new ComplexArray(LENGTH);
+    private final ComplexArray values2 = new ComplexArray(LENGTH);
+
+    {
+        Random random = new Random(29);
+        for (int i = 0; i < LENGTH; i++) {
+            values1.set(i, random.nextGaussian(), 5 + random.nextGaussian());
+            Complex correlated = values1.get(i).multiply(new Complex(0.5, 1));
+            values2.set(i, correlated.getReal() + random.nextGaussian(), correlated.getImaginary());
+        }
+    }
+
+    @Test
+    public void combineTest() {
+        ComplexPairStatisticsAccumulator first = new ComplexPairStatisticsAccumulator();
+        first.accept(values1.subArray(0, 500), values2.subArray(0, 500));
+        ComplexPairStatisticsAccumulator second = new ComplexPairStatisticsAccumulator();
+        for (int i = 500; i < LENGTH; i++) {
+            second.accept(values1.get(i), values2.get(i));
+        }
+        Assert.assertSame(first.combine(second), first);
+        Assert.assertEquals(first.getCount(), LENGTH);
+        assertStatistics(first.toStatistics());
+        assertStatistics(new ComplexPairStatisticsAccumulator().combine(first).toStatistics());
+    }
+
+    @Test
+    public void collectorTest() {
+        ComplexPairStatistics statistics = IntStream.range(0, LENGTH).boxed().parallel()
+                .collect(ComplexPairStatisticsAccumulator.collector(values1::get, values2::get));
+        assertStatistics(statistics);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void sizeExceptionTest() {
+        new ComplexPairStatisticsAccumulator().accept(values1, values2.subArray(0, 3));
+    }
+
+    private void assertStatistics(ComplexPairStatistics statistics) {
+        ComplexPairStatistics expected = ComplexAdditions.pairStatistics(values1.toList(), values2.toList());
+        Assert.assertEquals(statistics.getCount(), expected.getCount());
+        Assert.assertTrue(Complex.equals(statistics.getMean1(), expected.getMean1(), EPS));
+        Assert.assertTrue(Complex.equals(statistics.getMean2(), expected.getMean2(), EPS));
+        Assert.assertEquals(statistics.getVariance1(), expected.getVariance1(), EPS);
+        Assert.assertEquals(statistics.getVariance2(), expected.getVariance2(), EPS);
+        Assert.assertTrue(Complex.equals(statistics.getCovariance(), expected.getCovariance(), EPS));
+        Assert.assertTrue(Complex.equals(statistics.getCorrelation(), expected.getCorrelation(), EPS));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Unit test for {@link ComplexRollingPairStatistics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ComplexRollingPairStatisticsTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LENGTH = 1001;
+    private static final int WINDOW_LENGTH = 50;
+
+    private final ComplexArray values1 = new ComplexArray(LENGTH);
+    private final ComplexArray values2 = new ComplexArray(LENGTH);
+
+    {
+        Random random = new Random(37);
+        for (int i = 0; i < LENGTH; i++) {
+            values1.set(i, 1e3 + random.nextGaussian(), 5 + random.nextGaussian());
+            Complex correlated = values1.get(i).multiply(new Complex(0.5, 1));
+            values2.set(i, correlated.getReal() + random.nextGaussian(), correlated.getImaginary());
+        }
+    }
+
+    @Test
+    public void addTest() {
+        ComplexRollingPairStatistics statistics = new ComplexRollingPairStatistics(WINDOW_LENGTH);
+        Assert.assertEquals(statistics.getWindowLength(), WINDOW_LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            statistics.add(values1.get(i), values2.get(i));
+            int count = Math.min(i + 1, WINDOW_LENGTH);
+            Assert.assertEquals(statistics.getCount(), count);
+            if (count > 1) {
+                assertStatistics(statistics, i + 1 - count, count);
+            }
+        }
+    }
+
+    @Test
+    public void recomputeIntervalTest() {
+        ComplexRollingPairStatistics statistics = new ComplexRollingPairStatistics(WINDOW_LENGTH, 5);
+        statistics.add(values1.subArray(0, 500), values2.subArray(0, 500));
+        assertStatistics(statistics, 500 - WINDOW_LENGTH, WINDOW_LENGTH);
+        statistics.add(values1.subArray(500, LENGTH - 500), values2.subArray(500, LENGTH - 500));
+        assertStatistics(statistics, LENGTH - WINDOW_LENGTH, WINDOW_LENGTH);
+    }
+
+    @Test
+    public void resetTest() {
+        ComplexRollingPairStatistics statistics = new ComplexRollingPairStatistics(WINDOW_LENGTH);
+        statistics.add(values1.subArray(0, 100), values2.subArray(0, 100));
+        statistics.reset();
+        Assert.assertEquals(statistics.getCount(), 0);
+        Assert.assertTrue(statistics.toStatistics().getMean1().isNaN());
+        statistics.add(values1.subArray(0, 10), values2.subArray(0, 10));
+        assertStatistics(statistics, 0, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthExceptionTest() {
+        new ComplexRollingPairStatistics(10).add(new ComplexArray(3), new ComplexArray(4));
+    }
+
+    private void assertStatistics(ComplexRollingPairStatistics rolling, int offset, int length) {
+        ComplexPairStatistics expected = ComplexAdditions.pairStatistics(values1.subArray(offset, length),
+                values2.subArray(offset, length));
+        ComplexPairStatistics statistics = rolling.toStatistics();
+        Assert.assertEquals(statistics.getCount(), length);
+        Assert.assertTrue(Complex.equals(statistics.getMean1(), expected.getMean1(), EPS * expected.getMean1().abs()));
+        Assert.assertTrue(Complex.equals(statistics.getMean2(), expected.getMean2(), EPS));
+        Assert.assertEquals(statistics.getVariance1(), expected.getVariance1(), EPS);
+        Assert.assertEquals(statistics.getVariance2(), expected.getVariance2(), EPS);
+        Assert.assertTrue(Complex.equals(statistics.getCovariance(), expected.getCovariance(), EPS));
+        Assert.assertTrue(Complex.equals(rolling.getCovariance(), expected.getCovariance(), EPS));
+        Assert.assertTrue(Complex.equals(rolling.getCorrelation(), expected.getCorrelation(), EPS));
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+
+/**
+ * Unit test for {@link ComplexRollingStatistics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ComplexRollingStatisticsTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LENGTH = 1001;
+    private static final int WINDOW_LENGTH = 50;
+
+    private final ComplexArray values = new ComplexArray(LENGTH);
+
+    {
+        Random random = new Random(31);
+        for (int i = 0; i < LENGTH; i++) {
+            values.set(i, 1e6 + random.nextGaussian(), -1e6 + random.nextGaussian());
+        }
+    }
+
+    @Test
+    public void addTest() {
+        ComplexRollingStatistics statistics = new ComplexRollingStatistics(WINDOW_LENGTH);
+        Assert.assertEquals(statistics.getWindowLength(), WINDOW_LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            statistics.add(values.get(i));
+            int count = Math.min(i + 1, WINDOW_LENGTH);
+            Assert.assertEquals(statistics.getCount(), count);
+            if (count > 1) {
+                assertStatistics(statistics, i + 1 - count, count);
+            }
+        }
+    }
+
+    @Test
+    public void recomputeIntervalTest() {
+        ComplexRollingStatistics statistics = new ComplexRollingStatistics(WINDOW_LENGTH, 11);
+        statistics.add(values.subArray(0, 600));
+        assertStatistics(statistics, 600 - WINDOW_LENGTH, WINDOW_LENGTH);
+        statistics.add(values.subArray(600, LENGTH - 600));
+        assertStatistics(statistics, LENGTH - WINDOW_LENGTH, WINDOW_LENGTH);
+    }
+
+    @Test
+    public void resetTest() {
+        ComplexRollingStatistics statistics = new ComplexRollingStatistics(WINDOW_LENGTH);
+        statistics.add(values.subArray(0, 100));
+        statistics.reset();
+        Assert.assertEquals(statistics.getCount(), 0);
+        Assert.assertTrue(statistics.getMean().isNaN());
+        Assert.assertTrue(Double.isNaN(statistics.getVariance()));
+        statistics.add(values.subArray(0, 10));
+        assertStatistics(statistics, 0, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void recomputeIntervalExceptionTest() {
+        new ComplexRollingStatistics(10, -1);
+    }
+
+    private void assertStatistics(ComplexRollingStatistics statistics, int offset, int length) {
+        ComplexArray window = values.subArray(offset, length);
+        Complex mean = ComplexAdditions.mean(window);
+        Assert.assertTrue(Complex.equals(statistics.getMean(), mean, EPS * mean.abs()));
+        Assert.assertEquals(statistics.getVariance(), ComplexAdditions.variance(window), EPS);
+        Assert.assertEquals(statistics.getStandardDeviation(), Math.sqrt(ComplexAdditions.variance(window)), EPS);
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link ComplexStatisticsAccumulator}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ComplexStatisticsAccumulatorTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void acceptTest() {
+        ComplexArray values = createValues(1001);
+        ComplexStatisticsAccumulator accumulator = new ComplexStatisticsAccumulator();
+        for (Complex value : values.toList()) {
+            accumulator.accept(value);
+        }
+        assertStatistics(accumulator, values);
+    }
+
+    @Test
+    public void combineTest() {
+        ComplexArray values = createValues(1001);
+        ComplexStatisticsAccumulator first = new ComplexStatisticsAccumulator();
+        first.accept(values.subArray(0, 600));
+        ComplexStatisticsAccumulator second = new ComplexStatisticsAccumulator();
+        second.accept(values.subArray(600, 401));
+        Assert.assertSame(first.combine(second), first);
+        assertStatistics(first, values);
+        assertStatistics(new ComplexStatisticsAccumulator().combine(first), values);
+    }
+
+    @Test
+    public void collectorTest() {
+        ComplexArray values = createValues(3000);
+        List<Complex> list = values.toList();
+        assertStatistics(list.parallelStream().collect(ComplexStatisticsAccumulator.collector()), values);
+    }
+
+    @Test
+    public void emptyTest() {
+        ComplexStatisticsAccumulator accumulator = new ComplexStatisticsAccumulator();
+        Assert.assertTrue(accumulator.getMean().isNaN());
+        Assert.assertEquals(accumulator.getSum(), Complex.ZERO);
+    }
+
+    private static void assertStatistics(ComplexStatisticsAccumulator accumulator, ComplexArray values) {
+        Assert.assertEquals(accumulator.getCount(), values.length());
+        Assert.assertTrue(Complex.equals(accumulator.getSum(), ComplexAdditions.sum(values), EPS * values.length()));
+        Assert.assertTrue(Complex.equals(accumulator.getMean(), ComplexAdditions.mean(values), EPS));
+        Assert.assertEquals(accumulator.getVariance(), ComplexAdditions.variance(values), EPS);
+        Assert.assertEquals(accumulator.getStandardDeviation(), ComplexAdditions.standardDeviation(values), EPS);
+    }
+
+    private static ComplexArray createValues(int length) {
+        double[] interleaved = TestData.createRandom(2 * length, 23);
+        ComplexArray values = new ComplexArray(length);
+        for (int i = 0; i < length; i++) {
+            values.set(i, 10 + interleaved[2 * i], -3 + interleaved[2 * i + 1]);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * Unit test for {@link CorrelationMatrix}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class CorrelationMatrixTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void pairwiseTest() {
+        // Sizes cross tile and sample block boundaries
+        double[][] series = createSeries(37, 1100);
+        CorrelationMatrix matrix = MathAdditions.correlationMatrix(series);
+        Assert.assertEquals(matrix.size(), 37);
+        double[][] array = matrix.toArray();
+        for (int i = 0; i < series.length; i++) {
+            for (int j = 0; j < series.length; j++) {
+                double expected = MathAdditions.pearsonCorrelation(series[i], series[j]);
+                Assert.assertEquals(matrix.get(i, j), expected, EPS, i + ", " + j);
+                Assert.assertEquals(array[i][j], expected, EPS);
+            }
+        }
+    }
+
+    @Test
+    public void poolTest() {
+        double[][] series = createSeries(20, 700);
+        ForkJoinPool singleThreadedPool = new ForkJoinPool(1);
+        try {
+            double[][] expected = CorrelationMatrix.of(series, singleThreadedPool).toArray();
+            Assert.assertEquals(CorrelationMatrix.of(series).toArray(), expected);
+        } finally {
+            singleThreadedPool.shutdown();
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        Assert.assertEquals(MathAdditions.correlationMatrix(new double[0][]).size(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthExceptionTest() {
+        MathAdditions.correlationMatrix(new double[][] { new double[4], new double[5] });
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void indexExceptionTest() {
+        MathAdditions.correlationMatrix(createSeries(3, 10)).get(0, 3);
+    }
+
+    private static double[][] createSeries(int count, int length) {
+        Random random = new Random(31);
+        double[] common = new double[length];
+        for (int k = 0; k < length; k++) {
+            common[k] = random.nextGaussian();
+        }
+        double[][] series = new double[count][length];
+        for (int i = 0; i < count; i++) {
+            double weight = random.nextDouble() * 2 - 1;
+            for (int k = 0; k < length; k++) {
+                series[i][k] = i + weight * common[k] + random.nextGaussian();
+            }
+        }
+        return series;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * Unit test for {@link PairStatisticsAccumulator}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class PairStatisticsAccumulatorTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LENGTH = 1001;
+
+    private final double[] values1 = new double[LENGTH];
+    private final double[] values2 = new double[LENGTH];
+
+    {
+        Random random = new Random(19);
+        for (int i = 0; i < LENGTH; i++) {
+            values1[i] = 50 + random.nextGaussian();
+            values2[i] = -2 * values1[i] + random.nextGaussian();
+        }
+    }
+
+    @Test
+    public void acceptTest() {
+        PairStatisticsAccumulator accumulator = new PairStatisticsAccumulator();
+        for (int i = 0; i < LENGTH; i++) {
+            accumulator.accept(values1[i], values2[i]);
+        }
+        Assert.assertEquals(accumulator.getCount(), LENGTH);
+        assertStatistics(accumulator.toStatistics());
+    }
+
+    @Test
+    public void combineTest() {
+        PairStatisticsAccumulator first = new PairStatisticsAccumulator();
+        first.accept(values1, 0, values2, 0, 1);
+        first.accept(values1, 1, values2, 1, 300);
+        PairStatisticsAccumulator second = new PairStatisticsAccumulator();
+        second.accept(values1, 301, values2, 301, LENGTH - 301);
+        first.combine(second);
+        assertStatistics(first.toStatistics());
+        assertStatistics(new PairStatisticsAccumulator().combine(first).toStatistics());
+    }
+
+    @Test
+    public void collectorTest() {
+        PairStatistics statistics = IntStream.range(0, LENGTH).boxed().parallel()
+                .collect(PairStatisticsAccumulator.collector(i -> values1[i], i -> values2[i]));
+        assertStatistics(statistics);
+    }
+
+    @Test
+    public void emptyTest() {
+        PairStatistics statistics = new PairStatisticsAccumulator().toStatistics();
+        Assert.assertEquals(statistics.getCount(), 0);
+        Assert.assertTrue(Double.isNaN(statistics.getMean1()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void singlePairRangeExceptionTest() {
+        new PairStatisticsAccumulator().accept(new double[4], 0, new double[4], 4, 1);
+    }
+
+    private void assertStatistics(PairStatistics statistics) {
+        PairStatistics expected = MathAdditions.pairStatistics(values1, values2);
+        Assert.assertEquals(statistics.getCount(), expected.getCount());
+        Assert.assertEquals(statistics.getMean1(), expected.getMean1(), EPS);
+        Assert.assertEquals(statistics.getMean2(), expected.getMean2(), EPS);
+        Assert.assertEquals(statistics.getVariance1(), expected.getVariance1(), EPS);
+        Assert.assertEquals(statistics.getVariance2(), expected.getVariance2(), EPS);
+        Assert.assertEquals(statistics.getCovariance(), expected.getCovariance(), EPS);
+        Assert.assertEquals(statistics.getCorrelation(), expected.getCorrelation(), EPS);
+    }
+
+}
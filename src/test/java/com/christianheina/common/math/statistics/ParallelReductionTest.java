@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math3.complex.Complex;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.ComplexAdditions;
+import com.christianheina.common.math.ComplexArray;
+import com.christianheina.common.math.MathAdditions;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link ParallelReduction}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class ParallelReductionTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LENGTH = 100003;
+
+    private final ForkJoinPool singleThreadedPool = new ForkJoinPool(1);
+    private final ForkJoinPool pool = new ForkJoinPool(3);
+
+    @AfterClass
+    public void shutdown() {
+        singleThreadedPool.shutdown();
+        pool.shutdown();
+    }
+
+    @Test
+    public void deterministicTest() {
+        double[] values1 = TestData.createRandom(LENGTH, 1, 1e4, 1e3);
+        double[] values2 = TestData.createRandom(LENGTH, 2, 1e4, 1e3);
+        ComplexArray complexValues1 = new ComplexArray(values1, 0, LENGTH / 2);
+        ComplexArray complexValues2 = new ComplexArray(values2, 1, LENGTH / 2);
+        ParallelReduction sequential = new ParallelReduction(singleThreadedPool);
+        for (ParallelReduction reduction : new ParallelReduction[] { new ParallelReduction(pool),
+                new ParallelReduction() }) {
+            Assert.assertEquals(reduction.sum(values1), sequential.sum(values1));
+            Assert.assertEquals(reduction.mean(values1, 3, LENGTH - 7), sequential.mean(values1, 3, LENGTH - 7));
+            Assert.assertEquals(reduction.variance(values2), sequential.variance(values2));
+            Assert.assertEquals(reduction.dotProduct(values1, values2), sequential.dotProduct(values1, values2));
+            Assert.assertEquals(reduction.sum(complexValues1), sequential.sum(complexValues1));
+            Assert.assertEquals(reduction.variance(complexValues2), sequential.variance(complexValues2));
+            Assert.assertEquals(reduction.dotProduct(complexValues1, complexValues2),
+                    sequential.dotProduct(complexValues1, complexValues2));
+        }
+    }
+
+    @Test
+    public void resultTest() {
+        double[] values1 = TestData.createRandom(LENGTH, 3, 1e4, 1e3);
+        double[] values2 = TestData.createRandom(LENGTH, 4, 1e4, 1e3);
+        ComplexArray complexValues1 = new ComplexArray(TestData.createRandom(2 * LENGTH, 5, 1e4, 1e3));
+        ComplexArray complexValues2 = new ComplexArray(TestData.createRandom(2 * LENGTH, 6, 1e4, 1e3));
+        ParallelReduction reduction = new ParallelReduction(pool);
+
+        Assert.assertEquals(reduction.sum(values1), MathAdditions.sum(values1),
+                EPS * Math.abs(MathAdditions.sum(values1)));
+        Assert.assertEquals(reduction.mean(values1), MathAdditions.mean(values1), EPS);
+        Assert.assertEquals(reduction.variance(values1, 10, 20000), MathAdditions.variance(values1, 10, 20000),
+                EPS * MathAdditions.variance(values1, 10, 20000));
+        double dotProduct = MathAdditions.dotProduct(values1, 1, values2, 2, 50000);
+        Assert.assertEquals(reduction.dotProduct(values1, 1, values2, 2, 50000), dotProduct, EPS * dotProduct);
+        Complex sum = ComplexAdditions.sum(complexValues1);
+        Assert.assertTrue(Complex.equals(reduction.sum(complexValues1), sum, EPS * sum.abs()));
+        Assert.assertTrue(Complex.equals(reduction.mean(complexValues1), ComplexAdditions.mean(complexValues1), EPS));
+        double complexVariance = ComplexAdditions.variance(complexValues2);
+        Assert.assertEquals(reduction.variance(complexValues2), complexVariance, EPS * complexVariance);
+        Complex complexDotProduct = ComplexAdditions.dotProduct(complexValues1, complexValues2);
+        Assert.assertTrue(Complex.equals(reduction.dotProduct(complexValues1, complexValues2), complexDotProduct,
+                EPS * complexDotProduct.abs()));
+    }
+
+    @Test
+    public void compensatedTest() {
+        // Naive summation loses every small term next to the large ones
+        double[] values = new double[4 * LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            values[4 * i] = 1;
+            values[4 * i + 1] = 1e100;
+            values[4 * i + 2] = 1;
+            values[4 * i + 3] = -1e100;
+        }
+        Assert.assertEquals(new ParallelReduction(pool).sum(values), 2.0 * LENGTH);
+
+        double[] random = TestData.createRandom(LENGTH, 7, 1e4, 1e3);
+        BigDecimal exact = BigDecimal.ZERO;
+        for (double value : random) {
+            exact = exact.add(new BigDecimal(value));
+        }
+        Assert.assertEquals(new ParallelReduction(pool).sum(random), exact.doubleValue());
+    }
+
+    @Test
+    public void growingSquaresTest() {
+        // Each pair of squared deviations exceeds the running sum, so compensation needs the magnitude check. Pairs of
+        // opposite values have mean 0 and exactly representable squares
+        Random random = new Random(17);
+        double[] values = new double[120];
+        for (int i = 0; i < values.length; i += 2) {
+            values[i] = Math.scalb((double) (1 << 25) + random.nextInt(1 << 25), i / 2);
+            values[i + 1] = -values[i];
+        }
+        double variance = exactVariance(values);
+        Assert.assertEquals(new ParallelReduction(pool).variance(values), variance);
+        double[] interleaved = new double[2 * values.length];
+        for (int i = 0; i < values.length; i++) {
+            interleaved[2 * i] = values[i];
+        }
+        Assert.assertEquals(new ParallelReduction(pool).variance(new ComplexArray(interleaved)), variance);
+    }
+
+    @Test
+    public void emptyTest() {
+        ParallelReduction reduction = new ParallelReduction();
+        Assert.assertEquals(reduction.sum(new double[0]), 0.0);
+        Assert.assertTrue(Double.isNaN(reduction.mean(new double[0])));
+        Assert.assertEquals(reduction.sum(new ComplexArray(0)), Complex.ZERO);
+        Assert.assertTrue(Double.isNaN(reduction.variance(new double[0])));
+        Assert.assertTrue(Double.isNaN(reduction.variance(new double[] { 3 })));
+        Assert.assertTrue(Double.isNaN(reduction.variance(new ComplexArray(0))));
+        Assert.assertTrue(Double.isNaN(reduction.variance(new ComplexArray(1))));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rangeExceptionTest() {
+        new ParallelReduction().sum(new double[10], 5, 6);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthExceptionTest() {
+        new ParallelReduction().dotProduct(new ComplexArray(3), new ComplexArray(4));
+    }
+
+    private static double exactVariance(double[] values) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (double value : values) {
+            sum = sum.add(new BigDecimal(value));
+        }
+        BigDecimal mean = sum.divide(BigDecimal.valueOf(values.length), MathContext.DECIMAL128);
+        BigDecimal squareSum = BigDecimal.ZERO;
+        for (double value : values) {
+            BigDecimal deviation = new BigDecimal(value).subtract(mean);
+            squareSum = squareSum.add(deviation.multiply(deviation));
+        }
+        return squareSum.divide(BigDecimal.valueOf(values.length - 1), MathContext.DECIMAL128).doubleValue();
+    }
+
+}
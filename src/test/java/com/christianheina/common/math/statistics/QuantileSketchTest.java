@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link QuantileSketch}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class QuantileSketchTest {
+
+    private static final int LENGTH = 100000;
+    // Rank error allowed for DEFAULT_K
+    private static final double RANK_EPS = 0.02;
+    private static final double[] FRACTIONS = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99 };
+
+    @Test
+    public void quantileTest() {
+        double[] values = createLogNormal(LENGTH, 41);
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.accept(values, 0, LENGTH);
+        Assert.assertEquals(sketch.getCount(), LENGTH);
+        Assert.assertTrue(sketch.getRetained() < 3 * QuantileSketch.DEFAULT_K + 64);
+        assertQuantiles(sketch, values);
+    }
+
+    @Test
+    public void exactTest() {
+        // Fewer values than the level capacity are retained without compaction
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 100; i > 0; i--) {
+            sketch.accept(i);
+        }
+        Assert.assertEquals(sketch.getQuantile(0.5), 50.0);
+        Assert.assertEquals(sketch.getQuantile(0.99), 99.0);
+        Assert.assertEquals(sketch.getQuantiles(0, 1), new double[] { 1, 100 });
+        Assert.assertEquals(sketch.getRank(25), 0.25);
+        Assert.assertEquals(sketch.getRank(0), 0.0);
+        Assert.assertEquals(sketch.getRank(1000), 1.0);
+    }
+
+    @Test
+    public void combineTest() {
+        double[] values = createLogNormal(LENGTH, 43);
+        QuantileSketch first = new QuantileSketch();
+        first.accept(values, 0, 30000);
+        QuantileSketch second = new QuantileSketch();
+        second.accept(values, 30000, LENGTH - 30000);
+        Assert.assertSame(first.combine(second).combine(new QuantileSketch()), first);
+        Assert.assertEquals(first.getCount(), LENGTH);
+        assertQuantiles(first, values);
+        assertQuantiles(new QuantileSketch().combine(first), values);
+    }
+
+    @Test
+    public void combineSelfTest() {
+        double[] values = createLogNormal(LENGTH, 59);
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.accept(values, 0, LENGTH);
+        Assert.assertSame(sketch.combine(sketch), sketch);
+        Assert.assertEquals(sketch.getCount(), 2 * LENGTH);
+        // Every value twice has the same quantiles
+        assertQuantiles(sketch, values);
+    }
+
+    @Test
+    public void streamTest() {
+        double[] values = createLogNormal(LENGTH, 47);
+        assertQuantiles(QuantileSketch.of(DoubleStream.of(values).parallel()), values);
+        assertQuantiles(Arrays.stream(values).boxed().parallel().collect(QuantileSketch.collector()), values);
+    }
+
+    @Test
+    public void deterministicTest() {
+        double[] values = createLogNormal(LENGTH, 53);
+        QuantileSketch first = new QuantileSketch(50);
+        first.accept(values, 0, LENGTH);
+        QuantileSketch second = new QuantileSketch(50);
+        second.accept(values, 0, LENGTH);
+        Assert.assertEquals(first.getQuantiles(FRACTIONS), second.getQuantiles(FRACTIONS));
+    }
+
+    @Test
+    public void emptyTest() {
+        QuantileSketch sketch = new QuantileSketch();
+        Assert.assertEquals(sketch.getCount(), 0);
+        Assert.assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+        Assert.assertTrue(Double.isNaN(sketch.getRank(0)));
+        Assert.assertTrue(Double.isNaN(sketch.getMin()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void kExceptionTest() {
+        new QuantileSketch(4);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void fractionExceptionTest() {
+        new QuantileSketch().getQuantile(1.5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void nanExceptionTest() {
+        new QuantileSketch().accept(Double.NaN);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rangeExceptionTest() {
+        new QuantileSketch().accept(new double[4], 2, 3);
+    }
+
+    private static void assertQuantiles(QuantileSketch sketch, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Assert.assertEquals(sketch.getMin(), sorted[0]);
+        Assert.assertEquals(sketch.getMax(), sorted[sorted.length - 1]);
+        for (double fraction : FRACTIONS) {
+            // Compare exact rank of estimated quantile with requested fraction
+            double quantile = sketch.getQuantile(fraction);
+            int rank = Arrays.binarySearch(sorted, quantile);
+            Assert.assertTrue(rank >= 0);
+            Assert.assertEquals((double) (rank + 1) / sorted.length, fraction, RANK_EPS);
+            Assert.assertEquals(sketch.getRank(sorted[(int) (fraction * sorted.length)]), fraction, RANK_EPS);
+        }
+    }
+
+    private static double[] createLogNormal(int length, long seed) {
+        double[] values = TestData.createRandom(length, seed);
+        for (int i = 0; i < length; i++) {
+            values[i] = Math.exp(values[i]);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.MathAdditions;
+
+/**
+ * Unit test for {@link RollingPairStatistics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class RollingPairStatisticsTest {
+
+    private static final double EPS = 1e-9;
+    private static final int LENGTH = 1001;
+    private static final int WINDOW_LENGTH = 50;
+
+    private final double[] values1 = new double[LENGTH];
+    private final double[] values2 = new double[LENGTH];
+
+    {
+        Random random = new Random(23);
+        for (int i = 0; i < LENGTH; i++) {
+            values1[i] = 1e6 + random.nextGaussian();
+            values2[i] = -2 * values1[i] + random.nextGaussian();
+        }
+    }
+
+    @Test
+    public void addTest() {
+        RollingPairStatistics statistics = new RollingPairStatistics(WINDOW_LENGTH);
+        Assert.assertEquals(statistics.getWindowLength(), WINDOW_LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            statistics.add(values1[i], values2[i]);
+            int count = Math.min(i + 1, WINDOW_LENGTH);
+            Assert.assertEquals(statistics.getCount(), count);
+            if (count > 1) {
+                assertStatistics(statistics, i + 1 - count, count);
+            }
+        }
+    }
+
+    @Test
+    public void recomputeIntervalTest() {
+        RollingPairStatistics statistics = new RollingPairStatistics(WINDOW_LENGTH, 3);
+        statistics.add(values1, 0, values2, 0, 500);
+        assertStatistics(statistics, 500 - WINDOW_LENGTH, WINDOW_LENGTH);
+        statistics.recompute();
+        assertStatistics(statistics, 500 - WINDOW_LENGTH, WINDOW_LENGTH);
+        statistics.add(values1, 500, values2, 500, LENGTH - 500);
+        assertStatistics(statistics, LENGTH - WINDOW_LENGTH, WINDOW_LENGTH);
+    }
+
+    @Test
+    public void resetTest() {
+        RollingPairStatistics statistics = new RollingPairStatistics(WINDOW_LENGTH);
+        statistics.add(values1, 0, values2, 0, 100);
+        statistics.reset();
+        Assert.assertEquals(statistics.getCount(), 0);
+        Assert.assertTrue(Double.isNaN(statistics.toStatistics().getMean1()));
+        statistics.add(values1, 0, values2, 0, 10);
+        assertStatistics(statistics, 0, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void windowLengthExceptionTest() {
+        new RollingPairStatistics(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rangeExceptionTest() {
+        new RollingPairStatistics(10).add(new double[4], 0, new double[3], 0, 4);
+    }
+
+    private void assertStatistics(RollingPairStatistics rolling, int offset, int length) {
+        PairStatistics expected = MathAdditions.pairStatistics(values1, offset, values2, offset, length);
+        PairStatistics statistics = rolling.toStatistics();
+        Assert.assertEquals(statistics.getCount(), length);
+        Assert.assertEquals(statistics.getMean1(), expected.getMean1(), EPS * Math.abs(expected.getMean1()));
+        Assert.assertEquals(statistics.getMean2(), expected.getMean2(), EPS * Math.abs(expected.getMean2()));
+        // Removals between recomputations drift relative to the squared magnitude of the values
+        Assert.assertEquals(statistics.getVariance1(), expected.getVariance1(), EPS * expected.getVariance1());
+        Assert.assertEquals(statistics.getVariance2(), expected.getVariance2(), EPS * expected.getVariance2());
+        double covariance = expected.getCovariance();
+        Assert.assertEquals(statistics.getCovariance(), covariance, EPS * Math.abs(covariance));
+        Assert.assertEquals(rolling.getCovariance(), covariance, EPS * Math.abs(covariance));
+        Assert.assertEquals(rolling.getCorrelation(), expected.getCorrelation(), EPS);
+    }
+
+}
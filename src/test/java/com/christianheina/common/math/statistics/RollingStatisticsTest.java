@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.MathAdditions;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link RollingStatistics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class RollingStatisticsTest {
+
+    private static final double EPS = 1e-9;
+    private static final int WINDOW_LENGTH = 50;
+
+    @Test
+    public void addTest() {
+        double[] values = TestData.createRandom(1001, 17, 1e6, 1);
+        RollingStatistics statistics = new RollingStatistics(WINDOW_LENGTH);
+        Assert.assertEquals(statistics.getWindowLength(), WINDOW_LENGTH);
+        for (int i = 0; i < values.length; i++) {
+            statistics.add(values[i]);
+            int count = Math.min(i + 1, WINDOW_LENGTH);
+            Assert.assertEquals(statistics.getCount(), count);
+            if (count > 1) {
+                assertStatistics(statistics, values, i + 1 - count, count);
+            }
+        }
+    }
+
+    @Test
+    public void recomputeIntervalTest() {
+        double[] values = TestData.createRandom(1001, 17, 1e6, 1);
+        RollingStatistics statistics = new RollingStatistics(WINDOW_LENGTH, 7);
+        statistics.add(values, 0, 600);
+        assertStatistics(statistics, values, 600 - WINDOW_LENGTH, WINDOW_LENGTH);
+        statistics.add(values, 600, 401);
+        assertStatistics(statistics, values, values.length - WINDOW_LENGTH, WINDOW_LENGTH);
+    }
+
+    @Test
+    public void levelShiftTest() {
+        // Removing huge values leaves rounding errors far above the variance of the remaining small values
+        double[] values = new double[3 * WINDOW_LENGTH];
+        Random random = new Random(19);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() + (i < WINDOW_LENGTH ? 1e12 : 0);
+        }
+        RollingStatistics statistics = new RollingStatistics(WINDOW_LENGTH);
+        statistics.add(values, 0, values.length);
+        assertStatistics(statistics, values, values.length - WINDOW_LENGTH, WINDOW_LENGTH);
+    }
+
+    @Test
+    public void windowLengthOneTest() {
+        RollingStatistics statistics = new RollingStatistics(1);
+        statistics.add(3);
+        statistics.add(-5);
+        Assert.assertEquals(statistics.getCount(), 1);
+        Assert.assertEquals(statistics.getMean(), -5.0);
+        Assert.assertTrue(Double.isNaN(statistics.getVariance()));
+    }
+
+    @Test
+    public void resetTest() {
+        RollingStatistics statistics = new RollingStatistics(WINDOW_LENGTH);
+        statistics.add(TestData.createRandom(100, 17, 1e6, 1), 0, 100);
+        statistics.reset();
+        Assert.assertEquals(statistics.getCount(), 0);
+        Assert.assertTrue(Double.isNaN(statistics.getMean()));
+        Assert.assertTrue(Double.isNaN(statistics.getVariance()));
+        double[] values = TestData.createRandom(10, 17, 1e6, 1);
+        statistics.add(values, 0, values.length);
+        assertStatistics(statistics, values, 0, values.length);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void windowLengthExceptionTest() {
+        new RollingStatistics(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void recomputeIntervalExceptionTest() {
+        new RollingStatistics(10, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rangeExceptionTest() {
+        new RollingStatistics(10).add(new double[4], 2, 3);
+    }
+
+    private static void assertStatistics(RollingStatistics statistics, double[] values, int offset, int length) {
+        double mean = MathAdditions.mean(values, offset, length);
+        Assert.assertEquals(statistics.getMean(), mean, EPS * Math.abs(mean));
+        Assert.assertEquals(statistics.getVariance(), MathAdditions.variance(values, offset, length), EPS);
+        Assert.assertEquals(statistics.getStandardDeviation(),
+                Math.sqrt(MathAdditions.variance(values, offset, length)), EPS);
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.statistics;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.christianheina.common.math.MathAdditions;
+import com.christianheina.common.math.TestData;
+
+/**
+ * Unit test for {@link StatisticsAccumulator}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class StatisticsAccumulatorTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void acceptTest() {
+        double[] values = TestData.createRandom(1001, 17, 1e6, 1);
+        StatisticsAccumulator accumulator = new StatisticsAccumulator();
+        for (double value : values) {
+            accumulator.accept(value);
+        }
+        assertStatistics(accumulator, values);
+    }
+
+    @Test
+    public void combineTest() {
+        double[] values = TestData.createRandom(1001, 17, 1e6, 1);
+        StatisticsAccumulator first = new StatisticsAccumulator();
+        first.accept(values, 0, 400);
+        StatisticsAccumulator second = new StatisticsAccumulator();
+        second.accept(values, 400, 1);
+        second.accept(values, 401, 600);
+        Assert.assertSame(first.combine(second).combine(new StatisticsAccumulator()), first);
+        assertStatistics(first, values);
+        Assert.assertEquals(second.getCount(), 601);
+
+        StatisticsAccumulator empty = new StatisticsAccumulator();
+        empty.combine(first);
+        assertStatistics(empty, values);
+    }
+
+    @Test
+    public void streamTest() {
+        double[] values = TestData.createRandom(5000, 17, 1e6, 1);
+        assertStatistics(StatisticsAccumulator.of(DoubleStream.of(values).parallel()), values);
+        assertStatistics(Arrays.stream(values).boxed().parallel().collect(StatisticsAccumulator.collector()), values);
+    }
+
+    @Test
+    public void emptyTest() {
+        StatisticsAccumulator accumulator = new StatisticsAccumulator();
+        Assert.assertEquals(accumulator.getCount(), 0);
+        Assert.assertTrue(Double.isNaN(accumulator.getMean()));
+        accumulator.accept(3);
+        Assert.assertEquals(accumulator.getMean(), 3.0);
+        Assert.assertTrue(Double.isNaN(accumulator.getVariance()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rangeExceptionTest() {
+        new StatisticsAccumulator().accept(new double[4], 2, 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void singleValueRangeExceptionTest() {
+        new StatisticsAccumulator().accept(new double[4], 4, 1);
+    }
+
+    private static void assertStatistics(StatisticsAccumulator accumulator, double[] values) {
+        Assert.assertEquals(accumulator.getCount(), values.length);
+        Assert.assertEquals(accumulator.getSum(), MathAdditions.sum(values), EPS * values.length);
+        Assert.assertEquals(accumulator.getMean(), MathAdditions.mean(values), EPS);
+        Assert.assertEquals(accumulator.getVariance(), MathAdditions.variance(values), EPS);
+        Assert.assertEquals(accumulator.getStandardDeviation(), MathAdditions.standardDeviation(values), EPS);
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.common.math.window;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link Window}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class WindowTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void hannTest() {
+        assertCoefficients(Window.hann(5), new double[] { 0, 0.5, 1, 0.5, 0 });
+    }
+
+    @Test
+    public void hammingTest() {
+        assertCoefficients(Window.hamming(5), new double[] { 0.08, 0.54, 1, 0.54, 0.08 });
+    }
+
+    @Test
+    public void blackmanTest() {
+        assertCoefficients(Window.blackman(5), new double[] { 0, 0.34, 1, 0.34, 0 });
+    }
+
+    @Test
+    public void kaiserTest() {
+        // I0(5 * sqrt(1 - x^2)) / I0(5) for x = -1, -0.5, 0, 0.5, 1
+        assertCoefficients(Window.kaiser(5, 5),
+                new double[] { 0.036710892271287, 0.552851769699132, 1, 0.552851769699132, 0.036710892271287 });
+        assertCoefficients(Window.kaiser(4, 0), new double[] { 1, 1, 1, 1 });
+    }
+
+    @Test
+    public void rectangularTest() {
+        Window window = Window.rectangular(3);
+        assertCoefficients(window, new double[] { 1, 1, 1 });
+        Assert.assertEquals(window.getSum(), 3, EPS);
+        Assert.assertEquals(window.getPowerSum(), 3, EPS);
+        assertCoefficients(Window.hann(1), new double[] { 1 });
+    }
+
+    @Test
+    public void cacheTest() {
+        Assert.assertSame(Window.hann(64), Window.hann(64));
+        Assert.assertSame(Window.kaiser(64, 8.6), Window.kaiser(64, 8.6));
+        Assert.assertNotSame(Window.hann(64), Window.hamming(64));
+        Assert.assertNotSame(Window.kaiser(64, 8.6), Window.kaiser(64, 8.5));
+
+        Window window = Window.blackman(8);
+        window.toArray()[0] = 5;
+        Assert.assertEquals(window.get(0), 0, EPS);
+    }
+
+    @Test
+    public void cacheEvictionTest() {
+        Window recentlyUsed = Window.hann(32);
+        Window leastRecentlyUsed = Window.kaiser(32, 0.5);
+        for (int i = 0; i < 2 * Window.MAXIMUM_CACHE_SIZE; i++) {
+            Window.kaiser(32, 1.0 + i / 16.0);
+            Assert.assertSame(Window.hann(32), recentlyUsed);
+            Assert.assertTrue(Window.cacheSize() <= Window.MAXIMUM_CACHE_SIZE);
+        }
+        Assert.assertNotSame(Window.kaiser(32, 0.5), leastRecentlyUsed);
+    }
+
+    @Test
+    public void applyTest() {
+        double[] output = new double[] { 9, 9, 9, 9 };
+        Window.hann(3).apply(new double[] { 2, 4, 6 }, 0, output, 1);
+        Assert.assertEquals(output, new double[] { 9, 0, 4, 0 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void applyExceptionTest() {
+        Window.hann(3).apply(new double[3], 1, new double[3], 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthExceptionTest() {
+        Window.hamming(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void betaExceptionTest() {
+        Window.kaiser(8, -1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void infiniteBetaExceptionTest() {
+        Window.kaiser(8, Double.POSITIVE_INFINITY);
+    }
+
+    private static void assertCoefficients(Window window, double[] expected) {
+        Assert.assertEquals(window.length(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(window.get(i), expected[i], EPS);
+        }
+    }
+
+}